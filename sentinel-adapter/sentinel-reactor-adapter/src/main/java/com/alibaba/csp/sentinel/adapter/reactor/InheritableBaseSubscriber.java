@@ -16,6 +16,7 @@
 package com.alibaba.csp.sentinel.adapter.reactor;
 
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import org.reactivestreams.Subscription;
@@ -32,6 +33,10 @@ import reactor.core.publisher.SignalType;
  * {@code onError} and {@code onComplete} method for customization.
  * </p>
  * <p>This base subscriber also provides predicate for {@code onErrorDropped} hook as a workaround for Sentinel.</p>
+ * <p>Unlike {@code BaseSubscriber}, the subscriber could be handed to the downstream before the upstream
+ * subscription arrives (e.g. when the subscription to the source is delayed): the demand requested in advance
+ * is kept and requested from the upstream once it's subscribed, and cancelling in advance also triggers
+ * the cancel hook.</p>
  */
 abstract class InheritableBaseSubscriber<T> implements CoreSubscriber<T>, Subscription, Disposable {
 
@@ -41,6 +46,11 @@ abstract class InheritableBaseSubscriber<T> implements CoreSubscriber<T>, Subscr
         AtomicReferenceFieldUpdater.newUpdater(InheritableBaseSubscriber.class, Subscription.class,
             "subscription");
 
+    volatile long requested;
+
+    static final AtomicLongFieldUpdater<InheritableBaseSubscriber> REQUESTED =
+        AtomicLongFieldUpdater.newUpdater(InheritableBaseSubscriber.class, "requested");
+
     /**
      * Return current {@link Subscription}
      *
@@ -136,7 +146,9 @@ abstract class InheritableBaseSubscriber<T> implements CoreSubscriber<T>, Subscr
                 hookOnSubscribe(s);
             } catch (Throwable throwable) {
                 onError(Operators.onOperatorError(s, throwable, currentContext()));
+                return;
             }
+            requestDeferred(s);
         }
     }
 
@@ -204,10 +216,24 @@ abstract class InheritableBaseSubscriber<T> implements CoreSubscriber<T>, Subscr
             Subscription s = this.subscription;
             if (s != null) {
                 s.request(n);
+                return;
+            }
+            // Not subscribed to the upstream yet, keep the demand until it's subscribed.
+            Operators.addCap(REQUESTED, this, n);
+            s = this.subscription;
+            if (s != null) {
+                requestDeferred(s);
             }
         }
     }
 
+    private void requestDeferred(Subscription s) {
+        long r = REQUESTED.getAndSet(this, 0L);
+        if (r > 0L) {
+            s.request(r);
+        }
+    }
+
     /**
      * {@link #request(long) Request} an unbounded amount.
      */
@@ -217,7 +243,12 @@ abstract class InheritableBaseSubscriber<T> implements CoreSubscriber<T>, Subscr
 
     @Override
     public final void cancel() {
-        if (Operators.terminate(S, this)) {
+        Subscription s = S.getAndSet(this, Operators.cancelledSubscription());
+        if (s != Operators.cancelledSubscription()) {
+            // May be cancelled before the upstream is subscribed.
+            if (s != null) {
+                s.cancel();
+            }
             try {
                 hookOnCancel();
             } catch (Throwable throwable) {
@@ -15,6 +15,7 @@
  */
 package com.alibaba.csp.sentinel.adapter.reactor;
 
+import java.time.Duration;
 import java.util.concurrent.atomic.AtomicReference;
 
 import com.alibaba.csp.sentinel.AsyncEntry;
@@ -27,7 +28,10 @@ import com.alibaba.csp.sentinel.slots.block.BlockException;
 import reactor.core.publisher.Mono;
 
 /**
- * A {@link SphU} adapter with Project Reactor.
+ * <p>A {@link SphU} adapter with Project Reactor.</p>
+ *
+ * <p>The waiting of throttled requests (e.g. rate limiter mode of flow rules) is done by delaying
+ * the subscription with a timer, rather than blocking current thread.</p>
  *
  * @author Eric Zhao
  * @since 1.5.0
@@ -42,9 +46,9 @@ public final class ReactorSphU {
         final AtomicReference<AsyncEntry> entryWrapper = new AtomicReference<>(null);
         return Mono.defer(() -> {
             try {
-                AsyncEntry entry = SphU.asyncEntry(resourceName, entryType);
+                AsyncEntry entry = SphU.asyncEntryDelayed(resourceName, entryType);
                 entryWrapper.set(entry);
-                return actual.subscriberContext(context -> {
+                Mono<R> wrapped = actual.subscriberContext(context -> {
                     if (entry == null) {
                         return context;
                     }
@@ -62,6 +66,17 @@ public final class ReactorSphU {
                         entry.exit();
                     }
                 });
+                long delayMs = entry.getDelayMs();
+                if (delayMs <= 0) {
+                    return wrapped;
+                }
+                return Mono.delay(Duration.ofMillis(delayMs))
+                    .then(wrapped)
+                    .doOnCancel(() -> {
+                        if (entryWrapper.compareAndSet(entry, null)) {
+                            entry.exit();
+                        }
+                    });
             } catch (BlockException ex) {
                 return Mono.error(ex);
             }
@@ -15,6 +15,7 @@
  */
 package com.alibaba.csp.sentinel.adapter.reactor;
 
+import java.time.Duration;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -26,8 +27,12 @@ import com.alibaba.csp.sentinel.slots.block.BlockException;
 import com.alibaba.csp.sentinel.util.AssertUtil;
 import com.alibaba.csp.sentinel.util.function.Supplier;
 
+import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscription;
 import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
 import reactor.util.context.Context;
 
 /**
@@ -43,6 +48,12 @@ public class SentinelReactorSubscriber<T> extends InheritableBaseSubscriber<T> {
 
     private volatile AsyncEntry currentEntry;
     private final AtomicBoolean entryExited = new AtomicBoolean(false);
+    private volatile BlockException blockException;
+    /**
+     * Timer of the delayed subscription to the source (in throttle mode).
+     */
+    private volatile Disposable delayTimer;
+    private volatile boolean subscribedInAdvance;
 
     public SentinelReactorSubscriber(EntryConfig entryConfig,
                                      CoreSubscriber<? super T> actual,
@@ -82,6 +93,69 @@ public class SentinelReactorSubscriber<T> extends InheritableBaseSubscriber<T> {
         }
     }
 
+    /**
+     * <p>Enter the resource and then subscribe to the source publisher.</p>
+     * <p>
+     * If the entry is throttled (e.g. rate limiter mode of flow rules or parameter flow rules), the subscription
+     * to the source is delayed with a timer ({@link Mono#delay(Duration)}) rather than blocking current thread,
+     * which is usually an event loop thread. In this case the downstream is subscribed in advance,
+     * so that it could request or cancel during the delay. The requests are kept until the source is subscribed,
+     * and cancelling stops the timer and exits the entry.
+     * </p>
+     *
+     * @param source the source publisher
+     * @since 1.8.1
+     */
+    void subscribeTo(Publisher<? extends T> source) {
+        doWithContextOrCurrent(() -> actual.currentContext().getOrEmpty(SentinelReactorConstants.SENTINEL_CONTEXT_KEY),
+            this::entryBeforeSubscribe);
+        AsyncEntry entry = this.currentEntry;
+        long delayMs = entry == null ? 0 : entry.getDelayMs();
+        if (delayMs <= 0) {
+            source.subscribe(this);
+            return;
+        }
+        this.subscribedInAdvance = true;
+        actual.onSubscribe(this);
+        Disposable timer = Mono.delay(Duration.ofMillis(delayMs))
+            .subscribe(tick -> {
+                if (!isDisposed()) {
+                    source.subscribe(this);
+                }
+            }, t -> {
+                if (S.getAndSet(this, Operators.cancelledSubscription()) != Operators.cancelledSubscription()) {
+                    tryCompleteEntry();
+                    actual.onError(t);
+                }
+            });
+        this.delayTimer = timer;
+        if (isDisposed()) {
+            // Cancelled before the timer is kept.
+            timer.dispose();
+        }
+    }
+
+    private void entryBeforeSubscribe() {
+        ContextConfig sentinelContextConfig = entryConfig.getContextConfig();
+        if (sentinelContextConfig != null) {
+            // If current we're already in a context, the context config won't work.
+            ContextUtil.enter(sentinelContextConfig.getContextName(), sentinelContextConfig.getOrigin());
+        }
+        try {
+            this.currentEntry = SphU.asyncEntryDelayed(entryConfig.getResourceName(), entryConfig.getResourceType(),
+                entryConfig.getEntryType(), entryConfig.getAcquireCount(), entryConfig.getArgs());
+        } catch (BlockException ex) {
+            // Mark as completed (exited) explicitly. The {@code BlockException} will be propagated
+            // once the source is subscribed.
+            entryExited.set(true);
+            this.blockException = ex;
+        } finally {
+            if (sentinelContextConfig != null) {
+                ContextUtil.exit();
+            }
+        }
+    }
+
     private void entryWhenSubscribed() {
         ContextConfig sentinelContextConfig = entryConfig.getContextConfig();
         if (sentinelContextConfig != null) {
@@ -109,6 +183,21 @@ public class SentinelReactorSubscriber<T> extends InheritableBaseSubscriber<T> {
 
     @Override
     protected void hookOnSubscribe(Subscription subscription) {
+        BlockException ex = this.blockException;
+        if (ex != null) {
+            // Blocked before subscribing to the source, signal cancel and propagate the {@code BlockException}.
+            cancel();
+            actual.onSubscribe(this);
+            actual.onError(ex);
+            return;
+        }
+        if (currentEntry != null) {
+            // Already entered before subscribing to the source (see {@link #subscribeTo(Publisher)}).
+            if (!subscribedInAdvance) {
+                actual.onSubscribe(this);
+            }
+            return;
+        }
         doWithContextOrCurrent(() -> currentContext().getOrEmpty(SentinelReactorConstants.SENTINEL_CONTEXT_KEY),
             this::entryWhenSubscribed);
     }
@@ -155,6 +244,10 @@ public class SentinelReactorSubscriber<T> extends InheritableBaseSubscriber<T> {
 
     @Override
     protected void hookOnCancel() {
+        Disposable timer = this.delayTimer;
+        if (timer != null) {
+            timer.dispose();
+        }
         tryCompleteEntry();
     }
 
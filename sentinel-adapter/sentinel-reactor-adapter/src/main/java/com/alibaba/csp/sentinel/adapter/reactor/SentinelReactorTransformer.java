@@ -24,7 +24,11 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
- * A transformer that transforms given {@code Publisher} to a wrapped Sentinel reactor operator.
+ * <p>A transformer that transforms given {@code Publisher} to a wrapped Sentinel reactor operator.</p>
+ * <p>
+ * Requests that should wait in queue (e.g. throttled by flow rules or parameter flow rules in rate limiter mode)
+ * will not block the subscribing thread. Instead, the subscription to the upstream is delayed with a timer.
+ * </p>
  *
  * @author Eric Zhao
  * @since 1.5.0
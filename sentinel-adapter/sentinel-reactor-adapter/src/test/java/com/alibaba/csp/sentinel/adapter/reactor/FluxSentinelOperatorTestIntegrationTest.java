@@ -1,10 +1,12 @@
 package com.alibaba.csp.sentinel.adapter.reactor;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 
 import com.alibaba.csp.sentinel.node.ClusterNode;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
 import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
 import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
@@ -69,6 +71,36 @@ public class FluxSentinelOperatorTestIntegrationTest {
         FlowRuleManager.loadRules(new ArrayList<>());
     }
 
+    @Test
+    public void testThrottledEntryKeepsRequestsBeforeSubscribingSource() {
+        String resourceName = createResourceName("testThrottledEntryKeepsRequestsBeforeSubscribingSource");
+        FlowRuleManager.loadRules(Collections.singletonList(
+            new FlowRule(resourceName).setCount(5)
+                .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER)
+                .setMaxQueueingTimeMs(1000)
+        ));
+        StepVerifier.create(Flux.range(1, 3).transform(new SentinelReactorTransformer<>(resourceName)))
+            .expectNext(1, 2, 3)
+            .verifyComplete();
+
+        // The second request is delayed, and the downstream requests before the source is subscribed.
+        StepVerifier.create(Flux.range(1, 3).transform(new SentinelReactorTransformer<>(resourceName)), 0)
+            .expectSubscription()
+            .thenRequest(2)
+            .expectNext(1, 2)
+            .thenRequest(1)
+            .expectNext(3)
+            .expectComplete()
+            .verify(Duration.ofSeconds(2));
+
+        ClusterNode cn = ClusterBuilderSlot.getClusterNode(resourceName);
+        assertNotNull(cn);
+        assertEquals(2, cn.passQps(), 0.01);
+        assertEquals(0, cn.curThreadNum());
+
+        FlowRuleManager.loadRules(new ArrayList<>());
+    }
+
     private String createResourceName(String resourceName) {
         return "reactor_test_flux_" + resourceName;
     }
@@ -3,12 +3,15 @@ package com.alibaba.csp.sentinel.adapter.reactor;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.alibaba.csp.sentinel.Constants;
 import com.alibaba.csp.sentinel.EntryType;
 import com.alibaba.csp.sentinel.node.ClusterNode;
 import com.alibaba.csp.sentinel.node.EntranceNode;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
 import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
 import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
@@ -184,6 +187,69 @@ public class MonoSentinelOperatorIntegrationTest {
         FlowRuleManager.loadRules(new ArrayList<>());
     }
 
+    @Test
+    public void testThrottledEntryDelayedWithoutBlocking() {
+        String resourceName = createResourceName("testThrottledEntryDelayedWithoutBlocking");
+        FlowRuleManager.loadRules(Collections.singletonList(
+            new FlowRule(resourceName).setCount(10)
+                .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER)
+                .setMaxQueueingTimeMs(1000)
+        ));
+        List<Mono<Long>> monoList = new ArrayList<>();
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 3; i++) {
+            Mono<Long> mono = Mono.fromCallable(System::currentTimeMillis)
+                .transform(new SentinelReactorTransformer<>(resourceName))
+                .cache();
+            // Subscribing should not block current thread.
+            mono.subscribe();
+            monoList.add(mono);
+        }
+        assertTrue(System.currentTimeMillis() - start < 100);
+
+        long lastEmitted = Flux.merge(monoList).reduce(Math::max).block(Duration.ofSeconds(3));
+        // The third request should wait for about 200 ms (2 * 1000 / 10).
+        assertTrue(lastEmitted - start >= 150);
+
+        ClusterNode cn = ClusterBuilderSlot.getClusterNode(resourceName);
+        assertNotNull(cn);
+        assertEquals(3, cn.passQps(), 0.01);
+        assertEquals(0, cn.blockRequest());
+        FlowRuleManager.loadRules(new ArrayList<>());
+    }
+
+    @Test
+    public void testThrottledEntryCancelledBeforeSubscribingSource() throws Exception {
+        String resourceName = createResourceName("testThrottledEntryCancelledBeforeSubscribingSource");
+        FlowRuleManager.loadRules(Collections.singletonList(
+            new FlowRule(resourceName).setCount(5)
+                .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER)
+                .setMaxQueueingTimeMs(1000)
+        ));
+        StepVerifier.create(Mono.just(1).transform(new SentinelReactorTransformer<>(resourceName)))
+            .expectNext(1)
+            .verifyComplete();
+
+        // The source is subscribed after about 200 ms, but the downstream is subscribed at once.
+        AtomicBoolean sourceSubscribed = new AtomicBoolean(false);
+        Mono<Integer> source = Mono.fromCallable(() -> {
+            sourceSubscribed.set(true);
+            return 2;
+        });
+        StepVerifier.create(source.transform(new SentinelReactorTransformer<>(resourceName)))
+            .expectSubscription()
+            .thenCancel()
+            .verify(Duration.ofMillis(100));
+
+        ClusterNode cn = ClusterBuilderSlot.getClusterNode(resourceName);
+        assertNotNull(cn);
+        assertEquals(0, cn.curThreadNum());
+        // The timer has been disposed, so the source is never subscribed.
+        Thread.sleep(400);
+        assertFalse(sourceSubscribed.get());
+        FlowRuleManager.loadRules(new ArrayList<>());
+    }
+
     private String createResourceName(String resourceName) {
         return "reactor_test_mono_" + resourceName;
     }
@@ -2,9 +2,13 @@ package com.alibaba.csp.sentinel.adapter.reactor;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.alibaba.csp.sentinel.node.ClusterNode;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
 import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
 import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
@@ -68,6 +72,38 @@ public class ReactorSphUTest {
         assertEquals(1, cn.totalException());
     }
 
+    @Test
+    public void testReactorEntryDelayedWhenRateLimited() throws Exception {
+        String resourceName = createResourceName("testReactorEntryDelayedWhenRateLimited");
+        FlowRule rule = new FlowRule(resourceName).setCount(5)
+            .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER);
+        rule.setMaxQueueingTimeMs(1000);
+        FlowRuleManager.loadRules(Collections.singletonList(rule));
+
+        StepVerifier.create(ReactorSphU.entryWith(resourceName, Mono.just(1)))
+            .expectNext(1)
+            .verifyComplete();
+
+        // The second request should be delayed by a timer (about 200 ms) rather than blocking.
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicLong emitTime = new AtomicLong();
+        long start = System.currentTimeMillis();
+        ReactorSphU.entryWith(resourceName, Mono.just(2))
+            .subscribe(v -> {
+                emitTime.set(System.currentTimeMillis());
+                latch.countDown();
+            });
+        assertTrue(System.currentTimeMillis() - start < 100);
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertTrue(emitTime.get() - start >= 100);
+
+        ClusterNode cn = ClusterBuilderSlot.getClusterNode(resourceName);
+        assertNotNull(cn);
+        assertEquals(0, cn.curThreadNum());
+
+        FlowRuleManager.loadRules(new ArrayList<>());
+    }
+
     private String createResourceName(String resourceName) {
         return "reactor_test_SphU_" + resourceName;
     }
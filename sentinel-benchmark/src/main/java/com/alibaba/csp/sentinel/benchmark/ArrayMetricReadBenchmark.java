@@ -0,0 +1,87 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.slots.statistic.metric.ArrayMetric;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Benchmark for reading the sums of an {@link ArrayMetric} (e.g. pass QPS for every flow rule check),
+ * scanning the buckets (default) or with rolling sums.</p>
+ *
+ * <p>Run with {@code -prof gc} to see the allocation of each read.</p>
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class ArrayMetricReadBenchmark {
+
+    @Param({"false", "true"})
+    private boolean rollingSum;
+
+    /**
+     * 2 buckets for the second-level metric and 60 buckets for the minute-level metric of a node.
+     */
+    @Param({"2", "60"})
+    private int sampleCount;
+
+    private ArrayMetric metric;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SentinelConfig.setConfig(SentinelConfig.STATISTIC_ROLLING_SUM, String.valueOf(rollingSum));
+        metric = new ArrayMetric(sampleCount, sampleCount * 500, false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SentinelConfig.removeConfig(SentinelConfig.STATISTIC_ROLLING_SUM);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long passSingleThread() {
+        metric.addPass(1);
+        return metric.pass();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long pass4Threads() {
+        metric.addPass(1);
+        return metric.pass();
+    }
+}
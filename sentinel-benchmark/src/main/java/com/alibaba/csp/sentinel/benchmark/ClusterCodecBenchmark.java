@@ -0,0 +1,171 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.client.codec.DefaultRequestEntityWriter;
+import com.alibaba.csp.sentinel.cluster.client.codec.DefaultResponseEntityDecoder;
+import com.alibaba.csp.sentinel.cluster.client.codec.data.FlowRequestDataWriter;
+import com.alibaba.csp.sentinel.cluster.client.codec.data.FlowResponseDataDecoder;
+import com.alibaba.csp.sentinel.cluster.client.codec.data.ParamFlowRequestDataWriter;
+import com.alibaba.csp.sentinel.cluster.client.codec.registry.RequestDataWriterRegistry;
+import com.alibaba.csp.sentinel.cluster.client.codec.registry.ResponseDataDecodeRegistry;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+import com.alibaba.csp.sentinel.cluster.request.data.ParamFlowRequestData;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowTokenResponseData;
+import com.alibaba.csp.sentinel.cluster.server.codec.DefaultRequestEntityDecoder;
+import com.alibaba.csp.sentinel.cluster.server.codec.DefaultResponseEntityWriter;
+import com.alibaba.csp.sentinel.cluster.server.codec.data.FlowRequestDataDecoder;
+import com.alibaba.csp.sentinel.cluster.server.codec.data.FlowResponseDataWriter;
+import com.alibaba.csp.sentinel.cluster.server.codec.data.ParamFlowRequestDataDecoder;
+import com.alibaba.csp.sentinel.cluster.server.codec.registry.RequestDataDecodeRegistry;
+import com.alibaba.csp.sentinel.cluster.server.codec.registry.ResponseDataWriterRegistry;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Benchmark for the codec of the default cluster flow control transport: the client encodes token requests
+ * and decodes token responses, while the server decodes token requests and encodes token responses.</p>
+ *
+ * <p>Each operation encodes (or decodes) one message with a reused heap buffer, so that the benchmark
+ * reports the cost of the codec itself rather than the buffer allocation of Netty. Parameter flow requests
+ * carry {@link #paramCount} mixed-type parameters.</p>
+ *
+ * @since 1.8.1
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class ClusterCodecBenchmark {
+
+    @Param({"1", "8"})
+    private int paramCount;
+
+    private final DefaultRequestEntityWriter requestWriter = new DefaultRequestEntityWriter();
+    private final DefaultRequestEntityDecoder requestDecoder = new DefaultRequestEntityDecoder();
+    private final DefaultResponseEntityWriter responseWriter = new DefaultResponseEntityWriter();
+    private final DefaultResponseEntityDecoder responseDecoder = new DefaultResponseEntityDecoder();
+
+    private ClusterRequest<FlowRequestData> flowRequest;
+    private ClusterRequest<ParamFlowRequestData> paramFlowRequest;
+    private ClusterResponse<FlowTokenResponseData> flowResponse;
+
+    private ByteBuf buffer;
+    private ByteBuf encodedFlowRequest;
+    private ByteBuf encodedParamFlowRequest;
+    private ByteBuf encodedFlowResponse;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Register the codecs directly rather than with the cluster init functions,
+        // which would also start the cluster client or server.
+        RequestDataWriterRegistry.addWriter(ClusterConstants.MSG_TYPE_FLOW, new FlowRequestDataWriter());
+        RequestDataWriterRegistry.addWriter(ClusterConstants.MSG_TYPE_PARAM_FLOW, new ParamFlowRequestDataWriter());
+        ResponseDataDecodeRegistry.addDecoder(ClusterConstants.MSG_TYPE_FLOW, new FlowResponseDataDecoder());
+        RequestDataDecodeRegistry.addDecoder(ClusterConstants.MSG_TYPE_FLOW, new FlowRequestDataDecoder());
+        RequestDataDecodeRegistry.addDecoder(ClusterConstants.MSG_TYPE_PARAM_FLOW, new ParamFlowRequestDataDecoder());
+        ResponseDataWriterRegistry.addWriter(ClusterConstants.MSG_TYPE_FLOW, new FlowResponseDataWriter());
+
+        flowRequest = new ClusterRequest<>(1, ClusterConstants.MSG_TYPE_FLOW,
+            new FlowRequestData().setFlowId(111L).setCount(1).setPriority(false));
+        List<Object> params = new ArrayList<>(paramCount);
+        for (int i = 0; i < paramCount; i++) {
+            params.add(i % 2 == 0 ? (Object)("param-value-" + i) : (Object)(long)i);
+        }
+        paramFlowRequest = new ClusterRequest<>(2, ClusterConstants.MSG_TYPE_PARAM_FLOW,
+            new ParamFlowRequestData().setFlowId(222L).setCount(1).setParams(params));
+        flowResponse = new ClusterResponse<>(1, ClusterConstants.MSG_TYPE_FLOW,
+            ClusterConstants.RESPONSE_STATUS_OK, new FlowTokenResponseData().setRemainingCount(10).setWaitInMs(0));
+
+        buffer = Unpooled.buffer(1024);
+        encodedFlowRequest = Unpooled.buffer(1024);
+        requestWriter.writeTo(flowRequest, encodedFlowRequest);
+        encodedParamFlowRequest = Unpooled.buffer(1024);
+        requestWriter.writeTo(paramFlowRequest, encodedParamFlowRequest);
+        encodedFlowResponse = Unpooled.buffer(1024);
+        responseWriter.writeTo(flowResponse, encodedFlowResponse);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        buffer.release();
+        encodedFlowRequest.release();
+        encodedParamFlowRequest.release();
+        encodedFlowResponse.release();
+    }
+
+    @Benchmark
+    public int encodeFlowRequest() {
+        buffer.clear();
+        requestWriter.writeTo(flowRequest, buffer);
+        return buffer.writerIndex();
+    }
+
+    @Benchmark
+    public Object decodeFlowRequest() {
+        encodedFlowRequest.readerIndex(0);
+        return requestDecoder.decode(encodedFlowRequest);
+    }
+
+    @Benchmark
+    public int encodeParamFlowRequest() {
+        buffer.clear();
+        requestWriter.writeTo(paramFlowRequest, buffer);
+        return buffer.writerIndex();
+    }
+
+    @Benchmark
+    public Object decodeParamFlowRequest() {
+        encodedParamFlowRequest.readerIndex(0);
+        return requestDecoder.decode(encodedParamFlowRequest);
+    }
+
+    @Benchmark
+    public int encodeFlowResponse() {
+        buffer.clear();
+        responseWriter.writeTo(flowResponse, buffer);
+        return buffer.writerIndex();
+    }
+
+    @Benchmark
+    public Object decodeFlowResponse() {
+        encodedFlowResponse.readerIndex(0);
+        return responseDecoder.decode(encodedFlowResponse);
+    }
+}
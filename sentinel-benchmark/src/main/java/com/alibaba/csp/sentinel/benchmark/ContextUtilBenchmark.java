@@ -0,0 +1,71 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.context.ContextUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Benchmark for {@link ContextUtil#enter(String, String)} and {@link ContextUtil#exit()}, which wrap
+ * every invocation of an inbound resource (e.g. Web and RPC adapters).</p>
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class ContextUtilBenchmark {
+
+    private static final String CONTEXT_NAME = "contextUtilBenchmark";
+
+    @Benchmark
+    @Threads(1)
+    public Context enterAndExitSingleThread() {
+        Context context = ContextUtil.enter(CONTEXT_NAME);
+        ContextUtil.exit();
+        return context;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Context enterWithOriginAndExitSingleThread() {
+        Context context = ContextUtil.enter(CONTEXT_NAME, "originA");
+        ContextUtil.exit();
+        return context;
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Context enterAndExit8Threads() {
+        Context context = ContextUtil.enter(CONTEXT_NAME);
+        ContextUtil.exit();
+        return context;
+    }
+}
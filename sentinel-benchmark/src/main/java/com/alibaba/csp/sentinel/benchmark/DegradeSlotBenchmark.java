@@ -0,0 +1,152 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRuleManager;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeSlot;
+import com.alibaba.csp.sentinel.util.function.BiConsumer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Benchmark for {@link DegradeSlot} with N closed circuit breakers of a resource. Each operation is
+ * an entry (checking all circuit breakers) and an exit (recording the completed request to all circuit
+ * breakers) of the slot, without the rest of the slot chain.</p>
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class DegradeSlotBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int breakerCount;
+
+    @Param({"slowRatio", "exceptionRatio", "rtPercentile"})
+    private String strategy;
+
+    private final DegradeSlot slot = new DegradeSlot();
+    private final ResourceWrapper resource = new StringResourceWrapper("degradeSlotBenchmark", EntryType.IN);
+
+    private Context context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<DegradeRule> rules = new ArrayList<>();
+        for (int i = 0; i < breakerCount; i++) {
+            // Circuit breakers never trip, as the min request amount is never reached.
+            rules.add(new DegradeRule(resource.getName())
+                .setGrade(gradeOf(strategy))
+                .setCount(strategy.equals("exceptionRatio") ? 0.5 : 100)
+                .setSlowRatioThreshold(0.5)
+                .setTimeWindow(10)
+                .setStatIntervalMs(1000)
+                .setMinRequestAmount(Integer.MAX_VALUE - i));
+        }
+        DegradeRuleManager.loadRules(rules);
+
+        Entry entry = new BenchmarkEntry(resource);
+        // RT of 5 ms.
+        entry.setCompleteTimestamp(entry.getCreateTimestamp() + 5);
+        context = new Context(null, "degradeSlotBenchmark");
+        context.setCurEntry(entry);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DegradeRuleManager.loadRules(new ArrayList<DegradeRule>());
+    }
+
+    private static int gradeOf(String strategy) {
+        if ("exceptionRatio".equals(strategy)) {
+            return RuleConstant.DEGRADE_GRADE_EXCEPTION_RATIO;
+        }
+        if ("rtPercentile".equals(strategy)) {
+            return RuleConstant.DEGRADE_GRADE_RT_PERCENTILE;
+        }
+        return RuleConstant.DEGRADE_GRADE_RT;
+    }
+
+    private void doEntryAndExit() throws Throwable {
+        slot.entry(context, resource, null, 1, false);
+        slot.exit(context, resource, 1);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void entryAndExitSingleThread() throws Throwable {
+        doEntryAndExit();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void entryAndExit8Threads() throws Throwable {
+        doEntryAndExit();
+    }
+
+    /**
+     * A completed entry, which only carries the timestamps for the circuit breakers.
+     */
+    private static class BenchmarkEntry extends Entry {
+
+        BenchmarkEntry(ResourceWrapper resourceWrapper) {
+            super(resourceWrapper);
+        }
+
+        @Override
+        public void exit(int count, Object... args) {}
+
+        @Override
+        protected Entry trueExit(int count, Object... args) {
+            return null;
+        }
+
+        @Override
+        public Node getLastNode() {
+            return null;
+        }
+
+        @Override
+        public void whenTerminate(BiConsumer<Context, Entry> handler) {}
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.node.ClusterNode;
+import com.alibaba.csp.sentinel.node.DefaultNode;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleChecker;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleUtil;
+import com.alibaba.csp.sentinel.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Benchmark for {@link FlowRuleChecker#checkFlow} with N passing QPS rules of a resource, without the rest
+ * of the slot chain.</p>
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class FlowRuleCheckerBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int ruleCount;
+
+    @Param({"default", "warmUp", "tokenBucket"})
+    private String behavior;
+
+    private final FlowRuleChecker checker = new FlowRuleChecker();
+    private final ResourceWrapper resource = new StringResourceWrapper("flowRuleCheckerBenchmark", EntryType.IN);
+
+    private Function<String, Collection<FlowRule>> ruleProvider;
+    private Context context;
+    private DefaultNode node;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<FlowRule> ruleList = new ArrayList<>();
+        for (int i = 0; i < ruleCount; i++) {
+            // Distinct counts, so that the rules are not deduplicated.
+            FlowRule rule = new FlowRule(resource.getName())
+                .setCount(Integer.MAX_VALUE - i)
+                .setControlBehavior(controlBehaviorOf(behavior))
+                .setWarmUpPeriodSec(1)
+                .setBurstCount(Integer.MAX_VALUE);
+            ruleList.add(rule);
+        }
+        // Build the rules as FlowRuleManager does, which generates the traffic shaping controllers.
+        final List<FlowRule> rules = FlowRuleUtil.buildFlowRuleMap(ruleList).get(resource.getName());
+        ruleProvider = new Function<String, Collection<FlowRule>>() {
+            @Override
+            public Collection<FlowRule> apply(String resourceName) {
+                return rules;
+            }
+        };
+
+        node = new DefaultNode(resource, null);
+        node.setClusterNode(new ClusterNode(resource.getName()));
+        context = new Context(null, "flowRuleCheckerBenchmark");
+    }
+
+    private static int controlBehaviorOf(String behavior) {
+        if ("warmUp".equals(behavior)) {
+            return RuleConstant.CONTROL_BEHAVIOR_WARM_UP;
+        }
+        if ("tokenBucket".equals(behavior)) {
+            return RuleConstant.CONTROL_BEHAVIOR_TOKEN_BUCKET;
+        }
+        return RuleConstant.CONTROL_BEHAVIOR_DEFAULT;
+    }
+
+    private void doCheck() throws BlockException {
+        checker.checkFlow(ruleProvider, resource, context, node, 1, false);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void checkFlowSingleThread() throws BlockException {
+        doCheck();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void checkFlow8Threads() throws BlockException {
+        doCheck();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
+import com.alibaba.csp.sentinel.slots.statistic.metric.BucketLeapArray;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Benchmark for {@link LeapArray#currentWindow()} on the wall clock, which is what every statistic update
+ * of a node does. Unlike {@link LeapArrayRotationBenchmark}, most calls hit an up-to-date bucket, and the
+ * buckets rotate at the real window length.</p>
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class LeapArrayCurrentWindowBenchmark {
+
+    /**
+     * 2 buckets of 500 ms for the second-level metric and 60 buckets of 1 s for the minute-level metric.
+     */
+    @Param({"2", "60"})
+    private int sampleCount;
+
+    private BucketLeapArray leapArray;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        leapArray = new BucketLeapArray(sampleCount, sampleCount == 2 ? 1000 : 60000);
+    }
+
+    private void doAdd() {
+        leapArray.currentWindow().value().addPass(1);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void currentWindowSingleThread() {
+        doAdd();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void currentWindow4Threads() {
+        doAdd();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void currentWindow16Threads() {
+        doAdd();
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
+import com.alibaba.csp.sentinel.slots.statistic.metric.BucketLeapArray;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Benchmark for the bucket rotation of {@link LeapArray} under frequent window boundary crossing,
+ * with the lock-based (default) or lock-free rotation.</p>
+ *
+ * <p>The time is driven by a shared counter rather than the wall clock: the window length is 1 ms
+ * and the time moves forward by 1 ms every {@link #opsPerWindow} operations (of all threads), so a
+ * deprecated bucket is hit by all threads at the same time at every boundary.</p>
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class LeapArrayRotationBenchmark {
+
+    @Param({"false", "true"})
+    private boolean lockFree;
+
+    @Param({"16", "1024"})
+    private int opsPerWindow;
+
+    private final AtomicLong ticks = new AtomicLong();
+
+    private BucketLeapArray leapArray;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SentinelConfig.setConfig(SentinelConfig.WINDOW_ROTATION_LOCK_FREE, String.valueOf(lockFree));
+        // 2 buckets of 1 ms.
+        leapArray = new BucketLeapArray(2, 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SentinelConfig.removeConfig(SentinelConfig.WINDOW_ROTATION_LOCK_FREE);
+    }
+
+    private void doAdd() {
+        long time = ticks.getAndIncrement() / opsPerWindow;
+        leapArray.currentWindow(time).value().addPass(1);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void rotateSingleThread() {
+        doAdd();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void rotate4Threads() {
+        doAdd();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void rotate16Threads() {
+        doAdd();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
+import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucketProvider;
+import com.alibaba.csp.sentinel.slots.statistic.data.OffHeapMetricBucket;
+import com.alibaba.csp.sentinel.slots.statistic.data.StripedMetricBucket;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Benchmark for the default, striped and off-heap {@link MetricBucket}.</p>
+ *
+ * <p>Run with {@code -prof gc}: {@code gc.alloc.rate.norm} of the {@code newBucket} benchmarks is the
+ * memory footprint of an idle bucket. The {@code add} benchmarks update a shared bucket like all
+ * requests of a hot resource do.</p>
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class MetricBucketBenchmark {
+
+    @Param({MetricBucketProvider.BUCKET_TYPE_DEFAULT, MetricBucketProvider.BUCKET_TYPE_STRIPED,
+        MetricBucketProvider.BUCKET_TYPE_OFF_HEAP})
+    private String type;
+
+    private MetricBucket bucket;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bucket = newBucket();
+    }
+
+    private MetricBucket newBucket() {
+        if (MetricBucketProvider.BUCKET_TYPE_STRIPED.equals(type)) {
+            return new StripedMetricBucket();
+        }
+        if (MetricBucketProvider.BUCKET_TYPE_OFF_HEAP.equals(type)) {
+            return new OffHeapMetricBucket();
+        }
+        return new MetricBucket();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public MetricBucket newBucketFootprint() {
+        return newBucket();
+    }
+
+    private void doAdd() {
+        bucket.addPass(1);
+        bucket.addSuccess(1);
+        bucket.addRT(5);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void addSingleThread() {
+        doAdd();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void add4Threads() {
+        doAdd();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void add16Threads() {
+        doAdd();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long addAndSum4Threads() {
+        doAdd();
+        return bucket.pass() + bucket.success();
+    }
+}
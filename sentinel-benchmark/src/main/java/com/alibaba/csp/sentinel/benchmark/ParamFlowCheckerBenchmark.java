@@ -0,0 +1,113 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowChecker;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRuleManager;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParameterMetricStorage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Benchmark for {@link ParamFlowChecker#passCheck} of a passing QPS rule, with {@link #cardinality} distinct
+ * values of the parameter (e.g. user IDs). The keys are boxed in advance, so the allocation reported by
+ * {@code -prof gc} is of the parameter statistics only.</p>
+ * <p>{@link #metricType} selects the exact statistics (0) or the Count-Min Sketch statistics (1).</p>
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class ParamFlowCheckerBenchmark {
+
+    @Param({"100", "100000", "1000000"})
+    private int cardinality;
+
+    @Param({"0", "1"})
+    private int metricType;
+
+    private final ResourceWrapper resource = new StringResourceWrapper("paramFlowCheckerBenchmark", EntryType.IN);
+
+    private ParamFlowRule rule;
+    private Long[] keys;
+
+    @State(Scope.Thread)
+    public static class KeyCursor {
+        private int next = new Random().nextInt(Integer.MAX_VALUE);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ParamFlowRuleManager.loadRules(Collections.singletonList(
+            new ParamFlowRule(resource.getName()).setParamIdx(0).setCount(Integer.MAX_VALUE)
+                .setMetricType(metricType)));
+        List<ParamFlowRule> rules = ParamFlowRuleManager.getRulesOfResource(resource.getName());
+        rule = rules.get(0);
+        ParameterMetricStorage.initParamMetricsFor(resource, rule);
+
+        keys = new Long[cardinality];
+        for (int i = 0; i < cardinality; i++) {
+            keys[i] = (long) i;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ParamFlowRuleManager.loadRules(Collections.<ParamFlowRule>emptyList());
+        ParameterMetricStorage.clearParamMetricForResource(resource.getName());
+    }
+
+    private boolean doCheck(KeyCursor cursor) {
+        Long key = keys[(cursor.next++ & Integer.MAX_VALUE) % cardinality];
+        return ParamFlowChecker.passCheck(resource, rule, 1, key);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean passCheckSingleThread(KeyCursor cursor) {
+        return doCheck(cursor);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean passCheck8Threads(KeyCursor cursor) {
+        return doCheck(cursor);
+    }
+}
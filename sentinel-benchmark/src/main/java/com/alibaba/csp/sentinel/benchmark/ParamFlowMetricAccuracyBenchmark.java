@@ -0,0 +1,155 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowChecker;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRuleUtil;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParameterMetricStorage;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Accuracy and memory of the parameter statistics ({@link #metricType} 0: exact, 1: Count-Min Sketch)
+ * with {@link #cardinality} distinct light values, each requested once, mixed with {@link #HEAVY_KEYS}
+ * heavy hitters, each requested {@link #HEAVY_HITS} times.</p>
+ * <p>The time of the stream includes the GC of the memory measurement, see {@link ParamFlowCheckerBenchmark}
+ * for the throughput. The benchmark reports these counters (of the last stream of each iteration, summed
+ * over the measurement iterations):</p>
+ * <ul>
+ * <li>{@code lightBlocked}: light values blocked by mistake (false positives)</li>
+ * <li>{@code heavyAdmitted}: admitted requests of all heavy hitters, where the ideal value is
+ * {@code HEAVY_KEYS * THRESHOLD} (more means heavy hitters evicted from the statistics)</li>
+ * <li>{@code retainedKiloBytes}: heap retained by the statistics after the stream</li>
+ * </ul>
+ * <p>The accuracy of the sketch depends on {@link #sketchWidth}, e.g. {@code -p sketchWidth=65536,1048576}.</p>
+ */
+@Fork(1)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 1, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ParamFlowMetricAccuracyBenchmark {
+
+    private static final int HEAVY_KEYS = 1000;
+    private static final int HEAVY_HITS = 50;
+    private static final int THRESHOLD = 10;
+
+    @Param({"1000000"})
+    private int cardinality;
+
+    @Param({"0", "1"})
+    private int metricType;
+
+    @Param({"131072"})
+    private int sketchWidth;
+
+    /**
+     * The exact statistics keep {@code min(4000 * durationInSec, 200000)} values of a rule.
+     */
+    @Param({"1", "60"})
+    private int durationInSec;
+
+    private final ResourceWrapper resource = new StringResourceWrapper("paramFlowMetricAccuracyBenchmark",
+        EntryType.IN);
+
+    private ParamFlowRule rule;
+    private Long[] lightKeys;
+    private String[] heavyKeys;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Accuracy {
+        public long lightBlocked;
+        public long heavyAdmitted;
+        public long retainedKiloBytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SentinelConfig.setConfig(SentinelConfig.PARAM_SKETCH_WIDTH, String.valueOf(sketchWidth));
+        rule = new ParamFlowRule(resource.getName()).setParamIdx(0).setCount(THRESHOLD)
+            .setDurationInSec(durationInSec).setMetricType(metricType);
+        ParamFlowRuleUtil.fillExceptionFlowItems(rule);
+
+        lightKeys = new Long[cardinality];
+        for (int i = 0; i < cardinality; i++) {
+            lightKeys[i] = (long) i;
+        }
+        heavyKeys = new String[HEAVY_KEYS];
+        for (int i = 0; i < HEAVY_KEYS; i++) {
+            heavyKeys[i] = "heavy-" + i;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ParameterMetricStorage.clearParamMetricForResource(resource.getName());
+    }
+
+    @Benchmark
+    public void replayStream(Accuracy accuracy) {
+        ParameterMetricStorage.clearParamMetricForResource(resource.getName());
+        long baseline = usedHeap();
+        ParameterMetricStorage.initParamMetricsFor(resource, rule);
+        int heavyTotal = HEAVY_KEYS * HEAVY_HITS;
+        int heavyInterval = Math.max(1, cardinality / heavyTotal);
+        int heavyCursor = 0;
+        long lightBlocked = 0;
+        long heavyAdmitted = 0;
+        for (int i = 0; i < cardinality; i++) {
+            if (!ParamFlowChecker.passCheck(resource, rule, 1, lightKeys[i])) {
+                lightBlocked++;
+            }
+            if (i % heavyInterval == 0 && heavyCursor < heavyTotal) {
+                if (ParamFlowChecker.passCheck(resource, rule, 1, heavyKeys[heavyCursor++ % HEAVY_KEYS])) {
+                    heavyAdmitted++;
+                }
+            }
+        }
+        accuracy.lightBlocked = lightBlocked;
+        accuracy.heavyAdmitted = heavyAdmitted;
+        accuracy.retainedKiloBytes = Math.max(0, usedHeap() - baseline) / 1024;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 2; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRuleManager;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParameterMetric;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParameterMetricStorage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Benchmark for the parameter thread counts that {@code ParamFlowSlot} keeps on each entry and exit
+ * ({@link ParameterMetric#addThreadCount} and {@link ParameterMetric#decreaseThreadCount}), with
+ * {@link #cardinality} distinct values of the parameter.</p>
+ * <p>{@link #keyType} selects {@code long} values (counted in the primitive-key map) or {@code String}
+ * values (counted in the general cache map). The keys are created in advance, so the allocation reported by
+ * {@code -prof gc} is of the thread counts only.</p>
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class ParamThreadCountBenchmark {
+
+    @Param({"100", "100000"})
+    private int cardinality;
+
+    @Param({"long", "string"})
+    private String keyType;
+
+    private final ResourceWrapper resource = new StringResourceWrapper("paramThreadCountBenchmark", EntryType.IN);
+
+    private ParameterMetric metric;
+    private Object[][] args;
+
+    @State(Scope.Thread)
+    public static class KeyCursor {
+        private int next = new Random().nextInt(Integer.MAX_VALUE);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ParamFlowRule rule = new ParamFlowRule(resource.getName()).setParamIdx(0).setCount(Integer.MAX_VALUE);
+        ParamFlowRuleManager.loadRules(Collections.singletonList(rule));
+        ParameterMetricStorage.initParamMetricsFor(resource, ParamFlowRuleManager.getRulesOfResource(
+            resource.getName()).get(0));
+        metric = ParameterMetricStorage.getParamMetric(resource);
+
+        args = new Object[cardinality][];
+        for (int i = 0; i < cardinality; i++) {
+            Object key = "long".equals(keyType) ? Long.valueOf(i) : "user-" + i;
+            args[i] = new Object[] {key};
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ParamFlowRuleManager.loadRules(Collections.<ParamFlowRule>emptyList());
+        ParameterMetricStorage.clearParamMetricForResource(resource.getName());
+    }
+
+    private long doEntryAndExit(KeyCursor cursor) {
+        Object[] entryArgs = args[(cursor.next++ & Integer.MAX_VALUE) % cardinality];
+        metric.addThreadCount(entryArgs);
+        long threadCount = metric.getThreadCount(0, entryArgs[0]);
+        metric.decreaseThreadCount(entryArgs);
+        return threadCount;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long entryAndExitSingleThread(KeyCursor cursor) {
+        return doEntryAndExit(cursor);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long entryAndExit8Threads(KeyCursor cursor) {
+        return doEntryAndExit(cursor);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.Constants;
+import com.alibaba.csp.sentinel.CtSph;
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.context.ContextUtil;
+import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Startup benchmark of the slot chain, node and context registries: 32 threads enter 6000 distinct
+ * resources (in 100 distinct contexts) for the first time, and the score is the time-to-warm, i.e.
+ * the time until all the slot chains and nodes have been created.</p>
+ *
+ * <p>All registries are cleared before each iteration.</p>
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class RegistryWarmUpBenchmark {
+
+    private static final int THREAD_COUNT = 32;
+    private static final int RESOURCE_COUNT = Constants.MAX_SLOT_CHAIN_SIZE;
+    private static final int CONTEXT_COUNT = 100;
+
+    private ExecutorService pool;
+    private int round = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = Executors.newFixedThreadPool(THREAD_COUNT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetRegistries() throws Exception {
+        Method resetChainMap = CtSph.class.getDeclaredMethod("resetChainMap");
+        resetChainMap.setAccessible(true);
+        resetChainMap.invoke(null);
+        Method resetContextMap = ContextUtil.class.getDeclaredMethod("resetContextMap");
+        resetContextMap.setAccessible(true);
+        resetContextMap.invoke(null);
+        ClusterBuilderSlot.getClusterNodeMap().clear();
+        round++;
+    }
+
+    @Benchmark
+    public int warmUp() throws Exception {
+        final String prefix = "warm-up-" + round + "-";
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<Future<Integer>>(THREAD_COUNT);
+        for (int t = 0; t < THREAD_COUNT; t++) {
+            final int threadIndex = t;
+            futures.add(pool.submit(new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    startLatch.await();
+                    int passed = 0;
+                    for (int i = threadIndex; i < RESOURCE_COUNT; i += THREAD_COUNT) {
+                        ContextUtil.enter(prefix + "context-" + (i % CONTEXT_COUNT));
+                        Entry entry = SphU.entry(prefix + "resource-" + i);
+                        entry.exit();
+                        ContextUtil.exit();
+                        passed++;
+                    }
+                    return passed;
+                }
+            }));
+        }
+        startLatch.countDown();
+        int total = 0;
+        for (Future<Integer> future : futures) {
+            total += future.get();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Benchmark for {@link TimeUtil#currentTimeMillis()}, which is read several times in every entry.
+ * The clock mode is fixed when {@link TimeUtil} is loaded, so the fixed tick clock and the adaptive clock
+ * (see {@link SentinelConfig#TIME_TICK_ADAPTIVE}) run in separate forks. Under a high read rate
+ * the adaptive clock works in the tick mode, as the fixed one does.</p>
+ */
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class TimeUtilBenchmark {
+
+    @Benchmark
+    @Fork(1)
+    @Threads(1)
+    public long tickSingleThread() {
+        return TimeUtil.currentTimeMillis();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dcsp.sentinel.time.tick.adaptive=true")
+    @Threads(1)
+    public long adaptiveSingleThread() {
+        return TimeUtil.currentTimeMillis();
+    }
+
+    @Benchmark
+    @Fork(1)
+    @Threads(4)
+    public long tick4Threads() {
+        return TimeUtil.currentTimeMillis();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dcsp.sentinel.time.tick.adaptive=true")
+    @Threads(4)
+    public long adaptive4Threads() {
+        return TimeUtil.currentTimeMillis();
+    }
+}
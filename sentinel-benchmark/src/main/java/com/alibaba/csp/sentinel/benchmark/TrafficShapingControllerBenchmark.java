@@ -0,0 +1,96 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.node.StatisticNode;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.TrafficShapingController;
+import com.alibaba.csp.sentinel.slots.block.flow.controller.DefaultController;
+import com.alibaba.csp.sentinel.slots.block.flow.controller.TokenBucketController;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Benchmark for checking a shared QPS threshold with {@link DefaultController} (reject on the
+ * sliding-window pass QPS) and {@link TokenBucketController} (a single CAS'd state word).</p>
+ *
+ * <p>Passed requests are recorded in the node in both cases, as what the statistic slot does:</p>
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar TrafficShapingControllerBenchmark
+ * </pre>
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class TrafficShapingControllerBenchmark {
+
+    @Param({"default", "tokenBucket"})
+    private String controllerType;
+
+    @Param({"100000"})
+    private double count;
+
+    private TrafficShapingController controller;
+    private StatisticNode node;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        node = new StatisticNode();
+        if ("tokenBucket".equals(controllerType)) {
+            controller = new TokenBucketController(count, (int) count / 10);
+        } else {
+            controller = new DefaultController(count, RuleConstant.FLOW_GRADE_QPS);
+        }
+    }
+
+    @Benchmark
+    @Threads(32)
+    public boolean test32ThreadsCanPass() {
+        boolean pass = controller.canPass(node, 1);
+        if (pass) {
+            node.addPassRequest(1);
+        }
+        return pass;
+    }
+
+    @Benchmark
+    @Threads(32)
+    public boolean test32ThreadsCanPassBatch() {
+        boolean pass = controller.canPass(node, 4);
+        if (pass) {
+            node.addPassRequest(4);
+        }
+        return pass;
+    }
+}
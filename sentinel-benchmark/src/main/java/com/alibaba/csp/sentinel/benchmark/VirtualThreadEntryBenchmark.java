@@ -0,0 +1,118 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Benchmark for {@link SphU#entry(String)} and {@link Entry#exit()} executed by a huge amount of
+ * short-lived concurrent tasks (each task enters and exits the resource once, in the default context).</p>
+ *
+ * <p>The {@code virtual} executor starts one virtual thread per task, which requires JDK 21+.
+ * The {@code platform} executor runs the same tasks in a fixed pool for comparison:</p>
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar VirtualThreadEntryBenchmark -prof gc
+ * </pre>
+ *
+ * <p>On earlier runtimes the {@code virtual} trial fails in the setup, so select the platform executor only:</p>
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar VirtualThreadEntryBenchmark -p executor=platform -prof gc
+ * </pre>
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class VirtualThreadEntryBenchmark {
+
+    private static final String RESOURCE_NAME = "benchmark-virtual-thread-entry";
+
+    @Param({"100000"})
+    private int taskCount;
+
+    @Param({"platform", "virtual"})
+    private String executor;
+
+    private ExecutorService executorService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        if ("virtual".equals(executor)) {
+            Method m;
+            try {
+                m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            } catch (NoSuchMethodException ex) {
+                throw new IllegalStateException("Virtual threads require JDK 21+", ex);
+            }
+            executorService = (ExecutorService) m.invoke(null);
+        } else {
+            executorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        executorService.shutdownNow();
+        executorService.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public void testConcurrentTasksEntryExit() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            executorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        Entry e = SphU.entry(RESOURCE_NAME);
+                        e.exit();
+                    } catch (BlockException ex) {
+                        // Ignore.
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            });
+        }
+        latch.await();
+    }
+}
@@ -15,6 +15,8 @@
  */
 package com.alibaba.csp.sentinel.cluster.flow.statistic.data;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import com.alibaba.csp.sentinel.slots.statistic.base.LongAdder;
 
 /**
@@ -24,6 +26,11 @@ import com.alibaba.csp.sentinel.slots.statistic.base.LongAdder;
 public class ClusterMetricBucket {
 
     private final LongAdder[] counters;
+    /**
+     * The pass count is kept in an {@link AtomicLong} rather than a {@link LongAdder},
+     * so that it can be checked and added atomically (see {@link #tryAddPass(long, double)}).
+     */
+    private final AtomicLong passCounter = new AtomicLong();
 
     public ClusterMetricBucket() {
         ClusterFlowEvent[] events = ClusterFlowEvent.values();
@@ -37,14 +44,43 @@ public class ClusterMetricBucket {
         for (ClusterFlowEvent event : ClusterFlowEvent.values()) {
             counters[event.ordinal()].reset();
         }
+        passCounter.set(0);
     }
 
     public long get(ClusterFlowEvent event) {
+        if (event == ClusterFlowEvent.PASS) {
+            return passCounter.get();
+        }
         return counters[event.ordinal()].sum();
     }
 
     public ClusterMetricBucket add(ClusterFlowEvent event, long count) {
+        if (event == ClusterFlowEvent.PASS) {
+            passCounter.addAndGet(count);
+            return this;
+        }
         counters[event.ordinal()].add(count);
         return this;
     }
+
+    /**
+     * Add the pass count atomically, only if the pass count of the bucket won't exceed given bound
+     * before adding.
+     *
+     * @param count            count to add
+     * @param maxPassBeforeAdd max pass count of the bucket before adding
+     * @return the pass count before adding, or -1 if the bound is exceeded
+     * @since 1.8.1
+     */
+    public long tryAddPass(long count, double maxPassBeforeAdd) {
+        while (true) {
+            long current = passCounter.get();
+            if (current > maxPassBeforeAdd) {
+                return -1;
+            }
+            if (passCounter.compareAndSet(current, current + count)) {
+                return current;
+            }
+        }
+    }
 }
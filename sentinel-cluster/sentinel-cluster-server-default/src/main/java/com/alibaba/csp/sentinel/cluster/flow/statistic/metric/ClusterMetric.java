@@ -19,6 +19,7 @@ import java.util.List;
 
 import com.alibaba.csp.sentinel.cluster.flow.statistic.data.ClusterFlowEvent;
 import com.alibaba.csp.sentinel.cluster.flow.statistic.data.ClusterMetricBucket;
+import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
 import com.alibaba.csp.sentinel.util.AssertUtil;
 
 /**
@@ -71,6 +72,39 @@ public class ClusterMetric {
         return getSum(event) / metric.getIntervalInSecond();
     }
 
+    /**
+     * <p>Try to acquire pass count atomically, as long as the average pass count per second
+     * (with {@code acquireCount} included) won't exceed the threshold.</p>
+     * <p>
+     * Checking the threshold and adding the count is a single CAS on the pass counter of current bucket,
+     * so that concurrent token requests of the same flow won't all see the headroom and over-admit.
+     * The pass count of other buckets in the sliding window won't change during current bucket.
+     * </p>
+     *
+     * @param acquireCount count to acquire
+     * @param threshold    global threshold (per second)
+     * @return the remaining count (per second) after acquiring, or a negative value if the threshold is exceeded
+     * @since 1.8.1
+     */
+    public double tryAcquirePass(int acquireCount, double threshold) {
+        WindowWrap<ClusterMetricBucket> current = metric.currentWindow();
+        long otherPass = 0;
+        List<ClusterMetricBucket> buckets = metric.values();
+        for (ClusterMetricBucket bucket : buckets) {
+            if (bucket != current.value()) {
+                otherPass += bucket.get(ClusterFlowEvent.PASS);
+            }
+        }
+        double intervalInSec = metric.getIntervalInSecond();
+        // latestQps + acquireCount <= threshold, where latestQps = (otherPass + currentPass) / intervalInSec
+        double maxCurrentPass = (threshold - acquireCount) * intervalInSec - otherPass;
+        long currentPass = current.value().tryAddPass(acquireCount, maxCurrentPass);
+        if (currentPass < 0) {
+            return -1;
+        }
+        return threshold - (otherPass + currentPass) / intervalInSec - acquireCount;
+    }
+
     /**
      * Try to pre-occupy upcoming buckets.
      *
@@ -0,0 +1,107 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.flow;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.ClusterMetricStatistics;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.data.ClusterFlowEvent;
+import com.alibaba.csp.sentinel.cluster.test.AbstractTimeBasedTest;
+import com.alibaba.csp.sentinel.slots.block.ClusterRuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.ClusterFlowConfig;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Token requests of the same flow from many clients in parallel (e.g. handled by multiple Netty workers).
+ */
+public class ClusterFlowCheckerStressTest extends AbstractTimeBasedTest {
+
+    private static final String NAMESPACE = "cluster-flow-checker-stress";
+    private static final long FLOW_ID = 2020111L;
+    private static final int THRESHOLD = 1000;
+
+    @Before
+    public void setUp() {
+        FlowRule rule = new FlowRule("stressResource")
+            .setCount(THRESHOLD)
+            .setClusterMode(true)
+            .setClusterConfig(new ClusterFlowConfig()
+                .setFlowId(FLOW_ID)
+                .setThresholdType(ClusterRuleConstant.FLOW_THRESHOLD_GLOBAL));
+        ClusterFlowRuleManager.registerPropertyIfAbsent(NAMESPACE);
+        ClusterFlowRuleManager.loadRules(NAMESPACE, Collections.singletonList(rule));
+    }
+
+    @After
+    public void tearDown() {
+        ClusterFlowRuleManager.loadRules(NAMESPACE, Collections.<FlowRule>emptyList());
+    }
+
+    @Test
+    public void testParallelAcquireNeverOverAdmit() throws Exception {
+        setCurrentMillis(System.currentTimeMillis() / 1000 * 1000);
+        final FlowRule rule = ClusterFlowRuleManager.getFlowRuleById(FLOW_ID);
+        assertNotNull(rule);
+        assertNotNull(ClusterMetricStatistics.getMetric(FLOW_ID));
+
+        final int clientCount = 32;
+        final int requestsPerClient = 200;
+        final AtomicInteger admitted = new AtomicInteger();
+        final AtomicInteger blocked = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(clientCount);
+        for (int i = 0; i < clientCount; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int j = 0; j < requestsPerClient; j++) {
+                            TokenResult result = ClusterFlowChecker.acquireClusterToken(rule, 1, false);
+                            if (result.getStatus() == TokenResultStatus.OK) {
+                                admitted.incrementAndGet();
+                            } else if (result.getStatus() == TokenResultStatus.BLOCKED) {
+                                blocked.incrementAndGet();
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }).start();
+        }
+        start.countDown();
+        done.await();
+
+        assertTrue("admitted " + admitted.get() + " exceeds threshold " + THRESHOLD, admitted.get() <= THRESHOLD);
+        assertEquals(THRESHOLD, admitted.get());
+        assertEquals(clientCount * requestsPerClient - THRESHOLD, blocked.get());
+        assertEquals(THRESHOLD, ClusterMetricStatistics.getMetric(FLOW_ID).getSum(ClusterFlowEvent.PASS));
+    }
+}
@@ -43,4 +43,26 @@ public class ClusterMetricTest extends AbstractTimeBasedTest {
         metric.add(ClusterFlowEvent.PASS, 1);
         Assert.assertEquals(0, metric.tryOccupyNext(ClusterFlowEvent.PASS, 333, 900));
     }
+
+    @Test
+    public void testTryAcquirePass() {
+        setCurrentMillis(System.currentTimeMillis() / 1000 * 1000);
+        ClusterMetric metric = new ClusterMetric(5, 1000);
+        double threshold = 10;
+        Assert.assertEquals(8, metric.tryAcquirePass(2, threshold), 0.01);
+        for (int i = 0; i < 7; i++) {
+            Assert.assertTrue(metric.tryAcquirePass(1, threshold) >= 0);
+        }
+        Assert.assertEquals(0, metric.tryAcquirePass(1, threshold), 0.01);
+        Assert.assertTrue(metric.tryAcquirePass(1, threshold) < 0);
+        Assert.assertEquals(10, metric.getSum(ClusterFlowEvent.PASS));
+
+        // Still in the sliding window.
+        sleep(200);
+        Assert.assertTrue(metric.tryAcquirePass(1, threshold) < 0);
+        sleep(800);
+        Assert.assertEquals(6, metric.tryAcquirePass(4, threshold), 0.01);
+        Assert.assertTrue(metric.tryAcquirePass(7, threshold) < 0);
+        Assert.assertEquals(4, metric.getSum(ClusterFlowEvent.PASS));
+    }
 }
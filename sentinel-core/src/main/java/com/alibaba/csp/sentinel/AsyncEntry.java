@@ -31,6 +31,8 @@ public class AsyncEntry extends CtEntry {
 
     private Context asyncContext;
 
+    private long delayMs = 0;
+
     AsyncEntry(ResourceWrapper resourceWrapper, ProcessorSlot<Object> chain, Context context) {
         super(resourceWrapper, chain, context);
     }
@@ -61,6 +63,22 @@ public class AsyncEntry extends CtEntry {
         }
     }
 
+    /**
+     * Get the time in milliseconds that the caller should wait before performing the invocation.
+     * This is only present for entries created via {@link SphU#asyncEntryDelayed(String)}, as the waiting
+     * of throttled requests is handed off to the caller rather than done in the slot chain.
+     *
+     * @return the time to delay the invocation in milliseconds, or 0 if the invocation could go on directly
+     * @since 1.8.1
+     */
+    public long getDelayMs() {
+        return delayMs;
+    }
+
+    void setDelayMs(long delayMs) {
+        this.delayMs = delayMs;
+    }
+
     public Context getAsyncContext() {
         return asyncContext;
     }
@@ -23,6 +23,7 @@ import com.alibaba.csp.sentinel.context.NullContext;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.node.Node;
 import com.alibaba.csp.sentinel.slotchain.ProcessorSlot;
+import com.alibaba.csp.sentinel.slotchain.ProcessorSlotChain;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 import com.alibaba.csp.sentinel.util.function.BiConsumer;
 
@@ -45,6 +46,10 @@ class CtEntry extends Entry {
         super(resourceWrapper);
         this.chain = chain;
         this.context = context;
+        if (chain instanceof ProcessorSlotChain) {
+            // Pin the skipped slots, so that the exit phase goes through the same slots as the entry phase.
+            setSkippedSlots(((ProcessorSlotChain)chain).getSkippedSlots());
+        }
 
         setUpEntryFor(context);
     }
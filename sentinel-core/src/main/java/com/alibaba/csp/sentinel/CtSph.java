@@ -16,7 +16,6 @@
 package com.alibaba.csp.sentinel;
 
 import java.lang.reflect.Method;
-import java.util.HashMap;
 import java.util.Map;
 
 import com.alibaba.csp.sentinel.log.RecordLog;
@@ -28,9 +27,13 @@ import com.alibaba.csp.sentinel.slotchain.ProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ProcessorSlotChain;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 import com.alibaba.csp.sentinel.slotchain.SlotChainProvider;
+import com.alibaba.csp.sentinel.slotchain.SlotChainRefresher;
 import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.DeferredWait;
 import com.alibaba.csp.sentinel.slots.block.Rule;
+import com.alibaba.csp.sentinel.util.ConcurrentRegistry;
+import com.alibaba.csp.sentinel.util.function.Function;
 
 /**
  * {@inheritDoc}
@@ -48,10 +51,18 @@ public class CtSph implements Sph {
      * Same resource({@link ResourceWrapper#equals(Object)}) will share the same
      * {@link ProcessorSlotChain}, no matter in which {@link Context}.
      */
-    private static volatile Map<ResourceWrapper, ProcessorSlotChain> chainMap
-        = new HashMap<ResourceWrapper, ProcessorSlotChain>();
-
-    private static final Object LOCK = new Object();
+    private static final ConcurrentRegistry<ResourceWrapper, ProcessorSlotChain> chainRegistry
+        = new ConcurrentRegistry<>(Constants.MAX_SLOT_CHAIN_SIZE);
+
+    private static final Function<ResourceWrapper, ProcessorSlotChain> CHAIN_FACTORY
+        = new Function<ResourceWrapper, ProcessorSlotChain>() {
+            @Override
+            public ProcessorSlotChain apply(ResourceWrapper resourceWrapper) {
+                ProcessorSlotChain chain = SlotChainProvider.newSlotChain();
+                SlotChainRefresher.register(resourceWrapper, chain);
+                return chain;
+            }
+        };
 
     private AsyncEntry asyncEntryWithNoChain(ResourceWrapper resourceWrapper, Context context) {
         AsyncEntry entry = new AsyncEntry(resourceWrapper, null, context);
@@ -109,6 +120,27 @@ public class CtSph implements Sph {
         return asyncEntry;
     }
 
+    private AsyncEntry asyncEntryDelayedInternal(ResourceWrapper resourceWrapper, int count, boolean prioritized,
+                                                 Object... args) throws BlockException {
+        boolean implicitContext = ContextUtil.getContext() == null;
+        // Rule checkers record the waiting time rather than sleeping in the slot chain.
+        DeferredWait.begin();
+        AsyncEntry asyncEntry;
+        long delayMs;
+        try {
+            asyncEntry = asyncEntryWithPriorityInternal(resourceWrapper, count, prioritized, args);
+        } finally {
+            delayMs = DeferredWait.end();
+        }
+        asyncEntry.setDelayMs(delayMs);
+        // The delayed entry is usually completed in another thread (e.g. a timer),
+        // so the default context entered implicitly should be released in current thread.
+        if (implicitContext && ContextUtil.isDefaultContext(ContextUtil.getContext())) {
+            ContextUtil.exit();
+        }
+        return asyncEntry;
+    }
+
     private AsyncEntry asyncEntryInternal(ResourceWrapper resourceWrapper, int count, Object... args)
         throws BlockException {
         return asyncEntryWithPriorityInternal(resourceWrapper, count, false, args);
@@ -192,26 +224,7 @@ public class CtSph implements Sph {
      * @return {@link ProcessorSlotChain} of the resource
      */
     ProcessorSlot<Object> lookProcessChain(ResourceWrapper resourceWrapper) {
-        ProcessorSlotChain chain = chainMap.get(resourceWrapper);
-        if (chain == null) {
-            synchronized (LOCK) {
-                chain = chainMap.get(resourceWrapper);
-                if (chain == null) {
-                    // Entry size limit.
-                    if (chainMap.size() >= Constants.MAX_SLOT_CHAIN_SIZE) {
-                        return null;
-                    }
-
-                    chain = SlotChainProvider.newSlotChain();
-                    Map<ResourceWrapper, ProcessorSlotChain> newMap = new HashMap<ResourceWrapper, ProcessorSlotChain>(
-                        chainMap.size() + 1);
-                    newMap.putAll(chainMap);
-                    newMap.put(resourceWrapper, chain);
-                    chainMap = newMap;
-                }
-            }
-        }
-        return chain;
+        return chainRegistry.getOrCreate(resourceWrapper, CHAIN_FACTORY);
     }
 
     /**
@@ -221,7 +234,7 @@ public class CtSph implements Sph {
      * @since 0.2.0
      */
     public static int entrySize() {
-        return chainMap.size();
+        return chainRegistry.size();
     }
 
     /**
@@ -230,7 +243,8 @@ public class CtSph implements Sph {
      * @since 0.2.0
      */
     static void resetChainMap() {
-        chainMap.clear();
+        chainRegistry.clear();
+        SlotChainRefresher.clear();
     }
 
     /**
@@ -239,7 +253,7 @@ public class CtSph implements Sph {
      * @since 0.2.0
      */
     static Map<ResourceWrapper, ProcessorSlotChain> getChainMap() {
-        return chainMap;
+        return chainRegistry.asMap();
     }
 
     /**
@@ -324,7 +338,7 @@ public class CtSph implements Sph {
     @Override
     public Entry entryWithPriority(String name, EntryType type, int count, boolean prioritized) throws BlockException {
         StringResourceWrapper resource = new StringResourceWrapper(name, type);
-        return entryWithPriority(resource, count, prioritized);
+        return entryWithPriority(resource, count, prioritized, OBJECTS0);
     }
 
     @Override
@@ -353,4 +367,24 @@ public class CtSph implements Sph {
         StringResourceWrapper resource = new StringResourceWrapper(name, entryType, resourceType);
         return asyncEntryWithPriorityInternal(resource, count, prioritized, args);
     }
+
+    /**
+     * Create a protected asynchronous resource, where the waiting of throttled requests (e.g. rate limiter)
+     * is not done in current thread, but handed off to the caller via {@link AsyncEntry#getDelayMs()}.
+     *
+     * @param name         the unique name for the protected resource
+     * @param resourceType classification of the resource (e.g. Web or RPC)
+     * @param entryType    the traffic type (inbound, outbound or internal)
+     * @param count        the amount of calls within the invocation
+     * @param prioritized  whether the entry is prioritized
+     * @param args         args for parameter flow control or customized slots
+     * @return created asynchronous entry
+     * @throws BlockException if the block criteria is met
+     * @since 1.8.1
+     */
+    public AsyncEntry asyncEntryDelayedWithType(String name, int resourceType, EntryType entryType, int count,
+                                                boolean prioritized, Object[] args) throws BlockException {
+        StringResourceWrapper resource = new StringResourceWrapper(name, entryType, resourceType);
+        return asyncEntryDelayedInternal(resource, count, prioritized, args);
+    }
 }
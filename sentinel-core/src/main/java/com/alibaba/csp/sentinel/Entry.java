@@ -20,6 +20,7 @@ import com.alibaba.csp.sentinel.util.TimeUtil;
 import com.alibaba.csp.sentinel.util.function.BiConsumer;
 import com.alibaba.csp.sentinel.context.ContextUtil;
 import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.slotchain.ProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 import com.alibaba.csp.sentinel.context.Context;
 
@@ -67,6 +68,11 @@ public abstract class Entry implements AutoCloseable {
     private Throwable error;
     private BlockException blockError;
 
+    /**
+     * Slots of the chain that are skipped by this invocation, pinned when entering the chain.
+     */
+    private ProcessorSlot<?>[] skippedSlots;
+
     protected final ResourceWrapper resourceWrapper;
 
     public Entry(ResourceWrapper resourceWrapper) {
@@ -179,6 +185,20 @@ public abstract class Entry implements AutoCloseable {
         this.originNode = originNode;
     }
 
+    /**
+     * Get the rule checking slots skipped by this invocation. For internal use only.
+     *
+     * @return the skipped slots, or null if no slot is skipped
+     * @since 1.8.1
+     */
+    public ProcessorSlot<?>[] getSkippedSlots() {
+        return skippedSlots;
+    }
+
+    void setSkippedSlots(ProcessorSlot<?>[] skippedSlots) {
+        this.skippedSlots = skippedSlots;
+    }
+
     /**
      * Like {@code CompletableFuture} since JDK 8, it guarantees specified handler
      * is invoked when this entry terminated (exited), no matter it's blocked or permitted.
@@ -252,6 +252,71 @@ public class SphU {
         return Env.sph.asyncEntry(name, trafficType, batchCount, args);
     }
 
+    /**
+     * Record statistics and check all rules of the resource that indicates an async invocation. The waiting of
+     * throttled requests (e.g. rate limiter mode of flow rules) is not done in current thread but handed off to
+     * the caller: the caller should delay the invocation for {@link AsyncEntry#getDelayMs()} (e.g. with a timer),
+     * which makes it suitable for non-blocking threads like event loops. The waiting is deferred only with the
+     * default {@link CtSph}; other {@link Sph} implementations create a regular async entry instead.
+     *
+     * @param name the unique name of the protected resource
+     * @return the {@link AsyncEntry} of this invocation
+     * @throws BlockException if the block criteria is met (e.g. metric exceeded the threshold of any rules)
+     * @since 1.8.1
+     */
+    public static AsyncEntry asyncEntryDelayed(String name) throws BlockException {
+        return asyncEntryDelayedWithType(name, ResourceTypeConstants.COMMON, EntryType.OUT, 1, false,
+            OBJECTS0);
+    }
+
+    /**
+     * Record statistics and check all rules of the resource that indicates an async invocation, where the
+     * waiting of throttled requests is handed off to the caller via {@link AsyncEntry#getDelayMs()}.
+     *
+     * @param name        the unique name for the protected resource
+     * @param trafficType the traffic type (inbound, outbound or internal). This is used
+     *                    to mark whether it can be blocked when the system is unstable,
+     *                    only inbound traffic could be blocked by {@link SystemRule}
+     * @return the {@link AsyncEntry} of this invocation
+     * @throws BlockException if the block criteria is met (e.g. metric exceeded the threshold of any rules)
+     * @since 1.8.1
+     */
+    public static AsyncEntry asyncEntryDelayed(String name, EntryType trafficType) throws BlockException {
+        return asyncEntryDelayedWithType(name, ResourceTypeConstants.COMMON, trafficType, 1, false,
+            OBJECTS0);
+    }
+
+    /**
+     * Record statistics and check all rules of the resource that indicates an async invocation, where the
+     * waiting of throttled requests is handed off to the caller via {@link AsyncEntry#getDelayMs()}.
+     *
+     * @param name         the unique name for the protected resource
+     * @param resourceType classification of the resource (e.g. Web or RPC)
+     * @param trafficType  the traffic type (inbound, outbound or internal). This is used
+     *                     to mark whether it can be blocked when the system is unstable,
+     *                     only inbound traffic could be blocked by {@link SystemRule}
+     * @param batchCount   the amount of calls within the invocation (e.g. batchCount=2 means request for 2 tokens)
+     * @param args         args for parameter flow control
+     * @return the {@link AsyncEntry} of this invocation
+     * @throws BlockException if the block criteria is met (e.g. metric exceeded the threshold of any rules)
+     * @since 1.8.1
+     */
+    public static AsyncEntry asyncEntryDelayed(String name, int resourceType, EntryType trafficType, int batchCount,
+                                               Object[] args) throws BlockException {
+        return asyncEntryDelayedWithType(name, resourceType, trafficType, batchCount, false, args);
+    }
+
+    private static AsyncEntry asyncEntryDelayedWithType(String name, int resourceType, EntryType trafficType,
+                                                        int batchCount, boolean prioritized, Object[] args)
+        throws BlockException {
+        if (Env.sph instanceof CtSph) {
+            return ((CtSph)Env.sph).asyncEntryDelayedWithType(name, resourceType, trafficType, batchCount,
+                prioritized, args);
+        }
+        // Other implementations of Sph do not support deferring the waiting, so it's done in current thread.
+        return Env.sph.asyncEntryWithType(name, resourceType, trafficType, batchCount, prioritized, args);
+    }
+
     /**
      * Record statistics and perform rule checking for the given resource. The entry is prioritized.
      *
@@ -55,12 +55,33 @@ public final class SentinelConfig {
     public static final String COLD_FACTOR = "csp.sentinel.flow.cold.factor";
     public static final String STATISTIC_MAX_RT = "csp.sentinel.statistic.max.rt";
     public static final String SPI_CLASSLOADER = "csp.sentinel.spi.classloader";
+    public static final String SLOT_CHAIN_SKIP_RULE_FREE_SLOTS = "csp.sentinel.slot.chain.skip.rule.free.slots";
+    public static final String METRIC_BUCKET_TYPE = "csp.sentinel.statistic.bucket.type";
+    public static final String WINDOW_ROTATION_LOCK_FREE = "csp.sentinel.statistic.window.lock.free";
+    public static final String TIME_TICK_ADAPTIVE = "csp.sentinel.time.tick.adaptive";
+    public static final String MAX_ORIGIN_NODE_COUNT = "csp.sentinel.statistic.max.origin.count";
+    public static final String STATISTIC_ROLLING_SUM = "csp.sentinel.statistic.rolling.sum";
+    public static final String STATISTIC_DEFERRED = "csp.sentinel.statistic.deferred";
+    public static final String STATISTIC_DEFERRED_MAX_BATCH = "csp.sentinel.statistic.deferred.max.batch";
+    public static final String STATISTIC_DEFERRED_MAX_DELAY_MS = "csp.sentinel.statistic.deferred.max.delay.ms";
+    public static final String OVERHEAD_STAT_ENABLED = "csp.sentinel.overhead.stat.enabled";
+    public static final String OVERHEAD_STAT_SAMPLE_INTERVAL = "csp.sentinel.overhead.stat.sample.interval";
+    public static final String PARAM_SKETCH_WIDTH = "csp.sentinel.param.sketch.width";
+    public static final String PARAM_SKETCH_HEAVY_HITTER_CAPACITY = "csp.sentinel.param.sketch.heavy.hitter.capacity";
+    public static final String METRIC_PERCENTILE_RT_ENABLED = "csp.sentinel.metric.percentile.rt.enabled";
 
     public static final String DEFAULT_CHARSET = "UTF-8";
     public static final long DEFAULT_SINGLE_METRIC_FILE_SIZE = 1024 * 1024 * 50;
     public static final int DEFAULT_TOTAL_METRIC_FILE_COUNT = 6;
     public static final int DEFAULT_COLD_FACTOR = 3;
     public static final int DEFAULT_STATISTIC_MAX_RT = 5000;
+    public static final String DEFAULT_METRIC_BUCKET_TYPE = "default";
+    public static final int DEFAULT_MAX_ORIGIN_NODE_COUNT = Integer.MAX_VALUE;
+    public static final int DEFAULT_STATISTIC_DEFERRED_MAX_BATCH = 64;
+    public static final int DEFAULT_STATISTIC_DEFERRED_MAX_DELAY_MS = 10;
+    public static final int DEFAULT_OVERHEAD_STAT_SAMPLE_INTERVAL = 64;
+    public static final int DEFAULT_PARAM_SKETCH_WIDTH = 131072;
+    public static final int DEFAULT_PARAM_SKETCH_HEAVY_HITTER_CAPACITY = 1024;
 
     static {
         try {
@@ -214,6 +235,193 @@ public final class SentinelConfig {
         }
     }
 
+    /**
+     * <p>Whether slot chains should skip the rule checking slots that have no rules for the resource.
+     * Disabled by default.</p>
+     *
+     * @return whether to skip rule checking slots without rules
+     * @since 1.8.1
+     */
+    public static boolean slotChainSkipRuleFreeSlots() {
+        return Boolean.parseBoolean(props.get(SLOT_CHAIN_SKIP_RULE_FREE_SLOTS));
+    }
+
+    /**
+     * <p>Get the type of metric buckets for sliding window statistics: {@code default}, {@code striped}
+     * or {@code offheap} (counters are kept in direct memory).</p>
+     *
+     * @return the metric bucket type
+     * @since 1.8.1
+     */
+    public static String metricBucketType() {
+        String v = props.get(METRIC_BUCKET_TYPE);
+        return StringUtil.isBlank(v) ? DEFAULT_METRIC_BUCKET_TYPE : v.trim();
+    }
+
+    /**
+     * <p>Whether sliding windows of metric buckets replace deprecated buckets via CAS (lock-free) rather than
+     * resetting them in place under the update lock. The lock-free rotation allocates a new bucket per rotation,
+     * and only applies to the sliding windows that support it (e.g. {@code BucketLeapArray}).
+     * Disabled by default.</p>
+     *
+     * @return whether lock-free window rotation is enabled
+     * @since 1.8.1
+     */
+    public static boolean lockFreeWindowRotation() {
+        return Boolean.parseBoolean(props.get(WINDOW_ROTATION_LOCK_FREE));
+    }
+
+    /**
+     * <p>Whether the clock of {@link com.alibaba.csp.sentinel.util.TimeUtil} adapts its mode to the read rate.
+     * If disabled, the time tick thread wakes up every millisecond. Disabled by default.</p>
+     *
+     * @return whether the adaptive clock is enabled
+     * @since 1.8.1
+     */
+    public static boolean timeTickAdaptive() {
+        String v = props.get(TIME_TICK_ADAPTIVE);
+        return v != null && Boolean.parseBoolean(v.trim());
+    }
+
+    /**
+     * <p>Whether sliding window metrics keep rolling sums, so that reading the sums (e.g. pass QPS) of a window
+     * is O(1) rather than scanning all buckets. The rolling sums may miss increments from requests racing with
+     * a window boundary (see {@code RollingWindowSums}). Disabled by default.</p>
+     *
+     * @return whether rolling sums are enabled
+     * @since 1.8.1
+     */
+    public static boolean statisticRollingSum() {
+        return Boolean.parseBoolean(props.get(STATISTIC_ROLLING_SUM));
+    }
+
+    /**
+     * <p>Get the max amount of origin nodes that one {@link com.alibaba.csp.sentinel.node.ClusterNode} holds.
+     * Origins that have not been used recently are evicted when the limit is exceeded, while origins with
+     * threads in flight are never evicted. Unbounded by default ({@link Integer#MAX_VALUE}).</p>
+     * <p>Evicted origins start with a fresh node (i.e. empty statistics) when they come back, so the limit
+     * should be above the amount of distinct origins that are active per resource.</p>
+     *
+     * @return the max origin node count of a resource
+     * @since 1.8.1
+     */
+    public static int maxOriginNodeCount() {
+        return positiveIntOf(MAX_ORIGIN_NODE_COUNT, DEFAULT_MAX_ORIGIN_NODE_COUNT);
+    }
+
+    /**
+     * <p>Whether pass, success and RT of entries are recorded in a per-thread buffer first, and then flushed
+     * to the statistic nodes in batches (see {@link #statisticDeferredMaxBatch()} and
+     * {@link #statisticDeferredMaxDelayMs()}). Disabled by default.</p>
+     * <p>Note that when enabled, flow checks may miss requests that have not been flushed yet.</p>
+     *
+     * @return whether deferred statistics are enabled
+     * @since 1.8.1
+     */
+    public static boolean statisticDeferred() {
+        return Boolean.parseBoolean(props.get(STATISTIC_DEFERRED));
+    }
+
+    /**
+     * <p>Get the max amount of events that are buffered before being flushed to statistic nodes. The bound is
+     * shared evenly by all threads that record statistics, and each thread buffers at least one event.</p>
+     *
+     * @return max batch size of deferred statistics
+     * @since 1.8.1
+     */
+    public static int statisticDeferredMaxBatch() {
+        return positiveIntOf(STATISTIC_DEFERRED_MAX_BATCH, DEFAULT_STATISTIC_DEFERRED_MAX_BATCH);
+    }
+
+    /**
+     * Get the max time (in milliseconds) that buffered events stay unflushed, i.e. the max staleness
+     * of statistics that flow checks see.
+     *
+     * @return max delay of deferred statistics
+     * @since 1.8.1
+     */
+    public static int statisticDeferredMaxDelayMs() {
+        return positiveIntOf(STATISTIC_DEFERRED_MAX_DELAY_MS, DEFAULT_STATISTIC_DEFERRED_MAX_DELAY_MS);
+    }
+
+    /**
+     * Whether statistics of Sentinel's own overhead (sampled slot cost, window contention and rule evaluations)
+     * are enabled on startup. Disabled by default.
+     *
+     * @return whether overhead statistics are enabled
+     * @since 1.8.1
+     */
+    public static boolean overheadStatEnabled() {
+        return Boolean.parseBoolean(props.get(OVERHEAD_STAT_ENABLED));
+    }
+
+    /**
+     * Get the sample interval of slot chain timing, i.e. one of how many slot chain calls (per thread) is timed.
+     * The value is rounded up to a power of 2.
+     *
+     * @return sample interval of overhead statistics
+     * @since 1.8.1
+     */
+    public static int overheadStatSampleInterval() {
+        return positiveIntOf(OVERHEAD_STAT_SAMPLE_INTERVAL, DEFAULT_OVERHEAD_STAT_SAMPLE_INTERVAL);
+    }
+
+    /**
+     * <p>Get the width (counters of each row) of the Count-Min Sketch of a hot-parameter rule with sketch
+     * statistics. The value is rounded up to a power of 2.</p>
+     * <p>A sketch overestimates a parameter value by about {@code e * N / width} (where {@code N} is the total
+     * count of the window), so the width should be large enough for the traffic of the window and the
+     * threshold of the rule.</p>
+     *
+     * @return width of the parameter sketch
+     * @since 1.8.1
+     */
+    public static int paramSketchWidth() {
+        return positiveIntOf(PARAM_SKETCH_WIDTH, DEFAULT_PARAM_SKETCH_WIDTH);
+    }
+
+    /**
+     * Get the max amount of heavy hitters that are counted exactly for a hot-parameter rule with sketch statistics.
+     *
+     * @return heavy hitter capacity of the parameter sketch
+     * @since 1.8.1
+     */
+    public static int paramSketchHeavyHitterCapacity() {
+        return positiveIntOf(PARAM_SKETCH_HEAVY_HITTER_CAPACITY, DEFAULT_PARAM_SKETCH_HEAVY_HITTER_CAPACITY);
+    }
+
+    /**
+     * <p>Whether the p50, p99 and p999 response time of resources with latency histograms are appended to
+     * the metric log and the {@code metric} command output. Disabled by default, as dashboards of previous
+     * versions only accept the metric lines of the legacy format.</p>
+     *
+     * @return whether percentiles of response time are written in metric lines
+     * @since 1.8.1
+     */
+    public static boolean metricPercentileRtEnabled() {
+        return Boolean.parseBoolean(props.get(METRIC_PERCENTILE_RT_ENABLED));
+    }
+
+    private static int positiveIntOf(String key, int defaultValue) {
+        String v = props.get(key);
+        if (StringUtil.isBlank(v)) {
+            return defaultValue;
+        }
+        try {
+            int value = Integer.parseInt(v.trim());
+            if (value <= 0) {
+                RecordLog.warn("[SentinelConfig] {} should be positive, using the default value instead: "
+                    + defaultValue, key);
+                return defaultValue;
+            }
+            return value;
+        } catch (Throwable throwable) {
+            RecordLog.warn("[SentinelConfig] Invalid {} value: {}, using the default value instead: "
+                + defaultValue, key, v, throwable);
+            return defaultValue;
+        }
+    }
+
     /**
      * Function for resolving project name. The order is elaborated below:
      *
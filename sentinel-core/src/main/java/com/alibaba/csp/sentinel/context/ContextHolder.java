@@ -0,0 +1,48 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.context;
+
+/**
+ * <p>The store of the {@link Context} of current execution (usually current thread).</p>
+ *
+ * <p>The default implementation keeps the context in a {@code ThreadLocal}. Runtimes with a huge amount of
+ * lightweight threads (e.g. virtual threads) may provide a cheaper carrier via SPI
+ * ({@code META-INF/services/com.alibaba.csp.sentinel.context.ContextHolder}).</p>
+ *
+ * @since 1.8.1
+ */
+public interface ContextHolder {
+
+    /**
+     * Get the context of current execution.
+     *
+     * @return the context, or null if absent
+     */
+    Context get();
+
+    /**
+     * Bind the context to current execution.
+     *
+     * @param context a non-null context
+     */
+    void set(Context context);
+
+    /**
+     * Unbind the context of current execution. Implementations should release all resources
+     * held for current execution here.
+     */
+    void remove();
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.context;
+
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.util.SpiLoader;
+
+/**
+ * A provider for the {@link ContextHolder} resolved via SPI.
+ *
+ * @since 1.8.1
+ */
+public final class ContextHolderProvider {
+
+    private static final ContextHolder HOLDER = resolveHolder();
+
+    private static ContextHolder resolveHolder() {
+        ContextHolder holder = SpiLoader.loadFirstInstanceOrDefault(ContextHolder.class,
+            ThreadLocalContextHolder.class);
+        if (holder == null) {
+            // Should not go through here.
+            RecordLog.warn("[ContextHolderProvider] Wrong state when resolving context holder, using default");
+            return new ThreadLocalContextHolder();
+        }
+        RecordLog.info("[ContextHolderProvider] Context holder resolved: {}", holder.getClass().getCanonicalName());
+        return holder;
+    }
+
+    /**
+     * Get the resolved context holder. The holder is resolved only once.
+     *
+     * @return the resolved context holder
+     */
+    public static ContextHolder getHolder() {
+        return HOLDER;
+    }
+
+    private ContextHolderProvider() {}
+}
@@ -15,10 +15,6 @@
  */
 package com.alibaba.csp.sentinel.context;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.locks.ReentrantLock;
-
 import com.alibaba.csp.sentinel.Constants;
 import com.alibaba.csp.sentinel.EntryType;
 import com.alibaba.csp.sentinel.SphO;
@@ -29,6 +25,8 @@ import com.alibaba.csp.sentinel.node.EntranceNode;
 import com.alibaba.csp.sentinel.node.Node;
 import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
 import com.alibaba.csp.sentinel.slots.nodeselector.NodeSelectorSlot;
+import com.alibaba.csp.sentinel.util.ConcurrentRegistry;
+import com.alibaba.csp.sentinel.util.function.Function;
 
 /**
  * Utility class to get or create {@link Context} in current thread.
@@ -45,16 +43,25 @@ import com.alibaba.csp.sentinel.slots.nodeselector.NodeSelectorSlot;
 public class ContextUtil {
 
     /**
-     * Store the context in ThreadLocal for easy access.
+     * Store the context in the resolved {@link ContextHolder} (ThreadLocal by default) for easy access.
      */
-    private static ThreadLocal<Context> contextHolder = new ThreadLocal<>();
+    private static final ContextHolder contextHolder = ContextHolderProvider.getHolder();
 
     /**
      * Holds all {@link EntranceNode}. Each {@link EntranceNode} is associated with a distinct context name.
      */
-    private static volatile Map<String, DefaultNode> contextNameNodeMap = new HashMap<>();
+    private static final ConcurrentRegistry<String, DefaultNode> contextNameNodeRegistry
+        = new ConcurrentRegistry<>(Constants.MAX_CONTEXT_NAME_SIZE + 1);
 
-    private static final ReentrantLock LOCK = new ReentrantLock();
+    private static final Function<String, DefaultNode> ENTRANCE_NODE_FACTORY = new Function<String, DefaultNode>() {
+        @Override
+        public DefaultNode apply(String name) {
+            EntranceNode node = new EntranceNode(new StringResourceWrapper(name, EntryType.IN), null);
+            // Add entrance node.
+            Constants.ROOT.addChild(node);
+            return node;
+        }
+    };
     private static final Context NULL_CONTEXT = new NullContext();
 
     static {
@@ -66,18 +73,16 @@ public class ContextUtil {
         String defaultContextName = Constants.CONTEXT_DEFAULT_NAME;
         EntranceNode node = new EntranceNode(new StringResourceWrapper(defaultContextName, EntryType.IN), null);
         Constants.ROOT.addChild(node);
-        contextNameNodeMap.put(defaultContextName, node);
+        contextNameNodeRegistry.asMap().put(defaultContextName, node);
     }
 
     /**
      * Not thread-safe, only for test.
      */
     static void resetContextMap() {
-        if (contextNameNodeMap != null) {
-            RecordLog.warn("Context map cleared and reset to initial state");
-            contextNameNodeMap.clear();
-            initDefaultContext();
-        }
+        RecordLog.warn("Context map cleared and reset to initial state");
+        contextNameNodeRegistry.clear();
+        initDefaultContext();
     }
 
     /**
@@ -120,35 +125,11 @@ public class ContextUtil {
     protected static Context trueEnter(String name, String origin) {
         Context context = contextHolder.get();
         if (context == null) {
-            Map<String, DefaultNode> localCacheNameMap = contextNameNodeMap;
-            DefaultNode node = localCacheNameMap.get(name);
+            DefaultNode node = contextNameNodeRegistry.getOrCreate(name, ENTRANCE_NODE_FACTORY);
             if (node == null) {
-                if (localCacheNameMap.size() > Constants.MAX_CONTEXT_NAME_SIZE) {
-                    setNullContext();
-                    return NULL_CONTEXT;
-                } else {
-                    LOCK.lock();
-                    try {
-                        node = contextNameNodeMap.get(name);
-                        if (node == null) {
-                            if (contextNameNodeMap.size() > Constants.MAX_CONTEXT_NAME_SIZE) {
-                                setNullContext();
-                                return NULL_CONTEXT;
-                            } else {
-                                node = new EntranceNode(new StringResourceWrapper(name, EntryType.IN), null);
-                                // Add entrance node.
-                                Constants.ROOT.addChild(node);
-
-                                Map<String, DefaultNode> newMap = new HashMap<>(contextNameNodeMap.size() + 1);
-                                newMap.putAll(contextNameNodeMap);
-                                newMap.put(name, node);
-                                contextNameNodeMap = newMap;
-                            }
-                        }
-                    } finally {
-                        LOCK.unlock();
-                    }
-                }
+                // The amount of context exceeds the threshold.
+                setNullContext();
+                return NULL_CONTEXT;
             }
             context = new Context(node, name);
             context.setOrigin(origin);
@@ -195,12 +176,13 @@ public class ContextUtil {
 
     /**
      * Exit context of current thread, that is removing {@link Context} in the
-     * ThreadLocal.
+     * {@link ContextHolder}.
      */
     public static void exit() {
         Context context = contextHolder.get();
         if (context != null && context.getCurEntry() == null) {
-            contextHolder.set(null);
+            // Remove rather than set null, so that short-lived threads do not leave stale slots behind.
+            contextHolder.remove();
         }
     }
 
@@ -211,7 +193,7 @@ public class ContextUtil {
      * @since 0.2.0
      */
     public static int contextSize() {
-        return contextNameNodeMap.size();
+        return contextNameNodeRegistry.size();
     }
 
     /**
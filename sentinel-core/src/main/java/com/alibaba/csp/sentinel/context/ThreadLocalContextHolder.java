@@ -0,0 +1,41 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.context;
+
+/**
+ * The default {@link ContextHolder} that stores the context in a {@code ThreadLocal}.
+ *
+ * @since 1.8.1
+ */
+public class ThreadLocalContextHolder implements ContextHolder {
+
+    private final ThreadLocal<Context> holder = new ThreadLocal<>();
+
+    @Override
+    public Context get() {
+        return holder.get();
+    }
+
+    @Override
+    public void set(Context context) {
+        holder.set(context);
+    }
+
+    @Override
+    public void remove() {
+        holder.remove();
+    }
+}
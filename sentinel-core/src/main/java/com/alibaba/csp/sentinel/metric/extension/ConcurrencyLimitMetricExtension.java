@@ -0,0 +1,34 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.metric.extension;
+
+/**
+ * Extended {@link MetricExtension} that gets notified when the adaptive concurrency limit
+ * of a resource changes.
+ *
+ * @since 1.8.1
+ */
+public interface ConcurrencyLimitMetricExtension extends MetricExtension {
+
+    /**
+     * Notify that the adaptive concurrency limit of the resource has been changed.
+     *
+     * @param resource resource name
+     * @param oldLimit the previous concurrency limit
+     * @param newLimit the new concurrency limit
+     */
+    void onConcurrencyLimitChanged(String resource, int oldLimit, int newLimit);
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.metric.extension;
+
+import com.alibaba.csp.sentinel.metric.overhead.OverheadRecorder;
+
+/**
+ * Extended {@link MetricExtension} that gets notified of the sampled cost of slots, when overhead
+ * statistics are enabled (see {@link OverheadRecorder}).
+ *
+ * @since 1.8.1
+ */
+public interface OverheadMetricExtension extends MetricExtension {
+
+    /**
+     * Add sampled self cost of a slot on entry.
+     *
+     * @param resource  resource name
+     * @param slotName  class name of the slot
+     * @param costNanos self cost of the slot in nanoseconds, excluding the slots after it
+     */
+    void addSlotEntryCost(String resource, String slotName, long costNanos);
+
+    /**
+     * Add sampled self cost of a slot on exit.
+     *
+     * @param resource  resource name
+     * @param slotName  class name of the slot
+     * @param costNanos self cost of the slot in nanoseconds, excluding the slots after it
+     */
+    void addSlotExitCost(String resource, String slotName, long costNanos);
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.metric.overhead;
+
+/**
+ * Events of Sentinel's own work on the hot path, counted by {@link OverheadRecorder}.
+ *
+ * @since 1.8.1
+ */
+public enum OverheadEvent {
+
+    /**
+     * A deprecated bucket of a sliding window is reset.
+     */
+    WINDOW_RESET,
+    /**
+     * A thread fails to get (or create) the current bucket due to contention, and yields its time slice.
+     */
+    WINDOW_CONTENTION,
+    /**
+     * A flow rule is evaluated.
+     */
+    FLOW_RULE_CHECK,
+    /**
+     * A circuit breaker is evaluated.
+     */
+    DEGRADE_RULE_CHECK,
+    /**
+     * An authority rule is evaluated.
+     */
+    AUTHORITY_RULE_CHECK,
+    /**
+     * System rules are evaluated.
+     */
+    SYSTEM_RULE_CHECK,
+    /**
+     * A hot parameter flow rule is evaluated.
+     */
+    PARAM_FLOW_RULE_CHECK
+}
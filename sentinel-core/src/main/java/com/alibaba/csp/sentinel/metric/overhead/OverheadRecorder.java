@@ -0,0 +1,186 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.metric.overhead;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.metric.extension.MetricExtension;
+import com.alibaba.csp.sentinel.metric.extension.MetricExtensionProvider;
+import com.alibaba.csp.sentinel.metric.extension.OverheadMetricExtension;
+import com.alibaba.csp.sentinel.slots.statistic.base.LongAdder;
+
+/**
+ * <p>
+ * Self-instrumentation of Sentinel, which records how much work Sentinel itself does on the hot path:
+ * </p>
+ * <ul>
+ * <li>Sampled nanosecond cost of the slot chain and of each slot, on both entry and exit. One of every
+ * {@link #getSampleInterval()} slot chain calls of a thread is sampled.</li>
+ * <li>Counters of {@link OverheadEvent}, e.g. window reset contention and rule evaluations.</li>
+ * </ul>
+ * <p>
+ * The statistics are disabled by default (see {@link SentinelConfig#overheadStatEnabled()}), and then cost
+ * a single volatile read per slot. They can be turned on at runtime via {@link #setEnabled(boolean)}.
+ * Sampled slot costs are also notified to {@link OverheadMetricExtension}.
+ * </p>
+ *
+ * @since 1.8.1
+ */
+public final class OverheadRecorder {
+
+    private static volatile boolean enabled = SentinelConfig.overheadStatEnabled();
+    private static final int SAMPLE_INTERVAL = sampleIntervalOf(SentinelConfig.overheadStatSampleInterval());
+
+    private static final LongAdder[] EVENT_COUNTERS = new LongAdder[OverheadEvent.values().length];
+
+    private static final CostRecorder CHAIN_ENTRY = new CostRecorder();
+    private static final CostRecorder CHAIN_EXIT = new CostRecorder();
+    private static final ConcurrentMap<String, CostRecorder> SLOT_ENTRIES
+        = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, CostRecorder> SLOT_EXITS
+        = new ConcurrentHashMap<>();
+
+    static {
+        for (OverheadEvent event : OverheadEvent.values()) {
+            EVENT_COUNTERS[event.ordinal()] = new LongAdder();
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        OverheadRecorder.enabled = enabled;
+        RecordLog.info("[OverheadRecorder] Overhead statistics enabled: {}", enabled);
+    }
+
+    /**
+     * @return one of how many slot chain calls (per thread) is sampled for timing, always a power of 2
+     */
+    public static int getSampleInterval() {
+        return SAMPLE_INTERVAL;
+    }
+
+    public static void addEvent(OverheadEvent event) {
+        if (enabled) {
+            EVENT_COUNTERS[event.ordinal()].increment();
+        }
+    }
+
+    public static void addEvent(OverheadEvent event, int count) {
+        if (enabled) {
+            EVENT_COUNTERS[event.ordinal()].add(count);
+        }
+    }
+
+    public static void recordChainEntry(long costNanos) {
+        CHAIN_ENTRY.record(costNanos);
+    }
+
+    public static void recordChainExit(long costNanos) {
+        CHAIN_EXIT.record(costNanos);
+    }
+
+    /**
+     * Record sampled self cost of a slot on entry.
+     *
+     * @param resource  resource name
+     * @param slotName  slot name
+     * @param costNanos self cost of the slot, excluding the slots after it
+     */
+    public static void recordSlotEntry(String resource, String slotName, long costNanos) {
+        recorderOf(SLOT_ENTRIES, slotName).record(costNanos);
+        for (MetricExtension m : MetricExtensionProvider.getMetricExtensions()) {
+            if (m instanceof OverheadMetricExtension) {
+                ((OverheadMetricExtension) m).addSlotEntryCost(resource, slotName, costNanos);
+            }
+        }
+    }
+
+    /**
+     * Record sampled self cost of a slot on exit.
+     *
+     * @param resource  resource name
+     * @param slotName  slot name
+     * @param costNanos self cost of the slot, excluding the slots after it
+     */
+    public static void recordSlotExit(String resource, String slotName, long costNanos) {
+        recorderOf(SLOT_EXITS, slotName).record(costNanos);
+        for (MetricExtension m : MetricExtensionProvider.getMetricExtensions()) {
+            if (m instanceof OverheadMetricExtension) {
+                ((OverheadMetricExtension) m).addSlotExitCost(resource, slotName, costNanos);
+            }
+        }
+    }
+
+    public static OverheadSnapshot snapshot() {
+        Map<String, Long> events = new TreeMap<>();
+        for (OverheadEvent event : OverheadEvent.values()) {
+            events.put(event.name(), EVENT_COUNTERS[event.ordinal()].sum());
+        }
+        return new OverheadSnapshot(enabled, SAMPLE_INTERVAL, CHAIN_ENTRY.snapshot(), CHAIN_EXIT.snapshot(),
+            snapshotOf(SLOT_ENTRIES), snapshotOf(SLOT_EXITS), events);
+    }
+
+    /**
+     * Clear all overhead statistics.
+     */
+    public static void reset() {
+        for (LongAdder counter : EVENT_COUNTERS) {
+            counter.reset();
+        }
+        CHAIN_ENTRY.reset();
+        CHAIN_EXIT.reset();
+        SLOT_ENTRIES.clear();
+        SLOT_EXITS.clear();
+    }
+
+    private static CostRecorder recorderOf(ConcurrentMap<String, CostRecorder> map, String slotName) {
+        CostRecorder recorder = map.get(slotName);
+        if (recorder == null) {
+            CostRecorder newRecorder = new CostRecorder();
+            recorder = map.putIfAbsent(slotName, newRecorder);
+            if (recorder == null) {
+                recorder = newRecorder;
+            }
+        }
+        return recorder;
+    }
+
+    private static Map<String, CostStat> snapshotOf(Map<String, CostRecorder> map) {
+        Map<String, CostStat> snapshot = new TreeMap<>();
+        for (Map.Entry<String, CostRecorder> e : map.entrySet()) {
+            snapshot.put(e.getKey(), e.getValue().snapshot());
+        }
+        return snapshot;
+    }
+
+    static int sampleIntervalOf(int interval) {
+        int n = 1;
+        while (n < interval && n < (1 << 30)) {
+            n <<= 1;
+        }
+        return n;
+    }
+
+    private OverheadRecorder() {}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.metric.overhead;
+
+import java.util.Map;
+
+/**
+ * Snapshot of Sentinel's own overhead statistics (see {@link OverheadRecorder}).
+ *
+ * @since 1.8.1
+ */
+public class OverheadSnapshot {
+
+    private final boolean enabled;
+    private final int sampleInterval;
+    private final CostStat chainEntry;
+    private final CostStat chainExit;
+    private final Map<String, CostStat> slotEntries;
+    private final Map<String, CostStat> slotExits;
+    private final Map<String, Long> events;
+
+    OverheadSnapshot(boolean enabled, int sampleInterval, CostStat chainEntry, CostStat chainExit,
+                     Map<String, CostStat> slotEntries, Map<String, CostStat> slotExits,
+                     Map<String, Long> events) {
+        this.enabled = enabled;
+        this.sampleInterval = sampleInterval;
+        this.chainEntry = chainEntry;
+        this.chainExit = chainExit;
+        this.slotEntries = slotEntries;
+        this.slotExits = slotExits;
+        this.events = events;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return one of how many slot chain calls (per thread) is sampled for timing
+     */
+    public int getSampleInterval() {
+        return sampleInterval;
+    }
+
+    /**
+     * @return sampled cost of the whole slot chain on entry
+     */
+    public CostStat getChainEntry() {
+        return chainEntry;
+    }
+
+    /**
+     * @return sampled cost of the whole slot chain on exit
+     */
+    public CostStat getChainExit() {
+        return chainExit;
+    }
+
+    /**
+     * @return sampled self cost of each slot (by class name) on entry, excluding the slots after it
+     */
+    public Map<String, CostStat> getSlotEntries() {
+        return slotEntries;
+    }
+
+    /**
+     * @return sampled self cost of each slot (by class name) on exit, excluding the slots after it
+     */
+    public Map<String, CostStat> getSlotExits() {
+        return slotExits;
+    }
+
+    /**
+     * @return count of each {@link OverheadEvent} (by name)
+     */
+    public Map<String, Long> getEvents() {
+        return events;
+    }
+
+    @Override
+    public String toString() {
+        return "OverheadSnapshot{" +
+            "enabled=" + enabled +
+            ", sampleInterval=" + sampleInterval +
+            ", chainEntry=" + chainEntry +
+            ", chainExit=" + chainExit +
+            ", slotEntries=" + slotEntries +
+            ", slotExits=" + slotExits +
+            ", events=" + events +
+            '}';
+    }
+}
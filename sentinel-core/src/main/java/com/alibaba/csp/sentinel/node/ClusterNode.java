@@ -15,11 +15,10 @@
  */
 package com.alibaba.csp.sentinel.node;
 
-import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.locks.ReentrantLock;
 
 import com.alibaba.csp.sentinel.ResourceTypeConstants;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.context.ContextUtil;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
 import com.alibaba.csp.sentinel.util.AssertUtil;
@@ -33,11 +32,15 @@ import com.alibaba.csp.sentinel.util.AssertUtil;
  * <p>
  * To distinguish invocation from different origin (declared in
  * {@link ContextUtil#enter(String name, String origin)}),
- * one {@link ClusterNode} holds an {@link #originCountMap}, this map holds {@link StatisticNode}
+ * one {@link ClusterNode} holds an origin index, this index holds {@link StatisticNode}
  * of different origin. Use {@link #getOrCreateOriginNode(String)} to get {@link Node} of the specific
  * origin.<br/>
  * Note that 'origin' usually is Service Consumer's app name.
  * </p>
+ * <p>
+ * The index can be bounded by {@link SentinelConfig#maxOriginNodeCount()} (unbounded by default). When there
+ * are more origins, the least recently used ones are evicted (see {@link #getOriginEvictedCount()}).
+ * </p>
  *
  * @author qinan.qn
  * @author jialiang.linjl
@@ -52,22 +55,21 @@ public class ClusterNode extends StatisticNode {
     }
 
     public ClusterNode(String name, int resourceType) {
+        super(WindowResolutionProperty.getResolution(name));
         AssertUtil.notEmpty(name, "name cannot be empty");
         this.name = name;
         this.resourceType = resourceType;
+        setLatencyHistogramEnabled(LatencyHistogramProperty.isEnabled(name));
     }
 
     /**
-     * <p>The origin map holds the pair: (origin, originNode) for one specific resource.</p>
+     * <p>The origin index holds the pair: (origin, originNode) for one specific resource.</p>
      * <p>
-     * The longer the application runs, the more stable this mapping will become.
-     * So we didn't use concurrent map here, but a lock, as this lock only happens
-     * at the very beginning while concurrent map will hold the lock all the time.
+     * Lookups are lock-free, while creating (and evicting) origin nodes happens under a lock,
+     * as the mapping becomes stable when the application keeps running.
      * </p>
      */
-    private Map<String, StatisticNode> originCountMap = new HashMap<>();
-
-    private final ReentrantLock lock = new ReentrantLock();
+    private final OriginNodeIndex originIndex = new OriginNodeIndex(SentinelConfig.maxOriginNodeCount());
 
     /**
      * Get resource name of the resource node.
@@ -99,28 +101,60 @@ public class ClusterNode extends StatisticNode {
      * @return the {@link Node} of the specific origin
      */
     public Node getOrCreateOriginNode(String origin) {
-        StatisticNode statisticNode = originCountMap.get(origin);
-        if (statisticNode == null) {
-            lock.lock();
-            try {
-                statisticNode = originCountMap.get(origin);
-                if (statisticNode == null) {
-                    // The node is absent, create a new node for the origin.
-                    statisticNode = new StatisticNode();
-                    HashMap<String, StatisticNode> newMap = new HashMap<>(originCountMap.size() + 1);
-                    newMap.putAll(originCountMap);
-                    newMap.put(origin, statisticNode);
-                    originCountMap = newMap;
-                }
-            } finally {
-                lock.unlock();
-            }
+        return originIndex.getOrCreate(origin, windowResolution);
+    }
+
+    /**
+     * <p>Increase the thread count of the origin node got from {@link #getOrCreateOriginNode(String)}.</p>
+     * <p>If the node has been evicted meanwhile, the thread count is increased on the current node
+     * of the origin, which should be used from then on.</p>
+     *
+     * @param origin     the origin
+     * @param originNode the origin node got before
+     * @return the origin node whose thread count has been increased
+     * @since 1.8.1
+     */
+    public Node increaseOriginThreadNum(String origin, Node originNode) {
+        if (!(originNode instanceof StatisticNode)) {
+            originNode.increaseThreadNum();
+            return originNode;
         }
-        return statisticNode;
+        return originIndex.increaseThreadNum(origin, (StatisticNode)originNode, windowResolution);
     }
 
+    /**
+     * Get a snapshot of the origin nodes.
+     *
+     * @return an unmodifiable map of (origin, originNode) pairs
+     */
     public Map<String, StatisticNode> getOriginCountMap() {
-        return originCountMap;
+        return originIndex.snapshot();
+    }
+
+    /**
+     * Get the amount of origin nodes that have been evicted as the origin count exceeded
+     * {@link SentinelConfig#maxOriginNodeCount()}.
+     *
+     * @return evicted origin node count
+     * @since 1.8.1
+     */
+    public long getOriginEvictedCount() {
+        return originIndex.getEvictedCount();
+    }
+
+    /**
+     * Reset the second-level statistics of the node and its origin nodes with the latest window resolution
+     * of the resource.
+     */
+    @Override
+    public void reset() {
+        WindowResolution resolution = WindowResolutionProperty.getResolution(name);
+        this.windowResolution = resolution;
+        super.reset();
+        for (OriginNodeIndex.OriginEntry entry : originIndex.entries()) {
+            entry.node.windowResolution = resolution;
+            entry.node.reset();
+        }
     }
 
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.property.SentinelProperty;
+import com.alibaba.csp.sentinel.property.SimplePropertyListener;
+import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+
+/**
+ * <p>Holds the resources whose response time is recorded in latency histograms
+ * (see {@link com.alibaba.csp.sentinel.slots.statistic.data.LatencyHistogram}).</p>
+ *
+ * <p>The histograms are disabled by default. For enabled resources, the {@link ClusterNode} keeps
+ * a histogram per second of the last minute, and the percentiles of response time are provided
+ * in the {@link com.alibaba.csp.sentinel.node.metric.MetricNode}s (and then the metric log).</p>
+ *
+ * @since 1.8.1
+ */
+public final class LatencyHistogramProperty {
+
+    private static volatile Set<String> resources = Collections.emptySet();
+
+    public static void register2Property(SentinelProperty<Set<String>> property) {
+        property.addListener(new SimplePropertyListener<Set<String>>() {
+            @Override
+            public void configUpdate(Set<String> value) {
+                updateResources(value);
+            }
+        });
+    }
+
+    public static boolean isEnabled(String resourceName) {
+        return resourceName != null && resources.contains(resourceName);
+    }
+
+    public static Set<String> getResources() {
+        return resources;
+    }
+
+    /**
+     * Replace all resources with latency histograms enabled. Histograms of the {@link ClusterNode}s
+     * will be created or dropped accordingly.
+     *
+     * @param newResources new resources, null means disabling histograms for all resources
+     */
+    public static synchronized void updateResources(Set<String> newResources) {
+        Set<String> newSet = new HashSet<>();
+        if (newResources != null) {
+            for (String resource : newResources) {
+                if (resource != null) {
+                    newSet.add(resource);
+                }
+            }
+        }
+        Set<String> oldSet = resources;
+        resources = Collections.unmodifiableSet(newSet);
+
+        Set<String> changed = new HashSet<>(oldSet);
+        changed.addAll(newSet);
+        for (String resource : changed) {
+            boolean enabled = newSet.contains(resource);
+            if (enabled == oldSet.contains(resource)) {
+                continue;
+            }
+            for (EntryType type : EntryType.values()) {
+                ClusterNode node = ClusterBuilderSlot.getClusterNode(resource, type);
+                if (node != null) {
+                    node.setLatencyHistogramEnabled(enabled);
+                }
+            }
+        }
+        RecordLog.info("[LatencyHistogramProperty] Latency histogram resources updated: {}", resources);
+    }
+
+    private LatencyHistogramProperty() {}
+}
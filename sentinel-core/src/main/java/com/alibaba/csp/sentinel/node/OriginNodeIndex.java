@@ -0,0 +1,227 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>Bounded index of the origin nodes of a {@link ClusterNode}.</p>
+ *
+ * <p>Lookups are lock-free. Each lookup sets the reference bit of the entry, which is written only when
+ * it's not set yet, so hot origins don't keep invalidating the cache line. When a new origin would exceed
+ * the capacity, a batch of origins is evicted under the creation lock with the CLOCK algorithm: the hand
+ * sweeps over the entries, clearing the reference bits, and evicts the entries whose bits are already clear.
+ * Origins that have threads in flight are never evicted, so the index may temporarily exceed the capacity
+ * if all the origins are busy.</p>
+ *
+ * <p>As a node may be evicted between its lookup and the time its thread count is increased, an evicted node
+ * is marked as removed. Callers increase the thread count via {@link #increaseThreadNum(String, StatisticNode,
+ * WindowResolution)}, which checks the mark afterwards and moves to the current node of the origin if needed.
+ * The index is unbounded if the capacity is {@link Integer#MAX_VALUE}, where nothing is evicted.</p>
+ *
+ * @since 1.8.1
+ */
+final class OriginNodeIndex {
+
+    private static final int INITIAL_RING_SIZE = 8;
+
+    private final int maxSize;
+    private final boolean bounded;
+    private final int evictBatchSize;
+
+    private final ConcurrentHashMap<String, OriginEntry> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * The clock ring and the free slots in it, guarded by the lock.
+     */
+    private OriginEntry[] ring = new OriginEntry[INITIAL_RING_SIZE];
+    private int ringSize = 0;
+    private int[] freeSlots = new int[INITIAL_RING_SIZE];
+    private int freeCount = 0;
+    private int hand = 0;
+
+    private volatile long evictedCount = 0;
+
+    OriginNodeIndex(int maxSize) {
+        AssertUtil.isTrue(maxSize > 0, "maxSize should be positive");
+        this.maxSize = maxSize;
+        this.bounded = maxSize < Integer.MAX_VALUE;
+        this.evictBatchSize = Math.max(1, maxSize / 16);
+    }
+
+    StatisticNode get(String origin) {
+        OriginEntry entry = entries.get(origin);
+        if (entry == null) {
+            return null;
+        }
+        entry.touch();
+        return entry.node;
+    }
+
+    StatisticNode getOrCreate(String origin, WindowResolution resolution) {
+        StatisticNode node = get(origin);
+        if (node != null) {
+            return node;
+        }
+        lock.lock();
+        try {
+            node = get(origin);
+            if (node == null) {
+                if (entries.size() >= maxSize) {
+                    evict();
+                }
+                // The node is absent, create a new node for the origin.
+                node = bounded ? new OriginNode(resolution) : new StatisticNode(resolution);
+                OriginEntry entry = new OriginEntry(origin, node);
+                int slot = nextSlot();
+                ring[slot] = entry;
+                entries.put(origin, entry);
+            }
+            return node;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Increase the thread count of the origin node. If the node has been evicted meanwhile, the thread count
+     * is increased on the current node of the origin instead.
+     *
+     * @param origin     the origin
+     * @param node       the node of the origin that has been looked up before
+     * @param resolution window resolution of new nodes
+     * @return the node whose thread count has been increased
+     */
+    StatisticNode increaseThreadNum(String origin, StatisticNode node, WindowResolution resolution) {
+        while (true) {
+            node.increaseThreadNum();
+            if (!(node instanceof OriginNode) || !((OriginNode)node).removed) {
+                // The eviction checks the thread count after marking the node, so the node is kept.
+                return node;
+            }
+            node.decreaseThreadNum();
+            node = getOrCreate(origin, resolution);
+        }
+    }
+
+    private int nextSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (ringSize == ring.length) {
+            ring = Arrays.copyOf(ring, ringSize * 2);
+            freeSlots = Arrays.copyOf(freeSlots, ringSize * 2);
+        }
+        return ringSize++;
+    }
+
+    private void evict() {
+        int toEvict = Math.max(evictBatchSize, entries.size() - maxSize + 1);
+        int evicted = 0;
+        // Each idle entry is visited at most twice: once to clear its bit, and once more to evict it.
+        for (int scanned = 0, limit = ringSize * 2; scanned < limit && evicted < toEvict; scanned++) {
+            OriginEntry entry = ring[hand];
+            if (entry != null && entry.node.curThreadNum() <= 0) {
+                if (entry.referenced) {
+                    entry.referenced = false;
+                } else if (markRemoved(entry.node)) {
+                    entries.remove(entry.origin);
+                    ring[hand] = null;
+                    freeSlots[freeCount++] = hand;
+                    evicted++;
+                }
+            }
+            hand = hand + 1 == ringSize ? 0 : hand + 1;
+        }
+        evictedCount += evicted;
+    }
+
+    private static boolean markRemoved(StatisticNode node) {
+        OriginNode originNode = (OriginNode)node;
+        originNode.removed = true;
+        // Pairs with increaseThreadNum(): either the caller sees the mark, or we see its thread.
+        if (originNode.curThreadNum() > 0) {
+            originNode.removed = false;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return a snapshot of the (origin, originNode) pairs
+     */
+    Map<String, StatisticNode> snapshot() {
+        Map<String, StatisticNode> map = new HashMap<>(entries.size());
+        for (OriginEntry entry : entries.values()) {
+            map.put(entry.origin, entry.node);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    Iterable<OriginEntry> entries() {
+        return entries.values();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    int getMaxSize() {
+        return maxSize;
+    }
+
+    long getEvictedCount() {
+        return evictedCount;
+    }
+
+    /**
+     * Origin node of a bounded index, which is marked when evicted.
+     */
+    static final class OriginNode extends StatisticNode {
+
+        private volatile boolean removed;
+
+        OriginNode(WindowResolution windowResolution) {
+            super(windowResolution);
+        }
+    }
+
+    static final class OriginEntry {
+
+        final String origin;
+        final StatisticNode node;
+        private volatile boolean referenced;
+
+        OriginEntry(String origin, StatisticNode node) {
+            this.origin = origin;
+            this.node = node;
+        }
+
+        void touch() {
+            if (!referenced) {
+                referenced = true;
+            }
+        }
+    }
+}
@@ -17,8 +17,11 @@ package com.alibaba.csp.sentinel.node;
 
 import com.alibaba.csp.sentinel.node.metric.MetricNode;
 import com.alibaba.csp.sentinel.slots.statistic.base.LongAdder;
+import com.alibaba.csp.sentinel.slots.statistic.data.LatencyHistogram;
 import com.alibaba.csp.sentinel.slots.statistic.metric.ArrayMetric;
+import com.alibaba.csp.sentinel.slots.statistic.metric.HistogramLeapArray;
 import com.alibaba.csp.sentinel.slots.statistic.metric.Metric;
+import com.alibaba.csp.sentinel.slots.statistic.metric.occupy.OccupiableBucketLeapArray;
 import com.alibaba.csp.sentinel.util.TimeUtil;
 import com.alibaba.csp.sentinel.util.function.Predicate;
 
@@ -93,8 +96,12 @@ public class StatisticNode implements Node {
      * Holds statistics of the recent {@code INTERVAL} seconds. The {@code INTERVAL} is divided into time spans
      * by given {@code sampleCount}.
      */
-    private transient volatile Metric rollingCounterInSecond = new ArrayMetric(SampleCountProperty.SAMPLE_COUNT,
-        IntervalProperty.INTERVAL);
+    private transient volatile Metric rollingCounterInSecond;
+
+    /**
+     * Custom resolution of {@code rollingCounterInSecond}, or null for the global default.
+     */
+    volatile WindowResolution windowResolution;
 
     /**
      * Holds statistics of the recent 60 seconds. The windowLengthInMs is deliberately set to 1000 milliseconds,
@@ -102,6 +109,13 @@ public class StatisticNode implements Node {
      */
     private transient Metric rollingCounterInMinute = new ArrayMetric(60, 60 * 1000, false);
 
+    /**
+     * Latency histograms of the recent 60 seconds (a histogram per second), or null if disabled.
+     *
+     * @see LatencyHistogramProperty
+     */
+    private transient volatile HistogramLeapArray latencyHistogramInMinute;
+
     /**
      * The counter for thread count.
      */
@@ -112,6 +126,29 @@ public class StatisticNode implements Node {
      */
     private long lastFetchTime = -1;
 
+    public StatisticNode() {
+        this(null);
+    }
+
+    /**
+     * Create a node whose second-level statistics use the given window resolution.
+     *
+     * @param windowResolution resolution of the second-level window, null for the global default
+     * @since 1.8.1
+     */
+    public StatisticNode(WindowResolution windowResolution) {
+        this.windowResolution = windowResolution;
+        this.rollingCounterInSecond = newSecondMetric(windowResolution);
+    }
+
+    private static Metric newSecondMetric(WindowResolution resolution) {
+        if (resolution == null) {
+            return new ArrayMetric(SampleCountProperty.SAMPLE_COUNT, IntervalProperty.INTERVAL);
+        }
+        return new ArrayMetric(
+            new OccupiableBucketLeapArray(resolution.getSampleCount(), resolution.getIntervalInMs(), true));
+    }
+
     @Override
     public Map<Long, MetricNode> metrics() {
         // The fetch operation is thread-safe under a single-thread scheduler pool.
@@ -119,10 +156,14 @@ public class StatisticNode implements Node {
         currentTime = currentTime - currentTime % 1000;
         Map<Long, MetricNode> metrics = new ConcurrentHashMap<>();
         List<MetricNode> nodesOfEverySecond = rollingCounterInMinute.details();
+        HistogramLeapArray histograms = latencyHistogramInMinute;
         long newLastFetchTime = lastFetchTime;
         // Iterate metrics of all resources, filter valid metrics (not-empty and up-to-date).
         for (MetricNode node : nodesOfEverySecond) {
             if (isNodeInTime(node, currentTime) && isValidMetricNode(node)) {
+                if (histograms != null) {
+                    fillPercentiles(node, histograms.getWindowValue(node.getTimestamp()));
+                }
                 metrics.put(node.getTimestamp(), node);
                 newLastFetchTime = Math.max(newLastFetchTime, node.getTimestamp());
             }
@@ -137,6 +178,15 @@ public class StatisticNode implements Node {
         return rollingCounterInMinute.detailsOnCondition(timePredicate);
     }
 
+    private void fillPercentiles(MetricNode node, LatencyHistogram histogram) {
+        if (histogram == null || histogram.count() == 0) {
+            return;
+        }
+        node.setP50Rt(histogram.valueAtPercentile(50));
+        node.setP99Rt(histogram.valueAtPercentile(99));
+        node.setP999Rt(histogram.valueAtPercentile(99.9));
+    }
+
     private boolean isNodeInTime(MetricNode node, long currentTime) {
         return node.getTimestamp() > lastFetchTime && node.getTimestamp() < currentTime;
     }
@@ -148,7 +198,7 @@ public class StatisticNode implements Node {
 
     @Override
     public void reset() {
-        rollingCounterInSecond = new ArrayMetric(SampleCountProperty.SAMPLE_COUNT, IntervalProperty.INTERVAL);
+        rollingCounterInSecond = newSecondMetric(windowResolution);
     }
 
     @Override
@@ -255,6 +305,40 @@ public class StatisticNode implements Node {
 
         rollingCounterInMinute.addSuccess(successCount);
         rollingCounterInMinute.addRT(rt);
+
+        HistogramLeapArray histograms = latencyHistogramInMinute;
+        if (histograms != null) {
+            histograms.currentWindow().value().record(rt);
+        }
+    }
+
+    /**
+     * Check whether the response time is recorded in latency histograms.
+     *
+     * @return true if latency histograms are enabled
+     * @since 1.8.1
+     */
+    public boolean isLatencyHistogramEnabled() {
+        return latencyHistogramInMinute != null;
+    }
+
+    /**
+     * Get the response time at given percentile in the recent 60 seconds.
+     *
+     * @param percentile percentile in range (0, 100]
+     * @return response time at given percentile, or -1 if latency histograms are disabled or empty
+     * @since 1.8.1
+     */
+    public long rtPercentileInMinute(double percentile) {
+        HistogramLeapArray histograms = latencyHistogramInMinute;
+        return histograms == null ? -1 : histograms.valueAtPercentile(percentile);
+    }
+
+    void setLatencyHistogramEnabled(boolean enabled) {
+        if (enabled == (latencyHistogramInMinute != null)) {
+            return;
+        }
+        latencyHistogramInMinute = enabled ? new HistogramLeapArray(60, 60 * 1000) : null;
     }
 
     @Override
@@ -286,14 +370,17 @@ public class StatisticNode implements Node {
 
     @Override
     public long tryOccupyNext(long currentTime, int acquireCount, double threshold) {
-        double maxCount = threshold * IntervalProperty.INTERVAL / 1000;
+        WindowResolution resolution = windowResolution;
+        int intervalInMs = resolution == null ? IntervalProperty.INTERVAL : resolution.getIntervalInMs();
+        int sampleCount = resolution == null ? SampleCountProperty.SAMPLE_COUNT : resolution.getSampleCount();
+        double maxCount = threshold * intervalInMs / 1000;
         long currentBorrow = rollingCounterInSecond.waiting();
         if (currentBorrow >= maxCount) {
             return OccupyTimeoutProperty.getOccupyTimeout();
         }
 
-        int windowLength = IntervalProperty.INTERVAL / SampleCountProperty.SAMPLE_COUNT;
-        long earliestTime = currentTime - currentTime % windowLength + windowLength - IntervalProperty.INTERVAL;
+        int windowLength = intervalInMs / sampleCount;
+        long earliestTime = currentTime - currentTime % windowLength + windowLength - intervalInMs;
 
         int idx = 0;
         /*
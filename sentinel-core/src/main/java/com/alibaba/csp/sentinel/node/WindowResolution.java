@@ -0,0 +1,81 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node;
+
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>Resolution of the second-level sliding window of a resource, i.e. the bucket count
+ * ({@code sampleCount}) and the total time span ({@code intervalInMs}) of the window.</p>
+ *
+ * <p>For example, {@code new WindowResolution(100, 1000)} means 100 buckets of 10 ms, so that flow rules
+ * of the resource can be checked against a 1-second window that slides every 10 ms.</p>
+ *
+ * @since 1.8.1
+ */
+public final class WindowResolution {
+
+    /**
+     * Max bucket count of a window, which bounds the memory cost of a single node.
+     */
+    public static final int MAX_SAMPLE_COUNT = 1000;
+
+    private final int sampleCount;
+    private final int intervalInMs;
+
+    public WindowResolution(int sampleCount, int intervalInMs) {
+        AssertUtil.isTrue(sampleCount > 0 && sampleCount <= MAX_SAMPLE_COUNT,
+            "sampleCount should be in range [1, " + MAX_SAMPLE_COUNT + "]");
+        AssertUtil.isTrue(intervalInMs > 0, "intervalInMs should be positive");
+        AssertUtil.isTrue(intervalInMs % sampleCount == 0, "time span needs to be evenly divided");
+        this.sampleCount = sampleCount;
+        this.intervalInMs = intervalInMs;
+    }
+
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    public int getIntervalInMs() {
+        return intervalInMs;
+    }
+
+    public int getWindowLengthInMs() {
+        return intervalInMs / sampleCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) { return true; }
+        if (o == null || getClass() != o.getClass()) { return false; }
+
+        WindowResolution that = (WindowResolution)o;
+        return sampleCount == that.sampleCount && intervalInMs == that.intervalInMs;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * sampleCount + intervalInMs;
+    }
+
+    @Override
+    public String toString() {
+        return "WindowResolution{" +
+            "sampleCount=" + sampleCount +
+            ", intervalInMs=" + intervalInMs +
+            '}';
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.property.SentinelProperty;
+import com.alibaba.csp.sentinel.property.SimplePropertyListener;
+import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+
+/**
+ * <p>Holds the per-resource {@link WindowResolution} of the second-level sliding window.</p>
+ *
+ * <p>Resources without a custom resolution use the global {@link SampleCountProperty#SAMPLE_COUNT} and
+ * {@link IntervalProperty#INTERVAL}. The resolution applies to the {@link ClusterNode} and the origin nodes
+ * of the resource. Those nodes use compact, lazily allocated buckets. Prioritized requests may occupy
+ * future tokens of the high-resolution window, just like the default one.</p>
+ *
+ * @since 1.8.1
+ */
+public final class WindowResolutionProperty {
+
+    private static volatile Map<String, WindowResolution> resolutionMap = Collections.emptyMap();
+
+    public static void register2Property(SentinelProperty<Map<String, WindowResolution>> property) {
+        property.addListener(new SimplePropertyListener<Map<String, WindowResolution>>() {
+            @Override
+            public void configUpdate(Map<String, WindowResolution> value) {
+                updateResolutions(value);
+            }
+        });
+    }
+
+    /**
+     * Get the custom window resolution of provided resource.
+     *
+     * @param resourceName resource name
+     * @return the window resolution, or null if the resource uses the global default
+     */
+    public static WindowResolution getResolution(String resourceName) {
+        if (resourceName == null) {
+            return null;
+        }
+        return resolutionMap.get(resourceName);
+    }
+
+    public static Map<String, WindowResolution> getResolutions() {
+        return resolutionMap;
+    }
+
+    /**
+     * Replace all custom window resolutions (resource name as the key). {@link ClusterNode}s of the resources
+     * whose resolution has been changed will be reset.
+     *
+     * @param resolutions new resolutions, null means clearing all custom resolutions
+     */
+    public static synchronized void updateResolutions(Map<String, WindowResolution> resolutions) {
+        Map<String, WindowResolution> newMap = new HashMap<>();
+        if (resolutions != null) {
+            for (Map.Entry<String, WindowResolution> e : resolutions.entrySet()) {
+                if (e.getKey() != null && e.getValue() != null) {
+                    newMap.put(e.getKey(), e.getValue());
+                }
+            }
+        }
+        Map<String, WindowResolution> oldMap = resolutionMap;
+        resolutionMap = Collections.unmodifiableMap(newMap);
+
+        Set<String> resources = new HashSet<>(oldMap.keySet());
+        resources.addAll(newMap.keySet());
+        for (String resource : resources) {
+            WindowResolution oldValue = oldMap.get(resource);
+            WindowResolution newValue = newMap.get(resource);
+            if (oldValue == null ? newValue != null : !oldValue.equals(newValue)) {
+                for (EntryType type : EntryType.values()) {
+                    ClusterNode node = ClusterBuilderSlot.getClusterNode(resource, type);
+                    if (node != null) {
+                        node.reset();
+                    }
+                }
+            }
+        }
+        RecordLog.info("[WindowResolutionProperty] Window resolutions updated: {}", resolutionMap);
+    }
+
+    private WindowResolutionProperty() {}
+}
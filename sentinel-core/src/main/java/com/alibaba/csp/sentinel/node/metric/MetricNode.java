@@ -50,6 +50,15 @@ public class MetricNode {
      */
     private int concurrency;
 
+    /**
+     * Percentiles of response time, -1 if the latency histogram of the resource is not enabled.
+     *
+     * @since 1.8.1
+     */
+    private long p50Rt = -1;
+    private long p99Rt = -1;
+    private long p999Rt = -1;
+
     public long getTimestamp() {
         return timestamp;
     }
@@ -132,6 +141,51 @@ public class MetricNode {
         return this;
     }
 
+    public long getP50Rt() {
+        return p50Rt;
+    }
+
+    public MetricNode setP50Rt(long p50Rt) {
+        this.p50Rt = p50Rt;
+        return this;
+    }
+
+    public long getP99Rt() {
+        return p99Rt;
+    }
+
+    public MetricNode setP99Rt(long p99Rt) {
+        this.p99Rt = p99Rt;
+        return this;
+    }
+
+    public long getP999Rt() {
+        return p999Rt;
+    }
+
+    public MetricNode setP999Rt(long p999Rt) {
+        this.p999Rt = p999Rt;
+        return this;
+    }
+
+    /**
+     * Check whether percentiles of response time are present.
+     *
+     * @return true if percentiles of response time are present
+     * @since 1.8.1
+     */
+    public boolean hasPercentileRt() {
+        return p50Rt >= 0 && p99Rt >= 0 && p999Rt >= 0;
+    }
+
+    private void appendPercentileRt(StringBuilder sb) {
+        if (hasPercentileRt()) {
+            sb.append("|").append(p50Rt)
+                .append("|").append(p99Rt)
+                .append("|").append(p999Rt);
+        }
+    }
+
     @Override
     public String toString() {
         return "MetricNode{" +
@@ -145,6 +199,9 @@ public class MetricNode {
             ", rt=" + rt +
             ", concurrency=" + concurrency +
             ", occupiedPassQps=" + occupiedPassQps +
+            ", p50Rt=" + p50Rt +
+            ", p99Rt=" + p99Rt +
+            ", p999Rt=" + p999Rt +
             '}';
     }
 
@@ -152,12 +209,24 @@ public class MetricNode {
      * To formatting string. All "|" in {@link #resource} will be replaced with
      * "_", format is: <br/>
      * <code>
-     * timestamp|resource|passQps|blockQps|successQps|exceptionQps|rt|occupiedPassQps
+     * timestamp|resource|passQps|blockQps|successQps|exceptionQps|rt|occupiedPassQps|concurrency|classification
      * </code>
      *
      * @return string format of this.
      */
     public String toThinString() {
+        return toThinString(false);
+    }
+
+    /**
+     * To formatting string, see {@link #toThinString()}. If {@code withPercentileRt} is true and percentiles
+     * of response time are present, the string is followed by {@code |p50Rt|p99Rt|p999Rt}.
+     *
+     * @param withPercentileRt whether to append percentiles of response time
+     * @return string format of this.
+     * @since 1.8.1
+     */
+    public String toThinString(boolean withPercentileRt) {
         StringBuilder sb = new StringBuilder();
         sb.append(timestamp).append("|");
         String legalName = resource.replaceAll("\\|", "_");
@@ -170,6 +239,9 @@ public class MetricNode {
         sb.append(occupiedPassQps).append("|");
         sb.append(concurrency).append("|");
         sb.append(classification);
+        if (withPercentileRt) {
+            appendPercentileRt(sb);
+        }
         return sb.toString();
     }
 
@@ -195,9 +267,14 @@ public class MetricNode {
         if (strs.length >= 9) {
             node.setConcurrency(Integer.parseInt(strs[8]));
         }
-        if (strs.length == 10) {
+        if (strs.length >= 10) {
             node.setClassification(Integer.parseInt(strs[9]));
         }
+        if (strs.length >= 13) {
+            node.setP50Rt(Long.parseLong(strs[10]));
+            node.setP99Rt(Long.parseLong(strs[11]));
+            node.setP999Rt(Long.parseLong(strs[12]));
+        }
         return node;
     }
 
@@ -205,12 +282,24 @@ public class MetricNode {
      * To formatting string. All "|" in {@link MetricNode#resource} will be
      * replaced with "_", format is: <br/>
      * <code>
-     * timestamp|yyyy-MM-dd HH:mm:ss|resource|passQps|blockQps|successQps|exceptionQps|rt|occupiedPassQps\n
+     * timestamp|yyyy-MM-dd HH:mm:ss|resource|passQps|blockQps|successQps|exceptionQps|rt|occupiedPassQps|concurrency|classification\n
      * </code>
      *
      * @return string format of this.
      */
     public String toFatString() {
+        return toFatString(false);
+    }
+
+    /**
+     * To formatting string, see {@link #toFatString()}. If {@code withPercentileRt} is true and percentiles
+     * of response time are present, {@code |p50Rt|p99Rt|p999Rt} is appended before the line break.
+     *
+     * @param withPercentileRt whether to append percentiles of response time
+     * @return string format of this.
+     * @since 1.8.1
+     */
+    public String toFatString(boolean withPercentileRt) {
         DateFormat df = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
         StringBuilder sb = new StringBuilder(32);
         sb.delete(0, sb.length());
@@ -226,6 +315,9 @@ public class MetricNode {
         sb.append(getOccupiedPassQps()).append("|");
         sb.append(concurrency).append("|");
         sb.append(classification);
+        if (withPercentileRt) {
+            appendPercentileRt(sb);
+        }
         sb.append('\n');
         return sb.toString();
     }
@@ -253,9 +345,14 @@ public class MetricNode {
         if (strs.length >= 10) {
             node.setConcurrency(Integer.parseInt(strs[9]));
         }
-        if (strs.length == 11) {
+        if (strs.length >= 11) {
             node.setClassification(Integer.parseInt(strs[10]));
         }
+        if (strs.length >= 14) {
+            node.setP50Rt(Long.parseLong(strs[11]));
+            node.setP99Rt(Long.parseLong(strs[12]));
+            node.setP999Rt(Long.parseLong(strs[13]));
+        }
         return node;
     }
 
@@ -138,12 +138,13 @@ public class MetricWriter {
             closeAndNewFile(nextFileNameOfDay(time));
         }
 
+        boolean withPercentileRt = SentinelConfig.metricPercentileRtEnabled();
         long second = time / 1000;
         if (second < lastSecond) {
             // 时间靠前的直接忽略，不应该发生。
         } else if (second == lastSecond) {
             for (MetricNode node : nodes) {
-                outMetricBuf.write(node.toFatString().getBytes(CHARSET));
+                outMetricBuf.write(node.toFatString(withPercentileRt).getBytes(CHARSET));
             }
             outMetricBuf.flush();
             if (!validSize()) {
@@ -154,7 +155,7 @@ public class MetricWriter {
             if (isNewDay(lastSecond, second)) {
                 closeAndNewFile(nextFileNameOfDay(time));
                 for (MetricNode node : nodes) {
-                    outMetricBuf.write(node.toFatString().getBytes(CHARSET));
+                    outMetricBuf.write(node.toFatString(withPercentileRt).getBytes(CHARSET));
                 }
                 outMetricBuf.flush();
                 if (!validSize()) {
@@ -162,7 +163,7 @@ public class MetricWriter {
                 }
             } else {
                 for (MetricNode node : nodes) {
-                    outMetricBuf.write(node.toFatString().getBytes(CHARSET));
+                    outMetricBuf.write(node.toFatString(withPercentileRt).getBytes(CHARSET));
                 }
                 outMetricBuf.flush();
                 if (!validSize()) {
@@ -28,8 +28,14 @@ public abstract class AbstractLinkedProcessorSlot<T> implements ProcessorSlot<T>
     @Override
     public void fireEntry(Context context, ResourceWrapper resourceWrapper, Object obj, int count, boolean prioritized, Object... args)
         throws Throwable {
+        AbstractLinkedProcessorSlot<?> next = nextActive(this.next, context, resourceWrapper);
         if (next != null) {
-            next.transformEntry(context, resourceWrapper, obj, count, prioritized, args);
+            SlotProfiler.Sample sample = SlotProfiler.currentSample();
+            if (sample != null) {
+                SlotProfiler.profileEntry(sample, next, context, resourceWrapper, obj, count, prioritized, args);
+            } else {
+                next.transformEntry(context, resourceWrapper, obj, count, prioritized, args);
+            }
         }
     }
 
@@ -42,11 +48,35 @@ public abstract class AbstractLinkedProcessorSlot<T> implements ProcessorSlot<T>
 
     @Override
     public void fireExit(Context context, ResourceWrapper resourceWrapper, int count, Object... args) {
+        AbstractLinkedProcessorSlot<?> next = nextActive(this.next, context, resourceWrapper);
         if (next != null) {
-            next.exit(context, resourceWrapper, count, args);
+            SlotProfiler.Sample sample = SlotProfiler.currentSample();
+            if (sample != null) {
+                SlotProfiler.profileExit(sample, next, context, resourceWrapper, count, args);
+            } else {
+                next.exit(context, resourceWrapper, count, args);
+            }
         }
     }
 
+    /**
+     * Get the first slot starting from the given one that is not skipped for the current entry of the resource.
+     */
+    static AbstractLinkedProcessorSlot<?> nextActive(AbstractLinkedProcessorSlot<?> slot, Context context,
+                                                     ResourceWrapper resourceWrapper) {
+        if (slot == null) {
+            return null;
+        }
+        ProcessorSlot<?>[] skipped = SlotChainRefresher.pinnedSkippedSlots(context, resourceWrapper);
+        if (skipped == null) {
+            return slot;
+        }
+        while (slot != null && SlotChainRefresher.contains(skipped, slot)) {
+            slot = slot.next;
+        }
+        return slot;
+    }
+
     public AbstractLinkedProcessorSlot<?> getNext() {
         return next;
     }
@@ -15,6 +15,9 @@
  */
 package com.alibaba.csp.sentinel.slotchain;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.alibaba.csp.sentinel.context.Context;
 
 /**
@@ -39,19 +42,83 @@ public class DefaultProcessorSlotChain extends ProcessorSlotChain {
     };
     AbstractLinkedProcessorSlot<?> end = first;
 
+    /**
+     * All slots in this chain (in order), including the skipped ones.
+     */
+    private final List<AbstractLinkedProcessorSlot<?>> slots = new ArrayList<AbstractLinkedProcessorSlot<?>>();
+    private ResourceWrapper refreshedResource = null;
+
+    /**
+     * The rule checking slots to skip (null if none), pinned to each entry when it's created.
+     */
+    private volatile ProcessorSlot<?>[] skippedSlots = null;
+
+    /**
+     * Sequence of the started and the latest applied refresh, guarded by the chain.
+     */
+    private long refreshSeq = 0;
+    private long appliedRefreshSeq = 0;
+
     @Override
     public void addFirst(AbstractLinkedProcessorSlot<?> protocolProcessor) {
-        protocolProcessor.setNext(first.getNext());
-        first.setNext(protocolProcessor);
-        if (end == first) {
-            end = protocolProcessor;
+        ResourceWrapper resourceWrapper;
+        synchronized (this) {
+            protocolProcessor.setNext(first.getNext());
+            first.setNext(protocolProcessor);
+            if (end == first) {
+                end = protocolProcessor;
+            }
+            slots.add(0, protocolProcessor);
+            resourceWrapper = refreshedResource;
+        }
+        if (resourceWrapper != null) {
+            refreshRuleCheckingSlots(resourceWrapper);
         }
     }
 
     @Override
     public void addLast(AbstractLinkedProcessorSlot<?> protocolProcessor) {
-        end.setNext(protocolProcessor);
-        end = protocolProcessor;
+        ResourceWrapper resourceWrapper;
+        synchronized (this) {
+            end.setNext(protocolProcessor);
+            end = protocolProcessor;
+            slots.add(protocolProcessor);
+            resourceWrapper = refreshedResource;
+        }
+        if (resourceWrapper != null) {
+            refreshRuleCheckingSlots(resourceWrapper);
+        }
+    }
+
+    @Override
+    public void refreshRuleCheckingSlots(ResourceWrapper resourceWrapper) {
+        while (true) {
+            AbstractLinkedProcessorSlot<?>[] snapshot;
+            long seq;
+            synchronized (this) {
+                this.refreshedResource = resourceWrapper;
+                snapshot = slots.toArray(new AbstractLinkedProcessorSlot<?>[0]);
+                seq = ++refreshSeq;
+            }
+            // Rules are checked without holding the lock of the chain, as checking rules may trigger
+            // class initialization of rule managers, which will refresh all chains in turn.
+            boolean[] active = SlotChainRefresher.activeFlags(snapshot, resourceWrapper);
+            synchronized (this) {
+                if (snapshot.length != slots.size()) {
+                    // Slots have been added during the check, then check again.
+                    continue;
+                }
+                if (seq < appliedRefreshSeq) {
+                    // A later refresh has been applied.
+                    return;
+                }
+                appliedRefreshSeq = seq;
+                // All slots stay linked. The skipped ones are passed through by invocations that
+                // have pinned them when entering the chain.
+                this.skippedSlots = SlotChainRefresher.skippedSlots(snapshot, active);
+                return;
+            }
+        }
     }
 
     /**
@@ -69,15 +136,40 @@ public class DefaultProcessorSlotChain extends ProcessorSlotChain {
         return first.getNext();
     }
 
+    @Override
+    public ProcessorSlot<?>[] getSkippedSlots() {
+        return skippedSlots;
+    }
+
     @Override
     public void entry(Context context, ResourceWrapper resourceWrapper, Object t, int count, boolean prioritized, Object... args)
         throws Throwable {
-        first.transformEntry(context, resourceWrapper, t, count, prioritized, args);
+        SlotProfiler.Sample sample = SlotProfiler.beginChain(true);
+        if (sample == null) {
+            first.transformEntry(context, resourceWrapper, t, count, prioritized, args);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            first.transformEntry(context, resourceWrapper, t, count, prioritized, args);
+        } finally {
+            SlotProfiler.endChain(sample, true, start);
+        }
     }
 
     @Override
     public void exit(Context context, ResourceWrapper resourceWrapper, int count, Object... args) {
-        first.exit(context, resourceWrapper, count, args);
+        SlotProfiler.Sample sample = SlotProfiler.beginChain(false);
+        if (sample == null) {
+            first.exit(context, resourceWrapper, count, args);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            first.exit(context, resourceWrapper, count, args);
+        } finally {
+            SlotProfiler.endChain(sample, false, start);
+        }
     }
 
 }
@@ -35,4 +35,23 @@ public abstract class ProcessorSlotChain extends AbstractLinkedProcessorSlot<Obj
      * @param protocolProcessor processor to be added.
      */
     public abstract void addLast(AbstractLinkedProcessorSlot<?> protocolProcessor);
+
+    /**
+     * Refresh the slots of this chain to skip for the resource, that is the {@link RuleCheckingSlot}s
+     * which have no rules for the resource. Does nothing by default.
+     *
+     * @param resourceWrapper the resource that this chain belongs to
+     * @since 1.8.1
+     */
+    public void refreshRuleCheckingSlots(ResourceWrapper resourceWrapper) {}
+
+    /**
+     * Get the slots of this chain that new invocations should skip. For internal use only.
+     *
+     * @return the skipped slots, or null if no slot is skipped
+     * @since 1.8.1
+     */
+    public ProcessorSlot<?>[] getSkippedSlots() {
+        return null;
+    }
 }
@@ -0,0 +1,37 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slotchain;
+
+/**
+ * <p>A {@link ProcessorSlot} that only checks rules of a specific kind for the resource.</p>
+ *
+ * <p>The slot chain may skip the slot for resources that have no rules of this kind, if enabled via
+ * {@link com.alibaba.csp.sentinel.config.SentinelConfig#SLOT_CHAIN_SKIP_RULE_FREE_SLOTS}. The skip decision
+ * is refreshed via {@link SlotChainRefresher} when rules are updated, rather than checked per call, and is
+ * pinned to each invocation at entry, so an invocation skips the slot either in both phases or in neither.</p>
+ *
+ * @since 1.8.1
+ */
+public interface RuleCheckingSlot {
+
+    /**
+     * Check whether there are rules to check for the given resource.
+     *
+     * @param resourceWrapper the resource
+     * @return true if the slot has rules to check for the resource, otherwise false
+     */
+    boolean hasRules(ResourceWrapper resourceWrapper);
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slotchain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.log.RecordLog;
+
+/**
+ * <p>Refresher for the active slots of created slot chains.</p>
+ *
+ * <p>Rule managers should invoke {@link #refreshAll()} after new rules have taken effect, so that
+ * {@link RuleCheckingSlot}s are linked into (or skipped from) the slot chain of each resource.
+ * Skipping is disabled unless {@link SentinelConfig#SLOT_CHAIN_SKIP_RULE_FREE_SLOTS} is enabled.</p>
+ *
+ * <p>The slots skipped by an invocation are pinned to its {@link Entry} when the entry is created,
+ * so that the exit phase always goes through the same slots as the entry phase, even if rules
+ * have been changed in between.</p>
+ *
+ * @since 1.8.1
+ */
+public final class SlotChainRefresher {
+
+    private static final Map<ResourceWrapper, ProcessorSlotChain> CHAIN_MAP
+        = new ConcurrentHashMap<ResourceWrapper, ProcessorSlotChain>();
+
+    /**
+     * Register the slot chain of the resource and refresh its active slots.
+     *
+     * @param resourceWrapper the resource
+     * @param chain           slot chain of the resource
+     */
+    public static void register(ResourceWrapper resourceWrapper, ProcessorSlotChain chain) {
+        if (resourceWrapper == null || chain == null || !SentinelConfig.slotChainSkipRuleFreeSlots()) {
+            return;
+        }
+        // Register first, so that concurrent rule updates will not be missed.
+        CHAIN_MAP.put(resourceWrapper, chain);
+        chain.refreshRuleCheckingSlots(resourceWrapper);
+    }
+
+    /**
+     * Refresh active slots of all registered slot chains according to current rules.
+     */
+    public static void refreshAll() {
+        for (Map.Entry<ResourceWrapper, ProcessorSlotChain> e : CHAIN_MAP.entrySet()) {
+            try {
+                e.getValue().refreshRuleCheckingSlots(e.getKey());
+            } catch (Throwable ex) {
+                RecordLog.warn("[SlotChainRefresher] Failed to refresh slot chain of resource: "
+                    + e.getKey().getName(), ex);
+            }
+        }
+    }
+
+    /**
+     * Check whether the slot should be linked into the slot chain of the resource.
+     *
+     * @param slot            the slot
+     * @param resourceWrapper the resource
+     * @return false only if the slot is a {@link RuleCheckingSlot} without rules for the resource
+     */
+    static boolean isActive(ProcessorSlot<?> slot, ResourceWrapper resourceWrapper) {
+        if (!(slot instanceof RuleCheckingSlot)) {
+            return true;
+        }
+        try {
+            return ((RuleCheckingSlot) slot).hasRules(resourceWrapper);
+        } catch (Throwable ex) {
+            RecordLog.warn("[SlotChainRefresher] Failed to check rules of slot: "
+                + slot.getClass().getCanonicalName(), ex);
+            return true;
+        }
+    }
+
+    /**
+     * Check whether each of the slots should be linked into the slot chain of the resource.
+     * Callers should not hold any lock, as checking rules may trigger initialization of rule managers,
+     * which will refresh all slot chains.
+     *
+     * @param slots           slots of the chain
+     * @param resourceWrapper the resource
+     * @return active flags of the slots
+     */
+    static boolean[] activeFlags(AbstractLinkedProcessorSlot<?>[] slots, ResourceWrapper resourceWrapper) {
+        boolean[] active = new boolean[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            active[i] = isActive(slots[i], resourceWrapper);
+        }
+        return active;
+    }
+
+    /**
+     * Get the slots to skip in the chain.
+     *
+     * @param slots  slots of the chain
+     * @param active active flags of the slots
+     * @return the slots to skip, or null if all slots are active
+     */
+    static ProcessorSlot<?>[] skippedSlots(AbstractLinkedProcessorSlot<?>[] slots, boolean[] active) {
+        List<ProcessorSlot<?>> skipped = null;
+        for (int i = 0; i < slots.length; i++) {
+            if (!active[i]) {
+                if (skipped == null) {
+                    skipped = new ArrayList<ProcessorSlot<?>>();
+                }
+                skipped.add(slots[i]);
+            }
+        }
+        return skipped == null ? null : skipped.toArray(new ProcessorSlot<?>[0]);
+    }
+
+    /**
+     * Get the skipped slots pinned to the current entry of the resource.
+     */
+    static ProcessorSlot<?>[] pinnedSkippedSlots(Context context, ResourceWrapper resourceWrapper) {
+        Entry entry = context == null ? null : context.getCurEntry();
+        if (entry == null || entry.getResourceWrapper() != resourceWrapper) {
+            return null;
+        }
+        return entry.getSkippedSlots();
+    }
+
+    /**
+     * Check whether the slot is one of the skipped slots (by identity).
+     */
+    static boolean contains(ProcessorSlot<?>[] skipped, ProcessorSlot<?> slot) {
+        for (ProcessorSlot<?> s : skipped) {
+            if (s == slot) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Remove all registered slot chains. Only for internal test.
+     */
+    public static void clear() {
+        CHAIN_MAP.clear();
+    }
+
+    private SlotChainRefresher() {}
+}
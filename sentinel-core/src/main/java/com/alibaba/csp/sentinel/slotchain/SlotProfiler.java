@@ -0,0 +1,128 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slotchain;
+
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.metric.overhead.OverheadRecorder;
+
+/**
+ * <p>Samples the cost of slot chains and slots for {@link OverheadRecorder}.</p>
+ *
+ * <p>A sampled call is marked at the chain, and every slot called within it is timed. The self cost of a slot
+ * excludes the time spent in the slots after it, so that the costs of all slots add up to the cost of
+ * the chain.</p>
+ *
+ * @since 1.8.1
+ */
+final class SlotProfiler {
+
+    private static final ThreadLocal<Sample> SAMPLES = new ThreadLocal<Sample>() {
+        @Override
+        protected Sample initialValue() {
+            return new Sample();
+        }
+    };
+
+    static final class Sample {
+        private int entryCalls;
+        private int exitCalls;
+        private boolean active;
+        /**
+         * Total cost of the slots called by the slot being timed.
+         */
+        private long childNanos;
+    }
+
+    /**
+     * Start timing a call of the slot chain if the call is sampled.
+     *
+     * @param entry whether it's an entry call or an exit call, which are sampled separately
+     * @return the sample, or null if the call is not sampled
+     */
+    static Sample beginChain(boolean entry) {
+        if (!OverheadRecorder.isEnabled()) {
+            return null;
+        }
+        Sample sample = SAMPLES.get();
+        // Nested chains (e.g. entries within a slot) are timed as a part of the outer sample.
+        if (sample.active) {
+            return null;
+        }
+        int calls = entry ? ++sample.entryCalls : ++sample.exitCalls;
+        if ((calls & (OverheadRecorder.getSampleInterval() - 1)) != 0) {
+            return null;
+        }
+        sample.active = true;
+        sample.childNanos = 0;
+        return sample;
+    }
+
+    static void endChain(Sample sample, boolean entry, long startNanos) {
+        long cost = System.nanoTime() - startNanos;
+        sample.active = false;
+        if (entry) {
+            OverheadRecorder.recordChainEntry(cost);
+        } else {
+            OverheadRecorder.recordChainExit(cost);
+        }
+    }
+
+    /**
+     * @return the sample of current call, or null if current call is not sampled
+     */
+    static Sample currentSample() {
+        if (!OverheadRecorder.isEnabled()) {
+            return null;
+        }
+        Sample sample = SAMPLES.get();
+        return sample.active ? sample : null;
+    }
+
+    static void profileEntry(Sample sample, AbstractLinkedProcessorSlot<?> slot, Context context,
+                             ResourceWrapper resourceWrapper, Object obj, int count, boolean prioritized,
+                             Object... args) throws Throwable {
+        long outerChildNanos = sample.childNanos;
+        sample.childNanos = 0;
+        long start = System.nanoTime();
+        try {
+            slot.transformEntry(context, resourceWrapper, obj, count, prioritized, args);
+        } finally {
+            long cost = System.nanoTime() - start;
+            OverheadRecorder.recordSlotEntry(resourceWrapper.getName(), slotName(slot), cost - sample.childNanos);
+            sample.childNanos = outerChildNanos + cost;
+        }
+    }
+
+    static void profileExit(Sample sample, AbstractLinkedProcessorSlot<?> slot, Context context,
+                            ResourceWrapper resourceWrapper, int count, Object... args) {
+        long outerChildNanos = sample.childNanos;
+        sample.childNanos = 0;
+        long start = System.nanoTime();
+        try {
+            slot.exit(context, resourceWrapper, count, args);
+        } finally {
+            long cost = System.nanoTime() - start;
+            OverheadRecorder.recordSlotExit(resourceWrapper.getName(), slotName(slot), cost - sample.childNanos);
+            sample.childNanos = outerChildNanos + cost;
+        }
+    }
+
+    private static String slotName(AbstractLinkedProcessorSlot<?> slot) {
+        return slot.getClass().getName();
+    }
+
+    private SlotProfiler() {}
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block;
+
+/**
+ * <p>Hand-off of the waiting time of throttled requests (e.g. rate limiter or prioritized requests)
+ * to the caller.</p>
+ *
+ * <p>By default, rule checkers wait by sleeping in current thread. When entering via
+ * {@link com.alibaba.csp.sentinel.SphU#asyncEntryDelayed(String)}, the waiting is deferred instead:
+ * the rule checkers record the waiting time via {@link #defer(long)}, and the caller gets it from
+ * {@link com.alibaba.csp.sentinel.AsyncEntry#getDelayMs()}, so it could delay the invocation with
+ * a timer rather than blocking the thread (e.g. in an event loop).</p>
+ *
+ * @since 1.8.1
+ */
+public final class DeferredWait {
+
+    private static final ThreadLocal<Holder> HOLDER = new ThreadLocal<Holder>() {
+        @Override
+        protected Holder initialValue() {
+            return new Holder();
+        }
+    };
+
+    /**
+     * Start deferring the waiting in current thread.
+     */
+    public static void begin() {
+        Holder holder = HOLDER.get();
+        holder.active = true;
+        holder.waitMs = 0;
+    }
+
+    /**
+     * Stop deferring the waiting in current thread.
+     *
+     * @return the max deferred waiting time (in milliseconds) since {@link #begin()}
+     */
+    public static long end() {
+        Holder holder = HOLDER.get();
+        long waitMs = holder.waitMs;
+        holder.active = false;
+        holder.waitMs = 0;
+        return waitMs;
+    }
+
+    /**
+     * Try to defer the waiting to the caller. As the waiting time of each rule is calculated to an absolute
+     * pass time, the caller needs to wait for the max one of them.
+     *
+     * @param waitMs waiting time in milliseconds
+     * @return true if the waiting has been deferred, or false if the waiting should be done in current thread
+     */
+    public static boolean defer(long waitMs) {
+        Holder holder = HOLDER.get();
+        if (!holder.active) {
+            return false;
+        }
+        if (waitMs > holder.waitMs) {
+            holder.waitMs = waitMs;
+        }
+        return true;
+    }
+
+    /**
+     * @return whether the waiting is being deferred in current thread
+     */
+    public static boolean isDeferring() {
+        return HOLDER.get().active;
+    }
+
+    private static final class Holder {
+        private boolean active;
+        private long waitMs;
+    }
+
+    private DeferredWait() {}
+}
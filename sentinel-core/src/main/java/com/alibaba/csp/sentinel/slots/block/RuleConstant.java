@@ -35,6 +35,12 @@ public final class RuleConstant {
      * Degrade by biz exception count in the last 60 seconds.
      */
     public static final int DEGRADE_GRADE_EXCEPTION_COUNT = 2;
+    /**
+     * Degrade by the percentile of response time in the statistic interval.
+     *
+     * @since 1.8.1
+     */
+    public static final int DEGRADE_GRADE_RT_PERCENTILE = 3;
 
     public static final int DEGRADE_DEFAULT_SLOW_REQUEST_AMOUNT = 5;
     public static final int DEGRADE_DEFAULT_MIN_REQUEST_AMOUNT = 5;
@@ -50,6 +56,33 @@ public final class RuleConstant {
     public static final int CONTROL_BEHAVIOR_WARM_UP = 1;
     public static final int CONTROL_BEHAVIOR_RATE_LIMITER = 2;
     public static final int CONTROL_BEHAVIOR_WARM_UP_RATE_LIMITER = 3;
+    /**
+     * Token bucket with an explicit burst capacity.
+     *
+     * @since 1.8.1
+     */
+    public static final int CONTROL_BEHAVIOR_TOKEN_BUCKET = 4;
+    /**
+     * Adaptive concurrency limit (only for {@link #FLOW_GRADE_THREAD}), where the count of the rule
+     * is the initial limit.
+     *
+     * @since 1.8.1
+     */
+    public static final int CONTROL_BEHAVIOR_ADAPTIVE_CONCURRENCY = 5;
+
+    /**
+     * Parameter statistics of hot-parameter rules are kept exactly for every value (in a bounded LRU map).
+     *
+     * @since 1.8.1
+     */
+    public static final int PARAM_METRIC_TYPE_EXACT = 0;
+    /**
+     * Parameter statistics of hot-parameter rules are estimated by a fixed-memory Count-Min Sketch,
+     * while only the heavy hitters are counted exactly.
+     *
+     * @since 1.8.1
+     */
+    public static final int PARAM_METRIC_TYPE_SKETCH = 1;
 
     public static final int DEFAULT_BLOCK_STRATEGY = 0;
     public static final int TRY_AGAIN_BLOCK_STRATEGY = 1;
@@ -29,6 +29,7 @@ import com.alibaba.csp.sentinel.util.StringUtil;
 import com.alibaba.csp.sentinel.property.DynamicSentinelProperty;
 import com.alibaba.csp.sentinel.property.PropertyListener;
 import com.alibaba.csp.sentinel.property.SentinelProperty;
+import com.alibaba.csp.sentinel.slotchain.SlotChainRefresher;
 
 /**
  * Manager for authority rules.
@@ -99,6 +100,7 @@ public final class AuthorityRuleManager {
             if (rules != null) {
                 authorityRules.putAll(rules);
             }
+            SlotChainRefresher.refreshAll();
             RecordLog.info("[AuthorityRuleManager] Authority rules received: {}", authorityRules);
         }
 
@@ -143,6 +145,7 @@ public final class AuthorityRuleManager {
             if (rules != null) {
                 authorityRules.putAll(rules);
             }
+            SlotChainRefresher.refreshAll();
             RecordLog.info("[AuthorityRuleManager] Load authority rules: {}", authorityRules);
         }
     }
@@ -19,10 +19,13 @@ import java.util.Map;
 import java.util.Set;
 
 import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.metric.overhead.OverheadEvent;
+import com.alibaba.csp.sentinel.metric.overhead.OverheadRecorder;
 import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.slotchain.AbstractLinkedProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slotchain.RuleCheckingSlot;
 import com.alibaba.csp.sentinel.spi.SpiOrder;
 
 /**
@@ -32,7 +35,7 @@ import com.alibaba.csp.sentinel.spi.SpiOrder;
  * @author Eric Zhao
  */
 @SpiOrder(-6000)
-public class AuthoritySlot extends AbstractLinkedProcessorSlot<DefaultNode> {
+public class AuthoritySlot extends AbstractLinkedProcessorSlot<DefaultNode> implements RuleCheckingSlot {
 
     @Override
     public void entry(Context context, ResourceWrapper resourceWrapper, DefaultNode node, int count, boolean prioritized, Object... args)
@@ -46,6 +49,11 @@ public class AuthoritySlot extends AbstractLinkedProcessorSlot<DefaultNode> {
         fireExit(context, resourceWrapper, count, args);
     }
 
+    @Override
+    public boolean hasRules(ResourceWrapper resourceWrapper) {
+        return AuthorityRuleManager.hasConfig(resourceWrapper.getName());
+    }
+
     void checkBlackWhiteAuthority(ResourceWrapper resource, Context context) throws AuthorityException {
         Map<String, Set<AuthorityRule>> authorityRules = AuthorityRuleManager.getAuthorityRules();
 
@@ -59,6 +67,7 @@ public class AuthoritySlot extends AbstractLinkedProcessorSlot<DefaultNode> {
         }
 
         for (AuthorityRule rule : rules) {
+            OverheadRecorder.addEvent(OverheadEvent.AUTHORITY_RULE_CHECK);
             if (!AuthorityRuleChecker.passCheck(rule, context)) {
                 throw new AuthorityException(context.getOrigin(), rule);
             }
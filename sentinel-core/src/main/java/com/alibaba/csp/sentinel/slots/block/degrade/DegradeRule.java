@@ -40,6 +40,11 @@ import java.util.Objects;
  * success qps exceeds the threshold, access to the resource will be blocked in
  * the coming window.
  * </li>
+ * <li>
+ * Response time percentile ({@code DEGRADE_GRADE_RT_PERCENTILE}): When the given 'percentile' (e.g. p99)
+ * of response time in the statistic interval exceeds the threshold ('count', in milliseconds),
+ * access to the resource will be blocked in the coming window.
+ * </li>
  * </ul>
  *
  * @author jialiang.linjl
@@ -54,7 +59,7 @@ public class DegradeRule extends AbstractRule {
     }
 
     /**
-     * Circuit breaking strategy (0: average RT, 1: exception ratio, 2: exception count).
+     * Circuit breaking strategy (0: average RT, 1: exception ratio, 2: exception count, 3: RT percentile).
      */
     private int grade = RuleConstant.DEGRADE_GRADE_RT;
 
@@ -83,6 +88,13 @@ public class DegradeRule extends AbstractRule {
 
     private int statIntervalMs = 1000;
 
+    /**
+     * The percentile (in range (0, 100]) of response time in RT percentile mode.
+     *
+     * @since 1.8.1
+     */
+    private double percentile = 99.0d;
+
     public int getGrade() {
         return grade;
     }
@@ -137,6 +149,15 @@ public class DegradeRule extends AbstractRule {
         return this;
     }
 
+    public double getPercentile() {
+        return percentile;
+    }
+
+    public DegradeRule setPercentile(double percentile) {
+        this.percentile = percentile;
+        return this;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) { return true; }
@@ -148,13 +169,14 @@ public class DegradeRule extends AbstractRule {
             grade == rule.grade &&
             minRequestAmount == rule.minRequestAmount &&
             Double.compare(rule.slowRatioThreshold, slowRatioThreshold) == 0 &&
-            statIntervalMs == rule.statIntervalMs;
+            statIntervalMs == rule.statIntervalMs &&
+            Double.compare(rule.percentile, percentile) == 0;
     }
 
     @Override
     public int hashCode() {
         return Objects.hash(super.hashCode(), count, timeWindow, grade, minRequestAmount,
-            slowRatioThreshold, statIntervalMs);
+            slowRatioThreshold, statIntervalMs, percentile);
     }
 
     @Override
@@ -168,6 +190,7 @@ public class DegradeRule extends AbstractRule {
             ", minRequestAmount=" + minRequestAmount +
             ", slowRatioThreshold=" + slowRatioThreshold +
             ", statIntervalMs=" + statIntervalMs +
+            ", percentile=" + percentile +
             '}';
     }
 }
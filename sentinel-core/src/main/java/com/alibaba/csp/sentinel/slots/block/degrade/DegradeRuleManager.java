@@ -26,9 +26,11 @@ import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.property.DynamicSentinelProperty;
 import com.alibaba.csp.sentinel.property.PropertyListener;
 import com.alibaba.csp.sentinel.property.SentinelProperty;
+import com.alibaba.csp.sentinel.slotchain.SlotChainRefresher;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.CircuitBreaker;
 import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.ExceptionCircuitBreaker;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.PercentileCircuitBreaker;
 import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.ResponseTimeCircuitBreaker;
 import com.alibaba.csp.sentinel.util.AssertUtil;
 import com.alibaba.csp.sentinel.util.StringUtil;
@@ -175,6 +177,8 @@ public final class DegradeRuleManager {
             case RuleConstant.DEGRADE_GRADE_EXCEPTION_RATIO:
             case RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT:
                 return new ExceptionCircuitBreaker(rule);
+            case RuleConstant.DEGRADE_GRADE_RT_PERCENTILE:
+                return new PercentileCircuitBreaker(rule);
             default:
                 return null;
         }
@@ -196,6 +200,8 @@ public final class DegradeRuleManager {
                 return rule.getCount() <= 1;
             case RuleConstant.DEGRADE_GRADE_EXCEPTION_COUNT:
                 return true;
+            case RuleConstant.DEGRADE_GRADE_RT_PERCENTILE:
+                return rule.getPercentile() > 0 && rule.getPercentile() <= 100;
             default:
                 return false;
         }
@@ -219,6 +225,7 @@ public final class DegradeRuleManager {
 
             DegradeRuleManager.circuitBreakers = cbs;
             DegradeRuleManager.ruleMap = rm;
+            SlotChainRefresher.refreshAll();
         }
 
         @Override
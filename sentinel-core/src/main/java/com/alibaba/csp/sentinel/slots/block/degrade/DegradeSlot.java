@@ -19,10 +19,13 @@ import java.util.List;
 
 import com.alibaba.csp.sentinel.Entry;
 import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.metric.overhead.OverheadEvent;
+import com.alibaba.csp.sentinel.metric.overhead.OverheadRecorder;
 import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.slotchain.AbstractLinkedProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slotchain.RuleCheckingSlot;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
 import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.CircuitBreaker;
 import com.alibaba.csp.sentinel.spi.SpiOrder;
@@ -34,7 +37,7 @@ import com.alibaba.csp.sentinel.spi.SpiOrder;
  * @author Eric Zhao
  */
 @SpiOrder(-1000)
-public class DegradeSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
+public class DegradeSlot extends AbstractLinkedProcessorSlot<DefaultNode> implements RuleCheckingSlot {
 
     @Override
     public void entry(Context context, ResourceWrapper resourceWrapper, DefaultNode node, int count,
@@ -50,12 +53,18 @@ public class DegradeSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
             return;
         }
         for (CircuitBreaker cb : circuitBreakers) {
+            OverheadRecorder.addEvent(OverheadEvent.DEGRADE_RULE_CHECK);
             if (!cb.tryPass(context)) {
                 throw new DegradeException(cb.getRule().getLimitApp(), cb.getRule());
             }
         }
     }
 
+    @Override
+    public boolean hasRules(ResourceWrapper resourceWrapper) {
+        return DegradeRuleManager.hasConfig(resourceWrapper.getName());
+    }
+
     @Override
     public void exit(Context context, ResourceWrapper r, int count, Object... args) {
         Entry curEntry = context.getCurEntry();
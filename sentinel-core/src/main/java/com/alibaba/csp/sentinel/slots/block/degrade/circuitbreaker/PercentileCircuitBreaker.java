@@ -0,0 +1,203 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker;
+
+import java.util.List;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
+import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
+import com.alibaba.csp.sentinel.slots.statistic.base.LongAdder;
+import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
+import com.alibaba.csp.sentinel.slots.statistic.data.LatencyHistogram;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * <p>Circuit breaker that opens when the given percentile (e.g. p99) of response time
+ * in the statistic interval exceeds the threshold ({@code count} of the rule, in milliseconds).</p>
+ *
+ * <p>As the threshold is fixed, "the p-th percentile exceeds the threshold" equals to "less than
+ * {@code ceil(p% * total)} requests complete within the threshold", so each completed request only updates
+ * a few counters of current bucket. Each bucket also keeps a {@link LatencyHistogram} (bounded memory),
+ * which provides the actual percentile value when the circuit breaker opens.</p>
+ *
+ * @since 1.8.1
+ */
+public class PercentileCircuitBreaker extends AbstractCircuitBreaker {
+
+    private static final int DEFAULT_SAMPLE_COUNT = 10;
+
+    private final long maxAllowedRt;
+    private final double percentile;
+    private final int minRequestAmount;
+
+    private final LeapArray<PercentileCounter> slidingCounter;
+
+    public PercentileCircuitBreaker(DegradeRule rule) {
+        this(rule, new PercentileLeapArray(sampleCountOf(rule.getStatIntervalMs()), rule.getStatIntervalMs()));
+    }
+
+    PercentileCircuitBreaker(DegradeRule rule, LeapArray<PercentileCounter> stat) {
+        super(rule);
+        AssertUtil.isTrue(rule.getGrade() == RuleConstant.DEGRADE_GRADE_RT_PERCENTILE,
+            "rule metric type should be RT percentile");
+        AssertUtil.isTrue(rule.getPercentile() > 0 && rule.getPercentile() <= 100,
+            "percentile should be in range (0, 100]");
+        AssertUtil.notNull(stat, "stat cannot be null");
+        this.maxAllowedRt = Math.round(rule.getCount());
+        this.percentile = rule.getPercentile();
+        this.minRequestAmount = rule.getMinRequestAmount();
+        this.slidingCounter = stat;
+    }
+
+    private static int sampleCountOf(int statIntervalMs) {
+        return statIntervalMs % DEFAULT_SAMPLE_COUNT == 0 ? DEFAULT_SAMPLE_COUNT : 1;
+    }
+
+    @Override
+    public void resetStat() {
+        for (PercentileCounter counter : slidingCounter.values()) {
+            counter.reset();
+        }
+    }
+
+    @Override
+    public void onRequestComplete(Context context) {
+        Entry entry = context.getCurEntry();
+        if (entry == null) {
+            return;
+        }
+        long completeTime = entry.getCompleteTimestamp();
+        if (completeTime <= 0) {
+            completeTime = TimeUtil.currentTimeMillis();
+        }
+        long rt = completeTime - entry.getCreateTimestamp();
+
+        PercentileCounter counter = slidingCounter.currentWindow().value();
+        counter.histogram.record(rt);
+        if (rt > maxAllowedRt) {
+            counter.slowCount.add(1);
+        }
+        counter.totalCount.add(1);
+
+        handleStateChangeWhenThresholdExceeded(rt);
+    }
+
+    private void handleStateChangeWhenThresholdExceeded(long rt) {
+        if (currentState.get() == State.OPEN) {
+            return;
+        }
+
+        if (currentState.get() == State.HALF_OPEN) {
+            // In detecting request
+            if (rt > maxAllowedRt) {
+                fromHalfOpenToOpen(rt);
+            } else {
+                fromHalfOpenToClose();
+            }
+            return;
+        }
+
+        List<PercentileCounter> counters = slidingCounter.values();
+        long slowCount = 0;
+        long totalCount = 0;
+        for (PercentileCounter counter : counters) {
+            slowCount += counter.slowCount.sum();
+            totalCount += counter.totalCount.sum();
+        }
+        if (totalCount < minRequestAmount) {
+            return;
+        }
+        long rank = (long) Math.ceil(percentile / 100 * totalCount);
+        if (totalCount - slowCount < rank) {
+            transformToOpen(currentPercentileRt(counters));
+        }
+    }
+
+    private double currentPercentileRt(List<PercentileCounter> counters) {
+        long[] merged = null;
+        long maxValue = 0;
+        for (PercentileCounter counter : counters) {
+            if (merged == null) {
+                merged = new long[counter.histogram.bucketCount()];
+                maxValue = counter.histogram.getMaxValue();
+            }
+            counter.histogram.addTo(merged);
+        }
+        return merged == null ? maxAllowedRt : LatencyHistogram.valueAtPercentile(merged, percentile, maxValue);
+    }
+
+    static class PercentileCounter {
+        private final LatencyHistogram histogram;
+        private final LongAdder slowCount;
+        private final LongAdder totalCount;
+
+        public PercentileCounter() {
+            this.histogram = new LatencyHistogram();
+            this.slowCount = new LongAdder();
+            this.totalCount = new LongAdder();
+        }
+
+        public LatencyHistogram getHistogram() {
+            return histogram;
+        }
+
+        public LongAdder getSlowCount() {
+            return slowCount;
+        }
+
+        public LongAdder getTotalCount() {
+            return totalCount;
+        }
+
+        public PercentileCounter reset() {
+            histogram.reset();
+            slowCount.reset();
+            totalCount.reset();
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return "PercentileCounter{" +
+                "slowCount=" + slowCount +
+                ", totalCount=" + totalCount +
+                '}';
+        }
+    }
+
+    static class PercentileLeapArray extends LeapArray<PercentileCounter> {
+
+        public PercentileLeapArray(int sampleCount, int intervalInMs) {
+            super(sampleCount, intervalInMs);
+        }
+
+        @Override
+        public PercentileCounter newEmptyBucket(long timeMillis) {
+            return new PercentileCounter();
+        }
+
+        @Override
+        protected WindowWrap<PercentileCounter> resetWindowTo(WindowWrap<PercentileCounter> w, long startTime) {
+            w.resetTo(startTime);
+            w.value().reset();
+            return w;
+        }
+    }
+}
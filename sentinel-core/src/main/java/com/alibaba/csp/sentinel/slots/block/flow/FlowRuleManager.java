@@ -33,6 +33,7 @@ import com.alibaba.csp.sentinel.node.metric.MetricTimerListener;
 import com.alibaba.csp.sentinel.property.DynamicSentinelProperty;
 import com.alibaba.csp.sentinel.property.PropertyListener;
 import com.alibaba.csp.sentinel.property.SentinelProperty;
+import com.alibaba.csp.sentinel.slotchain.SlotChainRefresher;
 
 /**
  * <p>
@@ -136,6 +137,7 @@ public class FlowRuleManager {
             //the rules was always not null, it's no need to check nullable
             //remove checking to avoid IDE warning
             flowRules.set(rules);
+            SlotChainRefresher.refreshAll();
             RecordLog.info("[FlowRuleManager] Flow rules received: {}", rules);
         }
 
@@ -143,6 +145,7 @@ public class FlowRuleManager {
         public void configLoad(List<FlowRule> conf) {
             Map<String, List<FlowRule>> rules = FlowRuleUtil.buildFlowRuleMap(conf);
             flowRules.set(rules);
+            SlotChainRefresher.refreshAll();
             RecordLog.info("[FlowRuleManager] Flow rules loaded: {}", rules);
         }
     }
@@ -0,0 +1,164 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.controller;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.alibaba.csp.sentinel.metric.extension.ConcurrencyLimitMetricExtension;
+import com.alibaba.csp.sentinel.metric.extension.MetricExtension;
+import com.alibaba.csp.sentinel.metric.extension.MetricExtensionProvider;
+import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.slots.block.flow.TrafficShapingController;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * <p>An adaptive concurrency limit controller based on the gradient of response time
+ * (similar to the gradient algorithm of Netflix concurrency-limits).</p>
+ *
+ * <p>Periodically the controller compares the no-load response time (tracked from the {@code minRt}
+ * of the node) with the current average response time of the node:</p>
+ *
+ * <pre>
+ * gradient = max(0.5, min(1.0, noLoadRt / avgRt))
+ * newLimit = limit * gradient + sqrt(limit)
+ * </pre>
+ *
+ * <p>So the limit shrinks when requests start queueing (the response time grows) and grows slowly
+ * otherwise. The new limit is smoothed and bounded in {@code [minLimit, maxLimit]}. The limit won't grow
+ * when the resource is not utilized (the max in-flight requests are less than half of the limit).
+ * The no-load response time drifts towards the latest {@code minRt}, so that it follows the long-term
+ * latency change of downstream.</p>
+ *
+ * <p>Limit changes are notified to {@link ConcurrencyLimitMetricExtension}.</p>
+ *
+ * @since 1.8.1
+ */
+public class GradientConcurrencyController implements TrafficShapingController {
+
+    public static final int DEFAULT_UPDATE_INTERVAL_MS = 1000;
+    public static final int DEFAULT_MAX_LIMIT_FACTOR = 10;
+
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double NO_LOAD_RT_DRIFT = 0.05;
+
+    private final String resourceName;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int updateIntervalMs;
+
+    private volatile double estimatedLimit;
+    private volatile double noLoadRt = -1;
+    private volatile int maxInflight;
+
+    private final AtomicLong lastUpdateTime = new AtomicLong(0);
+
+    public GradientConcurrencyController(String resourceName, double initialLimit) {
+        this(resourceName, initialLimit, 1, (int) Math.max(1, initialLimit * DEFAULT_MAX_LIMIT_FACTOR),
+            DEFAULT_UPDATE_INTERVAL_MS);
+    }
+
+    public GradientConcurrencyController(String resourceName, double initialLimit, int minLimit, int maxLimit,
+                                         int updateIntervalMs) {
+        this.resourceName = resourceName;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.updateIntervalMs = updateIntervalMs;
+        this.estimatedLimit = Math.min(Math.max(initialLimit, this.minLimit), this.maxLimit);
+    }
+
+    @Override
+    public boolean canPass(Node node, int acquireCount) {
+        return canPass(node, acquireCount, false);
+    }
+
+    @Override
+    public boolean canPass(Node node, int acquireCount, boolean prioritized) {
+        int inflight = node.curThreadNum();
+        if (inflight > maxInflight) {
+            // Not strictly accurate under race, which is acceptable for sampling.
+            maxInflight = inflight;
+        }
+        long now = TimeUtil.currentTimeMillis();
+        long last = lastUpdateTime.get();
+        if (now - last >= updateIntervalMs && lastUpdateTime.compareAndSet(last, now)) {
+            updateLimit(node);
+        }
+        return inflight + acquireCount <= (int) estimatedLimit;
+    }
+
+    private void updateLimit(Node node) {
+        int sampledInflight = maxInflight;
+        maxInflight = 0;
+        double avgRt = node.avgRt();
+        double minRt = node.minRt();
+        if (avgRt <= 0 || minRt <= 0 || minRt > avgRt) {
+            // No completed requests in current window.
+            return;
+        }
+        double baseRt = noLoadRt;
+        if (baseRt <= 0 || minRt < baseRt) {
+            baseRt = minRt;
+        } else {
+            baseRt = baseRt * (1 - NO_LOAD_RT_DRIFT) + minRt * NO_LOAD_RT_DRIFT;
+        }
+        noLoadRt = baseRt;
+
+        double limit = estimatedLimit;
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, baseRt / avgRt));
+        if (gradient >= 1.0 && sampledInflight < limit / 2) {
+            // The resource is not utilized, so there is no evidence to raise the limit.
+            return;
+        }
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        newLimit = limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        newLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        estimatedLimit = newLimit;
+
+        if ((int) newLimit != (int) limit) {
+            notifyLimitChanged((int) limit, (int) newLimit);
+        }
+    }
+
+    private void notifyLimitChanged(int oldLimit, int newLimit) {
+        for (MetricExtension m : MetricExtensionProvider.getMetricExtensions()) {
+            if (m instanceof ConcurrencyLimitMetricExtension) {
+                ((ConcurrencyLimitMetricExtension) m).onConcurrencyLimitChanged(resourceName, oldLimit, newLimit);
+            }
+        }
+    }
+
+    /**
+     * Get current concurrency limit.
+     *
+     * @return current concurrency limit
+     */
+    public int getLimit() {
+        return (int) estimatedLimit;
+    }
+
+    public String getResourceName() {
+        return resourceName;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+}
@@ -17,6 +17,7 @@ package com.alibaba.csp.sentinel.slots.block.flow.controller;
 
 import java.util.concurrent.atomic.AtomicLong;
 
+import com.alibaba.csp.sentinel.slots.block.DeferredWait;
 import com.alibaba.csp.sentinel.slots.block.flow.TrafficShapingController;
 
 import com.alibaba.csp.sentinel.util.TimeUtil;
@@ -79,7 +80,7 @@ public class RateLimiterController implements TrafficShapingController {
                         return false;
                     }
                     // in race condition waitTime may <= 0
-                    if (waitTime > 0) {
+                    if (waitTime > 0 && !DeferredWait.defer(waitTime)) {
                         Thread.sleep(waitTime);
                     }
                     return true;
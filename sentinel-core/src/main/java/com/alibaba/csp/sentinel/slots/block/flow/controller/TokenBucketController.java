@@ -0,0 +1,109 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.controller;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.slots.block.flow.TrafficShapingController;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * <p>A lock-free token bucket, which refills {@code count} tokens per second and holds at most
+ * {@code count + burstCount} tokens. Requests that cannot acquire enough tokens are rejected directly.</p>
+ *
+ * <p>The whole state of the bucket (tokens and the last refill time) is encoded in a single word:
+ * the (virtual) time in nanoseconds when the bucket was empty. The available tokens at time {@code now}
+ * are {@code min(capacity, (now - emptyTime) * count / 1s)}, so acquiring tokens is a single CAS
+ * that moves the empty time forward.</p>
+ *
+ * @since 1.8.1
+ */
+public class TokenBucketController implements TrafficShapingController {
+
+    private static final double NANOS_PER_SECOND = 1000000000d;
+
+    private final double count;
+    private final int burstCount;
+
+    /**
+     * Time to produce one token (in nanoseconds).
+     */
+    private final double tokenIntervalNanos;
+    /**
+     * Time to fill the whole bucket (in nanoseconds).
+     */
+    private final long capacityNanos;
+
+    private final AtomicLong emptyTime = new AtomicLong(Long.MIN_VALUE / 2);
+
+    public TokenBucketController(double count, int burstCount) {
+        this.count = count;
+        this.burstCount = Math.max(burstCount, 0);
+        this.tokenIntervalNanos = count > 0 ? NANOS_PER_SECOND / count : 0;
+        this.capacityNanos = (long) (tokenIntervalNanos * (count + this.burstCount));
+    }
+
+    @Override
+    public boolean canPass(Node node, int acquireCount) {
+        return canPass(node, acquireCount, false);
+    }
+
+    @Override
+    public boolean canPass(Node node, int acquireCount, boolean prioritized) {
+        // Pass when acquire count is less or equal than 0.
+        if (acquireCount <= 0) {
+            return true;
+        }
+        // Reject when count is less or equal than 0, or the bucket can never hold enough tokens.
+        if (count <= 0 || acquireCount > count + burstCount) {
+            return false;
+        }
+        long now = TimeUtil.currentTimeMillis() * 1000000L;
+        long cost = (long) (acquireCount * tokenIntervalNanos);
+        long fullTime = now - capacityNanos;
+        while (true) {
+            long expected = emptyTime.get();
+            // Tokens beyond the capacity are dropped.
+            long next = Math.max(expected, fullTime) + cost;
+            if (next > now) {
+                return false;
+            }
+            if (emptyTime.compareAndSet(expected, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Get current available tokens (for statistics and test).
+     *
+     * @return current available tokens
+     */
+    public double availableTokens() {
+        long now = TimeUtil.currentTimeMillis() * 1000000L;
+        long elapsed = Math.min(now - emptyTime.get(), capacityNanos);
+        return elapsed <= 0 || tokenIntervalNanos <= 0 ? 0 : elapsed / tokenIntervalNanos;
+    }
+
+    public double getCount() {
+        return count;
+    }
+
+    public int getBurstCount() {
+        return burstCount;
+    }
+}
@@ -18,6 +18,7 @@ package com.alibaba.csp.sentinel.slots.block.flow.controller;
 import java.util.concurrent.atomic.AtomicLong;
 
 import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.slots.block.DeferredWait;
 import com.alibaba.csp.sentinel.util.TimeUtil;
 
 /**
@@ -75,7 +76,7 @@ public class WarmUpRateLimiterController extends WarmUpController {
                         latestPassedTime.addAndGet(-costTime);
                         return false;
                     }
-                    if (waitTime > 0) {
+                    if (waitTime > 0 && !DeferredWait.defer(waitTime)) {
                         Thread.sleep(waitTime);
                     }
                     return true;
@@ -23,9 +23,8 @@ import com.alibaba.csp.sentinel.node.EntranceNode;
 import com.alibaba.csp.sentinel.slotchain.AbstractLinkedProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 import com.alibaba.csp.sentinel.spi.SpiOrder;
-
-import java.util.HashMap;
-import java.util.Map;
+import com.alibaba.csp.sentinel.util.ConcurrentRegistry;
+import com.alibaba.csp.sentinel.util.function.Function;
 
 /**
  * </p>
@@ -127,9 +126,10 @@ import java.util.Map;
 public class NodeSelectorSlot extends AbstractLinkedProcessorSlot<Object> {
 
     /**
-     * {@link DefaultNode}s of the same resource in different context.
+     * {@link DefaultNode}s of the same resource in different context. Usually there are only a few
+     * contexts for a resource, so a single creation lock is enough.
      */
-    private volatile Map<String, DefaultNode> map = new HashMap<String, DefaultNode>(10);
+    private final ConcurrentRegistry<String, DefaultNode> registry = new ConcurrentRegistry<String, DefaultNode>(0, 1);
 
     @Override
     public void entry(Context context, ResourceWrapper resourceWrapper, Object obj, int count, boolean prioritized, Object... args)
@@ -152,21 +152,9 @@ public class NodeSelectorSlot extends AbstractLinkedProcessorSlot<Object> {
          * The answer is all {@link DefaultNode}s with same resource name share one
          * {@link ClusterNode}. See {@link ClusterBuilderSlot} for detail.
          */
-        DefaultNode node = map.get(context.getName());
+        DefaultNode node = registry.get(context.getName());
         if (node == null) {
-            synchronized (this) {
-                node = map.get(context.getName());
-                if (node == null) {
-                    node = new DefaultNode(resourceWrapper, null);
-                    HashMap<String, DefaultNode> cacheMap = new HashMap<String, DefaultNode>(map.size());
-                    cacheMap.putAll(map);
-                    cacheMap.put(context.getName(), node);
-                    map = cacheMap;
-                    // Build invocation tree
-                    ((DefaultNode) context.getLastNode()).addChild(node);
-                }
-
-            }
+            node = registry.getOrCreate(context.getName(), new DefaultNodeFactory(context, resourceWrapper));
         }
 
         context.setCurNode(node);
@@ -177,4 +165,23 @@ public class NodeSelectorSlot extends AbstractLinkedProcessorSlot<Object> {
     public void exit(Context context, ResourceWrapper resourceWrapper, int count, Object... args) {
         fireExit(context, resourceWrapper, count, args);
     }
+
+    private static final class DefaultNodeFactory implements Function<String, DefaultNode> {
+
+        private final Context context;
+        private final ResourceWrapper resourceWrapper;
+
+        DefaultNodeFactory(Context context, ResourceWrapper resourceWrapper) {
+            this.context = context;
+            this.resourceWrapper = resourceWrapper;
+        }
+
+        @Override
+        public DefaultNode apply(String contextName) {
+            DefaultNode node = new DefaultNode(resourceWrapper, null);
+            // Build invocation tree
+            ((DefaultNode) context.getLastNode()).addChild(node);
+            return node;
+        }
+    }
 }
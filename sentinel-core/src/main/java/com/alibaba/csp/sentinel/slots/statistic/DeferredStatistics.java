@@ -0,0 +1,378 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.node.DefaultNode;
+import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.node.StatisticNode;
+
+/**
+ * <p>
+ * Buffers pass, success and response time of entries per thread, and flushes them to the statistic nodes
+ * in batches. One entry usually updates several nodes (the default node, the cluster node, the origin node
+ * and the global inbound node), so recording them directly costs many contended atomic updates per entry.
+ * With the buffer, each thread only touches its own counters, and the nodes are updated once per batch.
+ * </p>
+ * <p>
+ * The {@code maxBatch} bound is global: it is shared evenly by the threads that have a buffer, and a thread
+ * flushes its buffer once its share of events is pending. So at most {@code maxBatch} events of all threads
+ * are pending (or one event per thread, if there are more threads than {@code maxBatch}). A daemon task also
+ * flushes all buffers every {@code maxDelayMs} milliseconds, so statistics seen by rule checkers lag behind
+ * at most {@code maxBatch} events, or about {@code maxDelayMs} milliseconds.
+ * </p>
+ * <p>
+ * Recording does not lock. A buffer is only written by its owner thread, which marks each record with
+ * a sequence number (odd while recording). The daemon task flushes a buffer only when it
+ * reads the same even sequence number before and after reading the counters, and otherwise leaves the
+ * buffer to its owner, which is recording anyway.
+ * </p>
+ * <p>
+ * Thread count, block count and exception count are not buffered. Response time of nodes with latency
+ * histograms enabled is not buffered either, as the histograms need every single sample.
+ * </p>
+ *
+ * @since 1.8.1
+ */
+final class DeferredStatistics {
+
+    /**
+     * Max amount of distinct nodes in a buffer. An entry usually records to 3 or 4 nodes.
+     */
+    static final int MAX_NODES_PER_BUFFER = 8;
+
+    private final int maxBatch;
+    private final int maxDelayMs;
+
+    private final Queue<Buffer> buffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger bufferCount = new AtomicInteger();
+    /**
+     * The share of {@code maxBatch} of each thread.
+     */
+    private volatile int batchPerThread;
+
+    private final ThreadLocal<Buffer> localBuffer = new ThreadLocal<Buffer>() {
+        @Override
+        protected Buffer initialValue() {
+            Buffer buffer = new Buffer(Thread.currentThread());
+            buffers.add(buffer);
+            updateBatchPerThread(bufferCount.incrementAndGet());
+            return buffer;
+        }
+    };
+
+    private ScheduledExecutorService flushScheduler;
+
+    DeferredStatistics(int maxBatch, int maxDelayMs) {
+        this.maxBatch = maxBatch;
+        this.maxDelayMs = maxDelayMs;
+        updateBatchPerThread(1);
+    }
+
+    private void updateBatchPerThread(int threads) {
+        this.batchPerThread = Math.max(1, maxBatch / Math.max(1, threads));
+    }
+
+    /**
+     * Start the task that periodically flushes pending statistics of all threads.
+     */
+    @SuppressWarnings("PMD.ThreadPoolCreationRule")
+    synchronized void start() {
+        if (flushScheduler != null) {
+            return;
+        }
+        flushScheduler = Executors.newScheduledThreadPool(1,
+            new NamedThreadFactory("sentinel-deferred-statistic-flush-task", true));
+        flushScheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    flushAll();
+                } catch (Throwable e) {
+                    RecordLog.warn("[DeferredStatistics] Failed to flush deferred statistics", e);
+                }
+            }
+        }, maxDelayMs, maxDelayMs, TimeUnit.MILLISECONDS);
+    }
+
+    synchronized void stop() {
+        if (flushScheduler != null) {
+            flushScheduler.shutdownNow();
+            flushScheduler = null;
+        }
+    }
+
+    void addPassRequest(Node node, int count) {
+        Buffer buffer = localBuffer.get();
+        buffer.beginRecord();
+        buffer.pendingOf(node).add(Pending.PASS, count);
+        buffer.endRecord(batchPerThread);
+    }
+
+    void addRtAndSuccess(Node node, long rt, int successCount) {
+        if (hasLatencyHistogram(node)) {
+            node.addRtAndSuccess(rt, successCount);
+            return;
+        }
+        Buffer buffer = localBuffer.get();
+        buffer.beginRecord();
+        Pending pending = buffer.pendingOf(node);
+        pending.add(Pending.SUCCESS, successCount);
+        pending.add(Pending.RT_SUM, rt);
+        pending.add(Pending.RT_COUNT, 1);
+        if (rt < pending.counters.get(Pending.MIN_RT)) {
+            pending.counters.lazySet(Pending.MIN_RT, rt);
+        }
+        buffer.endRecord(batchPerThread);
+    }
+
+    /**
+     * Flush pending statistics of current thread.
+     */
+    void flushCurrentThread() {
+        localBuffer.get().flushByOwner();
+    }
+
+    /**
+     * Flush pending statistics of all threads, and drop the buffers of terminated threads.
+     */
+    void flushAll() {
+        for (Iterator<Buffer> it = buffers.iterator(); it.hasNext(); ) {
+            Buffer buffer = it.next();
+            Thread owner = buffer.owner.get();
+            // Check the owner first: a terminated owner records nothing after the flush below.
+            boolean terminated = owner == null || !owner.isAlive();
+            buffer.flush();
+            if (terminated) {
+                it.remove();
+                updateBatchPerThread(bufferCount.decrementAndGet());
+            }
+        }
+    }
+
+    int bufferCount() {
+        return buffers.size();
+    }
+
+    int batchPerThread() {
+        return batchPerThread;
+    }
+
+    private static boolean hasLatencyHistogram(Node node) {
+        if (node instanceof DefaultNode) {
+            StatisticNode clusterNode = ((DefaultNode)node).getClusterNode();
+            if (clusterNode != null && clusterNode.isLatencyHistogramEnabled()) {
+                return true;
+            }
+        }
+        return node instanceof StatisticNode && ((StatisticNode)node).isLatencyHistogramEnabled();
+    }
+
+    private static final class Buffer {
+
+        private final WeakReference<Thread> owner;
+
+        /**
+         * Odd while the owner is recording.
+         */
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        /**
+         * Pendings of the nodes, looked up by identity with a linear scan, which is cheaper than hashing
+         * for a few nodes. They keep their nodes across flushes, so a steady thread allocates nothing.
+         */
+        private final Pending[] pendings = new Pending[MAX_NODES_PER_BUFFER];
+        private int size;
+
+        /**
+         * Events recorded since the last flush of the owner (accessed by the owner thread only).
+         */
+        private int pendingEvents;
+        private int seenFlushes;
+
+        /**
+         * Amount of flushes by other threads, which tells the owner to reset its min RT.
+         */
+        private volatile int flushes;
+
+        private Buffer(Thread owner) {
+            this.owner = new WeakReference<>(owner);
+        }
+
+        private void beginRecord() {
+            // A volatile write, so that the counter updates below cannot become visible before the odd
+            // sequence number. An ordered write only keeps the earlier writes before it.
+            sequence.set(sequence.get() + 1);
+            int flushCount = flushes;
+            if (flushCount != seenFlushes) {
+                // The buffer has been flushed by another thread, so the min RT starts over.
+                seenFlushes = flushCount;
+                for (int i = 0; i < size; i++) {
+                    pendings[i].counters.lazySet(Pending.MIN_RT, Long.MAX_VALUE);
+                }
+            }
+        }
+
+        private void endRecord(int batch) {
+            // An ordered write is enough here, as it only has to follow the counter updates.
+            sequence.lazySet(sequence.get() + 1);
+            if (++pendingEvents >= batch) {
+                flushByOwner();
+            }
+        }
+
+        private Pending pendingOf(Node node) {
+            for (int i = 0; i < size; i++) {
+                Pending pending = pendings[i];
+                if (pending.node == node) {
+                    return pending;
+                }
+            }
+            if (size == MAX_NODES_PER_BUFFER) {
+                // Flush and release the pendings to make room for the new node.
+                synchronized (this) {
+                    flushPendings();
+                    for (int i = 0; i < size; i++) {
+                        pendings[i] = null;
+                    }
+                    size = 0;
+                }
+            }
+            Pending pending = new Pending(node);
+            pendings[size++] = pending;
+            return pending;
+        }
+
+        /**
+         * Flush the buffer, called by the owner thread (which is not recording).
+         */
+        private void flushByOwner() {
+            synchronized (this) {
+                flushPendings();
+                for (int i = 0; i < size; i++) {
+                    pendings[i].counters.lazySet(Pending.MIN_RT, Long.MAX_VALUE);
+                }
+            }
+            pendingEvents = 0;
+        }
+
+        /**
+         * Flush the buffer from another thread, unless the owner is recording.
+         */
+        private synchronized void flush() {
+            int seq = sequence.get();
+            if ((seq & 1) != 0) {
+                return;
+            }
+            Pending[] snapshot = pendings.clone();
+            for (Pending pending : snapshot) {
+                if (pending != null) {
+                    pending.snapshot();
+                }
+            }
+            if (sequence.get() != seq) {
+                return;
+            }
+            boolean flushed = false;
+            for (Pending pending : snapshot) {
+                if (pending != null && pending.flushSnapshot()) {
+                    flushed = true;
+                }
+            }
+            if (flushed) {
+                flushes++;
+            }
+        }
+
+        private void flushPendings() {
+            for (int i = 0; i < size; i++) {
+                Pending pending = pendings[i];
+                pending.snapshot();
+                pending.flushSnapshot();
+            }
+        }
+    }
+
+    private static final class Pending {
+
+        private static final int PASS = 0;
+        private static final int SUCCESS = 1;
+        private static final int RT_SUM = 2;
+        private static final int RT_COUNT = 3;
+        private static final int MIN_RT = 4;
+
+        private final Node node;
+
+        /**
+         * Monotonic counters (and the min RT since the last flush), written by the owner thread only.
+         */
+        private final AtomicLongArray counters = new AtomicLongArray(5);
+
+        /**
+         * Counters that have been read and flushed, guarded by the buffer lock.
+         */
+        private final long[] read = new long[5];
+        private final long[] flushed = new long[4];
+
+        private Pending(Node node) {
+            this.node = node;
+            counters.set(MIN_RT, Long.MAX_VALUE);
+        }
+
+        private void add(int idx, long n) {
+            counters.lazySet(idx, counters.get(idx) + n);
+        }
+
+        private void snapshot() {
+            for (int i = 0; i < read.length; i++) {
+                read[i] = counters.get(i);
+            }
+        }
+
+        private boolean flushSnapshot() {
+            long pass = read[PASS] - flushed[PASS];
+            long success = read[SUCCESS] - flushed[SUCCESS];
+            long rtSum = read[RT_SUM] - flushed[RT_SUM];
+            long rtCount = read[RT_COUNT] - flushed[RT_COUNT];
+            System.arraycopy(read, 0, flushed, 0, flushed.length);
+            if (pass > 0) {
+                node.addPassRequest((int)pass);
+            }
+            if (rtCount > 0) {
+                // Record the min RT alone first, then the rest of the RT sum. The rest is no less than
+                // the min RT when there are two or more samples, so the min RT of the node stays exact.
+                // The min RT is capped by the mean, in case it was reset by a record racing with a flush.
+                long minRt = Math.min(read[MIN_RT], rtSum / rtCount);
+                node.addRtAndSuccess(minRt, (int)success);
+                if (rtCount > 1) {
+                    node.addRtAndSuccess(rtSum - minRt, 0);
+                }
+            }
+            return pass > 0 || rtCount > 0;
+        }
+    }
+}
@@ -17,6 +17,7 @@ package com.alibaba.csp.sentinel.slots.statistic;
 
 import java.util.Collection;
 
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.node.Node;
 import com.alibaba.csp.sentinel.slotchain.ProcessorSlotEntryCallback;
 import com.alibaba.csp.sentinel.slotchain.ProcessorSlotExitCallback;
@@ -44,6 +45,10 @@ import com.alibaba.csp.sentinel.slots.block.BlockException;
  * <li>Finally, the sum statistics of all entrances.</li>
  * </ul>
  * </p>
+ * <p>
+ * If {@link SentinelConfig#statisticDeferred()} is enabled, pass, success and response time are buffered
+ * per thread and flushed to the nodes in batches (see {@link DeferredStatistics}).
+ * </p>
  *
  * @author jialiang.linjl
  * @author Eric Zhao
@@ -51,6 +56,18 @@ import com.alibaba.csp.sentinel.slots.block.BlockException;
 @SpiOrder(-7000)
 public class StatisticSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
 
+    private static final DeferredStatistics DEFERRED_STATISTICS = newDeferredStatistics();
+
+    private static DeferredStatistics newDeferredStatistics() {
+        if (!SentinelConfig.statisticDeferred()) {
+            return null;
+        }
+        DeferredStatistics statistics = new DeferredStatistics(SentinelConfig.statisticDeferredMaxBatch(),
+            SentinelConfig.statisticDeferredMaxDelayMs());
+        statistics.start();
+        return statistics;
+    }
+
     @Override
     public void entry(Context context, ResourceWrapper resourceWrapper, DefaultNode node, int count,
                       boolean prioritized, Object... args) throws Throwable {
@@ -60,18 +77,18 @@ public class StatisticSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
 
             // Request passed, add thread count and pass count.
             node.increaseThreadNum();
-            node.addPassRequest(count);
+            addPassRequest(node, count);
 
             if (context.getCurEntry().getOriginNode() != null) {
                 // Add count for origin node.
-                context.getCurEntry().getOriginNode().increaseThreadNum();
-                context.getCurEntry().getOriginNode().addPassRequest(count);
+                Node originNode = increaseOriginThreadNum(context, node);
+                addPassRequest(originNode, count);
             }
 
             if (resourceWrapper.getEntryType() == EntryType.IN) {
                 // Add count for global inbound entry node for global statistics.
                 Constants.ENTRY_NODE.increaseThreadNum();
-                Constants.ENTRY_NODE.addPassRequest(count);
+                addPassRequest(Constants.ENTRY_NODE, count);
             }
 
             // Handle pass event with registered entry callback handlers.
@@ -82,7 +99,7 @@ public class StatisticSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
             node.increaseThreadNum();
             if (context.getCurEntry().getOriginNode() != null) {
                 // Add count for origin node.
-                context.getCurEntry().getOriginNode().increaseThreadNum();
+                increaseOriginThreadNum(context, node);
             }
 
             if (resourceWrapper.getEntryType() == EntryType.IN) {
@@ -155,11 +172,38 @@ public class StatisticSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
         if (node == null) {
             return;
         }
-        node.addRtAndSuccess(rt, batchCount);
+        if (DEFERRED_STATISTICS != null) {
+            DEFERRED_STATISTICS.addRtAndSuccess(node, rt, batchCount);
+        } else {
+            node.addRtAndSuccess(rt, batchCount);
+        }
         node.decreaseThreadNum();
 
         if (error != null && !(error instanceof BlockException)) {
             node.increaseExceptionQps(batchCount);
         }
     }
+
+    private Node increaseOriginThreadNum(Context context, DefaultNode node) {
+        Node originNode = context.getCurEntry().getOriginNode();
+        ClusterNode clusterNode = node.getClusterNode();
+        if (clusterNode == null) {
+            originNode.increaseThreadNum();
+            return originNode;
+        }
+        // The origin node may have been evicted from the cluster node since it was looked up.
+        Node current = clusterNode.increaseOriginThreadNum(context.getOrigin(), originNode);
+        if (current != originNode) {
+            context.getCurEntry().setOriginNode(current);
+        }
+        return current;
+    }
+
+    private void addPassRequest(Node node, int count) {
+        if (DEFERRED_STATISTICS != null) {
+            DEFERRED_STATISTICS.addPassRequest(node, count);
+        } else {
+            node.addPassRequest(count);
+        }
+    }
 }
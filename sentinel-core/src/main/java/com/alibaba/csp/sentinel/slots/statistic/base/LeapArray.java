@@ -20,6 +20,9 @@ import java.util.List;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.locks.ReentrantLock;
 
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.metric.overhead.OverheadEvent;
+import com.alibaba.csp.sentinel.metric.overhead.OverheadRecorder;
 import com.alibaba.csp.sentinel.util.AssertUtil;
 import com.alibaba.csp.sentinel.util.TimeUtil;
 
@@ -52,6 +55,13 @@ public abstract class LeapArray<T> {
      */
     private final ReentrantLock updateLock = new ReentrantLock();
 
+    /**
+     * Whether deprecated buckets are replaced with CAS instead of being reset under the update lock.
+     *
+     * @since 1.8.1
+     */
+    private final boolean lockFreeRotation;
+
     /**
      * The total bucket count is: {@code sampleCount = intervalInMs / windowLengthInMs}.
      *
@@ -69,6 +79,7 @@ public abstract class LeapArray<T> {
         this.sampleCount = sampleCount;
 
         this.array = new AtomicReferenceArray<>(sampleCount);
+        this.lockFreeRotation = SentinelConfig.lockFreeWindowRotation() && supportsLockFreeRotation();
     }
 
     /**
@@ -97,6 +108,19 @@ public abstract class LeapArray<T> {
      */
     protected abstract WindowWrap<T> resetWindowTo(WindowWrap<T> windowWrap, long startTime);
 
+    /**
+     * Whether deprecated buckets of this array could be replaced by new buckets from {@link #newEmptyBucket(long)}
+     * instead of being reset via {@link #resetWindowTo(WindowWrap, long)}, which is required by the lock-free
+     * rotation. Buckets should be cheap to create, and a new bucket should be equivalent to a reset one.
+     * The result should not depend on the state of the instance, as it's checked during construction.
+     *
+     * @return false by default
+     * @since 1.8.1
+     */
+    protected boolean supportsLockFreeRotation() {
+        return false;
+    }
+
     private int calculateTimeIdx(/*@Valid*/ long timeMillis) {
         long timeId = timeMillis / windowLengthInMs;
         // Calculate current index so we can map the timestamp to the leap array.
@@ -148,10 +172,12 @@ public abstract class LeapArray<T> {
                 if (array.compareAndSet(idx, null, window)) {
                     // Successfully updated, return the created bucket.
                     return window;
-                } else {
+                } else if (!lockFreeRotation) {
                     // Contention failed, the thread will yield its time slice to wait for bucket available.
+                    OverheadRecorder.addEvent(OverheadEvent.WINDOW_CONTENTION);
                     Thread.yield();
                 }
+                // In lock-free mode, the bucket set by the winner will be picked up by the next read.
             } else if (windowStart == old.windowStart()) {
                 /*
                  *     B0       B1      B2     B3      B4
@@ -182,16 +208,31 @@ public abstract class LeapArray<T> {
                  *
                  * The update lock is conditional (tiny scope) and will take effect only when
                  * bucket is deprecated, so in most cases it won't lead to performance loss.
+                 *
+                 * In lock-free mode, the deprecated bucket is never reset in place. Instead, a new bucket
+                 * is created and swapped in via a CAS on the slot (the window start acts as the epoch).
+                 * If the CAS fails, another thread has already done the rotation, so the next read
+                 * returns its bucket directly. No thread will block or yield here, though a thread
+                 * may retry if the slot keeps being rotated by others.
                  */
-                if (updateLock.tryLock()) {
+                if (lockFreeRotation) {
+                    WindowWrap<T> window = new WindowWrap<T>(windowLengthInMs, windowStart, newEmptyBucket(timeMillis));
+                    if (array.compareAndSet(idx, old, window)) {
+                        OverheadRecorder.addEvent(OverheadEvent.WINDOW_RESET);
+                        return window;
+                    }
+                    // Another thread has rotated the bucket, then just read it again.
+                } else if (updateLock.tryLock()) {
                     try {
                         // Successfully get the update lock, now we reset the bucket.
+                        OverheadRecorder.addEvent(OverheadEvent.WINDOW_RESET);
                         return resetWindowTo(old, windowStart);
                     } finally {
                         updateLock.unlock();
                     }
                 } else {
                     // Contention failed, the thread will yield its time slice to wait for bucket available.
+                    OverheadRecorder.addEvent(OverheadEvent.WINDOW_CONTENTION);
                     Thread.yield();
                 }
             } else if (windowStart < old.windowStart()) {
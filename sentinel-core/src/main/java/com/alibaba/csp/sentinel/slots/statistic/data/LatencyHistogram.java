@@ -0,0 +1,161 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+
+/**
+ * <p>A fixed-memory, lock-free log-linear histogram of response time (in milliseconds).</p>
+ *
+ * <p>Values less than 16 have their own counter. Larger values are grouped by power of two, and each
+ * group is divided into 16 linear sub-buckets, so that the relative error of the recorded value
+ * is less than 1/16 (6.25%). Values larger than the max value are recorded as the max value.
+ * For the default max RT (5000 ms) the histogram holds 148 counters.</p>
+ *
+ * @since 1.8.1
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_MASK = SUB_BUCKET_COUNT - 1;
+
+    private final long maxValue;
+    private final AtomicLongArray counts;
+
+    public LatencyHistogram() {
+        this(SentinelConfig.statisticMaxRt());
+    }
+
+    public LatencyHistogram(long maxValue) {
+        this.maxValue = Math.max(maxValue, 1);
+        this.counts = new AtomicLongArray(indexOf(this.maxValue) + 1);
+    }
+
+    /**
+     * Record a value.
+     *
+     * @param value the value (response time) to record
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        } else if (value > maxValue) {
+            value = maxValue;
+        }
+        counts.incrementAndGet(indexOf(value));
+    }
+
+    /**
+     * Get total count of recorded values.
+     *
+     * @return total count
+     */
+    public long count() {
+        long sum = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            sum += counts.get(i);
+        }
+        return sum;
+    }
+
+    /**
+     * Get the value at given percentile (the highest value of the sub-bucket where the percentile falls in).
+     *
+     * @param percentile percentile in range (0, 100]
+     * @return value at given percentile, or -1 if nothing has been recorded
+     */
+    public long valueAtPercentile(double percentile) {
+        long[] snapshot = new long[counts.length()];
+        addTo(snapshot);
+        return valueAtPercentile(snapshot, percentile, maxValue);
+    }
+
+    /**
+     * Add the counters of current histogram to the target array (for aggregating several histograms).
+     *
+     * @param target target array, whose length should be {@link #bucketCount()}
+     */
+    public void addTo(long[] target) {
+        for (int i = 0; i < counts.length(); i++) {
+            target[i] += counts.get(i);
+        }
+    }
+
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    public int bucketCount() {
+        return counts.length();
+    }
+
+    public long getMaxValue() {
+        return maxValue;
+    }
+
+    /**
+     * Get the value at given percentile from aggregated counters (see {@link #addTo(long[])}).
+     *
+     * @param counts     aggregated counters
+     * @param percentile percentile in range (0, 100]
+     * @param maxValue   max value of the histogram
+     * @return value at given percentile, or -1 if nothing has been recorded
+     */
+    public static long valueAtPercentile(long[] counts, double percentile, long maxValue) {
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        if (total == 0) {
+            return -1;
+        }
+        double p = Math.min(Math.max(percentile, 0), 100);
+        long target = Math.max(1, (long) Math.ceil(p / 100 * total));
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= target) {
+                return Math.min(highestValueAt(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) & SUB_BUCKET_MASK);
+    }
+
+    static long lowestValueAt(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index >> SUB_BUCKET_BITS) - 1;
+        return ((long) (SUB_BUCKET_COUNT + (index & SUB_BUCKET_MASK))) << shift;
+    }
+
+    static long highestValueAt(int index) {
+        return lowestValueAt(index + 1) - 1;
+    }
+}
@@ -27,21 +27,39 @@ import com.alibaba.csp.sentinel.slots.statistic.base.LongAdder;
  */
 public class MetricBucket {
 
+    /**
+     * Cached events to avoid cloning the enum array on every {@code MetricEvent.values()} call.
+     */
+    protected static final MetricEvent[] EVENTS = MetricEvent.values();
+
     private final LongAdder[] counters;
 
     private volatile long minRt;
 
     public MetricBucket() {
-        MetricEvent[] events = MetricEvent.values();
-        this.counters = new LongAdder[events.length];
-        for (MetricEvent event : events) {
-            counters[event.ordinal()] = new LongAdder();
+        this(true);
+    }
+
+    /**
+     * Constructor for subclasses which maintain the counters in their own layout.
+     *
+     * @param initCounters whether to initialize the default {@link LongAdder} counters
+     * @since 1.8.1
+     */
+    protected MetricBucket(boolean initCounters) {
+        if (initCounters) {
+            this.counters = new LongAdder[EVENTS.length];
+            for (MetricEvent event : EVENTS) {
+                counters[event.ordinal()] = new LongAdder();
+            }
+        } else {
+            this.counters = null;
         }
         initMinRt();
     }
 
     public MetricBucket reset(MetricBucket bucket) {
-        for (MetricEvent event : MetricEvent.values()) {
+        for (MetricEvent event : EVENTS) {
             counters[event.ordinal()].reset();
             counters[event.ordinal()].add(bucket.get(event));
         }
@@ -49,7 +67,7 @@ public class MetricBucket {
         return this;
     }
 
-    private void initMinRt() {
+    protected void initMinRt() {
         this.minRt = SentinelConfig.statisticMaxRt();
     }
 
@@ -59,7 +77,7 @@ public class MetricBucket {
      * @return new metric bucket in initial state
      */
     public MetricBucket reset() {
-        for (MetricEvent event : MetricEvent.values()) {
+        for (MetricEvent event : EVENTS) {
             counters[event.ordinal()].reset();
         }
         initMinRt();
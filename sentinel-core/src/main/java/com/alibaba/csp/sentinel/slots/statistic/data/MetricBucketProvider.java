@@ -0,0 +1,83 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.log.RecordLog;
+
+/**
+ * <p>Provider for creating {@link MetricBucket}s of the type configured by
+ * {@link SentinelConfig#METRIC_BUCKET_TYPE}. The type is resolved only once.</p>
+ *
+ * @since 1.8.1
+ */
+public final class MetricBucketProvider {
+
+    public static final String BUCKET_TYPE_DEFAULT = "default";
+    public static final String BUCKET_TYPE_STRIPED = "striped";
+    public static final String BUCKET_TYPE_OFF_HEAP = "offheap";
+
+    private static final String TYPE = resolveType();
+
+    private static String resolveType() {
+        String type = SentinelConfig.metricBucketType();
+        if (BUCKET_TYPE_STRIPED.equals(type)) {
+            RecordLog.info("[MetricBucketProvider] Using striped metric bucket");
+            return BUCKET_TYPE_STRIPED;
+        }
+        if (BUCKET_TYPE_OFF_HEAP.equals(type)) {
+            if (OffHeapMetricBucket.isSupported()) {
+                RecordLog.info("[MetricBucketProvider] Using off-heap metric bucket");
+                return BUCKET_TYPE_OFF_HEAP;
+            }
+            RecordLog.warn("[MetricBucketProvider] Off-heap metric bucket is not supported in current JVM, "
+                + "using default");
+            return BUCKET_TYPE_DEFAULT;
+        }
+        if (!BUCKET_TYPE_DEFAULT.equals(type)) {
+            RecordLog.warn("[MetricBucketProvider] Unknown metric bucket type <{}>, using default", type);
+        }
+        return BUCKET_TYPE_DEFAULT;
+    }
+
+    /**
+     * Create a new empty bucket of the configured type.
+     *
+     * @return new empty metric bucket
+     */
+    public static MetricBucket newBucket() {
+        if (TYPE == BUCKET_TYPE_STRIPED) {
+            return new StripedMetricBucket();
+        }
+        if (TYPE == BUCKET_TYPE_OFF_HEAP) {
+            return new OffHeapMetricBucket();
+        }
+        return new MetricBucket();
+    }
+
+    /**
+     * Create a new empty bucket with fixed footprint for high-resolution sliding windows, regardless of
+     * the configured type.
+     *
+     * @return new empty compact metric bucket
+     * @since 1.8.1
+     */
+    public static MetricBucket newCompactBucket() {
+        return new StripedMetricBucket(false);
+    }
+
+    private MetricBucketProvider() {}
+}
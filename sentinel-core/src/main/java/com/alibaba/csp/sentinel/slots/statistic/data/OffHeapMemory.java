@@ -0,0 +1,143 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.security.AccessController;
+import java.security.PrivilegedExceptionAction;
+
+import com.alibaba.csp.sentinel.log.RecordLog;
+
+/**
+ * <p>The only accessor of {@code sun.misc.Unsafe} for off-heap counters.</p>
+ *
+ * <p>The internal API is loaded by reflection and called through method handles bound to the instance,
+ * so that the class compiles without references to it (and without warnings of the compiler). As the
+ * handles are constants, the JIT compiles the calls like direct calls.</p>
+ *
+ * @since 1.8.1
+ */
+final class OffHeapMemory {
+
+    private static final Object UNSAFE = loadUnsafe();
+
+    private static final MethodHandle OBJECT_FIELD_OFFSET = methodOf("objectFieldOffset", Field.class);
+    private static final MethodHandle GET_LONG = methodOf("getLong", Object.class, long.class);
+    private static final MethodHandle SET_MEMORY = methodOf("setMemory", long.class, long.class, byte.class);
+    private static final MethodHandle GET_LONG_VOLATILE = methodOf("getLongVolatile", Object.class, long.class);
+    private static final MethodHandle PUT_LONG_VOLATILE = methodOf("putLongVolatile", Object.class, long.class,
+        long.class);
+    private static final MethodHandle COMPARE_AND_SWAP_LONG = methodOf("compareAndSwapLong", Object.class,
+        long.class, long.class, long.class);
+
+    private static final long ADDRESS_OFFSET = addressOffset();
+
+    static boolean isSupported() {
+        return ADDRESS_OFFSET >= 0 && GET_LONG != null && SET_MEMORY != null && GET_LONG_VOLATILE != null
+            && PUT_LONG_VOLATILE != null && COMPARE_AND_SWAP_LONG != null;
+    }
+
+    /**
+     * Get the base address of the direct buffer.
+     */
+    static long addressOf(ByteBuffer directBuffer) {
+        try {
+            return (long) GET_LONG.invokeExact((Object) directBuffer, ADDRESS_OFFSET);
+        } catch (Throwable ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    static void zero(long address, long bytes) {
+        try {
+            SET_MEMORY.invokeExact(address, bytes, (byte) 0);
+        } catch (Throwable ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    static long getLongVolatile(long address) {
+        try {
+            return (long) GET_LONG_VOLATILE.invokeExact((Object) null, address);
+        } catch (Throwable ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    static void putLongVolatile(long address, long value) {
+        try {
+            PUT_LONG_VOLATILE.invokeExact((Object) null, address, value);
+        } catch (Throwable ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    static boolean compareAndSwapLong(long address, long expected, long value) {
+        try {
+            return (boolean) COMPARE_AND_SWAP_LONG.invokeExact((Object) null, address, expected, value);
+        } catch (Throwable ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static long addressOffset() {
+        if (OBJECT_FIELD_OFFSET == null) {
+            return -1;
+        }
+        try {
+            return (long) OBJECT_FIELD_OFFSET.invokeExact(Buffer.class.getDeclaredField("address"));
+        } catch (Throwable ex) {
+            RecordLog.warn("[OffHeapMemory] Cannot access the address of direct buffers", ex);
+            return -1;
+        }
+    }
+
+    private static MethodHandle methodOf(String name, Class<?>... parameterTypes) {
+        if (UNSAFE == null) {
+            return null;
+        }
+        try {
+            return MethodHandles.lookup()
+                .unreflect(UNSAFE.getClass().getMethod(name, parameterTypes))
+                .bindTo(UNSAFE);
+        } catch (Throwable ex) {
+            RecordLog.warn("[OffHeapMemory] Method of sun.misc.Unsafe is not available: " + name, ex);
+            return null;
+        }
+    }
+
+    private static Object loadUnsafe() {
+        try {
+            return AccessController.doPrivileged(new PrivilegedExceptionAction<Object>() {
+                @Override
+                public Object run() throws Exception {
+                    Field f = Class.forName("sun.misc.Unsafe").getDeclaredField("theUnsafe");
+                    f.setAccessible(true);
+                    return f.get(null);
+                }
+            });
+        } catch (Throwable ex) {
+            RecordLog.warn("[OffHeapMemory] sun.misc.Unsafe is not available", ex);
+            return null;
+        }
+    }
+
+    private OffHeapMemory() {}
+}
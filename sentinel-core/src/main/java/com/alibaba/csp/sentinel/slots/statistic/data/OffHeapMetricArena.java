@@ -0,0 +1,235 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * <p>Arena of off-heap counter slots for {@link OffHeapMetricBucket}.</p>
+ *
+ * <p>Memory is allocated as direct {@link ByteBuffer} slabs, each of which is divided into fixed-size slots
+ * (one slot per bucket, aligned to the cache line). When a bucket becomes unreachable, its slot is returned
+ * to the free list (tracked by a phantom reference) and reused by new buckets. Buckets keep themselves
+ * reachable until each access to their slot completes (see {@link OffHeapMetricBucket}), so a slot is never
+ * reused while it's being accessed. Slabs without live slots are released gradually (one per
+ * {@link #SLAB_RELEASE_INTERVAL_MS} per stripe) once the stripe has enough other free slots.</p>
+ *
+ * <p>The arena is striped: each stripe has its own slabs, free list and lock, and threads are mapped to
+ * stripes by their id, so bucket creation of different resources rarely contends on the same lock.</p>
+ *
+ * @since 1.8.1
+ */
+final class OffHeapMetricArena {
+
+    /**
+     * 8 bytes per event counter, padded to 64 bytes (one cache line).
+     */
+    static final int SLOT_SIZE = 64;
+    static final int SLOTS_PER_SLAB = 256;
+    /**
+     * Min interval of releasing empty slabs, so that churning buckets don't keep allocating direct buffers.
+     */
+    static final long SLAB_RELEASE_INTERVAL_MS = 1000;
+
+    static final int STRIPE_COUNT = stripeCount(Runtime.getRuntime().availableProcessors());
+
+    static final OffHeapMetricArena INSTANCE = OffHeapMemory.isSupported() ? new OffHeapMetricArena() : null;
+
+    private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
+
+    private OffHeapMetricArena() {
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    static int stripeCount(int cpuCount) {
+        int n = Integer.highestOneBit(Math.max(cpuCount, 1));
+        return Math.min(n, 16);
+    }
+
+    /**
+     * Allocate a zeroed slot for the bucket.
+     *
+     * @param bucket the bucket that owns the slot
+     * @return address of the slot
+     */
+    long allocate(OffHeapMetricBucket bucket) {
+        // Fibonacci hashing of the thread id, so that sequentially created threads spread over stripes.
+        long h = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (h >>> 32) & (STRIPE_COUNT - 1)].allocate(bucket);
+    }
+
+    /**
+     * Only for internal test and monitoring.
+     */
+    long allocatedBytes() {
+        long bytes = 0;
+        for (Stripe stripe : stripes) {
+            bytes += stripe.allocatedBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Only for internal test.
+     */
+    int liveSlots() {
+        int slots = 0;
+        for (Stripe stripe : stripes) {
+            slots += stripe.liveSlots();
+        }
+        return slots;
+    }
+
+    private static final class Stripe {
+
+        /**
+         * Slabs indexed by slab number, where released slabs are null.
+         */
+        private ByteBuffer[] slabs = new ByteBuffer[4];
+        private long[] slabAddresses = new long[4];
+        private int[] slabLiveSlots = new int[4];
+        /**
+         * Phantom references of live slots, indexed by slot (this keeps them reachable until they're enqueued).
+         */
+        private SlotReference[] references = new SlotReference[4 * SLOTS_PER_SLAB];
+        private int[] freeSlots = new int[4 * SLOTS_PER_SLAB];
+        private int freeCount = 0;
+        private long lastReleaseTime = 0;
+
+        private final ReferenceQueue<OffHeapMetricBucket> queue = new ReferenceQueue<OffHeapMetricBucket>();
+
+        synchronized long allocate(OffHeapMetricBucket bucket) {
+            reclaim();
+            if (freeCount == 0) {
+                newSlab();
+            }
+            int slot = freeSlots[--freeCount];
+            int slab = slot / SLOTS_PER_SLAB;
+            slabLiveSlots[slab]++;
+            long address = slabAddresses[slab] + (long) (slot % SLOTS_PER_SLAB) * SLOT_SIZE;
+            OffHeapMemory.zero(address, SLOT_SIZE);
+            references[slot] = new SlotReference(bucket, slot, queue);
+            return address;
+        }
+
+        private void reclaim() {
+            Reference<? extends OffHeapMetricBucket> r;
+            while ((r = queue.poll()) != null) {
+                int slot = ((SlotReference) r).slot;
+                references[slot] = null;
+                freeSlots[freeCount++] = slot;
+                slabLiveSlots[slot / SLOTS_PER_SLAB]--;
+            }
+            releaseEmptySlabs();
+        }
+
+        /**
+         * Release a slab without live slots, as long as a slab's worth of free slots is left for new buckets.
+         * At most one slab is released per interval, so a stripe shrinks gradually after a peak.
+         */
+        private void releaseEmptySlabs() {
+            if (freeCount < 2 * SLOTS_PER_SLAB) {
+                return;
+            }
+            long now = TimeUtil.currentTimeMillis();
+            if (now - lastReleaseTime < SLAB_RELEASE_INTERVAL_MS) {
+                return;
+            }
+            for (int slab = slabs.length - 1; slab >= 0; slab--) {
+                if (slabs[slab] != null && slabLiveSlots[slab] == 0) {
+                    releaseSlab(slab);
+                    lastReleaseTime = now;
+                    return;
+                }
+            }
+        }
+
+        private void releaseSlab(int slab) {
+            int n = 0;
+            for (int i = 0; i < freeCount; i++) {
+                if (freeSlots[i] / SLOTS_PER_SLAB != slab) {
+                    freeSlots[n++] = freeSlots[i];
+                }
+            }
+            freeCount = n;
+            // The memory is freed when the buffer is collected. No bucket can access the slab any more, as the
+            // phantom references of all its slots have been enqueued.
+            slabs[slab] = null;
+            slabAddresses[slab] = 0;
+        }
+
+        private void newSlab() {
+            int slab = 0;
+            while (slab < slabs.length && slabs[slab] != null) {
+                slab++;
+            }
+            if (slab == slabs.length) {
+                // Grow the tables by doubling, so that copying is amortized.
+                int newLength = slabs.length * 2;
+                slabs = Arrays.copyOf(slabs, newLength);
+                slabAddresses = Arrays.copyOf(slabAddresses, newLength);
+                slabLiveSlots = Arrays.copyOf(slabLiveSlots, newLength);
+                references = Arrays.copyOf(references, newLength * SLOTS_PER_SLAB);
+                freeSlots = Arrays.copyOf(freeSlots, newLength * SLOTS_PER_SLAB);
+            }
+            // Reserve one more slot for alignment.
+            ByteBuffer buffer = ByteBuffer.allocateDirect((SLOTS_PER_SLAB + 1) * SLOT_SIZE);
+            long base = OffHeapMemory.addressOf(buffer);
+            slabs[slab] = buffer;
+            slabAddresses[slab] = (base + SLOT_SIZE - 1) & ~((long) SLOT_SIZE - 1);
+            for (int slot = (slab + 1) * SLOTS_PER_SLAB - 1; slot >= slab * SLOTS_PER_SLAB; slot--) {
+                freeSlots[freeCount++] = slot;
+            }
+        }
+
+        synchronized long allocatedBytes() {
+            long bytes = 0;
+            for (ByteBuffer slab : slabs) {
+                if (slab != null) {
+                    bytes += (SLOTS_PER_SLAB + 1) * SLOT_SIZE;
+                }
+            }
+            return bytes;
+        }
+
+        synchronized int liveSlots() {
+            reclaim();
+            int slots = 0;
+            for (int live : slabLiveSlots) {
+                slots += live;
+            }
+            return slots;
+        }
+    }
+
+    private static final class SlotReference extends PhantomReference<OffHeapMetricBucket> {
+
+        private final int slot;
+
+        SlotReference(OffHeapMetricBucket bucket, int slot, ReferenceQueue<OffHeapMetricBucket> queue) {
+            super(bucket, queue);
+            this.slot = slot;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
+
+/**
+ * <p>A {@link MetricBucket} whose counters live off-heap in the {@link OffHeapMetricArena}.</p>
+ *
+ * <p>Only a small object holding the address of the counters stays on the heap, which shrinks the
+ * old-gen footprint (and the GC marking cost) of applications with a large amount of resources.</p>
+ *
+ * <p>The slot of the counters is reused once the bucket becomes unreachable. As the JIT may consider the bucket
+ * unreachable right after reading its address, each access ends with a volatile write to the bucket, which
+ * keeps it reachable until the access completes.</p>
+ *
+ * @since 1.8.1
+ */
+public class OffHeapMetricBucket extends MetricBucket {
+
+    private final long address;
+
+    /**
+     * Only written as a reachability fence (see {@link #keepReachable()}).
+     */
+    private volatile boolean reachable;
+
+    /**
+     * Create an off-heap bucket. Make sure {@link #isSupported()} is true.
+     */
+    public OffHeapMetricBucket() {
+        super(false);
+        this.address = OffHeapMetricArena.INSTANCE.allocate(this);
+    }
+
+    /**
+     * Check whether off-heap buckets are supported in current JVM.
+     *
+     * @return true if supported, otherwise false
+     */
+    public static boolean isSupported() {
+        return OffHeapMetricArena.INSTANCE != null;
+    }
+
+    private long addressOf(int idx) {
+        return address + ((long) idx << 3);
+    }
+
+    /**
+     * Called after accessing the counters, so that the slot cannot be reclaimed before the access completes.
+     */
+    private void keepReachable() {
+        reachable = true;
+    }
+
+    @Override
+    public MetricBucket reset(MetricBucket bucket) {
+        for (MetricEvent event : EVENTS) {
+            OffHeapMemory.putLongVolatile(addressOf(event.ordinal()), bucket.get(event));
+        }
+        keepReachable();
+        initMinRt();
+        return this;
+    }
+
+    @Override
+    public MetricBucket reset() {
+        for (int i = 0; i < EVENTS.length; i++) {
+            OffHeapMemory.putLongVolatile(addressOf(i), 0);
+        }
+        keepReachable();
+        initMinRt();
+        return this;
+    }
+
+    @Override
+    public long get(MetricEvent event) {
+        long v = OffHeapMemory.getLongVolatile(addressOf(event.ordinal()));
+        keepReachable();
+        return v;
+    }
+
+    @Override
+    public MetricBucket add(MetricEvent event, long n) {
+        long addr = addressOf(event.ordinal());
+        long v;
+        do {
+            v = OffHeapMemory.getLongVolatile(addr);
+        } while (!OffHeapMemory.compareAndSwapLong(addr, v, v + n));
+        keepReachable();
+        return this;
+    }
+}
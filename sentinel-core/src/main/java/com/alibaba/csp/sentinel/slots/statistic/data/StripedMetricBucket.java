@@ -0,0 +1,191 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
+
+/**
+ * <p>A {@link MetricBucket} that keeps all counters in flat {@code long} arrays rather than
+ * one {@code LongAdder} per {@link MetricEvent}.</p>
+ *
+ * <p>All counters are first accumulated in a compact base array. Once an update of the base fails due to
+ * contention, two stripes are allocated, each of which holds the counters of all events and is padded to
+ * 128 bytes to avoid false sharing. Like {@code Striped64}, the stripes are doubled (up to the number of CPUs)
+ * only when an update of a stripe fails too, so the memory of a bucket follows the contention actually
+ * observed on it. Threads are mapped to stripes by their id. Compared with the default bucket, there are
+ * no per-event objects, and the bucket does not inflate the cells of every {@code LongAdder} separately.</p>
+ *
+ * <p>A non-striped bucket keeps all counters in the base array and never inflates, so its footprint stays
+ * fixed and small. It's used by high-resolution sliding windows with many short buckets, where the traffic
+ * of each bucket is low and the memory cost of the window matters more than the update throughput.</p>
+ *
+ * @since 1.8.1
+ */
+public class StripedMetricBucket extends MetricBucket {
+
+    private static final int EVENT_COUNT = EVENTS.length;
+
+    /**
+     * 16 longs (128 bytes) per stripe, which covers the adjacent cache line prefetch.
+     */
+    private static final int STRIPE_STRIDE = 16;
+
+    static final int MAX_STRIPES = maxStripes(Runtime.getRuntime().availableProcessors());
+
+    private static final int INITIAL_STRIPES = Math.min(2, MAX_STRIPES);
+
+    private static final AtomicReferenceFieldUpdater<StripedMetricBucket, AtomicLongArray[]> STRIPES_UPDATER
+        = AtomicReferenceFieldUpdater.newUpdater(StripedMetricBucket.class, AtomicLongArray[].class, "stripes");
+
+    private final AtomicLongArray base = new AtomicLongArray(EVENT_COUNT);
+    private final boolean striped;
+
+    /**
+     * Lazily allocated on first contention, and doubled on contention of stripes. Existing stripes
+     * are carried over when doubling, so no update will be lost.
+     */
+    private volatile AtomicLongArray[] stripes;
+
+    public StripedMetricBucket() {
+        this(true);
+    }
+
+    /**
+     * @param striped whether counters are striped on contention
+     */
+    public StripedMetricBucket(boolean striped) {
+        super(false);
+        this.striped = striped;
+    }
+
+    static int maxStripes(int cpuCount) {
+        int n = Integer.highestOneBit(Math.max(cpuCount, 1));
+        return Math.min(n, 16);
+    }
+
+    @Override
+    public MetricBucket reset(MetricBucket bucket) {
+        resetStripes();
+        for (MetricEvent event : EVENTS) {
+            base.set(event.ordinal(), bucket.get(event));
+        }
+        initMinRt();
+        return this;
+    }
+
+    @Override
+    public MetricBucket reset() {
+        resetStripes();
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            base.set(i, 0);
+        }
+        initMinRt();
+        return this;
+    }
+
+    private void resetStripes() {
+        AtomicLongArray[] as = stripes;
+        if (as != null) {
+            for (AtomicLongArray stripe : as) {
+                for (int i = 0; i < EVENT_COUNT; i++) {
+                    stripe.set(i, 0);
+                }
+            }
+        }
+    }
+
+    @Override
+    public long get(MetricEvent event) {
+        int idx = event.ordinal();
+        long sum = base.get(idx);
+        AtomicLongArray[] as = stripes;
+        if (as != null) {
+            for (AtomicLongArray stripe : as) {
+                sum += stripe.get(idx);
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public MetricBucket add(MetricEvent event, long n) {
+        int idx = event.ordinal();
+        AtomicLongArray[] as = stripes;
+        if (as == null) {
+            if (!striped) {
+                base.getAndAdd(idx, n);
+                return this;
+            }
+            long v = base.get(idx);
+            if (base.compareAndSet(idx, v, v + n)) {
+                return this;
+            }
+            as = grow(null);
+        }
+        int h = stripeHash();
+        AtomicLongArray stripe = as[h & (as.length - 1)];
+        long v = stripe.get(idx);
+        if (stripe.compareAndSet(idx, v, v + n)) {
+            return this;
+        }
+        if (as.length < MAX_STRIPES) {
+            as = grow(as);
+            stripe = as[h & (as.length - 1)];
+        }
+        stripe.getAndAdd(idx, n);
+        return this;
+    }
+
+    /**
+     * Double the stripes (or allocate the initial stripes) if they are still the given ones.
+     *
+     * @param as current stripes, or null if not allocated
+     * @return the latest stripes
+     */
+    private AtomicLongArray[] grow(AtomicLongArray[] as) {
+        if (stripes == as) {
+            int length = as == null ? INITIAL_STRIPES : as.length << 1;
+            AtomicLongArray[] newStripes = new AtomicLongArray[length];
+            int i = 0;
+            if (as != null) {
+                System.arraycopy(as, 0, newStripes, 0, as.length);
+                i = as.length;
+            }
+            for (; i < length; i++) {
+                newStripes[i] = new AtomicLongArray(STRIPE_STRIDE);
+            }
+            STRIPES_UPDATER.compareAndSet(this, as, newStripes);
+        }
+        return stripes;
+    }
+
+    private static int stripeHash() {
+        // Fibonacci hashing of the thread id, so that sequentially created threads spread over stripes.
+        long h = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32);
+    }
+
+    /**
+     * Get the number of allocated stripes. Only for internal test.
+     */
+    int stripeCount() {
+        AtomicLongArray[] as = stripes;
+        return as == null ? 0 : as.length;
+    }
+}
@@ -37,27 +37,39 @@ public class ArrayMetric implements Metric {
 
     private final LeapArray<MetricBucket> data;
 
+    /**
+     * Rolling sums of the window (only present in rolling-sum mode).
+     *
+     * @see SentinelConfig#statisticRollingSum()
+     */
+    private final RollingWindowSums rollingSums;
+
     public ArrayMetric(int sampleCount, int intervalInMs) {
-        this.data = new OccupiableBucketLeapArray(sampleCount, intervalInMs);
+        this(new OccupiableBucketLeapArray(sampleCount, intervalInMs));
     }
 
     public ArrayMetric(int sampleCount, int intervalInMs, boolean enableOccupy) {
-        if (enableOccupy) {
-            this.data = new OccupiableBucketLeapArray(sampleCount, intervalInMs);
-        } else {
-            this.data = new BucketLeapArray(sampleCount, intervalInMs);
-        }
+        this(enableOccupy ? new OccupiableBucketLeapArray(sampleCount, intervalInMs)
+            : new BucketLeapArray(sampleCount, intervalInMs));
     }
 
     /**
-     * For unit test.
+     * Create the metric with a customized leap array (e.g. high-resolution windows or unit test).
      */
     public ArrayMetric(LeapArray<MetricBucket> array) {
+        this(array, SentinelConfig.statisticRollingSum());
+    }
+
+    ArrayMetric(LeapArray<MetricBucket> array, boolean rollingSum) {
         this.data = array;
+        this.rollingSums = rollingSum ? new RollingWindowSums(array) : null;
     }
 
     @Override
     public long success() {
+        if (rollingSums != null) {
+            return rollingSums.sum(MetricEvent.SUCCESS);
+        }
         data.currentWindow();
         long success = 0;
 
@@ -84,6 +96,9 @@ public class ArrayMetric implements Metric {
 
     @Override
     public long exception() {
+        if (rollingSums != null) {
+            return rollingSums.sum(MetricEvent.EXCEPTION);
+        }
         data.currentWindow();
         long exception = 0;
         List<MetricBucket> list = data.values();
@@ -95,6 +110,9 @@ public class ArrayMetric implements Metric {
 
     @Override
     public long block() {
+        if (rollingSums != null) {
+            return rollingSums.sum(MetricEvent.BLOCK);
+        }
         data.currentWindow();
         long block = 0;
         List<MetricBucket> list = data.values();
@@ -106,6 +124,9 @@ public class ArrayMetric implements Metric {
 
     @Override
     public long pass() {
+        if (rollingSums != null) {
+            return rollingSums.sum(MetricEvent.PASS);
+        }
         data.currentWindow();
         long pass = 0;
         List<MetricBucket> list = data.values();
@@ -118,6 +139,9 @@ public class ArrayMetric implements Metric {
 
     @Override
     public long occupiedPass() {
+        if (rollingSums != null) {
+            return rollingSums.sum(MetricEvent.OCCUPIED_PASS);
+        }
         data.currentWindow();
         long pass = 0;
         List<MetricBucket> list = data.values();
@@ -129,6 +153,9 @@ public class ArrayMetric implements Metric {
 
     @Override
     public long rt() {
+        if (rollingSums != null) {
+            return rollingSums.sum(MetricEvent.RT);
+        }
         data.currentWindow();
         long rt = 0;
         List<MetricBucket> list = data.values();
@@ -291,6 +318,9 @@ public class ArrayMetric implements Metric {
      * @return total sum for event
      */
     public long getSum(MetricEvent event) {
+        if (rollingSums != null) {
+            return rollingSums.sum(event);
+        }
         data.currentWindow();
         long sum = 0;
 
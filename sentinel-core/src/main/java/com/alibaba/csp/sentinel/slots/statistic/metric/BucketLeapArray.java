@@ -18,6 +18,7 @@ package com.alibaba.csp.sentinel.slots.statistic.metric;
 import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
 import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
 import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
+import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucketProvider;
 
 /**
  * The fundamental data structure for metric statistics in a time span.
@@ -34,7 +35,7 @@ public class BucketLeapArray extends LeapArray<MetricBucket> {
 
     @Override
     public MetricBucket newEmptyBucket(long time) {
-        return new MetricBucket();
+        return MetricBucketProvider.newBucket();
     }
 
     @Override
@@ -44,4 +45,9 @@ public class BucketLeapArray extends LeapArray<MetricBucket> {
         w.value().reset();
         return w;
     }
+
+    @Override
+    protected boolean supportsLockFreeRotation() {
+        return true;
+    }
 }
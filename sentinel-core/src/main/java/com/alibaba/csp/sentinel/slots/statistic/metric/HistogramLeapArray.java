@@ -0,0 +1,64 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.metric;
+
+import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
+import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
+import com.alibaba.csp.sentinel.slots.statistic.data.LatencyHistogram;
+
+/**
+ * Sliding window of {@link LatencyHistogram}s, i.e. a latency histogram per bucket.
+ *
+ * @since 1.8.1
+ */
+public class HistogramLeapArray extends LeapArray<LatencyHistogram> {
+
+    public HistogramLeapArray(int sampleCount, int intervalInMs) {
+        super(sampleCount, intervalInMs);
+    }
+
+    @Override
+    public LatencyHistogram newEmptyBucket(long time) {
+        return new LatencyHistogram();
+    }
+
+    @Override
+    protected WindowWrap<LatencyHistogram> resetWindowTo(WindowWrap<LatencyHistogram> w, long startTime) {
+        w.resetTo(startTime);
+        w.value().reset();
+        return w;
+    }
+
+    /**
+     * Get the value at given percentile of all valid buckets.
+     *
+     * @param percentile percentile in range (0, 100]
+     * @return value at given percentile, or -1 if nothing has been recorded
+     */
+    public long valueAtPercentile(double percentile) {
+        currentWindow();
+        long[] counts = null;
+        long maxValue = 0;
+        for (LatencyHistogram histogram : values()) {
+            if (counts == null) {
+                counts = new long[histogram.bucketCount()];
+                maxValue = histogram.getMaxValue();
+            }
+            histogram.addTo(counts);
+        }
+        return counts == null ? -1 : LatencyHistogram.valueAtPercentile(counts, percentile, maxValue);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.metric;
+
+import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
+import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
+import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
+import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
+
+/**
+ * <p>Rolling sums of the events in a sliding window.</p>
+ *
+ * <p>The sums of the previous buckets are aggregated only once when the sliding window moves to a new bucket,
+ * so reading a sum is O(1) and allocation-free: the aggregated value plus the count of the current bucket.</p>
+ *
+ * <p>Error bound: increments that land in a previous bucket after the sums were aggregated are missed.
+ * This only happens to requests that fetched the bucket right before a window boundary but updated it after
+ * the boundary, so the deviation is an under-count of at most the amount of such in-flight updates per window
+ * boundary, and it vanishes once the bucket slides out of the window.</p>
+ *
+ * @since 1.8.1
+ */
+final class RollingWindowSums {
+
+    private static final MetricEvent[] EVENTS = MetricEvent.values();
+
+    private final LeapArray<MetricBucket> data;
+
+    private volatile PreviousSums previousSums = new PreviousSums(-1, new long[EVENTS.length]);
+
+    RollingWindowSums(LeapArray<MetricBucket> data) {
+        this.data = data;
+    }
+
+    long sum(MetricEvent event) {
+        WindowWrap<MetricBucket> current = data.currentWindow();
+        return previousSums(current.windowStart())[event.ordinal()] + current.value().get(event);
+    }
+
+    private long[] previousSums(long currentWindowStart) {
+        PreviousSums sums = previousSums;
+        if (sums.currentWindowStart != currentWindowStart) {
+            // Concurrent readers may aggregate at the same time, which is harmless.
+            sums = new PreviousSums(currentWindowStart, aggregate(currentWindowStart));
+            previousSums = sums;
+        }
+        return sums.values;
+    }
+
+    private long[] aggregate(long currentWindowStart) {
+        long[] values = new long[EVENTS.length];
+        int sampleCount = data.getSampleCount();
+        int windowLengthInMs = data.getIntervalInMs() / sampleCount;
+        for (int i = 1; i < sampleCount; i++) {
+            MetricBucket bucket = data.getWindowValue(currentWindowStart - (long) i * windowLengthInMs);
+            if (bucket == null) {
+                continue;
+            }
+            for (MetricEvent event : EVENTS) {
+                values[event.ordinal()] += bucket.get(event);
+            }
+        }
+        return values;
+    }
+
+    private static final class PreviousSums {
+
+        private final long currentWindowStart;
+        private final long[] values;
+
+        PreviousSums(long currentWindowStart, long[] values) {
+            this.currentWindowStart = currentWindowStart;
+            this.values = values;
+        }
+    }
+}
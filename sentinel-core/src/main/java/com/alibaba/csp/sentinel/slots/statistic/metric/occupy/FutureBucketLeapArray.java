@@ -18,6 +18,7 @@ package com.alibaba.csp.sentinel.slots.statistic.metric.occupy;
 import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
 import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
 import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
+import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucketProvider;
 
 /**
  * A kind of {@code BucketLeapArray} that only reserves for future buckets.
@@ -27,14 +28,28 @@ import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
  */
 public class FutureBucketLeapArray extends LeapArray<MetricBucket> {
 
+    private final boolean compact;
+
     public FutureBucketLeapArray(int sampleCount, int intervalInMs) {
+        this(sampleCount, intervalInMs, false);
+    }
+
+    /**
+     * @param sampleCount  bucket count of the sliding window
+     * @param intervalInMs the total time interval of this {@link LeapArray} in milliseconds
+     * @param compact      whether to use compact buckets (for high-resolution windows) rather than
+     *                     the configured bucket type
+     * @since 1.8.1
+     */
+    public FutureBucketLeapArray(int sampleCount, int intervalInMs, boolean compact) {
         // This class is the original "BorrowBucketArray".
         super(sampleCount, intervalInMs);
+        this.compact = compact;
     }
 
     @Override
     public MetricBucket newEmptyBucket(long time) {
-        return new MetricBucket();
+        return compact ? MetricBucketProvider.newCompactBucket() : MetricBucketProvider.newBucket();
     }
 
     @Override
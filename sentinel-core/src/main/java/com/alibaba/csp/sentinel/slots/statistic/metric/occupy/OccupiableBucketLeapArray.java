@@ -21,6 +21,7 @@ import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
 import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
 import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
 import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
+import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucketProvider;
 
 /**
  * @author jialiang.linjl
@@ -29,16 +30,29 @@ import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
 public class OccupiableBucketLeapArray extends LeapArray<MetricBucket> {
 
     private final FutureBucketLeapArray borrowArray;
+    private final boolean compact;
 
     public OccupiableBucketLeapArray(int sampleCount, int intervalInMs) {
+        this(sampleCount, intervalInMs, false);
+    }
+
+    /**
+     * @param sampleCount  bucket count of the sliding window
+     * @param intervalInMs the total time interval of this {@link LeapArray} in milliseconds
+     * @param compact      whether to use compact buckets (for high-resolution windows) rather than
+     *                     the configured bucket type
+     * @since 1.8.1
+     */
+    public OccupiableBucketLeapArray(int sampleCount, int intervalInMs, boolean compact) {
         // This class is the original "CombinedBucketArray".
         super(sampleCount, intervalInMs);
-        this.borrowArray = new FutureBucketLeapArray(sampleCount, intervalInMs);
+        this.compact = compact;
+        this.borrowArray = new FutureBucketLeapArray(sampleCount, intervalInMs, compact);
     }
 
     @Override
     public MetricBucket newEmptyBucket(long time) {
-        MetricBucket newBucket = new MetricBucket();
+        MetricBucket newBucket = compact ? MetricBucketProvider.newCompactBucket() : MetricBucketProvider.newBucket();
 
         MetricBucket borrowBucket = borrowArray.getWindowValue(time);
         if (borrowBucket != null) {
@@ -63,6 +77,12 @@ public class OccupiableBucketLeapArray extends LeapArray<MetricBucket> {
         return w;
     }
 
+    @Override
+    protected boolean supportsLockFreeRotation() {
+        // New buckets carry over the borrowed pass count, just like the reset ones.
+        return true;
+    }
+
     @Override
     public long currentWaiting() {
         borrowArray.currentWindow();
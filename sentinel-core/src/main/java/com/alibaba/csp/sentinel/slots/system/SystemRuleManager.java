@@ -26,10 +26,13 @@ import com.alibaba.csp.sentinel.Constants;
 import com.alibaba.csp.sentinel.EntryType;
 import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
 import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.metric.overhead.OverheadEvent;
+import com.alibaba.csp.sentinel.metric.overhead.OverheadRecorder;
 import com.alibaba.csp.sentinel.property.DynamicSentinelProperty;
 import com.alibaba.csp.sentinel.property.SentinelProperty;
 import com.alibaba.csp.sentinel.property.SimplePropertyListener;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slotchain.SlotChainRefresher;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
 
 /**
@@ -193,6 +196,7 @@ public final class SystemRuleManager {
             } else {
                 checkSystemStatus.set(false);
             }
+            SlotChainRefresher.refreshAll();
 
             RecordLog.info(String.format("[SystemRuleManager] Current system check status: %s, "
                     + "highestSystemLoad: %e, "
@@ -300,6 +304,7 @@ public final class SystemRuleManager {
         if (resourceWrapper.getEntryType() != EntryType.IN) {
             return;
         }
+        OverheadRecorder.addEvent(OverheadEvent.SYSTEM_RULE_CHECK);
 
         // total qps
         double currentQps = Constants.ENTRY_NODE == null ? 0.0 : Constants.ENTRY_NODE.successQps();
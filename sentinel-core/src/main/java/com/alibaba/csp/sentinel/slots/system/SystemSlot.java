@@ -15,11 +15,13 @@
  */
 package com.alibaba.csp.sentinel.slots.system;
 
+import com.alibaba.csp.sentinel.EntryType;
 import com.alibaba.csp.sentinel.context.Context;
 import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.slotchain.AbstractLinkedProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slotchain.RuleCheckingSlot;
 import com.alibaba.csp.sentinel.spi.SpiOrder;
 
 /**
@@ -29,7 +31,7 @@ import com.alibaba.csp.sentinel.spi.SpiOrder;
  * @author leyou
  */
 @SpiOrder(-5000)
-public class SystemSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
+public class SystemSlot extends AbstractLinkedProcessorSlot<DefaultNode> implements RuleCheckingSlot {
 
     @Override
     public void entry(Context context, ResourceWrapper resourceWrapper, DefaultNode node, int count,
@@ -43,4 +45,10 @@ public class SystemSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
         fireExit(context, resourceWrapper, count, args);
     }
 
+    @Override
+    public boolean hasRules(ResourceWrapper resourceWrapper) {
+        // System rules are applied to inbound traffic only.
+        return resourceWrapper.getEntryType() == EntryType.IN && SystemRuleManager.getCheckSystemStatus();
+    }
+
 }
@@ -0,0 +1,142 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.alibaba.csp.sentinel.util.function.Function;
+
+/**
+ * <p>A registry of lazily created values (e.g. slot chains and nodes) with lock-free reads.</p>
+ *
+ * <p>Values are held in a {@link ConcurrentHashMap}. Creation of an absent value is guarded by one of
+ * the striped locks selected by the key, so the factory is invoked at most once per key (it may have side
+ * effects such as linking the new node to the invocation tree), while creation of values with keys in
+ * different stripes won't block each other. Compared with the copy-on-write map, registering a new key
+ * costs O(1) rather than O(n).</p>
+ *
+ * @param <K> type of the key
+ * @param <V> type of the value
+ * @since 1.8.1
+ */
+public final class ConcurrentRegistry<K, V> {
+
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 64;
+
+    private final ConcurrentHashMap<K, V> map;
+    private final Object[] locks;
+    private final int maxSize;
+
+    /**
+     * Create a registry without size limit.
+     */
+    public ConcurrentRegistry() {
+        this(0);
+    }
+
+    /**
+     * Create a registry with size limit. Note that the limit is checked without a global lock,
+     * so the size may exceed the limit slightly under concurrent creation of values.
+     *
+     * @param maxSize max amount of values in the registry, non-positive value means unlimited
+     */
+    public ConcurrentRegistry(int maxSize) {
+        this(maxSize, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Create a registry with size limit and the estimated number of threads creating values concurrently.
+     * Small registries (e.g. per resource) should use a small concurrency level to save memory.
+     *
+     * @param maxSize          max amount of values in the registry, non-positive value means unlimited
+     * @param concurrencyLevel the estimated number of concurrently creating threads
+     */
+    public ConcurrentRegistry(int maxSize, int concurrencyLevel) {
+        AssertUtil.isTrue(concurrencyLevel > 0, "concurrencyLevel should be positive");
+        int stripes = 1;
+        while (stripes < concurrencyLevel) {
+            stripes <<= 1;
+        }
+        this.maxSize = maxSize;
+        this.map = new ConcurrentHashMap<K, V>(Math.min(16, stripes * 2), 0.75f, stripes);
+        this.locks = new Object[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public V get(K key) {
+        return map.get(key);
+    }
+
+    /**
+     * Get the value of given key. If absent, the value will be created by the factory and registered.
+     *
+     * @param key     the key
+     * @param factory factory to create the value, which will be invoked at most once for the same key
+     * @return the value of the key, or null if the value is absent and the registry is full
+     */
+    public V getOrCreate(K key, Function<K, V> factory) {
+        V value = map.get(key);
+        if (value != null) {
+            return value;
+        }
+        synchronized (lockFor(key)) {
+            value = map.get(key);
+            if (value == null) {
+                if (isFull()) {
+                    return null;
+                }
+                value = factory.apply(key);
+                map.put(key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Check whether the amount of values has reached the size limit.
+     *
+     * @return true if the registry is full, otherwise false
+     */
+    public boolean isFull() {
+        return maxSize > 0 && map.size() >= maxSize;
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public void clear() {
+        map.clear();
+    }
+
+    /**
+     * Get the map view of the registry. Modification of the map will be visible in the registry.
+     *
+     * @return the map view of the registry
+     */
+    public Map<K, V> asMap() {
+        return map;
+    }
+
+    private Object lockFor(K key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return locks[h & (locks.length - 1)];
+    }
+}
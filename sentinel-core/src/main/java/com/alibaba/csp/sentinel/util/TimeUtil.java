@@ -17,36 +17,201 @@ package com.alibaba.csp.sentinel.util;
 
 import java.util.concurrent.TimeUnit;
 
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+
 /**
- * Provides millisecond-level time of OS.
+ * <p>Provides millisecond-level time of OS.</p>
+ *
+ * <p>The clock works in one of the two modes:</p>
+ * <ul>
+ * <li>{@link ClockMode#TICK}: a daemon thread caches the time every millisecond, and reads return
+ * the cached value, which is cheap under high QPS;</li>
+ * <li>{@link ClockMode#DIRECT}: reads go to {@link System#currentTimeMillis()} directly, and the daemon
+ * thread only wakes up every {@link #CHECK_INTERVAL_MS} milliseconds.</li>
+ * </ul>
+ * <p>In adaptive mode (disabled by default, see {@link SentinelConfig#TIME_TICK_ADAPTIVE}), the clock switches
+ * to the tick mode when the read rate rises above {@link #TICK_READ_QPS_THRESHOLD}, and falls back to the direct
+ * mode when fewer than {@link #DIRECT_READ_QPS_THRESHOLD} ticks per second see a read. So idle applications won't
+ * wake up every millisecond. Reads are only counted in the direct mode. In the tick mode, a read only sets a
+ * "touched" flag when it's clear, and the tick thread clears it every tick, so reads under high QPS mostly
+ * load a shared cache line rather than writing it. If the adaptive mode is disabled, the clock always works
+ * in the tick mode.</p>
  *
  * @author qinan.qn
+ * @author Eric Zhao
  */
-public final class TimeUtil {
+public final class TimeUtil implements Runnable {
+
+    /**
+     * @since 1.8.1
+     */
+    public enum ClockMode {
+        /**
+         * Read {@link System#currentTimeMillis()} directly.
+         */
+        DIRECT,
+        /**
+         * Read the time cached by the tick thread.
+         */
+        TICK
+    }
+
+    static final long CHECK_INTERVAL_MS = 300;
+    static final long TICK_READ_QPS_THRESHOLD = 1200;
+    static final long DIRECT_READ_QPS_THRESHOLD = 800;
+
+    /**
+     * Value of the cached time in direct mode.
+     */
+    private static final long NOT_CACHED = -1L;
+
+    private static final TimeUtil INSTANCE = new TimeUtil(SentinelConfig.timeTickAdaptive());
+
+    /**
+     * Time cached by the tick thread in tick mode, or {@link #NOT_CACHED} in direct mode, so that a read
+     * tells both the mode and the time with a single volatile load.
+     */
+    private volatile long cachedTime;
+    /**
+     * Whether the clock has been read since the latest tick (tick mode only).
+     */
+    private volatile boolean touched;
+
+    private final boolean adaptive;
+    private final ReadCounter reads = new ReadCounter();
 
-    private static volatile long currentTimeMillis;
+    private volatile ClockMode mode;
+    private volatile long readQps = 0;
+
+    /**
+     * Amount of ticks that saw a read, only updated by the tick thread.
+     */
+    private long touchedTicks = 0;
+
+    private long lastCheckTime;
+    private long lastCount = 0;
 
     static {
-        currentTimeMillis = System.currentTimeMillis();
-        Thread daemon = new Thread(new Runnable() {
-            @Override
-            public void run() {
-                while (true) {
-                    currentTimeMillis = System.currentTimeMillis();
-                    try {
-                        TimeUnit.MILLISECONDS.sleep(1);
-                    } catch (Throwable e) {
-
-                    }
-                }
-            }
-        });
+        INSTANCE.lastCheckTime = System.currentTimeMillis();
+        Thread daemon = new Thread(INSTANCE);
         daemon.setDaemon(true);
         daemon.setName("sentinel-time-tick-thread");
         daemon.start();
     }
 
+    TimeUtil(boolean adaptive) {
+        this.adaptive = adaptive;
+        this.mode = adaptive ? ClockMode.DIRECT : ClockMode.TICK;
+        this.cachedTime = adaptive ? NOT_CACHED : System.currentTimeMillis();
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            long now = System.currentTimeMillis();
+            if (mode == ClockMode.TICK) {
+                tick(now);
+            }
+            if (adaptive && now - lastCheckTime >= CHECK_INTERVAL_MS) {
+                check(now);
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(mode == ClockMode.TICK ? 1 : CHECK_INTERVAL_MS);
+            } catch (Throwable e) {
+
+            }
+        }
+    }
+
+    /**
+     * Cache the time in tick mode. Only called by the tick thread (or tests).
+     */
+    void tick(long now) {
+        cachedTime = now;
+        if (touched) {
+            touched = false;
+            touchedTicks++;
+        }
+    }
+
+    /**
+     * Update the read rate and switch the mode if needed. Only called by the tick thread (or tests).
+     * The rate is of the reads in direct mode, and of the ticks that saw a read in tick mode.
+     */
+    ClockMode check(long now) {
+        long elapsed = now - lastCheckTime;
+        if (!adaptive || elapsed <= 0) {
+            return mode;
+        }
+        long count = mode == ClockMode.TICK ? touchedTicks : reads.count;
+        long qps = (count - lastCount) * 1000 / elapsed;
+        lastCheckTime = now;
+        this.readQps = qps;
+
+        if (mode == ClockMode.DIRECT && qps >= TICK_READ_QPS_THRESHOLD) {
+            mode = ClockMode.TICK;
+            cachedTime = now;
+            touched = false;
+            lastCount = touchedTicks;
+        } else if (mode == ClockMode.TICK && qps < DIRECT_READ_QPS_THRESHOLD) {
+            mode = ClockMode.DIRECT;
+            cachedTime = NOT_CACHED;
+            lastCount = reads.count;
+        } else {
+            lastCount = count;
+        }
+        return mode;
+    }
+
+    long getReadQps() {
+        return readQps;
+    }
+
+    long read() {
+        long time = cachedTime;
+        if (time != NOT_CACHED) {
+            // Only write the flag when it's clear, so that the cache line is mostly shared among readers.
+            if (adaptive && !touched) {
+                touched = true;
+            }
+            return time;
+        }
+        // Racy increment: a lost update only makes the estimated read rate slightly lower.
+        reads.count++;
+        return System.currentTimeMillis();
+    }
+
     public static long currentTimeMillis() {
-        return currentTimeMillis;
+        return INSTANCE.read();
+    }
+
+    /**
+     * Get the current working mode of the clock.
+     *
+     * @return current clock mode
+     * @since 1.8.1
+     */
+    public static ClockMode currentMode() {
+        return INSTANCE.mode;
+    }
+
+    /**
+     * Get the read rate measured in the latest check: reads per second in direct mode, or ticks per second
+     * that saw a read in tick mode (at most 1000). Always 0 if the adaptive mode is disabled.
+     *
+     * @return the read rate of the clock
+     * @since 1.8.1
+     */
+    public static long currentReadQps() {
+        return INSTANCE.readQps;
+    }
+
+    /**
+     * Plain read counter, padded to keep its updates off the cache line of the cached time.
+     */
+    private static final class ReadCounter {
+        long p0, p1, p2, p3, p4, p5, p6;
+        long count;
+        long q0, q1, q2, q3, q4, q5, q6;
     }
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel;
+
+import java.util.Collections;
+
+import com.alibaba.csp.sentinel.context.ContextUtil;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.DeferredWait;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link SphU#asyncEntryDelayed(String)}.
+ */
+public class AsyncEntryDelayedTest {
+
+    private static final String RESOURCE_NAME = "testAsyncEntryDelayed";
+
+    @After
+    public void tearDown() {
+        FlowRuleManager.loadRules(null);
+    }
+
+    @Test
+    public void testRateLimiterWaitingHandedOff() throws Exception {
+        // One request per 200 ms, queueing at most 1 s.
+        FlowRule rule = new FlowRule(RESOURCE_NAME).setCount(5)
+            .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER);
+        rule.setMaxQueueingTimeMs(1000);
+        FlowRuleManager.loadRules(Collections.singletonList(rule));
+
+        AsyncEntry e1 = SphU.asyncEntryDelayed(RESOURCE_NAME);
+        assertEquals(0, e1.getDelayMs());
+
+        long start = System.currentTimeMillis();
+        AsyncEntry e2 = SphU.asyncEntryDelayed(RESOURCE_NAME);
+        AsyncEntry e3 = SphU.asyncEntryDelayed(RESOURCE_NAME);
+        long cost = System.currentTimeMillis() - start;
+
+        // The waiting is returned to the caller instead of sleeping in current thread.
+        assertTrue(cost < 150);
+        assertTrue(e2.getDelayMs() > 0 && e2.getDelayMs() <= 200);
+        assertTrue(e3.getDelayMs() > e2.getDelayMs() && e3.getDelayMs() <= 400);
+        assertFalse(DeferredWait.isDeferring());
+
+        e3.exit();
+        e2.exit();
+        e1.exit();
+    }
+
+    @Test
+    public void testBlockedWhenExceedingMaxQueueingTime() throws Exception {
+        FlowRule rule = new FlowRule(RESOURCE_NAME).setCount(1)
+            .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER);
+        rule.setMaxQueueingTimeMs(500);
+        FlowRuleManager.loadRules(Collections.singletonList(rule));
+
+        AsyncEntry e1 = SphU.asyncEntryDelayed(RESOURCE_NAME);
+        try {
+            SphU.asyncEntryDelayed(RESOURCE_NAME);
+            fail("should be blocked");
+        } catch (BlockException expected) {
+        }
+        assertFalse(DeferredWait.isDeferring());
+        e1.exit();
+    }
+
+    @Test
+    public void testNoDelayWithoutThrottling() throws Exception {
+        AsyncEntry entry = SphU.asyncEntryDelayed(RESOURCE_NAME, EntryType.IN);
+        assertEquals(0, entry.getDelayMs());
+        assertNotNull(entry.getAsyncContext());
+        entry.exit();
+    }
+
+    @Test
+    public void testImplicitDefaultContextReleasedInCurrentThread() throws Exception {
+        final AsyncEntry entry = SphU.asyncEntryDelayed(RESOURCE_NAME);
+        // The entry may be completed in another thread, so current thread should not hold the default context.
+        assertNull(ContextUtil.getContext());
+
+        Thread t = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                entry.exit();
+            }
+        });
+        t.start();
+        t.join();
+        assertNull(ContextUtil.getContext());
+    }
+}
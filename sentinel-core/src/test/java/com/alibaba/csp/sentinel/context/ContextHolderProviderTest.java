@@ -0,0 +1,71 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.context;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link ContextHolderProvider} and {@link ThreadLocalContextHolder}.
+ */
+public class ContextHolderProviderTest {
+
+    @After
+    public void cleanUp() {
+        ContextTestUtil.cleanUpContext();
+    }
+
+    @Test
+    public void testDefaultHolderResolved() {
+        ContextHolder holder = ContextHolderProvider.getHolder();
+        assertTrue(holder instanceof ThreadLocalContextHolder);
+        assertSame(holder, ContextHolderProvider.getHolder());
+    }
+
+    @Test
+    public void testContextUtilUsesResolvedHolder() {
+        ContextHolder holder = ContextHolderProvider.getHolder();
+        Context context = ContextUtil.enter("testContextUtilUsesResolvedHolder", "originA");
+        assertSame(context, holder.get());
+
+        ContextUtil.exit();
+        assertNull(holder.get());
+    }
+
+    @Test
+    public void testThreadLocalHolderIsolation() throws Exception {
+        final ThreadLocalContextHolder holder = new ThreadLocalContextHolder();
+        Context context = new Context(null, "testThreadLocalHolderIsolation");
+        holder.set(context);
+
+        final Context[] otherThreadContext = new Context[1];
+        Thread t = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                otherThreadContext[0] = holder.get();
+            }
+        });
+        t.start();
+        t.join();
+
+        assertNull(otherThreadContext[0]);
+        assertSame(context, holder.get());
+        holder.remove();
+        assertNull(holder.get());
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.metric.overhead;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.metric.extension.MetricExtensionProvider;
+import com.alibaba.csp.sentinel.metric.extension.OverheadMetricExtension;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link OverheadRecorder}.
+ */
+public class OverheadRecorderTest {
+
+    @After
+    public void tearDown() {
+        OverheadRecorder.setEnabled(false);
+        OverheadRecorder.reset();
+    }
+
+    @Test
+    public void testEventsIgnoredWhenDisabled() {
+        OverheadRecorder.setEnabled(false);
+        OverheadRecorder.reset();
+        OverheadRecorder.addEvent(OverheadEvent.FLOW_RULE_CHECK);
+
+        assertEquals(0L, (long) OverheadRecorder.snapshot().getEvents().get(OverheadEvent.FLOW_RULE_CHECK.name()));
+    }
+
+    @Test
+    public void testAddEventAndReset() {
+        OverheadRecorder.setEnabled(true);
+        OverheadRecorder.reset();
+        OverheadRecorder.addEvent(OverheadEvent.FLOW_RULE_CHECK);
+        OverheadRecorder.addEvent(OverheadEvent.FLOW_RULE_CHECK, 2);
+        OverheadRecorder.addEvent(OverheadEvent.WINDOW_CONTENTION);
+
+        OverheadSnapshot snapshot = OverheadRecorder.snapshot();
+        assertTrue(snapshot.isEnabled());
+        assertEquals(3L, (long) snapshot.getEvents().get(OverheadEvent.FLOW_RULE_CHECK.name()));
+        assertEquals(1L, (long) snapshot.getEvents().get(OverheadEvent.WINDOW_CONTENTION.name()));
+
+        OverheadRecorder.reset();
+        assertEquals(0L, (long) OverheadRecorder.snapshot().getEvents().get(OverheadEvent.FLOW_RULE_CHECK.name()));
+    }
+
+    @Test
+    public void testRecordSlotCost() {
+        OverheadRecorder.reset();
+        RecordingExtension extension = new RecordingExtension();
+        MetricExtensionProvider.addMetricExtension(extension);
+
+        OverheadRecorder.recordSlotEntry("testRecordSlotCost", "slotA", 100);
+        OverheadRecorder.recordSlotEntry("testRecordSlotCost", "slotA", 300);
+        OverheadRecorder.recordSlotExit("testRecordSlotCost", "slotA", 50);
+        OverheadRecorder.recordChainEntry(500);
+
+        OverheadSnapshot snapshot = OverheadRecorder.snapshot();
+        CostStat entryStat = snapshot.getSlotEntries().get("slotA");
+        assertEquals(2, entryStat.getCount());
+        assertEquals(400, entryStat.getTotalNanos());
+        assertEquals(300, entryStat.getMaxNanos());
+        assertEquals(200, entryStat.getAvgNanos());
+        assertEquals(1, snapshot.getSlotExits().get("slotA").getCount());
+        assertEquals(500, snapshot.getChainEntry().getTotalNanos());
+        assertEquals(0, snapshot.getChainExit().getCount());
+
+        assertEquals(2, extension.entryCosts.size());
+        assertEquals(Long.valueOf(50), extension.exitCosts.get(0));
+    }
+
+    @Test
+    public void testSampleIntervalOf() {
+        assertEquals(1, OverheadRecorder.sampleIntervalOf(1));
+        assertEquals(64, OverheadRecorder.sampleIntervalOf(64));
+        assertEquals(128, OverheadRecorder.sampleIntervalOf(100));
+        assertEquals(1 << 30, OverheadRecorder.sampleIntervalOf(Integer.MAX_VALUE));
+    }
+
+    private static class RecordingExtension implements OverheadMetricExtension {
+
+        final List<Long> entryCosts = new ArrayList<>();
+        final List<Long> exitCosts = new ArrayList<>();
+
+        @Override
+        public void addSlotEntryCost(String resource, String slotName, long costNanos) {
+            if ("testRecordSlotCost".equals(resource)) {
+                entryCosts.add(costNanos);
+            }
+        }
+
+        @Override
+        public void addSlotExitCost(String resource, String slotName, long costNanos) {
+            if ("testRecordSlotCost".equals(resource)) {
+                exitCosts.add(costNanos);
+            }
+        }
+
+        @Override
+        public void addPass(String resource, int n, Object... args) {}
+
+        @Override
+        public void addBlock(String resource, int n, String origin, BlockException blockException,
+                             Object... args) {}
+
+        @Override
+        public void addSuccess(String resource, int n, Object... args) {}
+
+        @Override
+        public void addException(String resource, int n, Throwable throwable) {}
+
+        @Override
+        public void addRt(String resource, long rt, Object... args) {}
+
+        @Override
+        public void increaseThreadNum(String resource, Object... args) {}
+
+        @Override
+        public void decreaseThreadNum(String resource, Object... args) {}
+    }
+}
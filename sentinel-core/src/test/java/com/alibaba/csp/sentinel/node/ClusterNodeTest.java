@@ -15,6 +15,8 @@
  */
 package com.alibaba.csp.sentinel.node;
 
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+
 import org.junit.Test;
 
 import java.util.ArrayList;
@@ -125,4 +127,39 @@ public class ClusterNodeTest {
             }
         }
     }
+
+    @Test
+    public void testOriginNodesUnboundedByDefault() {
+        ClusterNode clusterNode = new ClusterNode("test");
+        for (int i = 0; i < 10000; i++) {
+            clusterNode.getOrCreateOriginNode("origin" + i);
+        }
+        assertEquals(10000, clusterNode.getOriginCountMap().size());
+        assertEquals(0, clusterNode.getOriginEvictedCount());
+    }
+
+    @Test
+    public void testOriginNodeEviction() {
+        SentinelConfig.setConfig(SentinelConfig.MAX_ORIGIN_NODE_COUNT, "2");
+        try {
+            ClusterNode clusterNode = new ClusterNode("test");
+            Node origin1 = clusterNode.getOrCreateOriginNode("origin1");
+            clusterNode.getOrCreateOriginNode("origin2");
+            assertEquals(0, clusterNode.getOriginEvictedCount());
+
+            clusterNode.getOrCreateOriginNode("origin3");
+            assertEquals(2, clusterNode.getOriginCountMap().size());
+            assertTrue(clusterNode.getOriginCountMap().containsKey("origin3"));
+            assertEquals(1, clusterNode.getOriginEvictedCount());
+
+            // The thread count of an evicted origin node goes to the current node of the origin.
+            Node current = clusterNode.increaseOriginThreadNum("origin1", origin1);
+            assertNotSame(origin1, current);
+            assertEquals(0, origin1.curThreadNum());
+            assertEquals(1, current.curThreadNum());
+            assertSame(current, clusterNode.getOriginCountMap().get("origin1"));
+        } finally {
+            SentinelConfig.removeConfig(SentinelConfig.MAX_ORIGIN_NODE_COUNT);
+        }
+    }
 }
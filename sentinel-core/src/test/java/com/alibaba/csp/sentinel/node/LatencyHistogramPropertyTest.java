@@ -0,0 +1,91 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node;
+
+import java.util.Collections;
+import java.util.Map;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.node.metric.MetricNode;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+import com.alibaba.csp.sentinel.test.AbstractTimeBasedTest;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link LatencyHistogramProperty}.
+ */
+public class LatencyHistogramPropertyTest extends AbstractTimeBasedTest {
+
+    @After
+    public void tearDown() {
+        LatencyHistogramProperty.updateResources(null);
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        ClusterNode node = new ClusterNode("testLatencyHistogramDisabledByDefault");
+        assertFalse(node.isLatencyHistogramEnabled());
+        node.addRtAndSuccess(10, 1);
+        assertEquals(-1, node.rtPercentileInMinute(99));
+    }
+
+    @Test
+    public void testPercentilesInMetrics() {
+        String resource = "testLatencyHistogramPercentilesInMetrics";
+        LatencyHistogramProperty.updateResources(Collections.singleton(resource));
+        ClusterNode node = new ClusterNode(resource);
+        assertTrue(node.isLatencyHistogramEnabled());
+
+        setCurrentMillis(1000000);
+        for (int i = 1; i <= 100; i++) {
+            node.addPassRequest(1);
+            node.addRtAndSuccess(i, 1);
+        }
+        assertEquals(99, node.rtPercentileInMinute(99), 99 / 16);
+
+        setCurrentMillis(1002000);
+        Map<Long, MetricNode> metrics = node.metrics();
+        MetricNode metricNode = metrics.get(1000000L);
+        assertNotNull(metricNode);
+        assertTrue(metricNode.hasPercentileRt());
+        assertEquals(50, metricNode.getP50Rt(), 50 / 16);
+        assertEquals(99, metricNode.getP99Rt(), 99 / 16);
+        assertEquals(100, metricNode.getP999Rt(), 100 / 16);
+    }
+
+    @Test
+    public void testUpdateResourcesAppliesToExistingNode() throws BlockException {
+        String resource = "testLatencyHistogramUpdateResources";
+        Entry entry = SphU.entry(resource);
+        entry.exit();
+        ClusterNode node = ClusterBuilderSlot.getClusterNode(resource, EntryType.OUT);
+        assertNotNull(node);
+        assertFalse(node.isLatencyHistogramEnabled());
+
+        LatencyHistogramProperty.updateResources(Collections.singleton(resource));
+        assertTrue(node.isLatencyHistogramEnabled());
+
+        LatencyHistogramProperty.updateResources(null);
+        assertFalse(node.isLatencyHistogramEnabled());
+    }
+}
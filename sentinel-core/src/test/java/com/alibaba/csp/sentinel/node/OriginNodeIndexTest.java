@@ -0,0 +1,154 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link OriginNodeIndex}.
+ */
+public class OriginNodeIndexTest {
+
+    @Test
+    public void testEvictNotRecentlyUsed() {
+        OriginNodeIndex index = new OriginNodeIndex(3);
+        StatisticNode a = index.getOrCreate("a", null);
+        StatisticNode b = index.getOrCreate("b", null);
+        index.getOrCreate("c", null);
+        // Touch "a", so "b" becomes the first one that has not been used recently.
+        assertSame(a, index.get("a"));
+
+        index.getOrCreate("d", null);
+        assertEquals(3, index.size());
+        assertEquals(1, index.getEvictedCount());
+        assertNull(index.get("b"));
+        assertSame(a, index.get("a"));
+
+        // The evicted origin gets a fresh node when it comes back.
+        assertNotSame(b, index.getOrCreate("b", null));
+        assertEquals(2, index.getEvictedCount());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void testNeverEvictBusyOrigins() {
+        OriginNodeIndex index = new OriginNodeIndex(2);
+        StatisticNode busy = index.getOrCreate("busy", null);
+        busy.increaseThreadNum();
+        index.getOrCreate("idle", null);
+
+        index.getOrCreate("new", null);
+        assertSame(busy, index.get("busy"));
+        assertNull(index.get("idle"));
+        assertEquals(1, index.getEvictedCount());
+
+        // All the origins are busy now, so the index grows beyond the capacity instead of evicting them.
+        index.get("new").increaseThreadNum();
+        index.getOrCreate("another", null);
+        assertEquals(3, index.size());
+        assertEquals(1, index.getEvictedCount());
+        assertSame(busy, index.get("busy"));
+
+        // Once the threads exit, the index shrinks back on the next creation.
+        busy.decreaseThreadNum();
+        index.get("new").decreaseThreadNum();
+        index.getOrCreate("last", null);
+        assertEquals(2, index.size());
+        assertEquals(3, index.getEvictedCount());
+    }
+
+    @Test
+    public void testIncreaseThreadNumOfEvictedNode() {
+        OriginNodeIndex index = new OriginNodeIndex(1);
+        StatisticNode a = index.getOrCreate("a", null);
+        // "a" is idle, so it's evicted for "b" after being looked up.
+        index.getOrCreate("b", null);
+        assertNull(index.get("a"));
+
+        StatisticNode current = index.increaseThreadNum("a", a, null);
+        assertNotSame(a, current);
+        assertSame(current, index.get("a"));
+        assertEquals(0, a.curThreadNum());
+        assertEquals(1, current.curThreadNum());
+
+        // A busy node is not evicted, so the thread count stays on it.
+        assertSame(current, index.increaseThreadNum("a", current, null));
+        index.getOrCreate("c", null);
+        assertSame(current, index.get("a"));
+        assertEquals(2, current.curThreadNum());
+    }
+
+    @Test
+    public void testUnbounded() {
+        OriginNodeIndex index = new OriginNodeIndex(Integer.MAX_VALUE);
+        StatisticNode a = index.getOrCreate("a", null);
+        for (int i = 0; i < 1000; i++) {
+            index.getOrCreate("origin-" + i, null);
+        }
+        assertEquals(1001, index.size());
+        assertEquals(0, index.getEvictedCount());
+        assertSame(a, index.increaseThreadNum("a", a, null));
+        assertEquals(1, a.curThreadNum());
+    }
+
+    @Test
+    public void testSnapshot() {
+        OriginNodeIndex index = new OriginNodeIndex(8);
+        StatisticNode a = index.getOrCreate("a", null);
+        index.getOrCreate("b", null);
+        assertEquals(2, index.snapshot().size());
+        assertSame(a, index.snapshot().get("a"));
+        try {
+            index.snapshot().put("c", new StatisticNode());
+            fail("snapshot should be unmodifiable");
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    @Test
+    public void testConcurrentGetOrCreateBounded() throws Exception {
+        final int maxSize = 64;
+        final OriginNodeIndex index = new OriginNodeIndex(maxSize);
+        final int threadCount = 8;
+        final int originsPerThread = 1000;
+        ExecutorService pool = Executors.newFixedThreadPool(threadCount);
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            final int t = i;
+            pool.submit(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < originsPerThread; j++) {
+                        index.getOrCreate("origin-" + t + "-" + j, null);
+                    }
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        pool.shutdownNow();
+
+        assertTrue(index.size() <= maxSize);
+        assertTrue(index.getEvictedCount() >= threadCount * originsPerThread - maxSize);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node;
+
+import java.util.Collections;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link WindowResolutionProperty}.
+ */
+public class WindowResolutionPropertyTest {
+
+    @After
+    public void tearDown() {
+        WindowResolutionProperty.updateResolutions(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidResolution() {
+        new WindowResolution(WindowResolution.MAX_SAMPLE_COUNT + 1, 10000);
+    }
+
+    @Test
+    public void testClusterNodeWithCustomResolution() {
+        String resource = "testClusterNodeWithCustomResolution";
+        // 10 buckets of 10 ms.
+        WindowResolution resolution = new WindowResolution(10, 100);
+        WindowResolutionProperty.updateResolutions(Collections.singletonMap(resource, resolution));
+
+        ClusterNode node = new ClusterNode(resource);
+        assertEquals(resolution, node.windowResolution);
+        node.addPassRequest(2);
+        // 2 requests in a 100 ms window.
+        assertEquals(20, node.passQps(), 0.01);
+
+        StatisticNode originNode = (StatisticNode)node.getOrCreateOriginNode("originA");
+        assertEquals(resolution, originNode.windowResolution);
+
+        ClusterNode defaultNode = new ClusterNode("testClusterNodeWithDefaultResolution");
+        assertNull(defaultNode.windowResolution);
+    }
+
+    @Test
+    public void testOccupyNextWithCustomResolution() {
+        String resource = "testOccupyNextWithCustomResolution";
+        // 2 buckets of 50 ms.
+        WindowResolution resolution = new WindowResolution(2, 100);
+        WindowResolutionProperty.updateResolutions(Collections.singletonMap(resource, resolution));
+
+        ClusterNode node = new ClusterNode(resource);
+        node.addPassRequest(1);
+        // At most 1 request per 100 ms, so the request has to borrow a token of the next window.
+        long currentTime = TimeUtil.currentTimeMillis();
+        long waitInMs = node.tryOccupyNext(currentTime, 1, 10);
+        assertTrue(waitInMs < OccupyTimeoutProperty.getOccupyTimeout());
+
+        node.addWaitingRequest(currentTime + waitInMs, 1);
+        assertEquals(1, node.waiting());
+    }
+
+    @Test
+    public void testUpdateResolutionResetsClusterNode() throws BlockException {
+        String resource = "testUpdateResolutionResetsClusterNode";
+        Entry entry = SphU.entry(resource);
+        entry.exit();
+        ClusterNode node = ClusterBuilderSlot.getClusterNode(resource, EntryType.OUT);
+        assertNotNull(node);
+        assertNull(node.windowResolution);
+        assertTrue(node.passQps() > 0);
+
+        WindowResolution resolution = new WindowResolution(100, 1000);
+        WindowResolutionProperty.updateResolutions(Collections.singletonMap(resource, resolution));
+        assertEquals(resolution, node.windowResolution);
+        assertEquals(0, node.passQps(), 0.01);
+
+        entry = SphU.entry(resource);
+        entry.exit();
+        assertEquals(1, node.passQps(), 0.01);
+
+        WindowResolutionProperty.updateResolutions(null);
+        assertNull(node.windowResolution);
+    }
+}
@@ -33,5 +33,35 @@ public class MetricNodeTest {
         assertEquals(ResourceTypeConstants.COMMON_WEB, node.getClassification());
         assertEquals(2, node.getConcurrency());
         assertEquals(1, node.getSuccessQps());
+        assertFalse(node.hasPercentileRt());
+    }
+
+    @Test
+    public void testPercentileRtRoundTrip() {
+        MetricNode node = new MetricNode();
+        node.setTimestamp(1564382218000L);
+        node.setResource("/foo/*");
+        node.setSuccessQps(10);
+        node.setRt(12);
+        node.setClassification(ResourceTypeConstants.COMMON_WEB);
+        String thinWithoutPercentiles = node.toThinString();
+        assertEquals(10, thinWithoutPercentiles.split("\\|").length);
+
+        node.setP50Rt(9).setP99Rt(31).setP999Rt(63);
+        // The legacy format is kept unless percentiles are explicitly requested.
+        assertEquals(10, node.toThinString().split("\\|").length);
+        assertEquals(11, node.toFatString().trim().split("\\|").length);
+
+        MetricNode thin = MetricNode.fromThinString(node.toThinString(true));
+        assertEquals(ResourceTypeConstants.COMMON_WEB, thin.getClassification());
+        assertEquals(9, thin.getP50Rt());
+        assertEquals(31, thin.getP99Rt());
+        assertEquals(63, thin.getP999Rt());
+
+        String fatString = node.toFatString(true);
+        MetricNode fat = MetricNode.fromFatString(fatString.substring(0, fatString.length() - 1));
+        assertEquals(ResourceTypeConstants.COMMON_WEB, fat.getClassification());
+        assertTrue(fat.hasPercentileRt());
+        assertEquals(63, fat.getP999Rt());
     }
 }
@@ -0,0 +1,218 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slotchain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.ErrorEntryFreeException;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.util.function.BiConsumer;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for skipping rule checking slots in {@link DefaultProcessorSlotChain}.
+ */
+public class DefaultProcessorSlotChainTest {
+
+    private final ResourceWrapper resource = new StringResourceWrapper("defaultChainRes", EntryType.IN);
+    private final List<String> records = new ArrayList<>();
+    private final RuleCheckingRecordingSlot ruleSlot = new RuleCheckingRecordingSlot("rule", records);
+
+    @After
+    public void tearDown() {
+        SentinelConfig.removeConfig(SentinelConfig.SLOT_CHAIN_SKIP_RULE_FREE_SLOTS);
+        SlotChainRefresher.clear();
+    }
+
+    private ProcessorSlotChain newChain() {
+        ProcessorSlotChain chain = new DefaultProcessorSlotChain();
+        chain.addLast(new RecordingSlot("s0", records));
+        chain.addLast(ruleSlot);
+        chain.addLast(new RecordingSlot("s2", records));
+        return chain;
+    }
+
+    private Context newContext(ProcessorSlotChain chain) {
+        Context context = new Context(null, "defaultChainContext");
+        context.setCurEntry(new TestEntry(resource, chain));
+        return context;
+    }
+
+    @Test
+    public void testNotSkipWhenDisabled() throws Throwable {
+        ProcessorSlotChain chain = newChain();
+        SlotChainRefresher.register(resource, chain);
+
+        Context context = newContext(chain);
+        chain.entry(context, resource, null, 1, false);
+        chain.exit(context, resource, 1);
+        assertEquals(Arrays.asList("entry:s0", "entry:rule", "entry:s2", "exit:s0", "exit:rule", "exit:s2"),
+            records);
+    }
+
+    @Test
+    public void testSkipRuleFreeSlots() throws Throwable {
+        SentinelConfig.setConfig(SentinelConfig.SLOT_CHAIN_SKIP_RULE_FREE_SLOTS, "true");
+        ProcessorSlotChain chain = newChain();
+        SlotChainRefresher.register(resource, chain);
+        // Slots stay linked.
+        assertSame(ruleSlot, chain.getNext().getNext());
+
+        Context context = newContext(chain);
+        chain.entry(context, resource, null, 1, false);
+        chain.exit(context, resource, 1);
+        assertEquals(Arrays.asList("entry:s0", "entry:s2", "exit:s0", "exit:s2"), records);
+
+        records.clear();
+        ruleSlot.hasRules = true;
+        SlotChainRefresher.refreshAll();
+        context = newContext(chain);
+        chain.entry(context, resource, null, 1, false);
+        chain.exit(context, resource, 1);
+        assertEquals(Arrays.asList("entry:s0", "entry:rule", "entry:s2", "exit:s0", "exit:rule", "exit:s2"),
+            records);
+    }
+
+    @Test
+    public void testExitGoesThroughSlotsPinnedAtEntry() throws Throwable {
+        SentinelConfig.setConfig(SentinelConfig.SLOT_CHAIN_SKIP_RULE_FREE_SLOTS, "true");
+        ProcessorSlotChain chain = newChain();
+        SlotChainRefresher.register(resource, chain);
+
+        // Rules are loaded between entry and exit.
+        Context context = newContext(chain);
+        chain.entry(context, resource, null, 1, false);
+        ruleSlot.hasRules = true;
+        SlotChainRefresher.refreshAll();
+        chain.exit(context, resource, 1);
+        assertEquals(Arrays.asList("entry:s0", "entry:s2", "exit:s0", "exit:s2"), records);
+
+        // Rules are removed between entry and exit.
+        records.clear();
+        context = newContext(chain);
+        chain.entry(context, resource, null, 1, false);
+        ruleSlot.hasRules = false;
+        SlotChainRefresher.refreshAll();
+        chain.exit(context, resource, 1);
+        assertEquals(Arrays.asList("entry:s0", "entry:rule", "entry:s2", "exit:s0", "exit:rule", "exit:s2"),
+            records);
+    }
+
+    @Test
+    public void testSkippedSlotsKeptPerChain() throws Throwable {
+        SentinelConfig.setConfig(SentinelConfig.SLOT_CHAIN_SKIP_RULE_FREE_SLOTS, "true");
+        RuleCheckingRecordingSlot otherRuleSlot = new RuleCheckingRecordingSlot("other", records);
+        otherRuleSlot.hasRules = true;
+        ProcessorSlotChain other = new DefaultProcessorSlotChain();
+        other.addLast(otherRuleSlot);
+        SlotChainRefresher.register(new StringResourceWrapper("otherRes", EntryType.IN), other);
+
+        ProcessorSlotChain chain = newChain();
+        chain.addLast(otherRuleSlot);
+        SlotChainRefresher.register(resource, chain);
+        assertNull(other.getSkippedSlots());
+        assertArrayEquals(new ProcessorSlot<?>[] {ruleSlot}, chain.getSkippedSlots());
+
+        Context context = newContext(chain);
+        chain.entry(context, resource, null, 1, false);
+        chain.exit(context, resource, 1);
+        // The rule-free slot is skipped while the slot with rules is not.
+        assertEquals(Arrays.asList("entry:s0", "entry:s2", "entry:other", "exit:s0", "exit:s2", "exit:other"),
+            records);
+    }
+
+    static class RecordingSlot extends AbstractLinkedProcessorSlot<Object> {
+
+        final String name;
+        final List<String> records;
+
+        RecordingSlot(String name, List<String> records) {
+            this.name = name;
+            this.records = records;
+        }
+
+        @Override
+        public void entry(Context context, ResourceWrapper resourceWrapper, Object param, int count,
+                          boolean prioritized, Object... args) throws Throwable {
+            records.add("entry:" + name);
+            fireEntry(context, resourceWrapper, param, count, prioritized, args);
+        }
+
+        @Override
+        public void exit(Context context, ResourceWrapper resourceWrapper, int count, Object... args) {
+            records.add("exit:" + name);
+            fireExit(context, resourceWrapper, count, args);
+        }
+    }
+
+    static class RuleCheckingRecordingSlot extends RecordingSlot implements RuleCheckingSlot {
+
+        volatile boolean hasRules = false;
+
+        RuleCheckingRecordingSlot(String name, List<String> records) {
+            super(name, records);
+        }
+
+        @Override
+        public boolean hasRules(ResourceWrapper resourceWrapper) {
+            return hasRules;
+        }
+    }
+
+    /**
+     * Pins the skipped slots of the chain when created, as {@code CtEntry} does.
+     */
+    static class TestEntry extends Entry {
+
+        private final ProcessorSlot<?>[] skippedSlots;
+
+        TestEntry(ResourceWrapper resourceWrapper, ProcessorSlotChain chain) {
+            super(resourceWrapper);
+            this.skippedSlots = chain.getSkippedSlots();
+        }
+
+        @Override
+        public ProcessorSlot<?>[] getSkippedSlots() {
+            return skippedSlots;
+        }
+
+        @Override
+        public void exit(int count, Object... args) throws ErrorEntryFreeException {}
+
+        @Override
+        protected Entry trueExit(int count, Object... args) throws ErrorEntryFreeException {
+            return null;
+        }
+
+        @Override
+        public Node getLastNode() {
+            return null;
+        }
+
+        @Override
+        public void whenTerminate(BiConsumer<Context, Entry> handler) {}
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slotchain;
+
+import java.util.Map;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.metric.overhead.CostStat;
+import com.alibaba.csp.sentinel.metric.overhead.OverheadRecorder;
+import com.alibaba.csp.sentinel.metric.overhead.OverheadSnapshot;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link SlotProfiler}.
+ */
+public class SlotProfilerTest {
+
+    private final ResourceWrapper resource = new StringResourceWrapper("slotProfilerRes", EntryType.IN);
+
+    @Before
+    public void setUp() {
+        OverheadRecorder.setEnabled(true);
+        OverheadRecorder.reset();
+    }
+
+    @After
+    public void tearDown() {
+        OverheadRecorder.setEnabled(false);
+        OverheadRecorder.reset();
+    }
+
+    @Test
+    public void testProfileDefaultChain() throws Throwable {
+        DefaultProcessorSlotChain chain = new DefaultProcessorSlotChain();
+        chain.addLast(new SpinningSlot());
+        chain.addLast(new PassingSlot());
+        runSampleInterval(chain);
+
+        assertSampled(OverheadRecorder.snapshot());
+    }
+
+    @Test
+    public void testNotSampledWhenDisabled() throws Throwable {
+        OverheadRecorder.setEnabled(false);
+        DefaultProcessorSlotChain chain = new DefaultProcessorSlotChain();
+        chain.addLast(new PassingSlot());
+        runSampleInterval(chain);
+
+        OverheadSnapshot snapshot = OverheadRecorder.snapshot();
+        assertEquals(0, snapshot.getChainEntry().getCount());
+        assertTrue(snapshot.getSlotEntries().isEmpty());
+    }
+
+    private void runSampleInterval(ProcessorSlotChain chain) throws Throwable {
+        // Exactly one of the calls within a sample interval is sampled.
+        for (int i = 0; i < OverheadRecorder.getSampleInterval(); i++) {
+            chain.entry(null, resource, null, 1, false);
+            chain.exit(null, resource, 1);
+        }
+    }
+
+    private void assertSampled(OverheadSnapshot snapshot) {
+        assertEquals(1, snapshot.getChainEntry().getCount());
+        assertEquals(1, snapshot.getChainExit().getCount());
+
+        Map<String, CostStat> entries = snapshot.getSlotEntries();
+        assertEquals(2, entries.size());
+        CostStat spinning = entries.get(SpinningSlot.class.getName());
+        CostStat passing = entries.get(PassingSlot.class.getName());
+        assertEquals(1, spinning.getCount());
+        assertEquals(1, passing.getCount());
+        // Self cost of a slot excludes the slots after it.
+        assertTrue(spinning.getTotalNanos() >= SpinningSlot.SPIN_NANOS);
+        assertTrue(passing.getTotalNanos() < SpinningSlot.SPIN_NANOS);
+        assertTrue(spinning.getTotalNanos() + passing.getTotalNanos() <= snapshot.getChainEntry().getTotalNanos());
+
+        assertEquals(2, snapshot.getSlotExits().size());
+    }
+
+    private static class SpinningSlot extends AbstractLinkedProcessorSlot<Object> {
+
+        static final long SPIN_NANOS = 2000000;
+
+        @Override
+        public void entry(Context context, ResourceWrapper resourceWrapper, Object param, int count,
+                          boolean prioritized, Object... args) throws Throwable {
+            long start = System.nanoTime();
+            while (System.nanoTime() - start < SPIN_NANOS) {
+                // Spin to take some time.
+            }
+            fireEntry(context, resourceWrapper, param, count, prioritized, args);
+        }
+
+        @Override
+        public void exit(Context context, ResourceWrapper resourceWrapper, int count, Object... args) {
+            fireExit(context, resourceWrapper, count, args);
+        }
+    }
+
+    private static class PassingSlot extends AbstractLinkedProcessorSlot<Object> {
+
+        @Override
+        public void entry(Context context, ResourceWrapper resourceWrapper, Object param, int count,
+                          boolean prioritized, Object... args) throws Throwable {
+            fireEntry(context, resourceWrapper, param, count, prioritized, args);
+        }
+
+        @Override
+        public void exit(Context context, ResourceWrapper resourceWrapper, int count, Object... args) {
+            fireExit(context, resourceWrapper, count, args);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link DeferredWait}.
+ */
+public class DeferredWaitTest {
+
+    @Test
+    public void testDeferOnlyWhenActive() {
+        assertFalse(DeferredWait.isDeferring());
+        assertFalse(DeferredWait.defer(10));
+
+        DeferredWait.begin();
+        assertTrue(DeferredWait.isDeferring());
+        assertTrue(DeferredWait.defer(30));
+        assertTrue(DeferredWait.defer(10));
+        // The max waiting time is kept.
+        assertEquals(30, DeferredWait.end());
+
+        assertFalse(DeferredWait.isDeferring());
+        assertFalse(DeferredWait.defer(10));
+        DeferredWait.begin();
+        assertEquals(0, DeferredWait.end());
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRuleManager;
+import com.alibaba.csp.sentinel.test.AbstractTimeBasedTest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link PercentileCircuitBreaker}.
+ */
+public class PercentileCircuitBreakerTest extends AbstractTimeBasedTest {
+
+    private static final String OBSERVER_NAME = "testPercentileCircuitBreaker";
+
+    @Before
+    public void setUp() {
+        DegradeRuleManager.loadRules(new ArrayList<DegradeRule>());
+    }
+
+    @After
+    public void tearDown() {
+        DegradeRuleManager.loadRules(new ArrayList<DegradeRule>());
+        EventObserverRegistry.getInstance().removeStateChangeObserver(OBSERVER_NAME);
+    }
+
+    @Test
+    public void testOpenWhenPercentileExceedsThreshold() {
+        String resource = "testOpenWhenPercentileExceedsThreshold";
+        DegradeRule rule = new DegradeRule(resource)
+            .setGrade(RuleConstant.DEGRADE_GRADE_RT_PERCENTILE)
+            .setCount(50)
+            .setPercentile(90)
+            .setMinRequestAmount(10)
+            .setStatIntervalMs(10000)
+            .setTimeWindow(5);
+        assertTrue(DegradeRuleManager.isValidRule(rule));
+        DegradeRuleManager.loadRules(Collections.singletonList(rule));
+        final AtomicReference<Double> snapshotValue = new AtomicReference<>();
+        EventObserverRegistry.getInstance().addStateChangeObserver(OBSERVER_NAME,
+            new CircuitBreakerStateChangeObserver() {
+                @Override
+                public void onStateChange(CircuitBreaker.State prevState, CircuitBreaker.State newState,
+                                          DegradeRule rule, Double value) {
+                    if (newState == CircuitBreaker.State.OPEN) {
+                        snapshotValue.set(value);
+                    }
+                }
+            });
+
+        setCurrentMillis(System.currentTimeMillis() / 1000 * 1000);
+        for (int i = 0; i < 9; i++) {
+            assertTrue(entryAndSleepFor(resource, 10));
+        }
+        // p90 is still within the threshold (9 of 10 requests).
+        assertTrue(entryAndSleepFor(resource, 100));
+        assertTrue(entryAndSleepFor(resource, 20));
+        // 2 of 12 requests are slow, so p90 exceeds the threshold.
+        assertTrue(entryAndSleepFor(resource, 100));
+        assertFalse(entryAndSleepFor(resource, 10));
+        assertNotNull(snapshotValue.get());
+        assertEquals(100, snapshotValue.get(), 100 / 16);
+
+        // Half-open after the recovery timeout, and a fast probe closes the circuit breaker.
+        sleep(5000);
+        assertTrue(entryAndSleepFor(resource, 10));
+        assertTrue(entryAndSleepFor(resource, 10));
+    }
+
+    @Test
+    public void testReopenWhenSlowProbe() {
+        String resource = "testReopenWhenSlowProbe";
+        DegradeRule rule = new DegradeRule(resource)
+            .setGrade(RuleConstant.DEGRADE_GRADE_RT_PERCENTILE)
+            .setCount(50)
+            .setPercentile(99)
+            .setMinRequestAmount(1)
+            .setStatIntervalMs(1000)
+            .setTimeWindow(2);
+        DegradeRuleManager.loadRules(Collections.singletonList(rule));
+
+        setCurrentMillis(System.currentTimeMillis() / 1000 * 1000);
+        assertTrue(entryAndSleepFor(resource, 100));
+        assertFalse(entryAndSleepFor(resource, 10));
+
+        sleep(2000);
+        // The probe is slow, so the circuit breaker opens again.
+        assertTrue(entryAndSleepFor(resource, 100));
+        assertFalse(entryAndSleepFor(resource, 10));
+    }
+
+    @Test
+    public void testInvalidPercentile() {
+        DegradeRule rule = new DegradeRule("testInvalidPercentile")
+            .setGrade(RuleConstant.DEGRADE_GRADE_RT_PERCENTILE)
+            .setCount(50)
+            .setPercentile(120)
+            .setTimeWindow(5);
+        assertFalse(DegradeRuleManager.isValidRule(rule));
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.csp.sentinel.metric.extension.ConcurrencyLimitMetricExtension;
+import com.alibaba.csp.sentinel.metric.extension.MetricExtensionProvider;
+import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleUtil;
+import com.alibaba.csp.sentinel.test.AbstractTimeBasedTest;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test cases for {@link GradientConcurrencyController}.
+ */
+public class GradientConcurrencyControllerTest extends AbstractTimeBasedTest {
+
+    @Test
+    public void testLimitByConcurrency() {
+        setCurrentMillis(System.currentTimeMillis());
+        Node node = mock(Node.class);
+        GradientConcurrencyController controller = new GradientConcurrencyController("abc", 10);
+        assertEquals(10, controller.getLimit());
+        assertEquals(100, controller.getMaxLimit());
+
+        when(node.curThreadNum()).thenReturn(9);
+        assertTrue(controller.canPass(node, 1));
+        when(node.curThreadNum()).thenReturn(10);
+        assertFalse(controller.canPass(node, 1));
+    }
+
+    @Test
+    public void testLimitShrinksWhenRtGrows() {
+        setCurrentMillis(System.currentTimeMillis());
+        Node node = mock(Node.class);
+        GradientConcurrencyController controller = new GradientConcurrencyController("abc", 100, 1, 1000, 1000);
+        when(node.curThreadNum()).thenReturn(90);
+        when(node.minRt()).thenReturn(10d);
+        when(node.avgRt()).thenReturn(40d);
+
+        int lastLimit = controller.getLimit();
+        for (int i = 0; i < 20; i++) {
+            sleep(1000);
+            controller.canPass(node, 1);
+            assertTrue(controller.getLimit() <= lastLimit);
+            lastLimit = controller.getLimit();
+        }
+        assertTrue(controller.getLimit() < 50);
+        assertTrue(controller.getLimit() >= 1);
+    }
+
+    @Test
+    public void testLimitGrowsOnlyWhenUtilized() {
+        setCurrentMillis(System.currentTimeMillis());
+        Node node = mock(Node.class);
+        GradientConcurrencyController controller = new GradientConcurrencyController("abc", 10, 1, 50, 1000);
+        when(node.minRt()).thenReturn(10d);
+        when(node.avgRt()).thenReturn(10d);
+
+        // Not utilized: the limit stays.
+        when(node.curThreadNum()).thenReturn(2);
+        for (int i = 0; i < 5; i++) {
+            sleep(1000);
+            controller.canPass(node, 1);
+        }
+        assertEquals(10, controller.getLimit());
+
+        // Utilized with stable RT: the limit grows up to the max limit.
+        for (int i = 0; i < 100; i++) {
+            when(node.curThreadNum()).thenReturn(controller.getLimit() - 1);
+            sleep(1000);
+            controller.canPass(node, 1);
+        }
+        assertEquals(50, controller.getLimit());
+    }
+
+    @Test
+    public void testLimitChangeNotified() {
+        setCurrentMillis(System.currentTimeMillis());
+        final List<int[]> changes = new ArrayList<>();
+        ConcurrencyLimitMetricExtension extension = new FakeConcurrencyLimitExtension(changes);
+        MetricExtensionProvider.addMetricExtension(extension);
+        try {
+            Node node = mock(Node.class);
+            GradientConcurrencyController controller = new GradientConcurrencyController("abc", 100, 1, 1000, 1000);
+            when(node.curThreadNum()).thenReturn(90);
+            when(node.minRt()).thenReturn(10d);
+            when(node.avgRt()).thenReturn(40d);
+            sleep(1000);
+            controller.canPass(node, 1);
+
+            assertEquals(1, changes.size());
+            assertEquals(100, changes.get(0)[0]);
+            assertEquals(controller.getLimit(), changes.get(0)[1]);
+        } finally {
+            MetricExtensionProvider.getMetricExtensions().remove(extension);
+        }
+    }
+
+    @Test
+    public void testAdaptiveConcurrencyRuleValidation() {
+        FlowRule rule = new FlowRule("testAdaptiveConcurrencyRule").setCount(10)
+            .setGrade(RuleConstant.FLOW_GRADE_THREAD)
+            .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_ADAPTIVE_CONCURRENCY);
+        assertTrue(FlowRuleUtil.isValidRule(rule));
+        Map<String, List<FlowRule>> ruleMap = FlowRuleUtil.buildFlowRuleMap(Collections.singletonList(rule));
+        FlowRule loaded = ruleMap.get("testAdaptiveConcurrencyRule").get(0);
+        assertTrue(loaded.toString().contains("GradientConcurrencyController"));
+
+        // The adaptive concurrency limit does not apply to QPS rules.
+        FlowRule qpsRule = new FlowRule("testAdaptiveConcurrencyRule").setCount(10)
+            .setGrade(RuleConstant.FLOW_GRADE_QPS)
+            .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_ADAPTIVE_CONCURRENCY);
+        assertFalse(FlowRuleUtil.isValidRule(qpsRule));
+        assertTrue(FlowRuleUtil.buildFlowRuleMap(Collections.singletonList(qpsRule)).isEmpty());
+    }
+
+    private static class FakeConcurrencyLimitExtension implements ConcurrencyLimitMetricExtension {
+
+        private final List<int[]> changes;
+
+        FakeConcurrencyLimitExtension(List<int[]> changes) {
+            this.changes = changes;
+        }
+
+        @Override
+        public void onConcurrencyLimitChanged(String resource, int oldLimit, int newLimit) {
+            changes.add(new int[] {oldLimit, newLimit});
+        }
+
+        @Override
+        public void addPass(String resource, int n, Object... args) {}
+
+        @Override
+        public void addBlock(String resource, int n, String origin, BlockException blockException, Object... args) {}
+
+        @Override
+        public void addSuccess(String resource, int n, Object... args) {}
+
+        @Override
+        public void addException(String resource, int n, Throwable throwable) {}
+
+        @Override
+        public void addRt(String resource, long rt, Object... args) {}
+
+        @Override
+        public void increaseThreadNum(String resource, Object... args) {}
+
+        @Override
+        public void decreaseThreadNum(String resource, Object... args) {}
+    }
+}
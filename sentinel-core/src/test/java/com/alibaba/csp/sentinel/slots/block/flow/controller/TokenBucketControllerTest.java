@@ -0,0 +1,131 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.controller;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleUtil;
+import com.alibaba.csp.sentinel.test.AbstractTimeBasedTest;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test cases for {@link TokenBucketController}.
+ */
+public class TokenBucketControllerTest extends AbstractTimeBasedTest {
+
+    @Test
+    public void testBurstAndRefill() {
+        setCurrentMillis(System.currentTimeMillis());
+        Node node = mock(Node.class);
+        TokenBucketController controller = new TokenBucketController(10, 5);
+
+        // The bucket is full at first: count + burstCount tokens.
+        for (int i = 0; i < 15; i++) {
+            assertTrue(controller.canPass(node, 1));
+        }
+        assertFalse(controller.canPass(node, 1));
+
+        // One token per 100 ms.
+        sleep(100);
+        assertTrue(controller.canPass(node, 1));
+        assertFalse(controller.canPass(node, 1));
+
+        // Refill won't exceed the capacity.
+        sleep(10000);
+        assertEquals(15, controller.availableTokens(), 0.01);
+    }
+
+    @Test
+    public void testAcquireMultipleTokens() {
+        setCurrentMillis(System.currentTimeMillis());
+        Node node = mock(Node.class);
+        TokenBucketController controller = new TokenBucketController(10, 0);
+
+        assertTrue(controller.canPass(node, 6));
+        assertFalse(controller.canPass(node, 5));
+        assertTrue(controller.canPass(node, 4));
+        // Never enough tokens.
+        assertFalse(controller.canPass(node, 11));
+
+        sleep(500);
+        assertFalse(controller.canPass(node, 6));
+        assertTrue(controller.canPass(node, 5));
+        assertTrue(controller.canPass(node, 0));
+    }
+
+    @Test
+    public void testZeroCount() {
+        Node node = mock(Node.class);
+        TokenBucketController controller = new TokenBucketController(0, 10);
+        assertFalse(controller.canPass(node, 1));
+    }
+
+    @Test
+    public void testConcurrentAcquire() throws Exception {
+        setCurrentMillis(System.currentTimeMillis());
+        final Node node = mock(Node.class);
+        final TokenBucketController controller = new TokenBucketController(100, 50);
+        final AtomicInteger passed = new AtomicInteger();
+        int threadCount = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threadCount);
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            pool.submit(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 100; j++) {
+                        if (controller.canPass(node, 1)) {
+                            passed.incrementAndGet();
+                        }
+                    }
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        pool.shutdownNow();
+        // Time is frozen, so exactly the capacity of the bucket could pass.
+        assertEquals(150, passed.get());
+    }
+
+    @Test
+    public void testGeneratedFromFlowRule() {
+        FlowRule rule = new FlowRule("testTokenBucketRule").setCount(10)
+            .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_TOKEN_BUCKET)
+            .setBurstCount(5);
+        assertTrue(FlowRuleUtil.isValidRule(rule));
+        assertFalse(FlowRuleUtil.isValidRule(new FlowRule("testTokenBucketRule").setCount(10)
+            .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_TOKEN_BUCKET).setBurstCount(-1)));
+
+        Map<String, List<FlowRule>> ruleMap = FlowRuleUtil.buildFlowRuleMap(Collections.singletonList(rule));
+        FlowRule loaded = ruleMap.get("testTokenBucketRule").get(0);
+        assertTrue(loaded.toString().contains("TokenBucketController"));
+    }
+}
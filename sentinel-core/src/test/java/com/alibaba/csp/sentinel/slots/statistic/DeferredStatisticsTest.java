@@ -0,0 +1,258 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.node.ClusterNode;
+import com.alibaba.csp.sentinel.node.LatencyHistogramProperty;
+import com.alibaba.csp.sentinel.node.StatisticNode;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link DeferredStatistics}.
+ */
+public class DeferredStatisticsTest {
+
+    private DeferredStatistics statistics;
+
+    @After
+    public void tearDown() {
+        if (statistics != null) {
+            statistics.stop();
+        }
+    }
+
+    @Test
+    public void testFlushWhenBatchIsFull() {
+        statistics = new DeferredStatistics(4, 1000);
+        StatisticNode node = new StatisticNode();
+
+        statistics.addPassRequest(node, 1);
+        statistics.addPassRequest(node, 2);
+        statistics.addRtAndSuccess(node, 10, 1);
+        assertEquals(0, node.totalPass());
+        assertEquals(0, node.totalSuccess());
+
+        statistics.addRtAndSuccess(node, 30, 2);
+        assertEquals(3, node.totalPass());
+        assertEquals(3, node.totalSuccess());
+        assertEquals(10, node.minRt(), 0.01);
+    }
+
+    @Test
+    public void testFlushKeepsRtSumAndMinRt() {
+        statistics = new DeferredStatistics(100, 1000);
+        StatisticNode node = new StatisticNode();
+
+        statistics.addRtAndSuccess(node, 20, 1);
+        statistics.addRtAndSuccess(node, 5, 1);
+        statistics.addRtAndSuccess(node, 50, 1);
+        statistics.flushCurrentThread();
+
+        assertEquals(3, node.totalSuccess());
+        assertEquals(5, node.minRt(), 0.01);
+        assertEquals(25, node.avgRt(), 0.01);
+    }
+
+    @Test
+    public void testScheduledFlush() throws Exception {
+        statistics = new DeferredStatistics(100, 10);
+        statistics.start();
+        StatisticNode node = new StatisticNode();
+
+        statistics.addPassRequest(node, 1);
+        long deadline = System.currentTimeMillis() + 2000;
+        while (node.totalPass() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, node.totalPass());
+    }
+
+    @Test
+    public void testFlushAllFromTerminatedThreads() throws Exception {
+        statistics = new DeferredStatistics(1000000, 1000);
+        final StatisticNode node = new StatisticNode();
+        final int threadCount = 8;
+        final int addPerThread = 10000;
+        ExecutorService pool = Executors.newFixedThreadPool(threadCount);
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            pool.submit(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < addPerThread; j++) {
+                        statistics.addPassRequest(node, 1);
+                        statistics.addRtAndSuccess(node, 1, 1);
+                    }
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(threadCount, statistics.bufferCount());
+
+        statistics.flushAll();
+        assertEquals(threadCount * addPerThread, node.totalPass());
+        assertEquals(threadCount * addPerThread, node.totalSuccess());
+
+        // Worker threads may still be alive for a moment after the pool terminates.
+        long deadline = System.currentTimeMillis() + 2000;
+        while (statistics.bufferCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+            statistics.flushAll();
+        }
+        assertEquals(0, statistics.bufferCount());
+    }
+
+    @Test
+    public void testMaxBatchIsSharedByThreads() throws Exception {
+        statistics = new DeferredStatistics(8, 1000);
+        StatisticNode node = new StatisticNode();
+        // Each thread buffers 2 events at most, so all the events are flushed by their threads.
+        recordPassInThreads(node, 4, 2);
+        assertEquals(2, statistics.batchPerThread());
+        assertEquals(8, node.totalPass());
+    }
+
+    @Test
+    public void testEachThreadFlushesEveryEventBeyondMaxBatch() throws Exception {
+        statistics = new DeferredStatistics(2, 1000);
+        StatisticNode node = new StatisticNode();
+        recordPassInThreads(node, 4, 3);
+        assertEquals(1, statistics.batchPerThread());
+        assertEquals(12, node.totalPass());
+    }
+
+    @Test
+    public void testFlushFromAnotherThread() throws Exception {
+        statistics = new DeferredStatistics(100, 1000);
+        StatisticNode node = new StatisticNode();
+        statistics.addPassRequest(node, 1);
+        statistics.addRtAndSuccess(node, 20, 1);
+        statistics.addRtAndSuccess(node, 5, 1);
+
+        Thread flusher = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                statistics.flushAll();
+            }
+        });
+        flusher.start();
+        flusher.join();
+        assertEquals(1, node.totalPass());
+        assertEquals(2, node.totalSuccess());
+        assertEquals(5, node.minRt(), 0.01);
+
+        // Only the events after the flush are flushed again.
+        statistics.addRtAndSuccess(node, 10, 1);
+        statistics.flushCurrentThread();
+        assertEquals(1, node.totalPass());
+        assertEquals(3, node.totalSuccess());
+        assertEquals(35.0 / 3, node.avgRt(), 0.01);
+    }
+
+    @Test
+    public void testConcurrentFlushKeepsCounts() throws Exception {
+        statistics = new DeferredStatistics(1000000, 1);
+        statistics.start();
+        final StatisticNode node = new StatisticNode();
+        final int threadCount = 4;
+        final int addPerThread = 50000;
+        ExecutorService pool = Executors.newFixedThreadPool(threadCount);
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            pool.submit(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < addPerThread; j++) {
+                        statistics.addPassRequest(node, 1);
+                        statistics.addRtAndSuccess(node, 1, 1);
+                    }
+                    statistics.flushCurrentThread();
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        pool.shutdown();
+        statistics.stop();
+
+        assertEquals(threadCount * addPerThread, node.totalPass());
+        assertEquals(threadCount * addPerThread, node.totalSuccess());
+        assertEquals(1, node.minRt(), 0.01);
+    }
+
+    private void recordPassInThreads(final StatisticNode node, int threadCount, final int passPerThread)
+        throws Exception {
+        final CyclicBarrier registered = new CyclicBarrier(threadCount);
+        final CountDownLatch done = new CountDownLatch(threadCount);
+        final CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < threadCount; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        // Register the buffers of all threads first.
+                        statistics.flushCurrentThread();
+                        registered.await();
+                        for (int j = 0; j < passPerThread; j++) {
+                            statistics.addPassRequest(node, 1);
+                        }
+                        done.countDown();
+                        // Keep the thread alive, so that its buffer stays registered.
+                        release.await();
+                    } catch (Exception ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                }
+            }).start();
+        }
+        try {
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testRecordRtDirectlyWithLatencyHistogram() {
+        String resourceName = "testRecordRtDirectlyWithLatencyHistogram";
+        LatencyHistogramProperty.updateResources(Collections.singleton(resourceName));
+        try {
+            statistics = new DeferredStatistics(100, 1000);
+            ClusterNode node = new ClusterNode(resourceName);
+            assertTrue(node.isLatencyHistogramEnabled());
+
+            statistics.addRtAndSuccess(node, 10, 1);
+            assertEquals(1, node.totalSuccess());
+            assertEquals(10, node.rtPercentileInMinute(99));
+        } finally {
+            LatencyHistogramProperty.updateResources(Collections.<String>emptySet());
+        }
+    }
+}
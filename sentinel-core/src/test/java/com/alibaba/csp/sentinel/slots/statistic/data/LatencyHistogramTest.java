@@ -0,0 +1,108 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testIndexContinuous() {
+        int lastIndex = 0;
+        for (long v = 1; v < 100000; v++) {
+            int index = LatencyHistogram.indexOf(v);
+            assertTrue(index == lastIndex || index == lastIndex + 1);
+            assertTrue(LatencyHistogram.lowestValueAt(index) <= v);
+            assertTrue(LatencyHistogram.highestValueAt(index) >= v);
+            // Relative error is bounded.
+            assertTrue(LatencyHistogram.highestValueAt(index) - LatencyHistogram.lowestValueAt(index) <= v / 16);
+            lastIndex = index;
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram(5000);
+        assertEquals(-1, histogram.valueAtPercentile(99));
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        assertEquals(1000, histogram.count());
+        assertEquals(500, histogram.valueAtPercentile(50), 500 / 16);
+        assertEquals(990, histogram.valueAtPercentile(99), 990 / 16);
+        assertEquals(1000, histogram.valueAtPercentile(100), 1000 / 16);
+        assertEquals(1, histogram.valueAtPercentile(0.1));
+    }
+
+    @Test
+    public void testRecordOutOfRange() {
+        LatencyHistogram histogram = new LatencyHistogram(100);
+        histogram.record(-5);
+        histogram.record(100000);
+        assertEquals(2, histogram.count());
+        assertEquals(0, histogram.valueAtPercentile(50));
+        assertEquals(100, histogram.valueAtPercentile(100));
+
+        histogram.reset();
+        assertEquals(0, histogram.count());
+    }
+
+    @Test
+    public void testAggregate() {
+        LatencyHistogram h1 = new LatencyHistogram(1000);
+        LatencyHistogram h2 = new LatencyHistogram(1000);
+        h1.record(10);
+        h2.record(500);
+        long[] counts = new long[h1.bucketCount()];
+        h1.addTo(counts);
+        h2.addTo(counts);
+        assertEquals(10, LatencyHistogram.valueAtPercentile(counts, 50, 1000));
+        assertEquals(500, LatencyHistogram.valueAtPercentile(counts, 100, 1000), 500 / 16);
+    }
+
+    @Test
+    public void testConcurrentRecord() throws Exception {
+        final LatencyHistogram histogram = new LatencyHistogram(5000);
+        int threadCount = 8;
+        final int recordPerThread = 10000;
+        ExecutorService pool = Executors.newFixedThreadPool(threadCount);
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            pool.submit(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < recordPerThread; j++) {
+                        histogram.record(j % 200);
+                    }
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        pool.shutdownNow();
+        assertEquals(threadCount * recordPerThread, histogram.count());
+    }
+}
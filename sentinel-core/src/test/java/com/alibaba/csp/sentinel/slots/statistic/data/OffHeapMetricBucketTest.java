@@ -0,0 +1,145 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Test cases for {@link OffHeapMetricBucket}.
+ */
+public class OffHeapMetricBucketTest {
+
+    @Before
+    public void setUp() {
+        assumeTrue(OffHeapMetricBucket.isSupported());
+    }
+
+    @Test
+    public void testAddAndReset() {
+        OffHeapMetricBucket bucket = new OffHeapMetricBucket();
+        for (MetricEvent event : MetricEvent.values()) {
+            assertEquals(0, bucket.get(event));
+        }
+        bucket.addPass(3);
+        bucket.addBlock(2);
+        bucket.addSuccess(1);
+        bucket.addException(4);
+        bucket.addOccupiedPass(5);
+        bucket.addRT(20);
+        bucket.addRT(10);
+
+        assertEquals(3, bucket.pass());
+        assertEquals(2, bucket.block());
+        assertEquals(1, bucket.success());
+        assertEquals(4, bucket.exception());
+        assertEquals(5, bucket.occupiedPass());
+        assertEquals(30, bucket.rt());
+        assertEquals(10, bucket.minRt());
+
+        bucket.reset();
+        for (MetricEvent event : MetricEvent.values()) {
+            assertEquals(0, bucket.get(event));
+        }
+        assertEquals(SentinelConfig.statisticMaxRt(), bucket.minRt());
+    }
+
+    @Test
+    public void testResetFromBucket() {
+        MetricBucket source = new MetricBucket();
+        source.addPass(7);
+        source.addOccupiedPass(2);
+
+        OffHeapMetricBucket bucket = new OffHeapMetricBucket();
+        bucket.addBlock(1);
+        bucket.reset(source);
+        assertEquals(7, bucket.pass());
+        assertEquals(2, bucket.occupiedPass());
+        assertEquals(0, bucket.block());
+    }
+
+    @Test
+    public void testBucketsDoNotShareCounters() {
+        OffHeapMetricBucket b1 = new OffHeapMetricBucket();
+        OffHeapMetricBucket b2 = new OffHeapMetricBucket();
+        b1.addPass(1);
+        b2.addPass(2);
+        b2.addOccupiedPass(9);
+        assertEquals(1, b1.pass());
+        assertEquals(0, b1.occupiedPass());
+        assertEquals(2, b2.pass());
+    }
+
+    @Test
+    public void testConcurrentAdd() throws Exception {
+        final OffHeapMetricBucket bucket = new OffHeapMetricBucket();
+        final int threadCount = 16;
+        final int addPerThread = 20000;
+        ExecutorService pool = Executors.newFixedThreadPool(threadCount);
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            pool.submit(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < addPerThread; j++) {
+                        bucket.addPass(1);
+                        bucket.addRT(2);
+                    }
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        pool.shutdownNow();
+
+        assertEquals(threadCount * addPerThread, bucket.pass());
+        assertEquals(threadCount * addPerThread * 2L, bucket.rt());
+    }
+
+    @Test
+    public void testSlotsAreReclaimed() throws Exception {
+        OffHeapMetricArena arena = OffHeapMetricArena.INSTANCE;
+        for (int i = 0; i < OffHeapMetricArena.SLOTS_PER_SLAB * 4; i++) {
+            new OffHeapMetricBucket().addPass(1);
+        }
+        long allocated = arena.allocatedBytes();
+        for (int round = 0; round < 20 && arena.liveSlots() > OffHeapMetricArena.SLOTS_PER_SLAB; round++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        assertTrue(arena.liveSlots() <= OffHeapMetricArena.SLOTS_PER_SLAB);
+        // Empty slabs are released, except for a slab's worth of free slots.
+        assertTrue(arena.allocatedBytes() < allocated);
+
+        // Reclaimed slots should be reused, so the footprint does not grow beyond the peak.
+        for (int i = 0; i < OffHeapMetricArena.SLOTS_PER_SLAB * 2; i++) {
+            OffHeapMetricBucket bucket = new OffHeapMetricBucket();
+            assertEquals(0, bucket.pass());
+        }
+        assertTrue(arena.allocatedBytes() <= allocated);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link StripedMetricBucket}.
+ */
+public class StripedMetricBucketTest {
+
+    @Test
+    public void testAddAndReset() {
+        StripedMetricBucket bucket = new StripedMetricBucket();
+        bucket.addPass(3);
+        bucket.addBlock(2);
+        bucket.addSuccess(1);
+        bucket.addException(4);
+        bucket.addOccupiedPass(5);
+        bucket.addRT(20);
+        bucket.addRT(10);
+
+        assertEquals(3, bucket.pass());
+        assertEquals(2, bucket.block());
+        assertEquals(1, bucket.success());
+        assertEquals(4, bucket.exception());
+        assertEquals(5, bucket.occupiedPass());
+        assertEquals(30, bucket.rt());
+        assertEquals(10, bucket.minRt());
+
+        bucket.reset();
+        for (MetricEvent event : MetricEvent.values()) {
+            assertEquals(0, bucket.get(event));
+        }
+        assertEquals(SentinelConfig.statisticMaxRt(), bucket.minRt());
+        // No stripes without contention.
+        assertEquals(0, bucket.stripeCount());
+    }
+
+    @Test
+    public void testResetFromBucket() {
+        MetricBucket source = new MetricBucket();
+        source.addPass(7);
+        source.addOccupiedPass(2);
+
+        StripedMetricBucket bucket = new StripedMetricBucket();
+        bucket.addBlock(1);
+        bucket.reset(source);
+        assertEquals(7, bucket.pass());
+        assertEquals(2, bucket.occupiedPass());
+        assertEquals(0, bucket.block());
+    }
+
+    @Test
+    public void testConcurrentAdd() throws Exception {
+        final StripedMetricBucket bucket = new StripedMetricBucket();
+        final int threadCount = 16;
+        final int addPerThread = 20000;
+        ExecutorService pool = Executors.newFixedThreadPool(threadCount);
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            pool.submit(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < addPerThread; j++) {
+                        bucket.addPass(1);
+                        bucket.addRT(2);
+                    }
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        pool.shutdownNow();
+
+        assertEquals(threadCount * addPerThread, bucket.pass());
+        assertEquals(threadCount * addPerThread * 2L, bucket.rt());
+        // Stripes only grow on contention, and never beyond the limit.
+        int stripes = bucket.stripeCount();
+        assertTrue(stripes <= StripedMetricBucket.MAX_STRIPES);
+        assertEquals(0, stripes & (stripes - 1));
+
+        bucket.reset();
+        assertEquals(0, bucket.pass());
+        assertEquals(stripes, bucket.stripeCount());
+    }
+
+    @Test
+    public void testNonStripedBucketNeverInflates() throws Exception {
+        final StripedMetricBucket bucket = new StripedMetricBucket(false);
+        final int threadCount = 8;
+        final int addPerThread = 20000;
+        ExecutorService pool = Executors.newFixedThreadPool(threadCount);
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            pool.submit(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < addPerThread; j++) {
+                        bucket.addPass(1);
+                    }
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        pool.shutdownNow();
+
+        assertEquals(threadCount * addPerThread, bucket.pass());
+        assertEquals(0, bucket.stripeCount());
+    }
+
+    @Test
+    public void testMaxStripes() {
+        assertEquals(1, StripedMetricBucket.maxStripes(0));
+        assertEquals(1, StripedMetricBucket.maxStripes(1));
+        assertEquals(4, StripedMetricBucket.maxStripes(6));
+        assertEquals(16, StripedMetricBucket.maxStripes(64));
+    }
+}
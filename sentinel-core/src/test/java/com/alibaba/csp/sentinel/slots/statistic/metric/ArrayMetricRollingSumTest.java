@@ -0,0 +1,81 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.metric;
+
+import java.util.Random;
+
+import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
+import com.alibaba.csp.sentinel.slots.statistic.metric.occupy.OccupiableBucketLeapArray;
+import com.alibaba.csp.sentinel.test.AbstractTimeBasedTest;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for the rolling-sum mode of {@link ArrayMetric}.
+ */
+public class ArrayMetricRollingSumTest extends AbstractTimeBasedTest {
+
+    @Test
+    public void testRollingSumsMatchBucketScan() {
+        setCurrentMillis(1000);
+        OccupiableBucketLeapArray data = new OccupiableBucketLeapArray(10, 1000);
+        ArrayMetric rolling = new ArrayMetric(data, true);
+        ArrayMetric scanning = new ArrayMetric(data, false);
+
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            int n = random.nextInt(3) + 1;
+            rolling.addPass(n);
+            rolling.addBlock(n - 1);
+            rolling.addSuccess(n);
+            rolling.addException(n - 1);
+            rolling.addRT(random.nextInt(50));
+            if (random.nextInt(10) == 0) {
+                rolling.addWaiting(1000 + i * 7L + 150, 1);
+            }
+            // Sometimes jump over several buckets, or even the whole interval.
+            sleep(random.nextInt(100) == 0 ? 1500 : random.nextInt(40));
+
+            assertEquals(scanning.pass(), rolling.pass());
+            assertEquals(scanning.block(), rolling.block());
+            assertEquals(scanning.success(), rolling.success());
+            assertEquals(scanning.exception(), rolling.exception());
+            assertEquals(scanning.occupiedPass(), rolling.occupiedPass());
+            assertEquals(scanning.rt(), rolling.rt());
+            assertEquals(scanning.getSum(MetricEvent.PASS), rolling.getSum(MetricEvent.PASS));
+        }
+    }
+
+    @Test
+    public void testRollingSumsExpireOldBuckets() {
+        setCurrentMillis(1000);
+        ArrayMetric metric = new ArrayMetric(new BucketLeapArray(2, 1000), true);
+        metric.addPass(3);
+        assertEquals(3, metric.pass());
+
+        sleep(500);
+        metric.addPass(2);
+        assertEquals(5, metric.pass());
+
+        sleep(500);
+        assertEquals(2, metric.pass());
+
+        sleep(1000);
+        assertEquals(0, metric.pass());
+    }
+}
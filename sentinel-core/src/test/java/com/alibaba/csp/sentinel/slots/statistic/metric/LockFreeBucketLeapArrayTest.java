@@ -0,0 +1,209 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.metric;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
+import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
+import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
+import com.alibaba.csp.sentinel.slots.statistic.metric.occupy.OccupiableBucketLeapArray;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Contention stress test for the lock-free window rotation of {@link LeapArray}.
+ */
+public class LockFreeBucketLeapArrayTest {
+
+    private static final int WINDOW_LENGTH_IN_MS = 10;
+    private static final int SAMPLE_COUNT = 4;
+    private static final int INTERVAL_IN_MS = WINDOW_LENGTH_IN_MS * SAMPLE_COUNT;
+
+    private static final int THREAD_COUNT = 16;
+    private static final int ROUNDS = 200;
+    private static final int ADD_PER_ROUND = 50;
+
+    @Before
+    public void setUp() {
+        SentinelConfig.setConfig(SentinelConfig.WINDOW_ROTATION_LOCK_FREE, "true");
+    }
+
+    @After
+    public void tearDown() {
+        SentinelConfig.removeConfig(SentinelConfig.WINDOW_ROTATION_LOCK_FREE);
+    }
+
+    @Test
+    public void testRotationUnderContentionLosesNoCount() throws Exception {
+        final BucketLeapArray leapArray = new BucketLeapArray(SAMPLE_COUNT, INTERVAL_IN_MS);
+        // Warm up every slot so that all the rounds below hit deprecated buckets.
+        for (int i = 0; i < SAMPLE_COUNT; i++) {
+            leapArray.currentWindow(i * WINDOW_LENGTH_IN_MS);
+        }
+
+        final long baseTime = INTERVAL_IN_MS;
+        final CyclicBarrier startBarrier = new CyclicBarrier(THREAD_COUNT);
+        final CyclicBarrier endBarrier = new CyclicBarrier(THREAD_COUNT + 1);
+        final AtomicBoolean wrongWindow = new AtomicBoolean(false);
+        ExecutorService pool = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (int t = 0; t < THREAD_COUNT; t++) {
+                final int offset = t % WINDOW_LENGTH_IN_MS;
+                futures.add(pool.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        for (int round = 0; round < ROUNDS; round++) {
+                            long windowStart = baseTime + round * WINDOW_LENGTH_IN_MS;
+                            startBarrier.await(10, TimeUnit.SECONDS);
+                            for (int i = 0; i < ADD_PER_ROUND; i++) {
+                                WindowWrap<MetricBucket> w = leapArray.currentWindow(windowStart + offset);
+                                if (w.windowStart() != windowStart) {
+                                    wrongWindow.set(true);
+                                }
+                                w.value().addPass(1);
+                            }
+                            endBarrier.await(10, TimeUnit.SECONDS);
+                            // Wait for the verification of this round.
+                            endBarrier.await(10, TimeUnit.SECONDS);
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (int round = 0; round < ROUNDS; round++) {
+                long windowStart = baseTime + round * WINDOW_LENGTH_IN_MS;
+                endBarrier.await(10, TimeUnit.SECONDS);
+                WindowWrap<MetricBucket> w = leapArray.currentWindow(windowStart);
+                assertEquals(windowStart, w.windowStart());
+                assertEquals("Lost count at round " + round, THREAD_COUNT * ADD_PER_ROUND, w.value().pass());
+                endBarrier.await(10, TimeUnit.SECONDS);
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertFalse(wrongWindow.get());
+    }
+
+    @Test
+    public void testConcurrentRotationReturnsSameWindow() throws Exception {
+        final BucketLeapArray leapArray = new BucketLeapArray(SAMPLE_COUNT, INTERVAL_IN_MS);
+        WindowWrap<MetricBucket> deprecated = leapArray.currentWindow(0);
+        deprecated.value().addPass(10);
+
+        final long time = INTERVAL_IN_MS + 1;
+        final CyclicBarrier barrier = new CyclicBarrier(THREAD_COUNT);
+        final AtomicInteger passed = new AtomicInteger();
+        final List<WindowWrap<MetricBucket>> results = new ArrayList<WindowWrap<MetricBucket>>();
+        ExecutorService pool = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            List<Future<WindowWrap<MetricBucket>>> futures = new ArrayList<Future<WindowWrap<MetricBucket>>>();
+            for (int t = 0; t < THREAD_COUNT; t++) {
+                futures.add(pool.submit(new Callable<WindowWrap<MetricBucket>>() {
+                    @Override
+                    public WindowWrap<MetricBucket> call() throws Exception {
+                        barrier.await(10, TimeUnit.SECONDS);
+                        WindowWrap<MetricBucket> w = leapArray.currentWindow(time);
+                        passed.incrementAndGet();
+                        return w;
+                    }
+                }));
+            }
+            for (Future<WindowWrap<MetricBucket>> future : futures) {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(THREAD_COUNT, passed.get());
+        WindowWrap<MetricBucket> current = leapArray.currentWindow(time);
+        assertNotSame(deprecated, current);
+        assertEquals(INTERVAL_IN_MS, current.windowStart());
+        assertEquals(0, current.value().pass());
+        for (WindowWrap<MetricBucket> w : results) {
+            assertSame(current, w);
+        }
+    }
+
+    @Test
+    public void testOccupiableRotationCarriesBorrowedPass() {
+        OccupiableBucketLeapArray leapArray = new OccupiableBucketLeapArray(SAMPLE_COUNT, INTERVAL_IN_MS);
+        WindowWrap<MetricBucket> deprecated = leapArray.currentWindow(0);
+        deprecated.value().addPass(5);
+
+        leapArray.addWaiting(INTERVAL_IN_MS, 3);
+        WindowWrap<MetricBucket> current = leapArray.currentWindow(INTERVAL_IN_MS);
+        assertNotSame(deprecated, current);
+        assertEquals(INTERVAL_IN_MS, current.windowStart());
+        assertEquals(3, current.value().pass());
+        // The deprecated bucket is left untouched.
+        assertEquals(5, deprecated.value().pass());
+    }
+
+    @Test
+    public void testUnsupportedArrayResetsInPlace() {
+        ResettingLeapArray leapArray = new ResettingLeapArray(SAMPLE_COUNT, INTERVAL_IN_MS);
+        WindowWrap<AtomicInteger> deprecated = leapArray.currentWindow(0);
+        deprecated.value().set(5);
+
+        WindowWrap<AtomicInteger> current = leapArray.currentWindow(INTERVAL_IN_MS);
+        assertSame(deprecated, current);
+        assertEquals(INTERVAL_IN_MS, current.windowStart());
+        assertEquals(0, current.value().get());
+        assertEquals(1, leapArray.resetCount);
+    }
+
+    private static class ResettingLeapArray extends LeapArray<AtomicInteger> {
+
+        int resetCount = 0;
+
+        ResettingLeapArray(int sampleCount, int intervalInMs) {
+            super(sampleCount, intervalInMs);
+        }
+
+        @Override
+        public AtomicInteger newEmptyBucket(long timeMillis) {
+            return new AtomicInteger();
+        }
+
+        @Override
+        protected WindowWrap<AtomicInteger> resetWindowTo(WindowWrap<AtomicInteger> windowWrap, long startTime) {
+            resetCount++;
+            windowWrap.resetTo(startTime);
+            windowWrap.value().set(0);
+            return windowWrap;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.csp.sentinel.util.function.Function;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link ConcurrentRegistry}.
+ */
+public class ConcurrentRegistryTest {
+
+    @Test
+    public void testFactoryInvokedOncePerKey() throws Exception {
+        final ConcurrentRegistry<Integer, Object> registry = new ConcurrentRegistry<>();
+        final AtomicInteger created = new AtomicInteger();
+        final Function<Integer, Object> factory = new Function<Integer, Object>() {
+            @Override
+            public Object apply(Integer key) {
+                created.incrementAndGet();
+                return new Object();
+            }
+        };
+        final int threadCount = 16;
+        final int keyCount = 500;
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<Object[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threadCount; t++) {
+                futures.add(pool.submit(new Callable<Object[]>() {
+                    @Override
+                    public Object[] call() throws Exception {
+                        startLatch.await();
+                        Object[] values = new Object[keyCount];
+                        for (int i = 0; i < keyCount; i++) {
+                            values[i] = registry.getOrCreate(i, factory);
+                        }
+                        return values;
+                    }
+                }));
+            }
+            startLatch.countDown();
+            Object[] first = futures.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<Object[]> future : futures) {
+                assertArrayEquals(first, future.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(keyCount, created.get());
+        assertEquals(keyCount, registry.size());
+    }
+
+    @Test
+    public void testSizeLimit() {
+        ConcurrentRegistry<String, String> registry = new ConcurrentRegistry<>(2, 1);
+        Function<String, String> factory = new Function<String, String>() {
+            @Override
+            public String apply(String key) {
+                return key + "-value";
+            }
+        };
+        assertEquals("a-value", registry.getOrCreate("a", factory));
+        assertEquals("b-value", registry.getOrCreate("b", factory));
+        assertTrue(registry.isFull());
+        assertNull(registry.getOrCreate("c", factory));
+        // Existing keys are still available when the registry is full.
+        assertEquals("a-value", registry.getOrCreate("a", factory));
+
+        registry.clear();
+        assertEquals(0, registry.size());
+        assertEquals("c-value", registry.getOrCreate("c", factory));
+    }
+}
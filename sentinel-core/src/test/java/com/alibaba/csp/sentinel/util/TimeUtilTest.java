@@ -0,0 +1,126 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util;
+
+import com.alibaba.csp.sentinel.util.TimeUtil.ClockMode;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for the adaptive mode of {@link TimeUtil}.
+ */
+public class TimeUtilTest {
+
+    private static final long INTERVAL = TimeUtil.CHECK_INTERVAL_MS;
+
+    private static void read(TimeUtil clock, long times) {
+        for (long i = 0; i < times; i++) {
+            clock.read();
+        }
+    }
+
+    /**
+     * Simulate the ticks in tick mode from {@code start} (exclusive) to {@code end} (inclusive),
+     * where the clock is read in the given fraction (in percent) of the ticks.
+     */
+    private static void tick(TimeUtil clock, long start, long end, int readPercent) {
+        for (long t = start + 1; t <= end; t++) {
+            if ((t - start) % 100 < readPercent) {
+                clock.read();
+                clock.read();
+            }
+            clock.tick(t);
+        }
+    }
+
+    @Test
+    public void testAdaptiveModeSwitch() {
+        TimeUtil clock = new TimeUtil(true);
+        assertEquals(ClockMode.DIRECT, clock.check(0));
+
+        long time = INTERVAL;
+        // Low read rate: stay in direct mode.
+        read(clock, 10);
+        assertEquals(ClockMode.DIRECT, clock.check(time));
+
+        // Read rate above the upper threshold: switch to tick mode.
+        time += INTERVAL;
+        read(clock, TimeUtil.TICK_READ_QPS_THRESHOLD * INTERVAL / 1000);
+        assertEquals(ClockMode.TICK, clock.check(time));
+
+        // Most ticks see a read: keep the tick mode.
+        tick(clock, time, time + INTERVAL, 90);
+        time += INTERVAL;
+        assertEquals(ClockMode.TICK, clock.check(time));
+        assertTrue(clock.getReadQps() >= TimeUtil.DIRECT_READ_QPS_THRESHOLD);
+
+        // Fewer ticks see a read than the lower threshold: fall back to direct mode.
+        tick(clock, time, time + INTERVAL, 10);
+        time += INTERVAL;
+        assertEquals(ClockMode.DIRECT, clock.check(time));
+
+        // The reads in tick mode are not counted as the reads of direct mode.
+        time += INTERVAL;
+        assertEquals(ClockMode.DIRECT, clock.check(time));
+    }
+
+    @Test
+    public void testReadsNotCountedInTickMode() {
+        TimeUtil clock = new TimeUtil(true);
+        clock.check(0);
+        read(clock, TimeUtil.TICK_READ_QPS_THRESHOLD * INTERVAL / 1000);
+        assertEquals(ClockMode.TICK, clock.check(INTERVAL));
+
+        // No matter how many reads happen in one tick, the tick is counted once.
+        read(clock, 100000);
+        clock.tick(INTERVAL + 1);
+        assertEquals(ClockMode.DIRECT, clock.check(INTERVAL * 2));
+        assertEquals(1000 / INTERVAL, clock.getReadQps());
+    }
+
+    @Test
+    public void testNonAdaptiveAlwaysTick() {
+        TimeUtil clock = new TimeUtil(false);
+        assertEquals(ClockMode.TICK, clock.check(INTERVAL));
+    }
+
+    @Test
+    public void testDirectReadInDirectMode() {
+        TimeUtil clock = new TimeUtil(true);
+        long before = System.currentTimeMillis();
+        long time = clock.read();
+        assertTrue(time >= before && time <= System.currentTimeMillis());
+    }
+
+    @Test
+    public void testReadCachedTimeInTickMode() {
+        TimeUtil clock = new TimeUtil(true);
+        clock.check(0);
+        read(clock, TimeUtil.TICK_READ_QPS_THRESHOLD * INTERVAL / 1000);
+        assertEquals(ClockMode.TICK, clock.check(INTERVAL));
+        // The time cached when switching to the tick mode.
+        assertEquals(INTERVAL, clock.read());
+        clock.tick(INTERVAL + 1);
+        assertEquals(INTERVAL + 1, clock.read());
+
+        assertEquals(ClockMode.DIRECT, clock.check(INTERVAL * 2));
+        long before = System.currentTimeMillis();
+        long time = clock.read();
+        assertTrue(time >= before && time <= System.currentTimeMillis());
+    }
+}
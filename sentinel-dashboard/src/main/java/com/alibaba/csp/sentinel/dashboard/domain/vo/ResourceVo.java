@@ -41,6 +41,7 @@ public class ResourceVo {
     private Long oneMinuteBlock;
     private Long oneMinuteException;
     private Long oneMinuteTotal;
+    private Long originEvictedCount;
 
     private boolean visible = true;
 
@@ -67,6 +68,7 @@ public class ResourceVo {
             vo.oneMinuteBlock = nodeVo.getOneMinuteBlock();
             vo.oneMinuteException = nodeVo.getOneMinuteException();
             vo.oneMinuteTotal = nodeVo.getOneMinuteTotal();
+            vo.originEvictedCount = nodeVo.getOriginEvictedCount();
             list.add(vo);
         }
         return list;
@@ -226,6 +228,14 @@ public class ResourceVo {
         this.oneMinuteTotal = oneMinuteTotal;
     }
 
+    public Long getOriginEvictedCount() {
+        return originEvictedCount;
+    }
+
+    public void setOriginEvictedCount(Long originEvictedCount) {
+        this.originEvictedCount = originEvictedCount;
+    }
+
     public boolean isVisible() {
         return visible;
     }
@@ -33,8 +33,10 @@ import com.alibaba.csp.sentinel.cluster.client.TokenClientProvider;
 import com.alibaba.csp.sentinel.cluster.server.EmbeddedClusterTokenServerProvider;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.DeferredWait;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.slots.statistic.cache.CacheMap;
+import com.alibaba.csp.sentinel.slots.statistic.sketch.HeavyHitterCounter;
 import com.alibaba.csp.sentinel.util.TimeUtil;
 
 /**
@@ -126,11 +128,12 @@ public final class ParamFlowChecker {
 
     static boolean passDefaultLocalCheck(ResourceWrapper resourceWrapper, ParamFlowRule rule, int acquireCount,
                                          Object value) {
+        if (ParamFlowRuleUtil.isSketchMetricRule(rule)) {
+            return passSketchLocalCheck(resourceWrapper, rule, acquireCount, value);
+        }
         ParameterMetric metric = getParameterMetric(resourceWrapper);
-        CacheMap<Object, AtomicLong> tokenCounters = metric == null ? null : metric.getRuleTokenCounter(rule);
-        CacheMap<Object, AtomicLong> timeCounters = metric == null ? null : metric.getRuleTimeCounter(rule);
-
-        if (tokenCounters == null || timeCounters == null) {
+        CacheMap<Object, ParamTokenBucket> tokenBuckets = metric == null ? null : metric.getRuleTokenBucket(rule);
+        if (tokenBuckets == null) {
             return true;
         }
 
@@ -150,55 +153,45 @@ public final class ParamFlowChecker {
             return false;
         }
 
-        while (true) {
-            long currentTime = TimeUtil.currentTimeMillis();
-
-            AtomicLong lastAddTokenTime = timeCounters.putIfAbsent(value, new AtomicLong(currentTime));
-            if (lastAddTokenTime == null) {
-                // Token never added, just replenish the tokens and consume {@code acquireCount} immediately.
-                tokenCounters.putIfAbsent(value, new AtomicLong(maxCount - acquireCount));
+        long currentTime = TimeUtil.currentTimeMillis();
+        ParamTokenBucket tokenBucket = tokenBuckets.get(value);
+        if (tokenBucket == null) {
+            // Token never added, just replenish the tokens and consume {@code acquireCount} immediately.
+            tokenBucket = tokenBuckets.putIfAbsent(value, new ParamTokenBucket(maxCount - acquireCount, currentTime));
+            if (tokenBucket == null) {
                 return true;
             }
+        }
+        return tokenBucket.tryAcquire(acquireCount, tokenCount, maxCount, rule.getDurationInSec() * 1000,
+            currentTime);
+    }
 
-            // Calculate the time duration since last token was added.
-            long passTime = currentTime - lastAddTokenTime.get();
-            // A simplified token bucket algorithm that will replenish the tokens only when statistic window has passed.
-            if (passTime > rule.getDurationInSec() * 1000) {
-                AtomicLong oldQps = tokenCounters.putIfAbsent(value, new AtomicLong(maxCount - acquireCount));
-                if (oldQps == null) {
-                    // Might not be accurate here.
-                    lastAddTokenTime.set(currentTime);
-                    return true;
-                } else {
-                    long restQps = oldQps.get();
-                    long toAddCount = (passTime * tokenCount) / (rule.getDurationInSec() * 1000);
-                    long newQps = toAddCount + restQps > maxCount ? (maxCount - acquireCount)
-                        : (restQps + toAddCount - acquireCount);
+    /**
+     * Check with the sketch statistics, which admit at most {@code count + burstCount} per value in each
+     * fixed window of {@code durationInSec}.
+     */
+    static boolean passSketchLocalCheck(ResourceWrapper resourceWrapper, ParamFlowRule rule, int acquireCount,
+                                        Object value) {
+        ParameterMetric metric = getParameterMetric(resourceWrapper);
+        HeavyHitterCounter sketchCounter = metric == null ? null : metric.getRuleSketchCounter(rule);
+        if (sketchCounter == null) {
+            return true;
+        }
 
-                    if (newQps < 0) {
-                        return false;
-                    }
-                    if (oldQps.compareAndSet(restQps, newQps)) {
-                        lastAddTokenTime.set(currentTime);
-                        return true;
-                    }
-                    Thread.yield();
-                }
-            } else {
-                AtomicLong oldQps = tokenCounters.get(value);
-                if (oldQps != null) {
-                    long oldQpsValue = oldQps.get();
-                    if (oldQpsValue - acquireCount >= 0) {
-                        if (oldQps.compareAndSet(oldQpsValue, oldQpsValue - acquireCount)) {
-                            return true;
-                        }
-                    } else {
-                        return false;
-                    }
-                }
-                Thread.yield();
-            }
+        long tokenCount = (long)rule.getCount();
+        Integer itemThreshold = rule.retrieveExclusiveItemCount(value);
+        if (itemThreshold != null) {
+            tokenCount = itemThreshold;
+        }
+        if (tokenCount == 0) {
+            return false;
+        }
+
+        long maxCount = tokenCount + rule.getBurstCount();
+        if (acquireCount > maxCount) {
+            return false;
         }
+        return sketchCounter.tryAcquire(value, acquireCount, maxCount, TimeUtil.currentTimeMillis());
     }
 
     static boolean passThrottleLocalCheck(ResourceWrapper resourceWrapper, ParamFlowRule rule, int acquireCount,
@@ -237,10 +230,14 @@ public final class ParamFlowChecker {
                     long waitTime = expectedTime - currentTime;
                     if (waitTime > 0) {
                         lastPastTimeRef.set(expectedTime);
-                        try {
-                            TimeUnit.MILLISECONDS.sleep(waitTime);
-                        } catch (InterruptedException e) {
-                            RecordLog.warn("passThrottleLocalCheck: wait interrupted", e);
+                        // Hand off the waiting to the caller if possible (e.g. delayed with a timer in reactive
+                        // gateways), rather than blocking current thread.
+                        if (!DeferredWait.defer(waitTime)) {
+                            try {
+                                TimeUnit.MILLISECONDS.sleep(waitTime);
+                            } catch (InterruptedException e) {
+                                RecordLog.warn("passThrottleLocalCheck: wait interrupted", e);
+                            }
                         }
                     }
                     return true;
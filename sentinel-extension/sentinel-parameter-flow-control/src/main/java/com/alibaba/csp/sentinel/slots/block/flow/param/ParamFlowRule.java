@@ -82,6 +82,12 @@ public class ParamFlowRule extends AbstractRule {
      */
     private ParamFlowClusterConfig clusterConfig;
 
+    /**
+     * Type of the parameter statistics (0: exact, 1: Count-Min Sketch with exact heavy hitters).
+     * The sketch only applies to QPS rules with the default control behavior (since 1.8.1).
+     */
+    private int metricType = RuleConstant.PARAM_METRIC_TYPE_EXACT;
+
     public int getControlBehavior() {
         return controlBehavior;
     }
@@ -188,6 +194,15 @@ public class ParamFlowRule extends AbstractRule {
         return this;
     }
 
+    public int getMetricType() {
+        return metricType;
+    }
+
+    public ParamFlowRule setMetricType(int metricType) {
+        this.metricType = metricType;
+        return this;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) { return true; }
@@ -203,6 +218,7 @@ public class ParamFlowRule extends AbstractRule {
         if (burstCount != that.burstCount) { return false; }
         if (durationInSec != that.durationInSec) { return false; }
         if (clusterMode != that.clusterMode) { return false; }
+        if (metricType != that.metricType) { return false; }
         if (!Objects.equals(paramIdx, that.paramIdx)) { return false; }
         if (!Objects.equals(paramFlowItemList, that.paramFlowItemList)) { return false; }
         return Objects.equals(clusterConfig, that.clusterConfig);
@@ -223,6 +239,7 @@ public class ParamFlowRule extends AbstractRule {
         result = 31 * result + (paramFlowItemList != null ? paramFlowItemList.hashCode() : 0);
         result = 31 * result + (clusterMode ? 1 : 0);
         result = 31 * result + (clusterConfig != null ? clusterConfig.hashCode() : 0);
+        result = 31 * result + metricType;
         return result;
     }
 
@@ -239,6 +256,7 @@ public class ParamFlowRule extends AbstractRule {
             ", paramFlowItemList=" + paramFlowItemList +
             ", clusterMode=" + clusterMode +
             ", clusterConfig=" + clusterConfig +
+            ", metricType=" + metricType +
             '}';
     }
 }
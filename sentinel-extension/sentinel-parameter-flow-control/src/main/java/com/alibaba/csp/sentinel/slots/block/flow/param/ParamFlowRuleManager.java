@@ -24,6 +24,7 @@ import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.property.DynamicSentinelProperty;
 import com.alibaba.csp.sentinel.property.PropertyListener;
 import com.alibaba.csp.sentinel.property.SentinelProperty;
+import com.alibaba.csp.sentinel.slotchain.SlotChainRefresher;
 import com.alibaba.csp.sentinel.util.AssertUtil;
 
 /**
@@ -105,6 +106,7 @@ public final class ParamFlowRuleManager {
                 PARAM_FLOW_RULES.clear();
                 PARAM_FLOW_RULES.putAll(rules);
             }
+            SlotChainRefresher.refreshAll();
             RecordLog.info("[ParamFlowRuleManager] Parameter flow rules received: {}", PARAM_FLOW_RULES);
         }
 
@@ -115,6 +117,7 @@ public final class ParamFlowRuleManager {
                 PARAM_FLOW_RULES.clear();
                 PARAM_FLOW_RULES.putAll(rules);
             }
+            SlotChainRefresher.refreshAll();
             RecordLog.info("[ParamFlowRuleManager] Parameter flow rules received: {}", PARAM_FLOW_RULES);
         }
 
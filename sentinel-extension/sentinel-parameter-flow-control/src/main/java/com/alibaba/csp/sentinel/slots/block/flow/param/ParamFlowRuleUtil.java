@@ -48,7 +48,26 @@ public final class ParamFlowRuleUtil {
             && rule.getGrade() >= 0 && rule.getParamIdx() != null
             && rule.getBurstCount() >= 0 && rule.getControlBehavior() >= 0
             && rule.getDurationInSec() > 0 && rule.getMaxQueueingTimeMs() >= 0
-            && checkCluster(rule);
+            && checkMetricType(rule.getMetricType()) && checkCluster(rule);
+    }
+
+    private static boolean checkMetricType(int metricType) {
+        return metricType == RuleConstant.PARAM_METRIC_TYPE_EXACT
+            || metricType == RuleConstant.PARAM_METRIC_TYPE_SKETCH;
+    }
+
+    /**
+     * Check whether the parameter statistics of the rule are kept in a Count-Min Sketch. The sketch only applies to
+     * QPS rules with the default control behavior, other rules fall back to exact statistics.
+     *
+     * @param rule valid parameter rule
+     * @return true if the sketch statistics apply to the rule, otherwise false
+     * @since 1.8.1
+     */
+    public static boolean isSketchMetricRule(/*@Valid*/ ParamFlowRule rule) {
+        return rule.getMetricType() == RuleConstant.PARAM_METRIC_TYPE_SKETCH
+            && rule.getGrade() == RuleConstant.FLOW_GRADE_QPS
+            && rule.getControlBehavior() != RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER;
     }
 
     private static boolean checkCluster(/*@PreChecked*/ ParamFlowRule rule) {
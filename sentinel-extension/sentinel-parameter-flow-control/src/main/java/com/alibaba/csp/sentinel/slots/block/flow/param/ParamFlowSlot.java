@@ -16,9 +16,12 @@
 package com.alibaba.csp.sentinel.slots.block.flow.param;
 
 import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.metric.overhead.OverheadEvent;
+import com.alibaba.csp.sentinel.metric.overhead.OverheadRecorder;
 import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.slotchain.AbstractLinkedProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slotchain.RuleCheckingSlot;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
 import com.alibaba.csp.sentinel.spi.SpiOrder;
 
@@ -32,7 +35,7 @@ import java.util.List;
  * @since 0.2.0
  */
 @SpiOrder(-3000)
-public class ParamFlowSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
+public class ParamFlowSlot extends AbstractLinkedProcessorSlot<DefaultNode> implements RuleCheckingSlot {
 
     @Override
     public void entry(Context context, ResourceWrapper resourceWrapper, DefaultNode node, int count,
@@ -51,6 +54,11 @@ public class ParamFlowSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
         fireExit(context, resourceWrapper, count, args);
     }
 
+    @Override
+    public boolean hasRules(ResourceWrapper resourceWrapper) {
+        return ParamFlowRuleManager.hasRules(resourceWrapper.getName());
+    }
+
     void applyRealParamIdx(/*@NonNull*/ ParamFlowRule rule, int length) {
         int paramIdx = rule.getParamIdx();
         if (paramIdx < 0) {
@@ -78,6 +86,7 @@ public class ParamFlowSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
             // Initialize the parameter metrics.
             ParameterMetricStorage.initParamMetricsFor(resourceWrapper, rule);
 
+            OverheadRecorder.addEvent(OverheadEvent.PARAM_FLOW_RULE_CHECK);
             if (!ParamFlowChecker.passCheck(resourceWrapper, rule, count, args)) {
                 String triggeredParam = "";
                 if (args.length > rule.getParamIdx()) {
@@ -0,0 +1,107 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.param;
+
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * <p>Token bucket of a parameter value for QPS rules of the default control behavior.</p>
+ * <p>The rest tokens and the last refill time are kept in one immutable state, so that refilling and
+ * acquiring tokens is a single CAS, and concurrent requests won't be over-admitted.</p>
+ *
+ * @since 1.8.1
+ */
+public final class ParamTokenBucket {
+
+    private static final AtomicReferenceFieldUpdater<ParamTokenBucket, State> STATE_UPDATER
+        = AtomicReferenceFieldUpdater.newUpdater(ParamTokenBucket.class, State.class, "state");
+
+    private volatile State state;
+
+    /**
+     * @param restTokens     initial rest tokens
+     * @param lastRefillTime initial refill time in milliseconds
+     */
+    public ParamTokenBucket(long restTokens, long lastRefillTime) {
+        this.state = new State(restTokens, lastRefillTime);
+    }
+
+    /**
+     * <p>Try to acquire tokens from the bucket.</p>
+     * <p>A simplified token bucket algorithm that replenishes the tokens only when the statistic window
+     * ({@code durationMs}) has passed since the last refill.</p>
+     *
+     * @param acquireCount count to acquire
+     * @param tokenCount   tokens produced per {@code durationMs}
+     * @param maxCount     capacity of the bucket
+     * @param durationMs   length of the statistic window in milliseconds
+     * @param currentTime  current time in milliseconds
+     * @return true if acquired, otherwise false
+     */
+    public boolean tryAcquire(int acquireCount, long tokenCount, long maxCount, long durationMs, long currentTime) {
+        while (true) {
+            State current = this.state;
+            long restTokens = current.restTokens;
+            long refillTime = current.lastRefillTime;
+
+            long passTime = currentTime - refillTime;
+            if (passTime > durationMs) {
+                if (passTime > Long.MAX_VALUE / tokenCount) {
+                    // Avoid overflow, as the bucket must have been full.
+                    restTokens = maxCount;
+                } else {
+                    long toAddCount = (passTime * tokenCount) / durationMs;
+                    restTokens = toAddCount + restTokens > maxCount ? maxCount : restTokens + toAddCount;
+                }
+                refillTime = currentTime;
+            }
+            if (restTokens < acquireCount) {
+                return false;
+            }
+            if (STATE_UPDATER.compareAndSet(this, current, new State(restTokens - acquireCount, refillTime))) {
+                return true;
+            }
+        }
+    }
+
+    public long getRestTokens() {
+        return state.restTokens;
+    }
+
+    public long getLastRefillTime() {
+        return state.lastRefillTime;
+    }
+
+    @Override
+    public String toString() {
+        State current = this.state;
+        return "ParamTokenBucket{" +
+            "restTokens=" + current.restTokens +
+            ", lastRefillTime=" + current.lastRefillTime +
+            '}';
+    }
+
+    private static final class State {
+
+        private final long restTokens;
+        private final long lastRefillTime;
+
+        private State(long restTokens, long lastRefillTime) {
+            this.restTokens = restTokens;
+            this.lastRefillTime = lastRefillTime;
+        }
+    }
+}
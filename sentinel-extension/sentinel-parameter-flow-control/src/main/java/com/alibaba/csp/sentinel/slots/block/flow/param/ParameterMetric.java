@@ -16,15 +16,20 @@
 package com.alibaba.csp.sentinel.slots.block.flow.param;
 
 import java.lang.reflect.Array;
+import java.util.AbstractMap;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.slots.statistic.cache.CacheMap;
+import com.alibaba.csp.sentinel.slots.statistic.cache.ConcurrentLongCounterMap;
 import com.alibaba.csp.sentinel.slots.statistic.cache.ConcurrentLinkedHashMapWrapper;
+import com.alibaba.csp.sentinel.slots.statistic.sketch.HeavyHitterCounter;
 
 /**
  * Metrics for frequent ("hot spot") parameters.
@@ -47,22 +52,65 @@ public class ParameterMetric {
      */
     private final Map<ParamFlowRule, CacheMap<Object, AtomicLong>> ruleTimeCounters = new HashMap<>();
     /**
-     * Format: (rule, (value, tokenCounter))
+     * Format: (rule, (value, tokenBucket)), for QPS rules of default control behavior.
      *
-     * @since 1.6.0
+     * @since 1.8.1
+     */
+    private final Map<ParamFlowRule, CacheMap<Object, ParamTokenBucket>> ruleTokenBuckets = new HashMap<>();
+    /**
+     * Format: (rule, sketchCounter), only for the rules of sketch statistics.
+     *
+     * @since 1.8.1
      */
-    private final Map<ParamFlowRule, CacheMap<Object, AtomicLong>> ruleTokenCounter = new HashMap<>();
+    private final Map<ParamFlowRule, HeavyHitterCounter> ruleSketchCounters = new HashMap<>();
     private final Map<Integer, CacheMap<Object, AtomicInteger>> threadCountMap = new HashMap<>();
+    /**
+     * Format: (paramIdx, (value, threadCount)), for {@code int} and {@code long} parameter values,
+     * which are counted without boxed keys or {@code AtomicInteger} wrappers. Note that an {@code int}
+     * value and a {@code long} value of the same number share the same thread count.
+     *
+     * @since 1.8.1
+     */
+    private final Map<Integer, ConcurrentLongCounterMap> primitiveThreadCountMap = new HashMap<>();
 
     /**
-     * Get the token counter for given parameter rule.
+     * Get the token buckets for given parameter rule.
      *
      * @param rule valid parameter rule
-     * @return the associated token counter
+     * @return the associated token buckets
+     * @since 1.8.1
+     */
+    public CacheMap<Object, ParamTokenBucket> getRuleTokenBucket(ParamFlowRule rule) {
+        return ruleTokenBuckets.get(rule);
+    }
+
+    /**
+     * Get a snapshot of the rest tokens for given parameter rule.
+     *
+     * @param rule valid parameter rule
+     * @return a snapshot of (value, restTokens), or null if absent
      * @since 1.6.0
+     * @deprecated the token state is kept in {@link ParamTokenBucket} since 1.8.1, so modifying the returned
+     * map has no effect on flow control; use {@link #getRuleTokenBucket(ParamFlowRule)} instead
      */
+    @Deprecated
     public CacheMap<Object, AtomicLong> getRuleTokenCounter(ParamFlowRule rule) {
-        return ruleTokenCounter.get(rule);
+        return tokenCounterOf(ruleTokenBuckets.get(rule));
+    }
+
+    private static CacheMap<Object, AtomicLong> tokenCounterOf(CacheMap<Object, ParamTokenBucket> tokenBuckets) {
+        if (tokenBuckets == null) {
+            return null;
+        }
+        CacheMap<Object, AtomicLong> tokenCounter = new ConcurrentLinkedHashMapWrapper<Object, AtomicLong>(
+            Math.max(tokenBuckets.size(), 1));
+        for (Object value : tokenBuckets.keySet(true)) {
+            ParamTokenBucket tokenBucket = tokenBuckets.get(value);
+            if (tokenBucket != null) {
+                tokenCounter.put(value, new AtomicLong(tokenBucket.getRestTokens()));
+            }
+        }
+        return tokenCounter;
     }
 
     /**
@@ -76,46 +124,86 @@ public class ParameterMetric {
         return ruleTimeCounters.get(rule);
     }
 
+    /**
+     * Get the sketch counter for given parameter rule.
+     *
+     * @param rule valid parameter rule
+     * @return the associated sketch counter, or null if the rule keeps exact statistics
+     * @since 1.8.1
+     */
+    public HeavyHitterCounter getRuleSketchCounter(ParamFlowRule rule) {
+        return ruleSketchCounters.get(rule);
+    }
+
     public void clear() {
         synchronized (lock) {
             threadCountMap.clear();
+            primitiveThreadCountMap.clear();
             ruleTimeCounters.clear();
-            ruleTokenCounter.clear();
+            ruleTokenBuckets.clear();
+            ruleSketchCounters.clear();
         }
     }
 
     public void clearForRule(ParamFlowRule rule) {
         synchronized (lock) {
             ruleTimeCounters.remove(rule);
-            ruleTokenCounter.remove(rule);
+            ruleTokenBuckets.remove(rule);
+            ruleSketchCounters.remove(rule);
             threadCountMap.remove(rule.getParamIdx());
+            primitiveThreadCountMap.remove(rule.getParamIdx());
         }
     }
 
     public void initialize(ParamFlowRule rule) {
-        if (!ruleTimeCounters.containsKey(rule)) {
+        if (ParamFlowRuleUtil.isSketchMetricRule(rule)) {
+            initializeSketch(rule);
+        } else {
+            initializeExact(rule);
+        }
+
+        if (!threadCountMap.containsKey(rule.getParamIdx())) {
             synchronized (lock) {
-                if (ruleTimeCounters.get(rule) == null) {
-                    long size = Math.min(BASE_PARAM_MAX_CAPACITY * rule.getDurationInSec(), TOTAL_MAX_CAPACITY);
-                    ruleTimeCounters.put(rule, new ConcurrentLinkedHashMapWrapper<Object, AtomicLong>(size));
+                if (threadCountMap.get(rule.getParamIdx()) == null) {
+                    primitiveThreadCountMap.put(rule.getParamIdx(),
+                        new ConcurrentLongCounterMap(THREAD_COUNT_MAX_CAPACITY));
+                    threadCountMap.put(rule.getParamIdx(),
+                        new ConcurrentLinkedHashMapWrapper<Object, AtomicInteger>(THREAD_COUNT_MAX_CAPACITY));
                 }
             }
         }
+    }
 
-        if (!ruleTokenCounter.containsKey(rule)) {
+    private void initializeSketch(ParamFlowRule rule) {
+        if (!ruleSketchCounters.containsKey(rule)) {
             synchronized (lock) {
-                if (ruleTokenCounter.get(rule) == null) {
-                    long size = Math.min(BASE_PARAM_MAX_CAPACITY * rule.getDurationInSec(), TOTAL_MAX_CAPACITY);
-                    ruleTokenCounter.put(rule, new ConcurrentLinkedHashMapWrapper<Object, AtomicLong>(size));
+                if (ruleSketchCounters.get(rule) == null) {
+                    ruleSketchCounters.put(rule, new HeavyHitterCounter(rule.getDurationInSec() * 1000));
                 }
             }
         }
+    }
 
-        if (!threadCountMap.containsKey(rule.getParamIdx())) {
+    private static long capacityOf(ParamFlowRule rule) {
+        return Math.min(BASE_PARAM_MAX_CAPACITY * rule.getDurationInSec(), TOTAL_MAX_CAPACITY);
+    }
+
+    private void initializeExact(ParamFlowRule rule) {
+        long size = capacityOf(rule);
+        if (!ruleTimeCounters.containsKey(rule)) {
             synchronized (lock) {
-                if (threadCountMap.get(rule.getParamIdx()) == null) {
-                    threadCountMap.put(rule.getParamIdx(),
-                        new ConcurrentLinkedHashMapWrapper<Object, AtomicInteger>(THREAD_COUNT_MAX_CAPACITY));
+                if (ruleTimeCounters.get(rule) == null) {
+                    ruleTimeCounters.put(rule, new ConcurrentLinkedHashMapWrapper<Object, AtomicLong>(size));
+                }
+            }
+        }
+
+        if (rule.getGrade() == RuleConstant.FLOW_GRADE_QPS
+            && rule.getControlBehavior() != RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER
+            && !ruleTokenBuckets.containsKey(rule)) {
+            synchronized (lock) {
+                if (ruleTokenBuckets.get(rule) == null) {
+                    ruleTokenBuckets.put(rule, new ConcurrentLinkedHashMapWrapper<Object, ParamTokenBucket>(size));
                 }
             }
         }
@@ -133,47 +221,24 @@ public class ParameterMetric {
                 if (threadCount == null) {
                     continue;
                 }
+                ConcurrentLongCounterMap primitiveThreadCount = primitiveThreadCountMap.get(index);
 
                 Object arg = args[index];
                 if (arg == null) {
                     continue;
                 }
                 if (Collection.class.isAssignableFrom(arg.getClass())) {
-
                     for (Object value : ((Collection)arg)) {
-                        AtomicInteger oldValue = threadCount.putIfAbsent(value, new AtomicInteger());
-                        if (oldValue != null) {
-                            int currentValue = oldValue.decrementAndGet();
-                            if (currentValue <= 0) {
-                                threadCount.remove(value);
-                            }
-                        }
-
+                        decreaseThreadCount(threadCount, primitiveThreadCount, value);
                     }
                 } else if (arg.getClass().isArray()) {
                     int length = Array.getLength(arg);
                     for (int i = 0; i < length; i++) {
-                        Object value = Array.get(arg, i);
-                        AtomicInteger oldValue = threadCount.putIfAbsent(value, new AtomicInteger());
-                        if (oldValue != null) {
-                            int currentValue = oldValue.decrementAndGet();
-                            if (currentValue <= 0) {
-                                threadCount.remove(value);
-                            }
-                        }
-
+                        decreaseThreadCount(threadCount, primitiveThreadCount, Array.get(arg, i));
                     }
                 } else {
-                    AtomicInteger oldValue = threadCount.putIfAbsent(arg, new AtomicInteger());
-                    if (oldValue != null) {
-                        int currentValue = oldValue.decrementAndGet();
-                        if (currentValue <= 0) {
-                            threadCount.remove(arg);
-                        }
-                    }
-
+                    decreaseThreadCount(threadCount, primitiveThreadCount, arg);
                 }
-
             }
         } catch (Throwable e) {
             RecordLog.warn("[ParameterMetric] Param exception", e);
@@ -192,53 +257,67 @@ public class ParameterMetric {
                 if (threadCount == null) {
                     continue;
                 }
+                ConcurrentLongCounterMap primitiveThreadCount = primitiveThreadCountMap.get(index);
 
                 Object arg = args[index];
-
                 if (arg == null) {
                     continue;
                 }
-
                 if (Collection.class.isAssignableFrom(arg.getClass())) {
                     for (Object value : ((Collection)arg)) {
-                        AtomicInteger oldValue = threadCount.putIfAbsent(value, new AtomicInteger());
-                        if (oldValue != null) {
-                            oldValue.incrementAndGet();
-                        } else {
-                            threadCount.put(value, new AtomicInteger(1));
-                        }
-
+                        addThreadCount(threadCount, primitiveThreadCount, value);
                     }
                 } else if (arg.getClass().isArray()) {
                     int length = Array.getLength(arg);
                     for (int i = 0; i < length; i++) {
-                        Object value = Array.get(arg, i);
-                        AtomicInteger oldValue = threadCount.putIfAbsent(value, new AtomicInteger());
-                        if (oldValue != null) {
-                            oldValue.incrementAndGet();
-                        } else {
-                            threadCount.put(value, new AtomicInteger(1));
-                        }
-
+                        addThreadCount(threadCount, primitiveThreadCount, Array.get(arg, i));
                     }
                 } else {
-                    AtomicInteger oldValue = threadCount.putIfAbsent(arg, new AtomicInteger());
-                    if (oldValue != null) {
-                        oldValue.incrementAndGet();
-                    } else {
-                        threadCount.put(arg, new AtomicInteger(1));
-                    }
-
+                    addThreadCount(threadCount, primitiveThreadCount, arg);
                 }
-
             }
-
         } catch (Throwable e) {
             RecordLog.warn("[ParameterMetric] Param exception", e);
         }
     }
 
+    private static void addThreadCount(CacheMap<Object, AtomicInteger> threadCount,
+                                       ConcurrentLongCounterMap primitiveThreadCount, Object value) {
+        if (primitiveThreadCount != null && isPrimitiveKey(value)) {
+            primitiveThreadCount.increment(((Number)value).longValue());
+            return;
+        }
+        AtomicInteger count = threadCount.get(value);
+        if (count == null) {
+            count = threadCount.putIfAbsent(value, new AtomicInteger(1));
+            if (count == null) {
+                return;
+            }
+        }
+        count.incrementAndGet();
+    }
+
+    private static void decreaseThreadCount(CacheMap<Object, AtomicInteger> threadCount,
+                                            ConcurrentLongCounterMap primitiveThreadCount, Object value) {
+        if (primitiveThreadCount != null && isPrimitiveKey(value)) {
+            primitiveThreadCount.decrement(((Number)value).longValue());
+            return;
+        }
+        AtomicInteger count = threadCount.get(value);
+        if (count != null && count.decrementAndGet() <= 0) {
+            threadCount.remove(value);
+        }
+    }
+
+    private static boolean isPrimitiveKey(Object value) {
+        return value instanceof Long || value instanceof Integer;
+    }
+
     public long getThreadCount(int index, Object value) {
+        if (isPrimitiveKey(value)) {
+            ConcurrentLongCounterMap primitiveThreadCount = primitiveThreadCountMap.get(index);
+            return primitiveThreadCount == null ? 0 : primitiveThreadCount.get(((Number)value).longValue());
+        }
         CacheMap<Object, AtomicInteger> cacheMap = threadCountMap.get(index);
         if (cacheMap == null) {
             return 0;
@@ -249,19 +328,53 @@ public class ParameterMetric {
     }
 
     /**
-     * Get the token counter map. Package-private for test.
+     * Get the token bucket map. Package-private for test.
+     *
+     * @return the token bucket map
+     */
+    Map<ParamFlowRule, CacheMap<Object, ParamTokenBucket>> getRuleTokenBucketMap() {
+        return ruleTokenBuckets;
+    }
+
+    /**
+     * Get a view of the token buckets as the token counters before 1.8.1, where putting a rule sets up
+     * empty token buckets for the rule. Package-private for test.
      *
-     * @return the token counter map
+     * @return a view of the token bucket map
      */
     Map<ParamFlowRule, CacheMap<Object, AtomicLong>> getRuleTokenCounterMap() {
-        return ruleTokenCounter;
+        return new AbstractMap<ParamFlowRule, CacheMap<Object, AtomicLong>>() {
+            @Override
+            public CacheMap<Object, AtomicLong> put(ParamFlowRule rule, CacheMap<Object, AtomicLong> counter) {
+                CacheMap<Object, ParamTokenBucket> previous = ruleTokenBuckets.put(rule,
+                    new ConcurrentLinkedHashMapWrapper<Object, ParamTokenBucket>(capacityOf(rule)));
+                return tokenCounterOf(previous);
+            }
+
+            @Override
+            public Set<Entry<ParamFlowRule, CacheMap<Object, AtomicLong>>> entrySet() {
+                Map<ParamFlowRule, CacheMap<Object, AtomicLong>> snapshot = new HashMap<>();
+                for (Map.Entry<ParamFlowRule, CacheMap<Object, ParamTokenBucket>> e : ruleTokenBuckets.entrySet()) {
+                    snapshot.put(e.getKey(), tokenCounterOf(e.getValue()));
+                }
+                return snapshot.entrySet();
+            }
+        };
     }
 
     Map<Integer, CacheMap<Object, AtomicInteger>> getThreadCountMap() {
         return threadCountMap;
     }
 
+    Map<Integer, ConcurrentLongCounterMap> getPrimitiveThreadCountMap() {
+        return primitiveThreadCountMap;
+    }
+
     Map<ParamFlowRule, CacheMap<Object, AtomicLong>> getRuleTimeCounterMap() {
         return ruleTimeCounters;
     }
+
+    Map<ParamFlowRule, HeavyHitterCounter> getRuleSketchCounterMap() {
+        return ruleSketchCounters;
+    }
 }
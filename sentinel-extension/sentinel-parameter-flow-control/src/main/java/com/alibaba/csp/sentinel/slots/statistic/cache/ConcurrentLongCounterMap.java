@@ -0,0 +1,239 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>A concurrent map from primitive {@code long} keys to {@code int} counters with bounded capacity,
+ * so neither the keys nor the counters are boxed.</p>
+ * <p>
+ * It's an open-addressing table where a key can only be placed within a small window of slots
+ * from its hash. Updating the counter of an existing key is lock-free (a CAS on the slot state),
+ * while placing a new key happens under a lock. When all slots in the window are taken, one of them
+ * is evicted in a CLOCK-like way (approximate LRU): idle (zero-count) and unreferenced slots go first,
+ * and the referenced bits of the other slots in the window are cleared (second chance).
+ * </p>
+ * <p>
+ * The state of each slot packs the slot version (upper 31 bits), the referenced bit and the count
+ * (lower 32 bits). The version is odd while the key of the slot is being replaced, so that a key
+ * is never paired with the counter of another key.
+ * </p>
+ *
+ * @since 1.8.1
+ */
+public final class ConcurrentLongCounterMap {
+
+    private static final int PROBE_WINDOW = 8;
+
+    private static final long COUNT_MASK = 0xFFFFFFFFL;
+    private static final long REFERENCED_BIT = 1L << 32;
+    private static final int VERSION_SHIFT = 33;
+    private static final long VERSION_MASK = (1L << (64 - VERSION_SHIFT)) - 1;
+
+    private final int mask;
+    private final AtomicLongArray keys;
+    private final AtomicLongArray states;
+
+    /**
+     * @param capacity max amount of keys, which will be rounded up to a power of 2
+     */
+    public ConcurrentLongCounterMap(int capacity) {
+        AssertUtil.isTrue(capacity > 0 && capacity <= (1 << 30), "capacity should be in (0, 2^30]");
+        int size = Math.max(PROBE_WINDOW, Integer.highestOneBit(capacity - 1) << 1);
+        this.mask = size - 1;
+        this.keys = new AtomicLongArray(size);
+        this.states = new AtomicLongArray(size);
+    }
+
+    /**
+     * Increment the counter of given key by 1. The key will be placed if absent.
+     *
+     * @param key the key
+     * @return the count after incremented
+     */
+    public int increment(long key) {
+        int base = indexOf(key);
+        for (int i = 0; i < PROBE_WINDOW; i++) {
+            int index = (base + i) & mask;
+            int count = tryIncrement(index, key);
+            if (count > 0) {
+                return count;
+            }
+        }
+        return placeOrIncrement(key, base);
+    }
+
+    /**
+     * Decrement the counter of given key by 1, if the key is present and the count is positive.
+     *
+     * @param key the key
+     * @return the count after decremented, or 0 if the key is absent
+     */
+    public int decrement(long key) {
+        int base = indexOf(key);
+        for (int i = 0; i < PROBE_WINDOW; i++) {
+            int index = (base + i) & mask;
+            while (true) {
+                long state = states.get(index);
+                if (!isPublished(state) || keys.get(index) != key) {
+                    break;
+                }
+                long count = state & COUNT_MASK;
+                if (count == 0) {
+                    return 0;
+                }
+                if (states.compareAndSet(index, state, state - 1)) {
+                    return (int)(count - 1);
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Get the count of given key.
+     *
+     * @param key the key
+     * @return the count, or 0 if the key is absent
+     */
+    public int get(long key) {
+        int base = indexOf(key);
+        for (int i = 0; i < PROBE_WINDOW; i++) {
+            int index = (base + i) & mask;
+            long state = states.get(index);
+            if (!isPublished(state) || keys.get(index) != key) {
+                continue;
+            }
+            long recheck = states.get(index);
+            if (versionOf(recheck) == versionOf(state)) {
+                return (int)(recheck & COUNT_MASK);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Get the amount of keys with positive count. Note that this will scan the whole table.
+     *
+     * @return the amount of keys with positive count
+     */
+    public int size() {
+        int size = 0;
+        for (int i = 0; i <= mask; i++) {
+            long state = states.get(i);
+            if (isPublished(state) && (state & COUNT_MASK) > 0) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return max amount of keys in the map
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    private int tryIncrement(int index, long key) {
+        while (true) {
+            long state = states.get(index);
+            if (!isPublished(state) || keys.get(index) != key) {
+                return 0;
+            }
+            // The key is stable as long as the state (and the version) is not changed.
+            if (states.compareAndSet(index, state, (state + 1) | REFERENCED_BIT)) {
+                return (int)((state & COUNT_MASK) + 1);
+            }
+        }
+    }
+
+    private synchronized int placeOrIncrement(long key, int base) {
+        int victim = -1;
+        int victimRank = Integer.MAX_VALUE;
+        for (int i = 0; i < PROBE_WINDOW; i++) {
+            int index = (base + i) & mask;
+            // Check again, as the key might have been placed by another thread.
+            int count = tryIncrement(index, key);
+            if (count > 0) {
+                return count;
+            }
+            long state = states.get(index);
+            int rank = rankOf(state);
+            if (rank < victimRank) {
+                victim = index;
+                victimRank = rank;
+            }
+        }
+        // Give the referenced slots other than the victim a second chance.
+        for (int i = 0; i < PROBE_WINDOW; i++) {
+            int index = (base + i) & mask;
+            long state = states.get(index);
+            if (index != victim && (state & REFERENCED_BIT) != 0) {
+                states.compareAndSet(index, state, state & ~REFERENCED_BIT);
+            }
+        }
+
+        long state;
+        long writingVersion;
+        do {
+            state = states.get(victim);
+            writingVersion = (versionOf(state) + 1) & VERSION_MASK;
+        } while (!states.compareAndSet(victim, state, writingVersion << VERSION_SHIFT));
+        keys.set(victim, key);
+        long publishedVersion = (writingVersion + 1) & VERSION_MASK;
+        if (publishedVersion == 0) {
+            publishedVersion = 2;
+        }
+        states.set(victim, (publishedVersion << VERSION_SHIFT) | REFERENCED_BIT | 1);
+        return 1;
+    }
+
+    /**
+     * Rank of a slot to be evicted, the lower the earlier.
+     */
+    private static int rankOf(long state) {
+        if (state == 0) {
+            // Empty slot.
+            return 0;
+        }
+        int rank = (state & COUNT_MASK) == 0 ? 1 : 3;
+        return (state & REFERENCED_BIT) == 0 ? rank : rank + 1;
+    }
+
+    private static boolean isPublished(long state) {
+        long version = versionOf(state);
+        return version != 0 && (version & 1) == 0;
+    }
+
+    private static long versionOf(long state) {
+        return state >>> VERSION_SHIFT;
+    }
+
+    private int indexOf(long key) {
+        // MurmurHash3 64-bit finalizer.
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int)h & mask;
+    }
+}
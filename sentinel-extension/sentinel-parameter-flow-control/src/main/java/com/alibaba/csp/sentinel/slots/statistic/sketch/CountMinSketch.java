@@ -0,0 +1,138 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.sketch;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>A thread-safe Count-Min Sketch, which estimates the frequency of values in fixed memory
+ * ({@code depth * width} int counters), no matter how many distinct values there are.</p>
+ * <p>The estimation never undercounts a value, while it may overcount it by collisions. The error is
+ * bounded by {@code e * N / width} (where {@code N} is the total count) with probability
+ * {@code 1 - e^(-depth)}.</p>
+ *
+ * @since 1.8.1
+ */
+public class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final int mask;
+    private final AtomicIntegerArray counters;
+
+    /**
+     * @param depth amount of hash functions (rows)
+     * @param width amount of counters of each row, which will be rounded up to a power of 2
+     */
+    public CountMinSketch(int depth, int width) {
+        AssertUtil.isTrue(depth > 0, "depth should be positive");
+        AssertUtil.isTrue(width > 0 && width <= (1 << 30), "width should be in (0, 2^30]");
+        this.depth = depth;
+        this.width = width == 1 ? 1 : Integer.highestOneBit(width - 1) << 1;
+        this.mask = this.width - 1;
+        this.counters = new AtomicIntegerArray(depth * this.width);
+    }
+
+    /**
+     * Hash the value for the sketch.
+     *
+     * @param value a non-null value
+     * @return the hash of the value
+     */
+    public static int hash(Object value) {
+        return mix(value.hashCode());
+    }
+
+    /**
+     * Add the count of a value.
+     *
+     * @param hash  hash of the value, see {@link #hash(Object)}
+     * @param count count to add
+     * @return estimated count of the value after the add
+     */
+    public int add(int hash, int count) {
+        int min = Integer.MAX_VALUE;
+        int step = secondHash(hash);
+        for (int i = 0; i < depth; i++) {
+            int current = counters.addAndGet(indexOf(i, hash, step), count);
+            if (current < min) {
+                min = current;
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Estimate the count of a value.
+     *
+     * @param hash hash of the value, see {@link #hash(Object)}
+     * @return estimated count of the value
+     */
+    public int estimate(int hash) {
+        int min = Integer.MAX_VALUE;
+        int step = secondHash(hash);
+        for (int i = 0; i < depth; i++) {
+            int current = counters.get(indexOf(i, hash, step));
+            if (current < min) {
+                min = current;
+            }
+        }
+        return min;
+    }
+
+    public void clear() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0);
+        }
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the size of the counters in bytes
+     */
+    public long getMemorySize() {
+        return 4L * depth * width;
+    }
+
+    private int indexOf(int row, int hash, int step) {
+        // Double hashing (Kirsch-Mitzenmacher) derives the hash functions of rows from two hashes.
+        return row * width + ((hash + row * step) & mask);
+    }
+
+    private static int secondHash(int hash) {
+        // Odd step, so that the rows differ even for a width of 2^n.
+        return mix(hash ^ 0x9E3779B9) | 1;
+    }
+
+    private static int mix(int h) {
+        // Finalizer of MurmurHash3.
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
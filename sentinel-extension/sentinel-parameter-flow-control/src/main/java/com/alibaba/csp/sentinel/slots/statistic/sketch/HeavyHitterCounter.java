@@ -0,0 +1,193 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.sketch;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>Fixed-memory counter of parameter values in fixed windows, as an alternative of the exact
+ * per-value counters for parameters of high cardinality (e.g. user IDs or IPs).</p>
+ * <p>All values are counted by a {@link CountMinSketch}, which might overestimate (but never underestimate)
+ * the count of a value. Once the estimated count of a value reaches half of its threshold, the value is
+ * promoted to a Space-Saving table of heavy hitters, where it is counted exactly for the rest of the
+ * window. So a heavy hitter won't be over-admitted, while a light value might be blocked by mistake
+ * when the sketch is too narrow for the traffic.</p>
+ * <p>The sketch is double-buffered: a new window swaps in the spare sketch (which has been cleared), and the
+ * sketch of the previous window is cleared outside the lock before it becomes the spare. So the counter
+ * holds up to two sketches, and requests never wait for the clearing.</p>
+ *
+ * @since 1.8.1
+ */
+public class HeavyHitterCounter {
+
+    public static final int DEFAULT_DEPTH = 4;
+
+    private final long windowLengthMs;
+    private final int depth;
+    private final int width;
+    private final SpaceSavingTable heavyHitters;
+
+    private volatile Window window;
+    /**
+     * The cleared sketch for the next window, or null if it's being cleared.
+     */
+    private CountMinSketch spare;
+
+    /**
+     * Create a counter with the sketch width and heavy hitter capacity of {@link SentinelConfig}.
+     *
+     * @param windowLengthMs length of the fixed window in milliseconds
+     */
+    public HeavyHitterCounter(long windowLengthMs) {
+        this(windowLengthMs, DEFAULT_DEPTH, SentinelConfig.paramSketchWidth(),
+            SentinelConfig.paramSketchHeavyHitterCapacity());
+    }
+
+    public HeavyHitterCounter(long windowLengthMs, int depth, int width, int heavyHitterCapacity) {
+        AssertUtil.isTrue(windowLengthMs > 0, "windowLengthMs should be positive");
+        AssertUtil.isTrue(heavyHitterCapacity > 0, "heavyHitterCapacity should be positive");
+        this.windowLengthMs = windowLengthMs;
+        this.depth = depth;
+        this.width = width;
+        this.window = new Window(-1, new CountMinSketch(depth, width));
+        this.heavyHitters = new SpaceSavingTable(heavyHitterCapacity);
+    }
+
+    /**
+     * Try to acquire the count for the value in the window of given time.
+     *
+     * @param value        a non-null parameter value
+     * @param acquireCount count to acquire
+     * @param maxCount     max count of the value in a window
+     * @param now          current time in milliseconds
+     * @return true if acquired, otherwise false
+     */
+    public boolean tryAcquire(Object value, int acquireCount, long maxCount, long now) {
+        Window current = windowOf(now);
+        CountMinSketch sketch = current.sketch;
+        int hash = CountMinSketch.hash(value);
+
+        SpaceSavingTable.Counter counter = heavyHitters.get(value);
+        if (counter != null) {
+            int result = counter.tryAcquire(current.id, acquireCount, maxCount);
+            if (result == SpaceSavingTable.Counter.BLOCKED) {
+                return false;
+            }
+            if (result == SpaceSavingTable.Counter.ACQUIRED) {
+                // Keep the sketch updated, in case that the value is evicted from the table later.
+                sketch.add(hash, acquireCount);
+                return true;
+            }
+            // The counter is of a previous window, so count the value with the sketch.
+        }
+
+        if (sketch.estimate(hash) + acquireCount > maxCount) {
+            return false;
+        }
+        int estimated = sketch.add(hash, acquireCount);
+        if (estimated > maxCount) {
+            // Concurrent requests of the value have taken the remaining count.
+            return false;
+        }
+        if (estimated >= (maxCount + 1) / 2) {
+            heavyHitters.promote(value, estimated, current.id);
+        }
+        return true;
+    }
+
+    /**
+     * Estimate the count of the value in current window.
+     *
+     * @param value a non-null parameter value
+     * @param now   current time in milliseconds
+     * @return the exact count for a heavy hitter, otherwise the estimated count
+     */
+    public long estimate(Object value, long now) {
+        Window current = windowOf(now);
+        SpaceSavingTable.Counter counter = heavyHitters.get(value);
+        if (counter != null) {
+            long count = counter.countIn(current.id);
+            if (count >= 0) {
+                return count;
+            }
+        }
+        return current.sketch.estimate(CountMinSketch.hash(value));
+    }
+
+    private Window windowOf(long now) {
+        long windowId = now / windowLengthMs;
+        Window current = this.window;
+        if (windowId <= current.id) {
+            return current;
+        }
+        CountMinSketch retired;
+        synchronized (this) {
+            current = this.window;
+            if (windowId <= current.id) {
+                return current;
+            }
+            CountMinSketch next = spare;
+            spare = null;
+            if (next == null) {
+                // The spare is still being cleared (or not created yet).
+                next = new CountMinSketch(depth, width);
+            }
+            retired = current.sketch;
+            current = new Window(windowId, next);
+            // Counters of the heavy hitters are reset lazily once they are promoted again.
+            this.window = current;
+        }
+        // Requests that still hold the previous window may add to the retired sketch while it's being cleared,
+        // which only makes the next window overestimate (but never underestimate) a few values.
+        retired.clear();
+        synchronized (this) {
+            if (spare == null) {
+                spare = retired;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * @return amount of values tracked in the heavy hitter table
+     */
+    public int getHeavyHitterCount() {
+        return heavyHitters.size();
+    }
+
+    /**
+     * @return the sketch of current window
+     */
+    public CountMinSketch getSketch() {
+        return window.sketch;
+    }
+
+    public long getWindowLengthMs() {
+        return windowLengthMs;
+    }
+
+    private static final class Window {
+
+        private final long id;
+        private final CountMinSketch sketch;
+
+        private Window(long id, CountMinSketch sketch) {
+            this.id = id;
+            this.sketch = sketch;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.sketch;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>A Space-Saving table that counts the top-K values (heavy hitters) of the current window exactly.</p>
+ * <p>A value is promoted with its estimated count. When the table is full, the value with the least count
+ * (or of a stale window) is evicted, only if the promoted value has a larger count, as in the
+ * Space-Saving algorithm.</p>
+ *
+ * @since 1.8.1
+ */
+class SpaceSavingTable {
+
+    private final int capacity;
+    private final Map<Object, Counter> counters;
+    private final Object lock = new Object();
+
+    /**
+     * Lower bound of the least count in the table of window {@link #minCountWindowId}, so that the values
+     * with no chance to be promoted are rejected without the lock.
+     */
+    private volatile long minCount = 0;
+    private volatile long minCountWindowId = -1;
+
+    SpaceSavingTable(int capacity) {
+        this.capacity = capacity;
+        this.counters = new ConcurrentHashMap<>(capacity * 4 / 3 + 1);
+    }
+
+    Counter get(Object value) {
+        return counters.get(value);
+    }
+
+    /**
+     * Promote the value into the table with the given count.
+     *
+     * @param value    the value
+     * @param count    (estimated) count of the value in the window
+     * @param windowId id of current window
+     * @return the counter of the value, or null if the value is not promoted
+     */
+    Counter promote(Object value, long count, long windowId) {
+        if (counters.size() >= capacity && minCountWindowId == windowId && count <= minCount) {
+            return null;
+        }
+        synchronized (lock) {
+            Counter counter = counters.get(value);
+            if (counter != null) {
+                counter.resetIfStale(count, windowId);
+                return counter;
+            }
+            if (counters.size() >= capacity && !evictLessThan(count, windowId)) {
+                return null;
+            }
+            counter = new Counter(count, windowId);
+            counters.put(value, counter);
+            return counter;
+        }
+    }
+
+    private boolean evictLessThan(long count, long windowId) {
+        Object victim = null;
+        long victimCount = Long.MAX_VALUE;
+        for (Map.Entry<Object, Counter> entry : counters.entrySet()) {
+            Counter counter = entry.getValue();
+            long current = Math.max(counter.countIn(windowId), 0);
+            if (current < victimCount) {
+                victim = entry.getKey();
+                victimCount = current;
+                if (current == 0) {
+                    break;
+                }
+            }
+        }
+        if (victimCount > 0) {
+            this.minCount = victimCount;
+            this.minCountWindowId = windowId;
+        }
+        if (victim == null || victimCount >= count) {
+            return false;
+        }
+        counters.remove(victim);
+        return true;
+    }
+
+    int size() {
+        return counters.size();
+    }
+
+    /**
+     * Exact counter of a heavy hitter. The count and the window are packed into one atomic long
+     * ({@code window << 32 | count}), so that they are always read and updated together. The window is kept
+     * by its lower 32 bits, which is unambiguous unless a counter is left untouched for 2^32 windows.
+     */
+    static class Counter {
+
+        static final int ACQUIRED = 1;
+        static final int BLOCKED = 0;
+        static final int STALE = -1;
+
+        private static final long COUNT_MASK = 0xFFFFFFFFL;
+
+        private final AtomicLong state;
+
+        Counter(long count, long windowId) {
+            this.state = new AtomicLong(pack(count, windowId));
+        }
+
+        private static long pack(long count, long windowId) {
+            return (windowId << 32) | Math.min(count, COUNT_MASK);
+        }
+
+        private static boolean isWindow(long state, long windowId) {
+            return (int)(state >>> 32) == (int)windowId;
+        }
+
+        /**
+         * @param windowId id of current window
+         * @return the count in current window, or -1 if the counter is of another window
+         */
+        long countIn(long windowId) {
+            long current = state.get();
+            return isWindow(current, windowId) ? current & COUNT_MASK : -1;
+        }
+
+        /**
+         * Try to acquire the count in current window.
+         *
+         * @return {@link #ACQUIRED}, {@link #BLOCKED}, or {@link #STALE} if the counter is of another window
+         */
+        int tryAcquire(long windowId, int acquireCount, long maxCount) {
+            long limit = Math.min(maxCount, COUNT_MASK);
+            while (true) {
+                long current = state.get();
+                if (!isWindow(current, windowId)) {
+                    return STALE;
+                }
+                long count = current & COUNT_MASK;
+                if (count + acquireCount > limit) {
+                    return BLOCKED;
+                }
+                if (state.compareAndSet(current, current + acquireCount)) {
+                    return ACQUIRED;
+                }
+            }
+        }
+
+        void resetIfStale(long count, long windowId) {
+            while (true) {
+                long current = state.get();
+                if (isWindow(current, windowId) || state.compareAndSet(current, pack(count, windowId))) {
+                    return;
+                }
+            }
+        }
+    }
+}
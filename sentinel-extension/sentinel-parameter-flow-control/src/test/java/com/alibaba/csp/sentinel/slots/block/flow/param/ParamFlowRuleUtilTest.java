@@ -7,6 +7,8 @@ import java.util.Map;
 
 import org.junit.Test;
 
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+
 import static org.junit.Assert.*;
 
 /**
@@ -43,6 +45,28 @@ public class ParamFlowRuleUtilTest {
         assertTrue(ParamFlowRuleUtil.isValidRule(goodRule));
     }
 
+    @Test
+    public void testCheckMetricTypeOfRule() {
+        ParamFlowRule rule = new ParamFlowRule("abc")
+            .setCount(10)
+            .setParamIdx(1);
+        assertFalse(ParamFlowRuleUtil.isSketchMetricRule(rule));
+
+        rule.setMetricType(RuleConstant.PARAM_METRIC_TYPE_SKETCH);
+        assertTrue(ParamFlowRuleUtil.isValidRule(rule));
+        assertTrue(ParamFlowRuleUtil.isSketchMetricRule(rule));
+
+        // The sketch does not apply to rate limiter or thread count rules.
+        rule.setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER);
+        assertFalse(ParamFlowRuleUtil.isSketchMetricRule(rule));
+        rule.setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_DEFAULT)
+            .setGrade(RuleConstant.FLOW_GRADE_THREAD);
+        assertFalse(ParamFlowRuleUtil.isSketchMetricRule(rule));
+
+        rule.setMetricType(2);
+        assertFalse(ParamFlowRuleUtil.isValidRule(rule));
+    }
+
     @Test
     public void testParseHotParamExceptionItemsFailure() {
         String valueB = "Sentinel";
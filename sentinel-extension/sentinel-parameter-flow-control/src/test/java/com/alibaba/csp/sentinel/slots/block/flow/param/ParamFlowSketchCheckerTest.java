@@ -0,0 +1,115 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.param;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.test.AbstractTimeBasedTest;
+
+/**
+ * Test cases for QPS checks of hot-parameter rules with sketch statistics.
+ */
+public class ParamFlowSketchCheckerTest extends AbstractTimeBasedTest {
+
+    @Test
+    public void testParamFlowSketchCheckSingleQps() {
+        final String resourceName = "testParamFlowSketchCheckSingleQps";
+        final ResourceWrapper resourceWrapper = new StringResourceWrapper(resourceName, EntryType.IN);
+        int paramIdx = 0;
+
+        long threshold = 5L;
+
+        ParamFlowRule rule = new ParamFlowRule(resourceName)
+            .setCount(threshold)
+            .setParamIdx(paramIdx)
+            .setMetricType(RuleConstant.PARAM_METRIC_TYPE_SKETCH);
+
+        String valueA = "valueA";
+        String valueB = "valueB";
+        ParameterMetric metric = new ParameterMetric();
+        ParameterMetricStorage.getMetricsMap().put(resourceWrapper.getName(), metric);
+        metric.initialize(rule);
+
+        // We mock the time directly to avoid unstable behaviour.
+        setCurrentMillis(System.currentTimeMillis() / 1000 * 1000);
+
+        for (int i = 0; i < threshold; i++) {
+            assertTrue(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, valueA));
+        }
+        assertFalse(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, valueA));
+        assertTrue(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, valueB));
+
+        sleep(500);
+        assertFalse(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, valueA));
+
+        // A new window.
+        sleep(500);
+        assertTrue(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, (int)threshold, valueA));
+        assertFalse(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, valueA));
+    }
+
+    @Test
+    public void testParamFlowSketchCheckWithExceptionItems() {
+        final String resourceName = "testParamFlowSketchCheckWithExceptionItems";
+        final ResourceWrapper resourceWrapper = new StringResourceWrapper(resourceName, EntryType.IN);
+        int paramIdx = 0;
+
+        long threshold = 5L;
+        int thresholdB = 0;
+
+        ParamFlowRule rule = new ParamFlowRule(resourceName)
+            .setCount(threshold)
+            .setParamIdx(paramIdx)
+            .setMetricType(RuleConstant.PARAM_METRIC_TYPE_SKETCH);
+
+        String valueA = "valueA";
+        String valueB = "valueB";
+        // Directly set parsed map for test.
+        rule.setParsedHotItems(Collections.<Object, Integer>singletonMap(valueB, thresholdB));
+
+        ParameterMetric metric = new ParameterMetric();
+        ParameterMetricStorage.getMetricsMap().put(resourceWrapper.getName(), metric);
+        metric.initialize(rule);
+
+        setCurrentMillis(System.currentTimeMillis() / 1000 * 1000);
+
+        assertTrue(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, valueA));
+        assertFalse(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, valueB));
+        // Acquiring more than the threshold at once is never allowed.
+        assertFalse(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, (int)threshold + 1, valueA));
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        ParameterMetricStorage.getMetricsMap().clear();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        ParameterMetricStorage.getMetricsMap().clear();
+    }
+}
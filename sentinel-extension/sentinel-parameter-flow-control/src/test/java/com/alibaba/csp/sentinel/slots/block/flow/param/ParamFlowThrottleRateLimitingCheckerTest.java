@@ -28,11 +28,13 @@ import org.junit.Test;
 import com.alibaba.csp.sentinel.EntryType;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.DeferredWait;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.slots.statistic.cache.ConcurrentLinkedHashMapWrapper;
 import com.alibaba.csp.sentinel.util.TimeUtil;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author jialiang.linjl
@@ -85,6 +87,38 @@ public class ParamFlowThrottleRateLimitingCheckerTest {
         assertEquals(successCount, threshold);
     }
 
+    @Test
+    public void testThrottleCheckWithDeferredWait() {
+        final String resourceName = "testThrottleCheckWithDeferredWait";
+        final ResourceWrapper resourceWrapper = new StringResourceWrapper(resourceName, EntryType.IN);
+
+        // Each request of the value costs 100 ms.
+        ParamFlowRule rule = new ParamFlowRule(resourceName)
+            .setCount(10)
+            .setParamIdx(0)
+            .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER)
+            .setMaxQueueingTimeMs(1000);
+
+        String valueA = "valueA";
+        ParameterMetric metric = new ParameterMetric();
+        ParameterMetricStorage.getMetricsMap().put(resourceWrapper.getName(), metric);
+        metric.getRuleTimeCounterMap().put(rule, new ConcurrentLinkedHashMapWrapper<Object, AtomicLong>(4000));
+
+        long start = System.currentTimeMillis();
+        DeferredWait.begin();
+        long delayMs;
+        try {
+            assertTrue(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, valueA));
+            assertTrue(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, valueA));
+            assertTrue(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, valueA));
+        } finally {
+            delayMs = DeferredWait.end();
+        }
+        // The waiting is handed off to the caller instead of sleeping.
+        assertTrue(System.currentTimeMillis() - start < 100);
+        assertTrue("Unexpected delay: " + delayMs, delayMs > 100 && delayMs <= 200);
+    }
+
     @Test
     public void testSingleValueThrottleCheckQpsMultipleThreads() throws Exception {
         final String resourceName = "testSingleValueThrottleCheckQpsMultipleThreads";
@@ -0,0 +1,102 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.param;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Test cases for {@link ParamTokenBucket}.
+ */
+public class ParamTokenBucketTest {
+
+    private static final long DURATION_MS = 1000;
+
+    @Test
+    public void testAcquireAndRefill() {
+        long now = 100000L;
+        ParamTokenBucket bucket = new ParamTokenBucket(4, now);
+        assertTrue(bucket.tryAcquire(3, 5, 5, DURATION_MS, now));
+        assertTrue(bucket.tryAcquire(1, 5, 5, DURATION_MS, now + 500));
+        assertFalse(bucket.tryAcquire(1, 5, 5, DURATION_MS, now + DURATION_MS));
+        assertEquals(0, bucket.getRestTokens());
+
+        // The tokens are replenished after the window has passed, and at most to the capacity.
+        assertTrue(bucket.tryAcquire(5, 5, 5, DURATION_MS, now + DURATION_MS * 3));
+        assertEquals(now + DURATION_MS * 3, bucket.getLastRefillTime());
+        assertFalse(bucket.tryAcquire(1, 5, 5, DURATION_MS, now + DURATION_MS * 3));
+
+        // A failed acquire does not consume the refill.
+        assertFalse(bucket.tryAcquire(10, 5, 8, DURATION_MS, now + DURATION_MS * 5));
+        assertEquals(now + DURATION_MS * 3, bucket.getLastRefillTime());
+        assertTrue(bucket.tryAcquire(8, 5, 8, DURATION_MS, now + DURATION_MS * 5));
+    }
+
+    @Test
+    public void testRefillWithoutOverflow() {
+        ParamTokenBucket bucket = new ParamTokenBucket(0, 0);
+        assertTrue(bucket.tryAcquire(1, Integer.MAX_VALUE, Integer.MAX_VALUE, DURATION_MS, Long.MAX_VALUE / 2));
+        assertEquals(Integer.MAX_VALUE - 1, bucket.getRestTokens());
+    }
+
+    @Test
+    public void testNoOverAdmissionWith64Threads() throws Exception {
+        final int threadCount = 64;
+        final long maxCount = 1000;
+        final long now = 100000L;
+        // Exhausted bucket, so that all threads race for the same refill.
+        final ParamTokenBucket bucket = new ParamTokenBucket(0, now);
+
+        for (int round = 1; round <= 5; round++) {
+            final long currentTime = now + round * (DURATION_MS + 1);
+            final AtomicInteger passCount = new AtomicInteger();
+            final CyclicBarrier barrier = new CyclicBarrier(threadCount);
+            final CountDownLatch latch = new CountDownLatch(threadCount);
+            for (int i = 0; i < threadCount; i++) {
+                Thread t = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            barrier.await();
+                            for (int j = 0; j < 100; j++) {
+                                if (bucket.tryAcquire(1, maxCount, maxCount, DURATION_MS, currentTime)) {
+                                    passCount.incrementAndGet();
+                                }
+                            }
+                        } catch (Exception e) {
+                            e.printStackTrace();
+                        } finally {
+                            latch.countDown();
+                        }
+                    }
+                });
+                t.setName("sentinel-param-token-bucket-test-" + i);
+                t.start();
+            }
+            latch.await();
+
+            assertEquals(maxCount, passCount.get());
+            assertEquals(0, bucket.getRestTokens());
+        }
+    }
+}
@@ -16,8 +16,10 @@
 package com.alibaba.csp.sentinel.slots.block.flow.param;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
@@ -29,6 +31,8 @@ import org.junit.Test;
 
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.slots.statistic.cache.CacheMap;
+import com.alibaba.csp.sentinel.slots.statistic.cache.ConcurrentLongCounterMap;
+import com.alibaba.csp.sentinel.slots.statistic.sketch.HeavyHitterCounter;
 
 /**
  * Test cases for {@link ParameterMetric}.
@@ -48,11 +52,15 @@ public class ParameterMetricTest {
         metric.initialize(rule);
         CacheMap<Object, AtomicInteger> threadCountMap = metric.getThreadCountMap().get(rule.getParamIdx());
         assertNotNull(threadCountMap);
+        assertNotNull(metric.getPrimitiveThreadCountMap().get(rule.getParamIdx()));
         CacheMap<Object, AtomicLong> timeRecordMap = metric.getRuleTimeCounter(rule);
         assertNotNull(timeRecordMap);
+        CacheMap<Object, ParamTokenBucket> tokenBucketMap = metric.getRuleTokenBucket(rule);
+        assertNotNull(tokenBucketMap);
         metric.initialize(rule);
         assertSame(threadCountMap, metric.getThreadCountMap().get(rule.getParamIdx()));
         assertSame(timeRecordMap, metric.getRuleTimeCounter(rule));
+        assertSame(tokenBucketMap, metric.getRuleTokenBucket(rule));
 
         ParamFlowRule rule2 = new ParamFlowRule("abc")
             .setParamIdx(1);
@@ -69,11 +77,63 @@ public class ParameterMetricTest {
             .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER);
         metric.initialize(rule3);
         assertNotSame(timeRecordMap, metric.getRuleTimeCounter(rule3));
+        // The token buckets are not used by rate limiter rules.
+        assertNull(metric.getRuleTokenBucket(rule3));
 
         metric.clear();
         assertEquals(0, metric.getThreadCountMap().size());
+        assertEquals(0, metric.getPrimitiveThreadCountMap().size());
         assertEquals(0, metric.getRuleTimeCounterMap().size());
-        assertEquals(0, metric.getRuleTokenCounterMap().size());
+        assertEquals(0, metric.getRuleTokenBucketMap().size());
+    }
+
+    @Test
+    public void testDeprecatedRuleTokenCounter() {
+        ParameterMetric metric = new ParameterMetric();
+        ParamFlowRule rule = new ParamFlowRule("abc")
+            .setParamIdx(0);
+        assertNull(metric.getRuleTokenCounter(rule));
+
+        metric.initialize(rule);
+        metric.getRuleTokenBucket(rule).put("a", new ParamTokenBucket(3, 0));
+        CacheMap<Object, AtomicLong> tokenCounter = metric.getRuleTokenCounter(rule);
+        assertEquals(1, tokenCounter.size());
+        assertEquals(3, tokenCounter.get("a").get());
+    }
+
+    @Test
+    public void testInitAndClearSketchParameterMetric() {
+        ParameterMetric metric = new ParameterMetric();
+
+        ParamFlowRule rule = new ParamFlowRule("abc")
+            .setParamIdx(1)
+            .setDurationInSec(2)
+            .setMetricType(RuleConstant.PARAM_METRIC_TYPE_SKETCH);
+        metric.initialize(rule);
+        HeavyHitterCounter sketchCounter = metric.getRuleSketchCounter(rule);
+        assertNotNull(sketchCounter);
+        assertEquals(2000, sketchCounter.getWindowLengthMs());
+        // The exact counters are not created for sketch rules.
+        assertNull(metric.getRuleTimeCounter(rule));
+        assertNull(metric.getRuleTokenBucket(rule));
+        assertNotNull(metric.getThreadCountMap().get(rule.getParamIdx()));
+        metric.initialize(rule);
+        assertSame(sketchCounter, metric.getRuleSketchCounter(rule));
+
+        // Fall back to exact counters for rate limiter rules.
+        ParamFlowRule rule2 = new ParamFlowRule("abc")
+            .setParamIdx(1)
+            .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER)
+            .setMetricType(RuleConstant.PARAM_METRIC_TYPE_SKETCH);
+        metric.initialize(rule2);
+        assertNull(metric.getRuleSketchCounter(rule2));
+        assertNotNull(metric.getRuleTimeCounter(rule2));
+
+        metric.clearForRule(rule);
+        assertNull(metric.getRuleSketchCounter(rule));
+        metric.initialize(rule);
+        metric.clear();
+        assertEquals(0, metric.getRuleSketchCounterMap().size());
     }
 
     @Test
@@ -109,11 +169,13 @@ public class ParameterMetricTest {
                 break;
         }
 
-        assertEquals(1, metric.getThreadCountMap().size());
-        CacheMap<Object, AtomicInteger> threadCountMap = metric.getThreadCountMap().get(rule.getParamIdx());
+        assertEquals(1, metric.getPrimitiveThreadCountMap().size());
+        ConcurrentLongCounterMap threadCountMap = metric.getPrimitiveThreadCountMap().get(rule.getParamIdx());
         assertEquals(v.length, threadCountMap.size());
+        // The long values are not kept in the general thread count map.
+        assertEquals(0, metric.getThreadCountMap().get(rule.getParamIdx()).size());
         for (long vs : v) {
-            assertEquals(1, threadCountMap.get(vs).get());
+            assertEquals(1, metric.getThreadCount(rule.getParamIdx(), vs));
         }
 
         for (int i = 1; i < n; i++) {
@@ -132,11 +194,9 @@ public class ParameterMetricTest {
                     break;
             }
         }
-        assertEquals(1, metric.getThreadCountMap().size());
-        threadCountMap = metric.getThreadCountMap().get(rule.getParamIdx());
         assertEquals(v.length, threadCountMap.size());
         for (long vs : v) {
-            assertEquals(n, threadCountMap.get(vs).get());
+            assertEquals(n, metric.getThreadCount(rule.getParamIdx(), vs));
         }
 
         for (int i = 1; i < n; i++) {
@@ -155,11 +215,9 @@ public class ParameterMetricTest {
                     break;
             }
         }
-        assertEquals(1, metric.getThreadCountMap().size());
-        threadCountMap = metric.getThreadCountMap().get(rule.getParamIdx());
         assertEquals(v.length, threadCountMap.size());
         for (long vs : v) {
-            assertEquals(1, threadCountMap.get(vs).get());
+            assertEquals(1, metric.getThreadCount(rule.getParamIdx(), vs));
         }
 
         switch (paramType) {
@@ -176,9 +234,36 @@ public class ParameterMetricTest {
                 metric.decreaseThreadCount(v[2]);
                 break;
         }
-        assertEquals(1, metric.getThreadCountMap().size());
-        threadCountMap = metric.getThreadCountMap().get(rule.getParamIdx());
         assertEquals(0, threadCountMap.size());
+        for (long vs : v) {
+            assertEquals(0, metric.getThreadCount(rule.getParamIdx(), vs));
+        }
+    }
+
+    @Test
+    public void testAddAndDecreaseThreadCountOfObjectValues() {
+        ParamFlowRule rule = new ParamFlowRule().setParamIdx(0);
+        ParameterMetric metric = new ParameterMetric();
+        metric.initialize(rule);
+
+        metric.addThreadCount("a");
+        metric.addThreadCount(Arrays.asList("a", "b"));
+        metric.addThreadCount(1);
+        CacheMap<Object, AtomicInteger> threadCountMap = metric.getThreadCountMap().get(rule.getParamIdx());
+        assertEquals(2, threadCountMap.size());
+        assertEquals(2, metric.getThreadCount(rule.getParamIdx(), "a"));
+        assertEquals(1, metric.getThreadCount(rule.getParamIdx(), "b"));
+        assertEquals(1, metric.getThreadCount(rule.getParamIdx(), 1));
+
+        metric.decreaseThreadCount((Object)new String[] {"a", "b"});
+        metric.decreaseThreadCount(1);
+        assertEquals(1, threadCountMap.size());
+        assertEquals(1, metric.getThreadCount(rule.getParamIdx(), "a"));
+        assertEquals(0, metric.getThreadCount(rule.getParamIdx(), "b"));
+        assertEquals(0, metric.getThreadCount(rule.getParamIdx(), 1));
+        // Decreasing absent values takes no effect.
+        metric.decreaseThreadCount("c");
+        assertFalse(threadCountMap.containsKey("c"));
     }
 
     private static final int PARAM_TYPE_NORMAL = 0;
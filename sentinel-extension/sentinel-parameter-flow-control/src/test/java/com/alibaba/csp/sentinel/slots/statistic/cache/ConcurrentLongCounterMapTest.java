@@ -0,0 +1,126 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+public class ConcurrentLongCounterMapTest {
+
+    @Test
+    public void testIncrementAndDecrement() {
+        ConcurrentLongCounterMap map = new ConcurrentLongCounterMap(100);
+        assertEquals(128, map.getCapacity());
+
+        assertEquals(1, map.increment(42L));
+        assertEquals(2, map.increment(42L));
+        assertEquals(1, map.increment(-1L));
+        assertEquals(1, map.increment(0L));
+        assertEquals(2, map.get(42L));
+        assertEquals(1, map.get(0L));
+        assertEquals(0, map.get(7L));
+        assertEquals(3, map.size());
+
+        assertEquals(1, map.decrement(42L));
+        assertEquals(0, map.decrement(42L));
+        // Never goes below zero.
+        assertEquals(0, map.decrement(42L));
+        assertEquals(0, map.decrement(7L));
+        assertEquals(0, map.get(42L));
+        assertEquals(2, map.size());
+
+        // Idle key can be counted again.
+        assertEquals(1, map.increment(42L));
+    }
+
+    @Test
+    public void testBoundedCapacityAndKeepActiveKeys() {
+        ConcurrentLongCounterMap map = new ConcurrentLongCounterMap(1024);
+        int activeKeys = 10;
+        for (long i = 0; i < activeKeys; i++) {
+            map.increment(i);
+        }
+        // A lot of short-lived keys, which should evict each other rather than the active keys.
+        for (long i = activeKeys; i < 100000; i++) {
+            map.increment(i);
+            map.decrement(i);
+        }
+        for (long i = 0; i < activeKeys; i++) {
+            assertEquals(1, map.get(i));
+        }
+        assertEquals(activeKeys, map.size());
+
+        for (long i = 0; i < 100000; i++) {
+            map.increment(i);
+        }
+        assertTrue(map.size() <= map.getCapacity());
+    }
+
+    @Test
+    public void testConcurrentIncrementAndDecrement() throws Exception {
+        final ConcurrentLongCounterMap map = new ConcurrentLongCounterMap(4096);
+        final int keys = 100;
+        final int threads = 16;
+        final int rounds = 1000;
+
+        runConcurrently(threads, new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < rounds; i++) {
+                    for (long key = 0; key < keys; key++) {
+                        map.increment(key);
+                    }
+                }
+            }
+        });
+        for (long key = 0; key < keys; key++) {
+            assertEquals(threads * rounds, map.get(key));
+        }
+
+        runConcurrently(threads, new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < rounds; i++) {
+                    for (long key = 0; key < keys; key++) {
+                        map.decrement(key);
+                    }
+                }
+            }
+        });
+        for (long key = 0; key < keys; key++) {
+            assertEquals(0, map.get(key));
+        }
+        assertEquals(0, map.size());
+    }
+
+    private void runConcurrently(int threads, final Runnable task) throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    task.run();
+                    latch.countDown();
+                }
+            }).start();
+        }
+        latch.await();
+    }
+}
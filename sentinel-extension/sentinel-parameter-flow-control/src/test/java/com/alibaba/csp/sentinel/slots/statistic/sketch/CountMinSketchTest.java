@@ -0,0 +1,60 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.sketch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class CountMinSketchTest {
+
+    @Test
+    public void testWidthRoundedToPowerOfTwo() {
+        CountMinSketch sketch = new CountMinSketch(4, 1000);
+        assertEquals(1024, sketch.getWidth());
+        assertEquals(4 * 1024 * 4, sketch.getMemorySize());
+        assertEquals(1, new CountMinSketch(1, 1).getWidth());
+    }
+
+    @Test
+    public void testNeverUnderestimate() {
+        CountMinSketch sketch = new CountMinSketch(4, 256);
+        int distinct = 10000;
+        for (int i = 0; i < distinct; i++) {
+            int hash = CountMinSketch.hash(i);
+            for (int j = 0; j <= i % 3; j++) {
+                sketch.add(hash, 1);
+            }
+        }
+        for (int i = 0; i < distinct; i++) {
+            assertTrue(sketch.estimate(CountMinSketch.hash(i)) >= i % 3 + 1);
+        }
+    }
+
+    @Test
+    public void testAddAndClear() {
+        CountMinSketch sketch = new CountMinSketch(4, 1 << 16);
+        int hash = CountMinSketch.hash("abc");
+        assertEquals(0, sketch.estimate(hash));
+        assertEquals(3, sketch.add(hash, 3));
+        assertEquals(5, sketch.add(hash, 2));
+        assertEquals(5, sketch.estimate(hash));
+
+        sketch.clear();
+        assertEquals(0, sketch.estimate(hash));
+    }
+}
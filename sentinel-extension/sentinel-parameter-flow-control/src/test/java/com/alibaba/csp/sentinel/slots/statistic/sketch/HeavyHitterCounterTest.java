@@ -0,0 +1,170 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.sketch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class HeavyHitterCounterTest {
+
+    private static final long NOW = 1000000L;
+
+    @Test
+    public void testHeavyHittersNeverOverAdmittedWithHighCardinality() {
+        HeavyHitterCounter counter = new HeavyHitterCounter(1000);
+        int lightKeys = 1000000;
+        int heavyKeys = 100;
+        long threshold = 20;
+        int[] heavyAdmitted = new int[heavyKeys];
+        int lightBlocked = 0;
+
+        for (int i = 0; i < lightKeys; i++) {
+            if (!counter.tryAcquire("user-" + i, 1, threshold, NOW)) {
+                lightBlocked++;
+            }
+            if (i % 100 == 0) {
+                int heavy = (i / 100) % heavyKeys;
+                if (counter.tryAcquire("heavy-" + heavy, 1, threshold, NOW)) {
+                    heavyAdmitted[heavy]++;
+                }
+            }
+        }
+
+        for (int admitted : heavyAdmitted) {
+            assertTrue(admitted <= threshold);
+            assertTrue(admitted > 0);
+        }
+        assertTrue(counter.getHeavyHitterCount() >= heavyKeys);
+        // Light values are blocked only by the collisions of the sketch.
+        assertTrue("Too many false blocks: " + lightBlocked, lightBlocked < lightKeys / 100);
+    }
+
+    @Test
+    public void testNewWindow() {
+        HeavyHitterCounter counter = new HeavyHitterCounter(1000);
+        assertTrue(counter.tryAcquire("a", 3, 3, NOW));
+        assertFalse(counter.tryAcquire("a", 1, 3, NOW + 999));
+        assertEquals(3, counter.estimate("a", NOW + 999));
+
+        assertEquals(0, counter.estimate("a", NOW + 1000));
+        assertTrue(counter.tryAcquire("a", 1, 3, NOW + 1000));
+        assertTrue(counter.tryAcquire("a", 2, 3, NOW + 1000));
+        assertFalse(counter.tryAcquire("a", 1, 3, NOW + 1000));
+    }
+
+    @Test
+    public void testSketchSwappedOnNewWindow() {
+        HeavyHitterCounter counter = new HeavyHitterCounter(1000, 4, 1024, 2);
+        assertTrue(counter.tryAcquire("a", 1, 10, NOW));
+        CountMinSketch first = counter.getSketch();
+
+        assertTrue(counter.tryAcquire("a", 1, 10, NOW + 1000));
+        CountMinSketch second = counter.getSketch();
+        assertNotSame(first, second);
+        assertEquals(1, second.estimate(CountMinSketch.hash("a")));
+
+        // The sketch of the previous window has been cleared and is reused.
+        assertEquals(0, counter.estimate("a", NOW + 2000));
+        assertSame(first, counter.getSketch());
+    }
+
+    @Test
+    public void testStaleHeavyHitterCountedBySketch() {
+        HeavyHitterCounter counter = new HeavyHitterCounter(1000, 4, 1024, 2);
+        assertTrue(counter.tryAcquire("a", 8, 10, NOW));
+        assertEquals(1, counter.getHeavyHitterCount());
+
+        // The counter of the previous window neither blocks nor is reused until promoted again.
+        assertTrue(counter.tryAcquire("a", 4, 10, NOW + 1000));
+        assertEquals(4, counter.estimate("a", NOW + 1000));
+        assertTrue(counter.tryAcquire("a", 2, 10, NOW + 1000));
+        assertEquals(6, counter.estimate("a", NOW + 1000));
+        assertFalse(counter.tryAcquire("a", 5, 10, NOW + 1000));
+    }
+
+    @Test
+    public void testCounterWindowAndCountPublishedTogether() {
+        SpaceSavingTable.Counter counter = new SpaceSavingTable.Counter(3, 7);
+        assertEquals(3, counter.countIn(7));
+        assertEquals(-1, counter.countIn(8));
+        assertEquals(SpaceSavingTable.Counter.STALE, counter.tryAcquire(8, 1, 10));
+        assertEquals(SpaceSavingTable.Counter.ACQUIRED, counter.tryAcquire(7, 7, 10));
+        assertEquals(SpaceSavingTable.Counter.BLOCKED, counter.tryAcquire(7, 1, 10));
+
+        counter.resetIfStale(5, 7);
+        assertEquals(10, counter.countIn(7));
+        counter.resetIfStale(5, 8);
+        assertEquals(-1, counter.countIn(7));
+        assertEquals(5, counter.countIn(8));
+        assertEquals(SpaceSavingTable.Counter.ACQUIRED, counter.tryAcquire(8, 5, 10));
+    }
+
+    @Test
+    public void testHeavyHitterEviction() {
+        HeavyHitterCounter counter = new HeavyHitterCounter(1000, 4, 1024, 2);
+        // Values reaching half of the threshold are promoted.
+        assertTrue(counter.tryAcquire("a", 5, 10, NOW));
+        assertTrue(counter.tryAcquire("b", 6, 10, NOW));
+        assertEquals(2, counter.getHeavyHitterCount());
+
+        // c has no more count than the least heavy hitter (a), so it's not promoted.
+        assertTrue(counter.tryAcquire("c", 5, 10, NOW));
+        assertTrue(counter.tryAcquire("d", 1, 10, NOW));
+        assertEquals(2, counter.getHeavyHitterCount());
+
+        // Now c evicts a.
+        assertTrue(counter.tryAcquire("c", 2, 10, NOW));
+        assertEquals(2, counter.getHeavyHitterCount());
+        assertEquals(7, counter.estimate("c", NOW));
+
+        // Evicted values are still counted by the sketch.
+        assertTrue(counter.estimate("a", NOW) >= 5);
+        assertFalse(counter.tryAcquire("a", 6, 10, NOW));
+    }
+
+    @Test
+    public void testConcurrentAcquire() throws Exception {
+        final HeavyHitterCounter counter = new HeavyHitterCounter(1000);
+        final long threshold = 1000;
+        final int threads = 16;
+        final AtomicInteger admitted = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 500; j++) {
+                        if (counter.tryAcquire("hot", 1, threshold, NOW)) {
+                            admitted.incrementAndGet();
+                        }
+                    }
+                    latch.countDown();
+                }
+            }).start();
+        }
+        latch.await();
+
+        assertEquals(threshold, admitted.get());
+    }
+}
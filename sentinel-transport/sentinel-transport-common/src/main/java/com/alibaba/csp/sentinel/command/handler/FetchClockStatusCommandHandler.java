@@ -0,0 +1,44 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.command.handler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.alibaba.csp.sentinel.command.CommandHandler;
+import com.alibaba.csp.sentinel.command.CommandRequest;
+import com.alibaba.csp.sentinel.command.CommandResponse;
+import com.alibaba.csp.sentinel.command.annotation.CommandMapping;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+import com.alibaba.fastjson.JSONObject;
+
+/**
+ * Fetch the working mode and the read rate of the Sentinel clock ({@link TimeUtil}).
+ *
+ * @since 1.8.1
+ */
+@CommandMapping(name = "clockStatus", desc = "get the mode and read rate of the Sentinel clock")
+public class FetchClockStatusCommandHandler implements CommandHandler<String> {
+
+    @Override
+    public CommandResponse<String> handle(CommandRequest request) {
+        Map<String, Object> status = new HashMap<String, Object>();
+        status.put("mode", TimeUtil.currentMode().name());
+        status.put("readQps", TimeUtil.currentReadQps());
+
+        return CommandResponse.ofSuccess(JSONObject.toJSONString(status));
+    }
+}
@@ -67,6 +67,8 @@ public class FetchOriginCommandHandler implements CommandHandler<String> {
         if (cNode == null) {
             return CommandResponse.ofSuccess("Not find cNode with id " + name);
         }
+        sb.append("evicted origins: ").append(cNode.getOriginEvictedCount()).append("\n");
+        sb.append("\n");
         int i = 0;
         int nameLength = 0;
         for (Entry<String, StatisticNode> e : cNode.getOriginCountMap().entrySet()) {
@@ -0,0 +1,49 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.command.handler;
+
+import com.alibaba.csp.sentinel.command.CommandHandler;
+import com.alibaba.csp.sentinel.command.CommandRequest;
+import com.alibaba.csp.sentinel.command.CommandResponse;
+import com.alibaba.csp.sentinel.command.annotation.CommandMapping;
+import com.alibaba.csp.sentinel.metric.overhead.OverheadRecorder;
+import com.alibaba.csp.sentinel.util.StringUtil;
+import com.alibaba.fastjson.JSON;
+
+/**
+ * <p>Get statistics of Sentinel's own overhead (see {@link OverheadRecorder}).</p>
+ * <p>Accepted parameters: {@code enabled={true|false}} turns the statistics on or off,
+ * and {@code reset=true} clears the statistics after fetching.</p>
+ *
+ * @since 1.8.1
+ */
+@CommandMapping(name = "overhead", desc = "get overhead statistics of Sentinel itself, "
+    + "accept param: enabled={true|false}, reset={true|false}")
+public class FetchOverheadCommandHandler implements CommandHandler<String> {
+
+    @Override
+    public CommandResponse<String> handle(CommandRequest request) {
+        String enabled = request.getParam("enabled");
+        if (StringUtil.isNotBlank(enabled)) {
+            OverheadRecorder.setEnabled(Boolean.parseBoolean(enabled.trim()));
+        }
+        String result = JSON.toJSONString(OverheadRecorder.snapshot());
+        if (Boolean.parseBoolean(request.getParam("reset"))) {
+            OverheadRecorder.reset();
+        }
+        return CommandResponse.ofSuccess(result);
+    }
+}
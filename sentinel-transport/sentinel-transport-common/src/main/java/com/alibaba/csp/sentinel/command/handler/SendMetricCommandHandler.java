@@ -33,7 +33,12 @@ import com.alibaba.csp.sentinel.util.StringUtil;
 import com.alibaba.csp.sentinel.util.TimeUtil;
 
 /**
- * Retrieve and aggregate {@link MetricNode} metrics.
+ * <p>Retrieve and aggregate {@link MetricNode} metrics.</p>
+ *
+ * <p>Each line is in the format of {@link MetricNode#toThinString()}. If
+ * {@link SentinelConfig#metricPercentileRtEnabled()} is on, the p50, p99 and p999 response time of resources
+ * with latency histograms enabled (see {@link com.alibaba.csp.sentinel.node.LatencyHistogramProperty})
+ * are appended to the line.</p>
  *
  * @author leyou
  * @author Eric Zhao
@@ -94,9 +99,10 @@ public class SendMetricCommandHandler implements CommandHandler<String> {
         if (StringUtil.isBlank(identity)) {
             addCpuUsageAndLoad(list);
         }
+        boolean withPercentileRt = SentinelConfig.metricPercentileRtEnabled();
         StringBuilder sb = new StringBuilder();
         for (MetricNode node : list) {
-            sb.append(node.toThinString()).append("\n");
+            sb.append(node.toThinString(withPercentileRt)).append("\n");
         }
         return CommandResponse.ofSuccess(sb.toString());
     }
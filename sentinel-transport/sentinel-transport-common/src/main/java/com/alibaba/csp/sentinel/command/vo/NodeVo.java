@@ -44,6 +44,13 @@ public class NodeVo {
     private Long oneMinuteException;
     private Long oneMinuteTotal;
 
+    /**
+     * Evicted origin node count of the resource (only present for cluster nodes).
+     *
+     * @since 1.8.1
+     */
+    private Long originEvictedCount;
+
     private Long timestamp;
 
     /**
@@ -112,6 +119,7 @@ public class NodeVo {
         vo.oneMinutePass = node.totalRequest() - node.blockRequest();
         vo.oneMinuteBlock = node.blockRequest();
         vo.oneMinuteTotal = node.totalRequest();
+        vo.originEvictedCount = node.getOriginEvictedCount();
         vo.timestamp = System.currentTimeMillis();
         return vo;
     }
@@ -228,6 +236,14 @@ public class NodeVo {
         this.oneMinuteTotal = oneMinuteTotal;
     }
 
+    public Long getOriginEvictedCount() {
+        return originEvictedCount;
+    }
+
+    public void setOriginEvictedCount(Long originEvictedCount) {
+        this.originEvictedCount = originEvictedCount;
+    }
+
     public Long getTimestamp() {
         return timestamp;
     }